@@ -0,0 +1,25 @@
+package com.backend.melodyHub.component;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// Defers an update of an in-memory cache or index until the surrounding transaction commits, so concurrent readers
+// cannot refill the cache from rows that are not visible yet, and a rollback leaves nothing behind.
+// Without a transaction the action runs right away.
+public final class AfterCommit {
+    private AfterCommit() {
+    }
+
+    public static void run(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
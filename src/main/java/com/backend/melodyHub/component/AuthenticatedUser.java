@@ -0,0 +1,6 @@
+package com.backend.melodyHub.component;
+
+// The caller resolved from the request token; id comes from the token's uid claim, so most
+// endpoints never need to load the User row.
+public record AuthenticatedUser(Integer id, String login) {
+}
@@ -0,0 +1,43 @@
+package com.backend.melodyHub.component;
+
+import jakarta.annotation.Nullable;
+
+import java.util.Optional;
+
+// The part of a file to send for an HTTP Range header. Only single byte ranges are honoured; a missing,
+// malformed or multi-range header selects the whole file, which RFC 9110 allows a server to do.
+public record ByteRange(long start, long length, boolean partial) {
+
+    // Empty when the range starts past the end of the file (416 Range Not Satisfiable).
+    public static Optional<ByteRange> parse(@Nullable String header, long size) {
+        ByteRange whole = new ByteRange(0, size, false);
+        if (header == null || !header.startsWith("bytes=") || header.indexOf(',') >= 0) return Optional.of(whole);
+        String spec = header.substring("bytes=".length()).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0) return Optional.of(whole);
+        try {
+            String first = spec.substring(0, dash).trim();
+            String last = spec.substring(dash + 1).trim();
+            if (first.isEmpty()) {
+                // Suffix range: the final N bytes.
+                if (last.isEmpty()) return Optional.of(whole);
+                long suffix = Long.parseLong(last);
+                if (suffix <= 0 || size == 0) return Optional.empty();
+                long length = Math.min(suffix, size);
+                return Optional.of(new ByteRange(size - length, length, true));
+            }
+            long start = Long.parseLong(first);
+            long end = last.isEmpty() ? Long.MAX_VALUE : Long.parseLong(last);
+            if (start < 0 || end < start) return Optional.of(whole);
+            if (start >= size) return Optional.empty();
+            end = Math.min(end, size - 1);
+            return Optional.of(new ByteRange(start, end - start + 1, true));
+        } catch (NumberFormatException e) {
+            return Optional.of(whole);
+        }
+    }
+
+    public long end() {
+        return start + length - 1;
+    }
+}
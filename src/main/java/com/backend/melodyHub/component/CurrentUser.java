@@ -0,0 +1,24 @@
+package com.backend.melodyHub.component;
+
+import org.springframework.http.HttpStatus;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Marks an AuthenticatedUser handler parameter resolved from the "token" header by CurrentUserArgumentResolver.
+// A missing or invalid token answers with invalidStatus; the body is invalidMessage, or the validation
+// message when that is empty. A valid token whose user no longer exists answers with missingUserStatus and
+// missingUserMessage, an empty message meaning no body.
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface CurrentUser {
+    HttpStatus invalidStatus() default HttpStatus.BAD_REQUEST;
+
+    String invalidMessage() default "";
+
+    HttpStatus missingUserStatus() default HttpStatus.BAD_REQUEST;
+
+    String missingUserMessage() default "User not found";
+}
@@ -0,0 +1,55 @@
+package com.backend.melodyHub.component;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+// Verifies the "token" header once per request and hands the handler an AuthenticatedUser.
+// Tokens issued before the uid claim existed carry only the login, so those still cost one lookup
+// (usually served by UserCache) until they expire. Tokens stay valid after their user is deleted, so every
+// principal is also checked against UserCache before the handler runs.
+@Component
+public class CurrentUserArgumentResolver implements HandlerMethodArgumentResolver {
+    public static final String TOKEN_HEADER = "token";
+
+    private final JwtUtil jwtUtil;
+    private final UserCache userCache;
+
+    public CurrentUserArgumentResolver(JwtUtil jwtUtil, UserCache userCache) {
+        this.jwtUtil = jwtUtil;
+        this.userCache = userCache;
+    }
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        return parameter.hasParameterAnnotation(CurrentUser.class) && parameter.getParameterType() == AuthenticatedUser.class;
+    }
+
+    @Override
+    public AuthenticatedUser resolveArgument(MethodParameter parameter, ModelAndViewContainer mavContainer, NativeWebRequest webRequest, WebDataBinderFactory binderFactory) {
+        CurrentUser annotation = parameter.getParameterAnnotation(CurrentUser.class);
+        AuthenticatedUser principal;
+        try {
+            principal = authenticate(webRequest.getHeader(TOKEN_HEADER));
+        } catch (InvalidTokenException e) {
+            String message = annotation.invalidMessage().isEmpty() ? e.getMessage() : annotation.invalidMessage();
+            throw new InvalidTokenException(annotation.invalidStatus(), message);
+        }
+        if (userCache.byId(principal.id()).isEmpty()) {
+            throw new InvalidTokenException(annotation.missingUserStatus(), annotation.missingUserMessage());
+        }
+        return principal;
+    }
+
+    public AuthenticatedUser authenticate(String token) {
+        AuthenticatedUser principal = jwtUtil.authenticate(token);
+        if (principal.id() != null) return principal;
+        return userCache.byLogin(principal.login())
+                .map(UserCache.UserSnapshot::id)
+                .map(id -> new AuthenticatedUser(id, principal.login()))
+                .orElseThrow(() -> new InvalidTokenException("Invalid token"));
+    }
+}
@@ -0,0 +1,166 @@
+package com.backend.melodyHub.component;
+
+import com.backend.melodyHub.model.Post;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.Nullable;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Predicate;
+
+// Bounded LRU cache of feed pages (post ids and next cursor) keyed by the normalized getPosts query.
+// Writes drop only the entries whose filters the written post satisfies; a generation counter keeps a page
+// computed before a write from being stored after it. Invalidations inside a transaction take effect after it
+// commits: bumping the generation earlier would let a reader re-cache the old rows for the full TTL.
+@Component
+public class FeedCache {
+    private final int maxSize;
+    private final long ttlNanos;
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long generation;
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter sizeEvictions;
+    private final Counter expiredEvictions;
+    private final Counter invalidations;
+
+    public FeedCache(MeterRegistry meterRegistry, @Value("${feed.cache.max-size:1000}") int maxSize, @Value("${feed.cache.ttl-ms:30000}") long ttlMs) {
+        this.maxSize = maxSize;
+        this.ttlNanos = ttlMs * 1_000_000L;
+        this.hits = Counter.builder("feed.cache.requests").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("feed.cache.requests").tag("result", "miss").register(meterRegistry);
+        this.sizeEvictions = Counter.builder("feed.cache.evictions").tag("cause", "size").register(meterRegistry);
+        this.expiredEvictions = Counter.builder("feed.cache.evictions").tag("cause", "expired").register(meterRegistry);
+        this.invalidations = Counter.builder("feed.cache.evictions").tag("cause", "invalidated").register(meterRegistry);
+        Gauge.builder("feed.cache.size", this, FeedCache::size).register(meterRegistry);
+    }
+
+    public static Key key(@Nullable Integer userId, @Nullable Collection<Integer> categoryIds, @Nullable LocalDateTime since, @Nullable String sort, @Nullable String name, @Nullable String cursor, int limit) {
+        List<Integer> categories = categoryIds == null ? List.of() : categoryIds.stream().distinct().sorted().toList();
+        String sortKey = "date".equalsIgnoreCase(sort) ? "date" : "likes".equalsIgnoreCase(sort) ? "likes" : "id";
+        String nameKey = name == null || name.isEmpty() ? null : name.toLowerCase(Locale.ROOT);
+        String cursorKey = cursor == null || cursor.isBlank() ? null : cursor;
+        return new Key(userId, categories, since, sortKey, nameKey, cursorKey, limit);
+    }
+
+    public synchronized long generation() {
+        return generation;
+    }
+
+    @Nullable
+    public synchronized CachedPage get(Key key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        if (System.nanoTime() - entry.createdAt > ttlNanos) {
+            entries.remove(key);
+            expiredEvictions.increment();
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.page;
+    }
+
+    // Stores the page unless something was invalidated since the caller read the generation.
+    public synchronized void put(Key key, long readGeneration, List<Integer> postIds, @Nullable String nextCursor) {
+        if (readGeneration != generation) return;
+        entries.put(key, new Entry(new CachedPage(postIds, nextCursor), System.nanoTime()));
+        Iterator<Map.Entry<Key, Entry>> eldest = entries.entrySet().iterator();
+        while (entries.size() > maxSize && eldest.hasNext()) {
+            eldest.next();
+            eldest.remove();
+            sizeEvictions.increment();
+        }
+    }
+
+    // For post writes: drops every page the post could appear in, in any sort order.
+    // The post's fields are read now, so an edit can invalidate for its old values before changing them.
+    public void invalidatePost(Post post) {
+        WrittenPost written = WrittenPost.of(post);
+        AfterCommit.run(() -> invalidate(key -> key.matches(written)));
+    }
+
+    // For like writes: only like-ordered pages depend on like counts.
+    public void invalidateLikes(Post post) {
+        WrittenPost written = WrittenPost.of(post);
+        AfterCommit.run(() -> invalidate(key -> key.sort().equals("likes") && key.matches(written)));
+    }
+
+    // For ranking changes that are not tied to one write, such as likes leaving the ranking window.
+    public void invalidateLikes() {
+        invalidate(key -> key.sort().equals("likes"));
+    }
+
+    private synchronized void invalidate(Predicate<Key> affected) {
+        generation++;
+        Iterator<Key> keys = entries.keySet().iterator();
+        while (keys.hasNext()) {
+            if (affected.test(keys.next())) {
+                keys.remove();
+                invalidations.increment();
+            }
+        }
+    }
+
+    private synchronized int size() {
+        return entries.size();
+    }
+
+    public record Key(@Nullable Integer userId, List<Integer> categoryIds, @Nullable LocalDateTime since, String sort,
+                      @Nullable String name, @Nullable String cursor, int limit) {
+
+        boolean matches(WrittenPost post) {
+            if (userId != null && !userId.equals(post.userId())) return false;
+            if (!categoryIds.isEmpty() && !post.categoryIds().containsAll(categoryIds)) return false;
+            if (since != null && (post.dateTime() == null || post.dateTime().isBefore(since))) return false;
+            return name == null || (post.name() != null && post.name().toLowerCase(Locale.ROOT).contains(name));
+        }
+    }
+
+    // The fields of a post that cache keys filter on, as they were when the invalidation was requested.
+    private record WrittenPost(@Nullable Integer userId, List<Integer> categoryIds, @Nullable LocalDateTime dateTime,
+                               @Nullable String name) {
+
+        static WrittenPost of(Post post) {
+            return new WrittenPost(post.getUser() == null ? null : post.getUser().getId(),
+                    post.getCategoryIds() == null ? List.of() : List.of(post.getCategoryIds()), post.getDateTime(), post.getName());
+        }
+    }
+
+    public static class CachedPage {
+        private final List<Integer> postIds;
+        @Nullable
+        private final String nextCursor;
+
+        public CachedPage(List<Integer> postIds, @Nullable String nextCursor) {
+            this.postIds = postIds;
+            this.nextCursor = nextCursor;
+        }
+
+        public List<Integer> getPostIds() {
+            return postIds;
+        }
+
+        @Nullable
+        public String getNextCursor() {
+            return nextCursor;
+        }
+    }
+
+    private static class Entry {
+        private final CachedPage page;
+        private final long createdAt;
+
+        Entry(CachedPage page, long createdAt) {
+            this.page = page;
+            this.createdAt = createdAt;
+        }
+    }
+}
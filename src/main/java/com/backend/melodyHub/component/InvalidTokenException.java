@@ -0,0 +1,22 @@
+package com.backend.melodyHub.component;
+
+import org.springframework.http.HttpStatus;
+
+public class InvalidTokenException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    private final HttpStatus status;
+
+    public InvalidTokenException(String message) {
+        this(HttpStatus.BAD_REQUEST, message);
+    }
+
+    public InvalidTokenException(HttpStatus status, String message) {
+        super(message);
+        this.status = status;
+    }
+
+    public HttpStatus getStatus() {
+        return status;
+    }
+}
@@ -2,72 +2,156 @@ package com.backend.melodyHub.component;
 
 import com.backend.melodyHub.model.User;
 import io.github.cdimascio.dotenv.Dotenv;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
-import java.security.Key;
-import java.util.Date;
-import java.util.Optional;
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.regex.Pattern;
 
 @Component
 public class JwtUtil {
-    private final String SECRET;
     private final long EXPIRATION_TIME = 1000 * 60 * 60;
-    private final Key key;
-    Dotenv dotenv = Dotenv.load();
+    private final SecretKey key;
+    // JwtParser is immutable and thread-safe, so one instance serves every request.
+    private final JwtParser parser;
+    private static final String USER_ID_CLAIM = "uid";
+    private static final Pattern TOKEN_FORMAT = Pattern.compile("^[A-Za-z0-9-_]+\\.[A-Za-z0-9-_]+\\.[A-Za-z0-9-_]+$");
+    // Verified tokens by SHA-256 of the token, kept until the token's exp. A client sends the same token for its
+    // whole lifetime, so repeat requests skip the HMAC check and payload decoding. Only tokens that passed
+    // verification are stored, and any change to the token changes its digest, so a hit is as good as a verify.
+    private final int maxCachedTokens;
+    private final LinkedHashMap<String, VerifiedToken> verified = new LinkedHashMap<>(16, 0.75f, true);
+    private final Counter hits;
+    private final Counter misses;
+    private final Timer verifyTimer;
 
-    public JwtUtil() {
-        SECRET = Optional.ofNullable(dotenv.get("256BIT_SECRET"))
+    @Autowired
+    public JwtUtil(MeterRegistry meterRegistry, @Value("${jwt.verified-cache.max-size:10000}") int maxCachedTokens) {
+        this(loadSecret(), meterRegistry, maxCachedTokens);
+    }
+
+    public JwtUtil(String secret, MeterRegistry meterRegistry, int maxCachedTokens) {
+        this.key = Keys.hmacShaKeyFor(secret.getBytes());
+        this.parser = Jwts.parser().verifyWith(key).build();
+        this.maxCachedTokens = maxCachedTokens;
+        this.hits = Counter.builder("jwt.verified-cache.requests").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("jwt.verified-cache.requests").tag("result", "miss").register(meterRegistry);
+        this.verifyTimer = Timer.builder("jwt.verify").register(meterRegistry);
+        Gauge.builder("jwt.verified-cache.size", this, JwtUtil::cachedTokenCount).register(meterRegistry);
+    }
+
+    private static String loadSecret() {
+        return Optional.ofNullable(Dotenv.load().get("256BIT_SECRET"))
                 .orElseThrow(() -> new IllegalStateException("256BIT_SECRET environment variable is not set"));
-        key = Keys.hmacShaKeyFor(SECRET.getBytes());
     }
 
     public String generateToken(User user) {
         return Jwts.builder()
                 .subject(user.getLogin())
+                .claim(USER_ID_CLAIM, user.getId())
                 .issuedAt(new Date())
                 .expiration(new Date(System.currentTimeMillis() + EXPIRATION_TIME))
                 .signWith(key)
                 .compact();
     }
 
-    public String extractUsername(String token) {
-        return Jwts.parser()
-                .setSigningKey(key)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload()
-                .getSubject();
+    // Verifies the token and reads the caller from it in a single parse.
+    public AuthenticatedUser authenticate(String token) {
+        if (token == null || token.isBlank()) {
+            throw new InvalidTokenException("Token cannot be empty");
+        }
+        if (!TOKEN_FORMAT.matcher(token).matches()) {
+            throw new InvalidTokenException("Invalid JWT token format");
+        }
+
+        String digest = digest(token);
+        long now = System.currentTimeMillis();
+        synchronized (verified) {
+            VerifiedToken cached = verified.get(digest);
+            if (cached != null && cached.expiresAt > now) {
+                hits.increment();
+                return cached.principal;
+            }
+            if (cached != null) verified.remove(digest);
+        }
+        misses.increment();
+
+        Claims claims = verifyTimer.record(() -> verify(token));
+        if (claims.getSubject() == null) {
+            throw new InvalidTokenException("Invalid token");
+        }
+        AuthenticatedUser principal;
+        try {
+            principal = new AuthenticatedUser(claims.get(USER_ID_CLAIM, Integer.class), claims.getSubject());
+        } catch (JwtException | IllegalArgumentException e) {
+            throw new InvalidTokenException("Invalid token");
+        }
+        if (claims.getExpiration() != null) {
+            remember(digest, new VerifiedToken(principal, claims.getExpiration().getTime()));
+        }
+        return principal;
     }
 
-    public boolean validateToken(String token) {
+    private Claims verify(String token) {
         try {
-            Jwts.parser()
-                    .setSigningKey(key)
-                    .build()
-                    .parseClaimsJws(token);
-            return true;
-        } catch (Exception e) {
-            return false;
+            return parser.parseSignedClaims(token).getPayload();
+        } catch (JwtException | IllegalArgumentException e) {
+            throw new InvalidTokenException("Invalid token");
         }
     }
 
-    public TokenValidationResult validateTokenFull(String token) {
-        if (token == null || token.isBlank()) {
-            return TokenValidationResult.error("Token cannot be empty");
+    private void remember(String digest, VerifiedToken token) {
+        synchronized (verified) {
+            verified.put(digest, token);
+            if (verified.size() > maxCachedTokens) {
+                long now = System.currentTimeMillis();
+                verified.values().removeIf(cached -> cached.expiresAt <= now);
+            }
+            Iterator<Map.Entry<String, VerifiedToken>> eldest = verified.entrySet().iterator();
+            while (verified.size() > maxCachedTokens && eldest.hasNext()) {
+                eldest.next();
+                eldest.remove();
+            }
         }
+    }
 
-        String tokenRegex = "^[A-Za-z0-9-_]+\\.[A-Za-z0-9-_]+\\.[A-Za-z0-9-_]+$";
-        if (!token.matches(tokenRegex)) {
-            return TokenValidationResult.error("Invalid JWT token format");
+    private int cachedTokenCount() {
+        synchronized (verified) {
+            return verified.size();
         }
+    }
 
-        if (!validateToken(token)) {
-            return TokenValidationResult.error("Invalid token");
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
         }
+    }
 
-        return TokenValidationResult.success();
+    private static class VerifiedToken {
+        private final AuthenticatedUser principal;
+        private final long expiresAt;
+
+        VerifiedToken(AuthenticatedUser principal, long expiresAt) {
+            this.principal = principal;
+            this.expiresAt = expiresAt;
+        }
     }
 
 }
@@ -0,0 +1,52 @@
+package com.backend.melodyHub.component;
+
+import com.backend.melodyHub.repository.PostRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+// Repairs post.like_count drift (writes from before the column existed, failed or manual edits) by recounting
+// the like table. Runs once shortly after startup, then on the configured interval.
+// Works in id-ordered batches, one transaction each, that lock the post rows before counting. A single
+// UPDATE ... FROM (SELECT COUNT ...) would count from its starting snapshot and then overwrite increments that
+// committed while it ran.
+@Component
+public class LikeCountReconciler {
+    private final PostRepository postRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final Logger logger = LoggerFactory.getLogger(LikeCountReconciler.class);
+
+    public LikeCountReconciler(PostRepository postRepository, PlatformTransactionManager transactionManager, @Value("${likes.count.reconcile-batch-size:1000}") int batchSize) {
+        this.postRepository = postRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${likes.count.reconcile-interval-ms:3600000}", initialDelayString = "${likes.count.reconcile-initial-delay-ms:10000}")
+    public void reconcile() {
+        int repaired = 0;
+        int afterId = 0;
+        while (true) {
+            int lastId = afterId;
+            Batch batch = transactionTemplate.execute(status -> {
+                List<Integer> postIds = postRepository.lockIdsAfter(lastId, batchSize);
+                if (postIds.isEmpty()) return null;
+                return new Batch(postIds.get(postIds.size() - 1), postRepository.reconcileLikeCounts(postIds));
+            });
+            if (batch == null) break;
+            repaired += batch.repaired();
+            afterId = batch.lastId();
+        }
+        if (repaired > 0) logger.info("Repaired like_count on {} posts", repaired);
+    }
+
+    private record Batch(int lastId, int repaired) {
+    }
+}
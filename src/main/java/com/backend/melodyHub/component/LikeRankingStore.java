@@ -0,0 +1,269 @@
+package com.backend.melodyHub.component;
+
+import com.backend.melodyHub.repository.LikeRepository;
+import com.backend.melodyHub.repository.PostRepository;
+import jakarta.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Keeps every post ranked by the number of likes it received in the last WINDOW_DAYS days.
+// Likes are counted in per-day buckets so expiring a day is a bucket reset instead of a rescan of the like table.
+@Component
+public class LikeRankingStore {
+    public static final int WINDOW_DAYS = 30;
+
+    private final PostRepository postRepository;
+    private final LikeRepository likeRepository;
+    private final FeedCache feedCache;
+    private final Logger logger = LoggerFactory.getLogger(LikeRankingStore.class);
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Integer, DayBuckets> buckets = new HashMap<>();
+    private final Map<Integer, Integer> scores = new HashMap<>();
+    private final TreeSet<Long> ranking = new TreeSet<>();
+    private final List<ScoreListener> listeners = new CopyOnWriteArrayList<>();
+    // Written under the write lock; volatile so isReady() can read it without one.
+    private volatile boolean ready = false;
+
+    public LikeRankingStore(PostRepository postRepository, LikeRepository likeRepository, FeedCache feedCache) {
+        this.postRepository = postRepository;
+        this.likeRepository = likeRepository;
+        this.feedCache = feedCache;
+    }
+
+    // The start of the ranking window. Every likes-ordered path counts from here so they agree on order and cursors.
+    public static LocalDateTime windowStart() {
+        return LocalDate.now().minusDays(WINDOW_DAYS - 1).atStartOfDay();
+    }
+
+    // Requests are already being served here. The queries run under the write lock and like events are ignored
+    // until the load finishes: a like reported before that was committed before it was reported, so the query
+    // already counts it, and applying the event as well would count it twice.
+    @Order(0)
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long today = LocalDate.now().toEpochDay();
+        List<Integer> postIds;
+        lock.writeLock().lock();
+        try {
+            postIds = postRepository.findAllIds();
+            List<LikeRepository.DailyLikes> recentLikes = likeRepository.countDailyLikesSince(windowStart());
+            for (Integer postId : postIds) {
+                ranking.add(rankKey(0, postId));
+            }
+            for (LikeRepository.DailyLikes likes : recentLikes) {
+                add(likes.getPostId(), likes.getDay().toEpochDay(), likes.getLikes().intValue(), today);
+            }
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Like ranking loaded for {} posts ({} with recent likes)", postIds.size(), buckets.size());
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    // Listeners are notified outside the lock, so they may call back into the store.
+    public void addScoreListener(ScoreListener listener) {
+        listeners.add(listener);
+    }
+
+    public void registerPost(Integer postId) {
+        lock.writeLock().lock();
+        try {
+            if (!scores.containsKey(postId)) ranking.add(rankKey(0, postId));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removePost(Integer postId) {
+        lock.writeLock().lock();
+        try {
+            Integer score = scores.remove(postId);
+            ranking.remove(rankKey(score == null ? 0 : score, postId));
+            buckets.remove(postId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void recordLike(Integer postId, LocalDateTime likeDate) {
+        boolean changed;
+        lock.writeLock().lock();
+        try {
+            changed = ready && add(postId, likeDate.toLocalDate().toEpochDay(), 1, LocalDate.now().toEpochDay());
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if (changed) notifyListeners(postId);
+    }
+
+    public void removeLike(Integer postId, @Nullable LocalDateTime likeDate) {
+        if (likeDate == null) return;
+        boolean changed;
+        lock.writeLock().lock();
+        try {
+            changed = ready && add(postId, likeDate.toLocalDate().toEpochDay(), -1, LocalDate.now().toEpochDay());
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if (changed) notifyListeners(postId);
+    }
+
+    public int getScore(Integer postId) {
+        lock.readLock().lock();
+        try {
+            return scores.getOrDefault(postId, 0);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Map<Integer, Integer> getScores() {
+        lock.readLock().lock();
+        try {
+            return new HashMap<>(scores);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Returns up to limit posts ranked strictly after the (score, postId) position, or from the top when after is null.
+    public List<RankedPost> getPage(@Nullable FeedCursor after, int limit) {
+        lock.readLock().lock();
+        try {
+            NavigableSet<Long> remaining = after == null
+                    ? ranking.descendingSet()
+                    : ranking.headSet(rankKey((int) after.getValue(), after.getId()), false).descendingSet();
+            List<RankedPost> page = new ArrayList<>(limit);
+            for (Long key : remaining) {
+                if (page.size() == limit) break;
+                page.add(new RankedPost((int) (key & 0xFFFFFFFFL), (int) (key >>> 32)));
+            }
+            return page;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Scheduled(fixedRateString = "${likes.ranking.expiry-interval-ms:3600000}", initialDelayString = "${likes.ranking.expiry-interval-ms:3600000}")
+    public void expireOldLikes() {
+        long today = LocalDate.now().toEpochDay();
+        List<Integer> changed = new ArrayList<>();
+        lock.writeLock().lock();
+        try {
+            for (Integer postId : new ArrayList<>(buckets.keySet())) {
+                DayBuckets postBuckets = buckets.get(postId);
+                postBuckets.advanceTo(today);
+                if (updateScore(postId, postBuckets.total())) changed.add(postId);
+                if (postBuckets.total() == 0) buckets.remove(postId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        changed.forEach(this::notifyListeners);
+        // Cached like-ordered pages were ranked with the expired days still counted.
+        if (!changed.isEmpty()) feedCache.invalidateLikes();
+    }
+
+    private boolean add(Integer postId, long day, int delta, long today) {
+        if (day <= today - WINDOW_DAYS || day > today) return false;
+        DayBuckets postBuckets = buckets.computeIfAbsent(postId, id -> new DayBuckets(today));
+        postBuckets.advanceTo(today);
+        postBuckets.add(day, delta);
+        return updateScore(postId, postBuckets.total());
+    }
+
+    private boolean updateScore(Integer postId, int score) {
+        Integer previous = scores.get(postId);
+        int previousScore = previous == null ? 0 : previous;
+        if (previousScore == score) return false;
+        ranking.remove(rankKey(previousScore, postId));
+        ranking.add(rankKey(score, postId));
+        if (score == 0) scores.remove(postId);
+        else scores.put(postId, score);
+        return true;
+    }
+
+    private void notifyListeners(Integer postId) {
+        for (ScoreListener listener : listeners) {
+            listener.scoreChanged(postId);
+        }
+    }
+
+    public interface ScoreListener {
+        void scoreChanged(int postId);
+    }
+
+    private static long rankKey(int score, int postId) {
+        return ((long) score << 32) | (postId & 0xFFFFFFFFL);
+    }
+
+    public static class RankedPost {
+        private final int postId;
+        private final int score;
+
+        public RankedPost(int postId, int score) {
+            this.postId = postId;
+            this.score = score;
+        }
+
+        public int getPostId() {
+            return postId;
+        }
+
+        public int getScore() {
+            return score;
+        }
+    }
+
+    private static class DayBuckets {
+        private final int[] counts = new int[WINDOW_DAYS];
+        private long lastDay;
+        private int total;
+
+        DayBuckets(long today) {
+            this.lastDay = today;
+        }
+
+        void advanceTo(long today) {
+            if (today <= lastDay) return;
+            if (today - lastDay >= WINDOW_DAYS) {
+                Arrays.fill(counts, 0);
+                total = 0;
+            } else {
+                for (long day = lastDay + 1; day <= today; day++) {
+                    int slot = (int) Math.floorMod(day, (long) WINDOW_DAYS);
+                    total -= counts[slot];
+                    counts[slot] = 0;
+                }
+            }
+            lastDay = today;
+        }
+
+        void add(long day, int delta) {
+            int slot = (int) Math.floorMod(day, (long) WINDOW_DAYS);
+            if (counts[slot] + delta < 0) return;
+            counts[slot] += delta;
+            total += delta;
+        }
+
+        int total() {
+            return total;
+        }
+    }
+}
@@ -0,0 +1,301 @@
+package com.backend.melodyHub.component;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.Nullable;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+// Write-behind mode for likes (likes.write-behind.enabled=true): like/unlike requests only record the desired final
+// state per (user, post) here, and a scheduled flush applies the net result in batched statements with one
+// like_count update per post. Stripes are chosen by post id so a viral post's writers contend on one small lock
+// instead of database row locks. Entries stay visible until their flush commits, so reads can overlay them.
+// A batch that fails is retried entry by entry; entries the database rejects for good (the user or post is gone) are
+// dropped with a warning so one bad row cannot hold back every later like, and the membership cache and ranking
+// updates made when they were recorded are undone. Written entries are also pushed to the membership cache, so a
+// user's set loaded from the database while their change was still buffered is corrected by the flush.
+@Component
+public class LikeWriteBuffer {
+    private static final int STRIPES = 16;
+    // Likes on posts deleted since the request are skipped instead of failing the batch on the foreign key.
+    private static final String INSERT_LIKE = "INSERT INTO \"like\" (user_id, post_id, date_time) SELECT ?, ?, ? " +
+            "WHERE EXISTS (SELECT 1 FROM post WHERE id = ?) ON CONFLICT (user_id, post_id) DO NOTHING";
+    private static final String DELETE_LIKE = "DELETE FROM \"like\" WHERE user_id = ? AND post_id = ?";
+    private static final String ADJUST_LIKE_COUNT = "UPDATE post SET like_count = like_count + ? WHERE id = ?";
+
+    private final boolean enabled;
+    private final JdbcTemplate jdbcTemplate;
+    private final MembershipCache membershipCache;
+    private final LikeRankingStore likeRankingStore;
+    private final FeedCache feedCache;
+    private final TransactionTemplate transactionTemplate;
+    private final Timer flushTimer;
+    private final Logger logger = LoggerFactory.getLogger(LikeWriteBuffer.class);
+    private final Stripe[] stripes = new Stripe[STRIPES];
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    public LikeWriteBuffer(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager, MembershipCache membershipCache, LikeRankingStore likeRankingStore,
+                           FeedCache feedCache, MeterRegistry meterRegistry, @Value("${likes.write-behind.enabled:false}") boolean enabled) {
+        this.enabled = enabled;
+        this.jdbcTemplate = jdbcTemplate;
+        this.membershipCache = membershipCache;
+        this.likeRankingStore = likeRankingStore;
+        this.feedCache = feedCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe();
+        }
+        this.flushTimer = Timer.builder("likes.buffer.flush").register(meterRegistry);
+        Gauge.builder("likes.buffer.depth", this, LikeWriteBuffer::depth).register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // Records a like unless the user already likes the post, going by the pending state or, when there is none, by
+    // storedLiked. The check and the record happen under the stripe lock, so of two concurrent likes only one succeeds.
+    public boolean likeIfAbsent(Integer userId, Integer postId, LocalDateTime likeDate, BooleanSupplier storedLiked) {
+        long key = key(userId, postId);
+        return decide(postId, key, storedLiked::getAsBoolean, (entries, pending, stored) -> {
+            boolean liked = pending != null ? pending.liked() : stored;
+            if (liked) return false;
+            entries.put(key, new PendingLike(true, likeDate));
+            return true;
+        });
+    }
+
+    // Records an unlike if the user currently likes the post, and returns the date of the like it removes.
+    // Like likeIfAbsent, the check and the record are atomic per (user, post). The pending unlike keeps that date so
+    // the ranking can be restored if the database rejects it.
+    public Optional<LocalDateTime> unlikeIfPresent(Integer userId, Integer postId, Supplier<Optional<LocalDateTime>> storedLikeDate) {
+        long key = key(userId, postId);
+        return decide(postId, key, storedLikeDate, (entries, pending, stored) -> {
+            Optional<LocalDateTime> likeDate = pending == null ? stored
+                    : pending.liked() ? Optional.of(pending.likeDate()) : Optional.empty();
+            likeDate.ifPresent(date -> entries.put(key, new PendingLike(false, date)));
+            return likeDate;
+        });
+    }
+
+    // Runs decision under the stripe lock with the pending entry for key, or with the stored state when there is none.
+    // The stored state is read outside the lock so other posts in the stripe don't wait on the query. A flush that
+    // removes entries from the stripe between that read and the lock may have written this key after the read, so
+    // the read is repeated then.
+    private <S, R> R decide(int postId, long key, Supplier<S> stored, Decision<S, R> decision) {
+        Stripe stripe = stripe(postId);
+        while (true) {
+            long removals;
+            stripe.lock.lock();
+            try {
+                PendingLike pending = stripe.entries.get(key);
+                if (pending != null) return decision.apply(stripe.entries, pending, null);
+                removals = stripe.removals;
+            } finally {
+                stripe.lock.unlock();
+            }
+            S value = stored.get();
+            stripe.lock.lock();
+            try {
+                PendingLike pending = stripe.entries.get(key);
+                if (pending != null || stripe.removals == removals) return decision.apply(stripe.entries, pending, value);
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+    }
+
+    // The not-yet-flushed state for this user and post, if any; empty when the database is authoritative.
+    public Optional<PendingLike> pending(Integer userId, Integer postId) {
+        if (!enabled) return Optional.empty();
+        Stripe stripe = stripe(postId);
+        stripe.lock.lock();
+        try {
+            return Optional.ofNullable(stripe.entries.get(key(userId, postId)));
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${likes.write-behind.flush-interval-ms:200}")
+    public void flush() {
+        if (!enabled) return;
+        flushLock.lock();
+        try {
+            Map<Long, PendingLike> batch = snapshot();
+            if (batch.isEmpty()) return;
+            try {
+                flushTimer.record(() -> transactionTemplate.executeWithoutResult(status -> write(batch)));
+                batch.forEach((key, written) -> settle(key, written, written.liked()));
+            } catch (RuntimeException e) {
+                logger.warn("Like buffer batch of {} failed, writing entries one by one: {}", batch.size(), e.getMessage());
+                flushEach(batch);
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void drain() {
+        if (!enabled) return;
+        flush();
+        if (depth() > 0) logger.warn("{} buffered like changes could not be written on shutdown", depth());
+    }
+
+    // Each entry in its own transaction. Rejected entries are dropped; any other failure (the database being
+    // unreachable, say) would fail every remaining entry too, so the rest is left for the next interval.
+    private void flushEach(Map<Long, PendingLike> batch) {
+        for (Map.Entry<Long, PendingLike> entry : batch.entrySet()) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> write(Map.of(entry.getKey(), entry.getValue())));
+                settle(entry.getKey(), entry.getValue(), entry.getValue().liked());
+            } catch (DataIntegrityViolationException e) {
+                logger.warn("Dropping buffered {} of user {} on post {}: {}", entry.getValue().liked() ? "like" : "unlike",
+                        userId(entry.getKey()), postId(entry.getKey()), e.getMessage());
+                if (settle(entry.getKey(), entry.getValue(), !entry.getValue().liked())) undoRanking(entry.getKey(), entry.getValue());
+            } catch (RuntimeException e) {
+                logger.error("Like buffer flush failed, retrying on the next interval: {}", e.getMessage(), e);
+                return;
+            }
+        }
+    }
+
+    // Drops a flushed entry and sets the membership cache to likedNow, what the database holds after the write. Under
+    // the stripe lock, so this cache update cannot land after that of a newer toggle for the same key. Returns false,
+    // changing nothing, when a newer event replaced the entry during the write; that one goes out next flush and
+    // already updated the cache itself.
+    private boolean settle(Long key, PendingLike written, boolean likedNow) {
+        Stripe stripe = stripe(postId(key));
+        stripe.lock.lock();
+        try {
+            if (!stripe.entries.remove(key, written)) return false;
+            stripe.removals++;
+            membershipCache.setLiked(userId(key), postId(key), likedNow);
+            return true;
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    // Reverses the ranking change made when a dropped entry was recorded.
+    private void undoRanking(Long key, PendingLike dropped) {
+        if (dropped.liked()) {
+            likeRankingStore.removeLike(postId(key), dropped.likeDate());
+        } else {
+            likeRankingStore.recordLike(postId(key), dropped.likeDate());
+        }
+        feedCache.invalidateLikes();
+    }
+
+    private Map<Long, PendingLike> snapshot() {
+        Map<Long, PendingLike> batch = new HashMap<>();
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                batch.putAll(stripe.entries);
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        return batch;
+    }
+
+    // Inserts and deletes are idempotent, so the like_count delta is taken from the rows each statement affected.
+    private void write(Map<Long, PendingLike> batch) {
+        List<Object[]> inserts = new ArrayList<>();
+        List<Integer> insertPosts = new ArrayList<>();
+        List<Object[]> deletes = new ArrayList<>();
+        List<Integer> deletePosts = new ArrayList<>();
+        for (Map.Entry<Long, PendingLike> entry : batch.entrySet()) {
+            int userId = userId(entry.getKey());
+            int postId = postId(entry.getKey());
+            if (entry.getValue().liked()) {
+                inserts.add(new Object[]{userId, postId, Timestamp.valueOf(entry.getValue().likeDate()), postId});
+                insertPosts.add(postId);
+            } else {
+                deletes.add(new Object[]{userId, postId});
+                deletePosts.add(postId);
+            }
+        }
+        // Sorted so like_count rows are locked in id order, the same order LikeCountReconciler locks them in.
+        Map<Integer, Integer> deltas = new TreeMap<>();
+        addDeltas(deltas, insertPosts, batchUpdate(INSERT_LIKE, inserts), 1);
+        addDeltas(deltas, deletePosts, batchUpdate(DELETE_LIKE, deletes), -1);
+        List<Object[]> adjustments = new ArrayList<>();
+        deltas.forEach((postId, delta) -> {
+            if (delta != 0) adjustments.add(new Object[]{delta, postId});
+        });
+        batchUpdate(ADJUST_LIKE_COUNT, adjustments);
+    }
+
+    private int[] batchUpdate(String sql, List<Object[]> args) {
+        return args.isEmpty() ? new int[0] : jdbcTemplate.batchUpdate(sql, args);
+    }
+
+    private static void addDeltas(Map<Integer, Integer> deltas, List<Integer> postIds, int[] affected, int sign) {
+        for (int i = 0; i < affected.length; i++) {
+            if (affected[i] > 0) deltas.merge(postIds.get(i), sign * affected[i], Integer::sum);
+        }
+    }
+
+    private int depth() {
+        int depth = 0;
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                depth += stripe.entries.size();
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        return depth;
+    }
+
+    private Stripe stripe(int postId) {
+        return stripes[Math.floorMod(Integer.hashCode(postId), STRIPES)];
+    }
+
+    private static long key(int userId, int postId) {
+        return ((long) userId << 32) | (postId & 0xFFFFFFFFL);
+    }
+
+    private static int userId(long key) {
+        return (int) (key >>> 32);
+    }
+
+    private static int postId(long key) {
+        return (int) key;
+    }
+
+    // likeDate is the date of the like being added, or for an unlike, of the like being removed.
+    public record PendingLike(boolean liked, LocalDateTime likeDate) {
+    }
+
+    private interface Decision<S, R> {
+        R apply(Map<Long, PendingLike> entries, @Nullable PendingLike pending, @Nullable S stored);
+    }
+
+    private static class Stripe {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Map<Long, PendingLike> entries = new HashMap<>();
+        // Bumped whenever a flush removes an entry, so decide() can tell its database read may be stale.
+        private long removals;
+    }
+}
@@ -0,0 +1,41 @@
+package com.backend.melodyHub.component;
+
+import com.backend.melodyHub.model.Post;
+import com.backend.melodyHub.model.User;
+import com.backend.melodyHub.repository.LikeRepository;
+import com.backend.melodyHub.repository.PostRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+// Writes a like row and the matching post.like_count change in one transaction. The row write is a single
+// idempotent statement, so the counter only moves when a row was actually inserted or deleted.
+@Component
+public class LikeWriter {
+    private final LikeRepository likeRepository;
+    private final PostRepository postRepository;
+
+    public LikeWriter(LikeRepository likeRepository, PostRepository postRepository) {
+        this.likeRepository = likeRepository;
+        this.postRepository = postRepository;
+    }
+
+    // False when the user already liked the post.
+    @Transactional
+    public boolean addLike(User user, Post post, LocalDateTime likeDate) {
+        if (likeRepository.insertIfAbsent(user.getId(), post.getId(), likeDate) == 0) return false;
+        postRepository.adjustLikeCount(post.getId(), 1);
+        return true;
+    }
+
+    // The removed like's date, or empty when the user had not liked the post.
+    @Transactional
+    public Optional<LocalDateTime> removeLike(User user, Post post) {
+        Optional<LocalDateTime> likeDate = likeRepository.deleteReturningDate(user.getId(), post.getId()).map(Timestamp::toLocalDateTime);
+        if (likeDate.isPresent()) postRepository.adjustLikeCount(post.getId(), -1);
+        return likeDate;
+    }
+}
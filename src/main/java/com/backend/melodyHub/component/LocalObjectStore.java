@@ -0,0 +1,131 @@
+package com.backend.melodyHub.component;
+
+import jakarta.annotation.Nullable;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.UriUtils;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.stream.Collectors;
+
+// Objects kept under storage.local.root and served by LocalFileController (storage.type=local), for local
+// benchmarking and on-prem nodes. Urls carry an expiry and an HMAC over method, key and expiry, mirroring S3
+// presigned urls: whoever holds one may use it until it expires. The HMAC key is derived from the configured secret
+// (by default the JWT secret) for this purpose only, so a url signature can never pass as a token signature or back.
+@Component
+@ConditionalOnProperty(name = "storage.type", havingValue = "local")
+public class LocalObjectStore implements ObjectStore {
+    public static final String PATH_PREFIX = "/files/";
+    private static final String HMAC = "HmacSHA256";
+    private static final String KEY_PURPOSE = "local-object-store";
+
+    private final Path root;
+    private final String baseUrl;
+    private final SecretKeySpec signingKey;
+
+    public LocalObjectStore(@Value("${storage.local.root:./storage}") String root, @Value("${storage.local.base-url:http://localhost:8080}") String baseUrl,
+                            @Value("${storage.local.secret:${256BIT_SECRET}}") String secret) throws IOException {
+        this.root = Path.of(root).toAbsolutePath().normalize();
+        this.baseUrl = baseUrl;
+        this.signingKey = new SecretKeySpec(hmac(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), HMAC), KEY_PURPOSE), HMAC);
+        Files.createDirectories(this.root);
+    }
+
+    @Override
+    public String presignPut(String objectKey, Duration lifetime) {
+        return url("PUT", objectKey, Instant.now().plus(lifetime).getEpochSecond());
+    }
+
+    @Override
+    public SignedUrl presignGet(String objectKey, @Nullable Instant signingTime, Duration lifetime) {
+        Instant expiration = (signingTime != null ? signingTime : Instant.now()).plus(lifetime);
+        return new SignedUrl(url("GET", objectKey, expiration.getEpochSecond()), Instant.ofEpochSecond(expiration.getEpochSecond()));
+    }
+
+    public boolean isAuthorized(String method, String objectKey, long expires, String signature) {
+        if (expires < Instant.now().getEpochSecond()) return false;
+        return MessageDigest.isEqual(sign(method, objectKey, expires).getBytes(StandardCharsets.US_ASCII), signature.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    // The file for an object key. Keys are taken literally, as S3 does: empty, "." or ".." segments and backslashes
+    // are rejected rather than normalized, so two different keys can never name the same file.
+    public Path resolve(String objectKey) {
+        if (objectKey.isBlank() || objectKey.indexOf('\\') >= 0 || Arrays.stream(objectKey.split("/", -1)).anyMatch(LocalObjectStore::isInvalidSegment)) {
+            throw new IllegalArgumentException("Invalid object key");
+        }
+        Path path = root.resolve(objectKey).normalize();
+        if (!path.startsWith(root) || path.equals(root)) {
+            throw new IllegalArgumentException("Invalid object key");
+        }
+        return path;
+    }
+
+    // Written to a temporary file first, so readers never see a partial object.
+    public void store(String objectKey, InputStream body) throws IOException {
+        Path target = resolve(objectKey);
+        Files.createDirectories(target.getParent());
+        Path upload = Files.createTempFile(target.getParent(), ".upload", ".tmp");
+        try {
+            Files.copy(body, upload, StandardCopyOption.REPLACE_EXISTING);
+            Files.move(upload, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(upload);
+        }
+    }
+
+    // Sends count bytes from position with FileChannel.transferTo, which the JDK turns into sendfile when the
+    // target is a socket channel. transferTo may move fewer bytes than asked, so it loops.
+    public static void transfer(FileChannel file, long position, long count, WritableByteChannel target) throws IOException {
+        long sent = 0;
+        while (sent < count) {
+            long transferred = file.transferTo(position + sent, count - sent, target);
+            if (transferred <= 0) {
+                if (position + sent >= file.size()) throw new IOException("File shrank while being sent");
+                continue;
+            }
+            sent += transferred;
+        }
+    }
+
+    private static boolean isInvalidSegment(String segment) {
+        return segment.isEmpty() || segment.equals(".") || segment.equals("..");
+    }
+
+    private String url(String method, String objectKey, long expires) {
+        String path = Arrays.stream(objectKey.split("/"))
+                .map(segment -> UriUtils.encodePathSegment(segment, StandardCharsets.UTF_8))
+                .collect(Collectors.joining("/"));
+        return baseUrl + PATH_PREFIX + path + "?expires=" + expires + "&signature=" + sign(method, objectKey, expires);
+    }
+
+    private String sign(String method, String objectKey, long expires) {
+        byte[] digest = hmac(signingKey, method + "\n" + objectKey + "\n" + expires);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+    }
+
+    private static byte[] hmac(SecretKeySpec key, String message) {
+        try {
+            Mac mac = Mac.getInstance(HMAC);
+            mac.init(key);
+            return mac.doFinal(message.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.backend.melodyHub.component;
+
+import com.backend.melodyHub.repository.PostRepository;
+import com.backend.melodyHub.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+// s3Keys behind the media redirect endpoints, by post id and by user id. Bounded LRU with a TTL; missing ids are
+// cached too so probing unknown ids doesn't reach the database each time. Edits and deletes invalidate their entry.
+@Component
+public class MediaKeyCache {
+    private final Keys posts;
+    private final Keys avatars;
+
+    public MediaKeyCache(PostRepository postRepository, UserRepository userRepository, MeterRegistry meterRegistry,
+                         @Value("${media.key-cache.max-size:10000}") int maxSize, @Value("${media.key-cache.ttl-ms:300000}") long ttlMs) {
+        this.posts = new Keys("post", postRepository::findS3KeyById, meterRegistry, maxSize, ttlMs);
+        this.avatars = new Keys("avatar", userRepository::findS3KeyById, meterRegistry, maxSize, ttlMs);
+    }
+
+    public Optional<String> postKey(Integer postId) {
+        return posts.get(postId);
+    }
+
+    public Optional<String> avatarKey(Integer userId) {
+        return avatars.get(userId);
+    }
+
+    public void invalidatePost(Integer postId) {
+        posts.invalidate(postId);
+    }
+
+    public void invalidateUser(Integer userId) {
+        avatars.invalidate(userId);
+    }
+
+    private static class Keys {
+        private final Function<Integer, Optional<String>> loader;
+        private final int maxSize;
+        private final long ttlNanos;
+        private final LinkedHashMap<Integer, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+        private long generation;
+        private final Counter hits;
+        private final Counter misses;
+
+        Keys(String kind, Function<Integer, Optional<String>> loader, MeterRegistry meterRegistry, int maxSize, long ttlMs) {
+            this.loader = loader;
+            this.maxSize = maxSize;
+            this.ttlNanos = ttlMs * 1_000_000L;
+            this.hits = Counter.builder("media.key-cache.requests").tag("kind", kind).tag("result", "hit").register(meterRegistry);
+            this.misses = Counter.builder("media.key-cache.requests").tag("kind", kind).tag("result", "miss").register(meterRegistry);
+        }
+
+        Optional<String> get(Integer id) {
+            long readGeneration;
+            synchronized (this) {
+                Entry entry = entries.get(id);
+                if (entry != null && System.nanoTime() - entry.loadedAt <= ttlNanos) {
+                    hits.increment();
+                    return entry.key;
+                }
+                misses.increment();
+                readGeneration = generation;
+            }
+            Optional<String> key = loader.apply(id).filter(value -> !value.isBlank());
+            synchronized (this) {
+                // Skip the store if an edit invalidated anything while this was loading.
+                if (readGeneration == generation) {
+                    entries.put(id, new Entry(key, System.nanoTime()));
+                    Iterator<Map.Entry<Integer, Entry>> eldest = entries.entrySet().iterator();
+                    while (entries.size() > maxSize && eldest.hasNext()) {
+                        eldest.next();
+                        eldest.remove();
+                    }
+                }
+            }
+            return key;
+        }
+
+        synchronized void invalidate(Integer id) {
+            generation++;
+            entries.remove(id);
+        }
+    }
+
+    private static class Entry {
+        private final Optional<String> key;
+        private final long loadedAt;
+
+        Entry(Optional<String> key, long loadedAt) {
+            this.key = key;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.backend.melodyHub.component;
+
+import com.backend.melodyHub.model.User;
+import com.backend.melodyHub.repository.PostPreviewView;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+// Image urls for list and profile responses. With media.redirect.enabled these are short stable paths to
+// MediaController, which signs only what the client actually fetches; otherwise they are presigned up front.
+// Posts and users without an s3Key get no url in either mode.
+@Component
+public class MediaLinks {
+    private final S3Service s3Service;
+    private final boolean redirects;
+    private final String baseUrl;
+
+    public MediaLinks(S3Service s3Service, @Value("${media.redirect.enabled:false}") boolean redirects, @Value("${media.redirect.base-url:}") String baseUrl) {
+        this.s3Service = s3Service;
+        this.redirects = redirects;
+        this.baseUrl = baseUrl;
+    }
+
+    // Preview urls keyed by post id.
+    public Map<Integer, String> previewUrls(Collection<PostPreviewView> posts) {
+        Map<Integer, String> urls = new HashMap<>();
+        if (redirects) {
+            for (PostPreviewView post : posts) {
+                if (hasKey(post.getS3Key())) urls.put(post.getId(), baseUrl + "/media/preview/" + post.getId());
+            }
+            return urls;
+        }
+        Map<String, String> signed = s3Service.generatePresignedUrls(MediaVariant.PREVIEW, posts.stream().map(PostPreviewView::getS3Key).toList());
+        for (PostPreviewView post : posts) {
+            urls.put(post.getId(), signed.get(post.getS3Key()));
+        }
+        return urls;
+    }
+
+    // Avatar urls keyed by user id.
+    public Map<Integer, String> avatarUrls(Collection<User> users) {
+        Map<Integer, String> urls = new HashMap<>();
+        if (redirects) {
+            for (User user : users) {
+                if (hasKey(user.getS3Key())) urls.put(user.getId(), avatarPath(user.getId()));
+            }
+            return urls;
+        }
+        Map<String, String> signed = s3Service.generatePresignedUrls(MediaVariant.IMAGE, users.stream().map(User::getS3Key).toList());
+        for (User user : users) {
+            urls.put(user.getId(), signed.get(user.getS3Key()));
+        }
+        return urls;
+    }
+
+    // One post at a time, for streamed lists.
+    public String previewUrl(Integer postId, String s3Key) {
+        if (!redirects) return s3Service.generatePresignedPreviewUrl(s3Key);
+        return hasKey(s3Key) ? baseUrl + "/media/preview/" + postId : null;
+    }
+
+    public String avatarUrl(Integer userId, String s3Key) {
+        if (!redirects) return s3Service.generatePresignedImageUrl(s3Key);
+        return hasKey(s3Key) ? avatarPath(userId) : null;
+    }
+
+    private String avatarPath(Integer userId) {
+        return baseUrl + "/media/avatar/" + userId;
+    }
+
+    private static boolean hasKey(String s3Key) {
+        return s3Key != null && !s3Key.trim().isEmpty();
+    }
+}
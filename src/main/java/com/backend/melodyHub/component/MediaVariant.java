@@ -0,0 +1,39 @@
+package com.backend.melodyHub.component;
+
+// The objects derived from a post or user s3Key; each variant maps the stored key to the bucket object it signs.
+public enum MediaVariant {
+    PREVIEW {
+        @Override
+        String toObjectKey(String key) {
+            return "images/" + key.replaceAll("\\.[^.]*$", ".jpg");
+        }
+    },
+    IMAGE {
+        @Override
+        String toObjectKey(String key) {
+            return "images/" + key;
+        }
+    },
+    VIDEO {
+        @Override
+        String toObjectKey(String key) {
+            return "videos/" + key.replaceAll("\\.[^.]*$", ".mp4");
+        }
+    },
+    LEADSHEET {
+        @Override
+        String toObjectKey(String key) {
+            return key;
+        }
+    };
+
+    abstract String toObjectKey(String key);
+
+    // Null for a missing or blank key, which has nothing to sign.
+    public String objectKey(String key) {
+        if (key == null || key.trim().isEmpty()) {
+            return null;
+        }
+        return toObjectKey(key);
+    }
+}
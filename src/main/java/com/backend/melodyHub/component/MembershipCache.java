@@ -0,0 +1,169 @@
+package com.backend.melodyHub.component;
+
+import com.backend.melodyHub.repository.LikeRepository;
+import com.backend.melodyHub.repository.SavedRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.lang.ref.SoftReference;
+import java.util.*;
+
+// Post ids each recently active user has liked and saved, as sorted int arrays, so the check endpoints answer
+// from memory. A user's sets are loaded on first access and updated in place by the toggle endpoints.
+// Entries are held through SoftReferences in a bounded LRU, so the JVM can drop them under memory pressure.
+// The LRU is split into stripes by user id, each with its own monitor, so concurrent checks rarely wait on each other.
+// A load is only kept if no toggle for the same user happened while it ran; other users' writes don't affect it.
+@Component
+public class MembershipCache {
+    private static final int[] EMPTY = new int[0];
+    private static final int STRIPES = 16;
+
+    private final LikeRepository likeRepository;
+    private final SavedRepository savedRepository;
+    private final Stripe[] stripes = new Stripe[STRIPES];
+    private final Counter hits;
+    private final Counter misses;
+
+    public MembershipCache(LikeRepository likeRepository, SavedRepository savedRepository, MeterRegistry meterRegistry, @Value("${membership.cache.max-users:10000}") int maxUsers) {
+        this.likeRepository = likeRepository;
+        this.savedRepository = savedRepository;
+        int usersPerStripe = Math.max(1, (maxUsers + STRIPES - 1) / STRIPES);
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe(usersPerStripe);
+        }
+        this.hits = Counter.builder("membership.cache.requests").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("membership.cache.requests").tag("result", "miss").register(meterRegistry);
+    }
+
+    public boolean isLiked(Integer userId, Integer postId) {
+        return Arrays.binarySearch(membership(userId).liked, postId) >= 0;
+    }
+
+    public boolean isSaved(Integer userId, Integer postId) {
+        return Arrays.binarySearch(membership(userId).saved, postId) >= 0;
+    }
+
+    public Set<Integer> likedAmong(Integer userId, Collection<Integer> postIds) {
+        return among(membership(userId).liked, postIds);
+    }
+
+    public Set<Integer> savedAmong(Integer userId, Collection<Integer> postIds) {
+        return among(membership(userId).saved, postIds);
+    }
+
+    // Toggle endpoints call these after their write commits. Users not in the cache are left to the next load.
+    public void setLiked(Integer userId, Integer postId, boolean liked) {
+        Stripe stripe = stripe(userId);
+        synchronized (stripe) {
+            stripe.loads.remove(userId);
+            Membership current = stripe.cached(userId);
+            if (current != null) stripe.store(userId, new Membership(with(current.liked, postId, liked), current.saved));
+        }
+    }
+
+    public void setSaved(Integer userId, Integer postId, boolean saved) {
+        Stripe stripe = stripe(userId);
+        synchronized (stripe) {
+            stripe.loads.remove(userId);
+            Membership current = stripe.cached(userId);
+            if (current != null) stripe.store(userId, new Membership(current.liked, with(current.saved, postId, saved)));
+        }
+    }
+
+    private Membership membership(Integer userId) {
+        Stripe stripe = stripe(userId);
+        Object load = new Object();
+        synchronized (stripe) {
+            Membership current = stripe.cached(userId);
+            if (current != null) {
+                hits.increment();
+                return current;
+            }
+            misses.increment();
+            stripe.loads.put(userId, load);
+        }
+        Membership loaded = new Membership(sorted(likeRepository.findPostIdsByUserId(userId)), sorted(savedRepository.findPostIdsByUserId(userId)));
+        synchronized (stripe) {
+            // A toggle for this user (or a newer load) since the read replaced the marker; answer from this load
+            // once but don't keep it.
+            if (stripe.loads.remove(userId, load)) stripe.store(userId, loaded);
+        }
+        return loaded;
+    }
+
+    private Stripe stripe(Integer userId) {
+        return stripes[Math.floorMod(userId.hashCode(), STRIPES)];
+    }
+
+    private static Set<Integer> among(int[] members, Collection<Integer> postIds) {
+        Set<Integer> found = new HashSet<>();
+        for (Integer postId : postIds) {
+            if (Arrays.binarySearch(members, postId) >= 0) found.add(postId);
+        }
+        return found;
+    }
+
+    private static int[] sorted(List<Integer> postIds) {
+        if (postIds.isEmpty()) return EMPTY;
+        return postIds.stream().mapToInt(Integer::intValue).sorted().distinct().toArray();
+    }
+
+    // Copy with postId added or removed; returns the same array when nothing changes.
+    private static int[] with(int[] members, int postId, boolean present) {
+        int index = Arrays.binarySearch(members, postId);
+        if (present == index >= 0) return members;
+        if (present) {
+            int insertAt = -index - 1;
+            int[] added = new int[members.length + 1];
+            System.arraycopy(members, 0, added, 0, insertAt);
+            added[insertAt] = postId;
+            System.arraycopy(members, insertAt, added, insertAt + 1, members.length - insertAt);
+            return added;
+        }
+        int[] removed = new int[members.length - 1];
+        System.arraycopy(members, 0, removed, 0, index);
+        System.arraycopy(members, index + 1, removed, index, members.length - index - 1);
+        return removed;
+    }
+
+    // Guarded by its own monitor.
+    private static class Stripe {
+        private final int maxUsers;
+        private final LinkedHashMap<Integer, SoftReference<Membership>> entries = new LinkedHashMap<>(16, 0.75f, true);
+        // One marker per user with a load in flight; removed by toggles so that load is not stored.
+        private final Map<Integer, Object> loads = new HashMap<>();
+
+        Stripe(int maxUsers) {
+            this.maxUsers = maxUsers;
+        }
+
+        Membership cached(Integer userId) {
+            SoftReference<Membership> reference = entries.get(userId);
+            if (reference == null) return null;
+            Membership membership = reference.get();
+            if (membership == null) entries.remove(userId);
+            return membership;
+        }
+
+        void store(Integer userId, Membership membership) {
+            entries.put(userId, new SoftReference<>(membership));
+            Iterator<Integer> eldest = entries.keySet().iterator();
+            while (entries.size() > maxUsers && eldest.hasNext()) {
+                eldest.next();
+                eldest.remove();
+            }
+        }
+    }
+
+    private static class Membership {
+        private final int[] liked;
+        private final int[] saved;
+
+        Membership(int[] liked, int[] saved) {
+            this.liked = liked;
+            this.saved = saved;
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.backend.melodyHub.component;
+
+import jakarta.annotation.Nullable;
+
+import java.time.Duration;
+import java.time.Instant;
+
+// Where uploaded media lives; selected with storage.type (s3, the default, or local). S3Service layers url caching,
+// bucketed signing and bulk presigning on top, so implementations only sign single urls.
+public interface ObjectStore {
+
+    // Url the client PUTs the object body to.
+    String presignPut(String objectKey, Duration lifetime);
+
+    // Url the client GETs the object from. A null signingTime signs as of now; a fixed one must give the same url
+    // for the same key and lifetime every time.
+    SignedUrl presignGet(String objectKey, @Nullable Instant signingTime, Duration lifetime);
+
+    record SignedUrl(String url, Instant expiration) {
+    }
+}
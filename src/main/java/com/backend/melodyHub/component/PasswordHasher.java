@@ -1,16 +1,133 @@
 package com.backend.melodyHub.component;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
 import org.mindrot.jbcrypt.BCrypt;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.util.Arrays;
+import java.util.concurrent.*;
+
+// BCrypt runs on its own bounded pool instead of on whatever request thread asked for it. At most `threads` hashes
+// run at once and `queueSize` more wait; past that callers get PasswordHasherBusyException right away instead of
+// piling up, so a login burst holds a bounded number of request threads and feed reads keep theirs.
+// The cost factor is calibrated at startup to the highest one that stays under the target latency (never below
+// MIN_COST) unless password.bcrypt.cost pins it; needsRehash tells login when a stored hash uses a lower cost.
+// Calibration depends on the machine, so a fleet of mixed or shared hosts should pin password.bcrypt.cost: otherwise
+// each node picks its own cost and passwords are only ever upgraded by whichever node calibrated highest.
 @Component
 public class PasswordHasher {
-    public static String hashPassword(String plainTextPassword) {
-        String salt = BCrypt.gensalt();
-        return BCrypt.hashpw(plainTextPassword, salt);
+    private static final int MIN_COST = 10;
+    private static final int MAX_COST = 16;
+    private static final int CALIBRATION_SAMPLES = 5;
+
+    private final Logger logger = LoggerFactory.getLogger(PasswordHasher.class);
+    private final int cost;
+    private final ThreadPoolExecutor executor;
+    private final Timer hashTimer;
+    private final Counter rejected;
+
+    @Autowired
+    public PasswordHasher(MeterRegistry meterRegistry, @Value("${password.hasher.threads:0}") int threads, @Value("${password.hasher.queue-size:32}") int queueSize,
+                          @Value("${password.bcrypt.cost:0}") int cost, @Value("${password.bcrypt.target-ms:250}") long targetMs) {
+        this(meterRegistry, threads, queueSize, cost > 0 ? cost : calibrate(targetMs));
+        logger.info("Hashing passwords with BCrypt cost {}{}", this.cost, cost > 0 ? "" : " (calibrated for " + targetMs + " ms)");
+    }
+
+    public PasswordHasher(MeterRegistry meterRegistry, int threads, int queueSize, int cost) {
+        if (cost < 4 || cost > 31) {
+            throw new IllegalArgumentException("BCrypt cost must be between 4 and 31");
+        }
+        this.cost = cost;
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        BlockingQueue<Runnable> queue = queueSize > 0 ? new ArrayBlockingQueue<>(queueSize) : new SynchronousQueue<>();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS, queue, runnable -> {
+            Thread thread = new Thread(runnable, "password-hasher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.hashTimer = Timer.builder("password.hasher.hash").register(meterRegistry);
+        this.rejected = Counter.builder("password.hasher.rejected").register(meterRegistry);
+        Gauge.builder("password.hasher.queue", executor, pool -> pool.getQueue().size()).register(meterRegistry);
+        Gauge.builder("password.bcrypt.cost", () -> this.cost).register(meterRegistry);
+    }
+
+    // Highest cost whose hash takes at most targetMs on this machine; each step doubles the work. The time at MIN_COST
+    // is the median of several hashes after a warm-up, so one slow or fast sample (JIT, a busy neighbour) cannot
+    // move the cost by a step.
+    private static int calibrate(long targetMs) {
+        String sample = "calibration-sample";
+        BCrypt.hashpw(sample, BCrypt.gensalt(MIN_COST));
+        long[] samples = new long[CALIBRATION_SAMPLES];
+        for (int i = 0; i < samples.length; i++) {
+            long start = System.nanoTime();
+            BCrypt.hashpw(sample, BCrypt.gensalt(MIN_COST));
+            samples[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(samples);
+        long elapsedMs = Math.max(1, samples[samples.length / 2] / 1_000_000);
+        int cost = MIN_COST;
+        while (cost < MAX_COST && elapsedMs * 2 <= targetMs) {
+            cost++;
+            elapsedMs *= 2;
+        }
+        return cost;
+    }
+
+    public String hashPassword(String plainTextPassword) {
+        return run(() -> BCrypt.hashpw(plainTextPassword, BCrypt.gensalt(cost)));
+    }
+
+    public boolean checkPassword(String plainTextPassword, String hashedPassword) {
+        return run(() -> BCrypt.checkpw(plainTextPassword, hashedPassword));
+    }
+
+    // True when the hash was made with a lower cost than the current one ("$2a$10$..." carries it). Higher costs are
+    // kept, so nodes that calibrated differently never downgrade each other's hashes.
+    public boolean needsRehash(String hashedPassword) {
+        if (hashedPassword == null) return false;
+        String[] parts = hashedPassword.split("\\$");
+        if (parts.length < 4) return false;
+        try {
+            return Integer.parseInt(parts[2]) < cost;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    public int getCost() {
+        return cost;
+    }
+
+    private <T> T run(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(() -> hashTimer.recordCallable(task));
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new PasswordHasherBusyException();
+        }
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new PasswordHasherBusyException();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) throw runtimeException;
+            throw new IllegalStateException(e.getCause());
+        }
     }
 
-    public static boolean checkPassword(String plainTextPassword, String hashedPassword) {
-        return BCrypt.checkpw(plainTextPassword, hashedPassword);
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
     }
 }
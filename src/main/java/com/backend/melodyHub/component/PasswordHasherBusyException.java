@@ -0,0 +1,9 @@
+package com.backend.melodyHub.component;
+
+public class PasswordHasherBusyException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public PasswordHasherBusyException() {
+        super("Server is busy, please try again later");
+    }
+}
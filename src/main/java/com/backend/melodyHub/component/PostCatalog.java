@@ -0,0 +1,330 @@
+package com.backend.melodyHub.component;
+
+import com.backend.melodyHub.repository.PostRepository;
+import com.backend.melodyHub.repository.PostToCategoryRepository;
+import jakarta.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Column-oriented copy of the fields the feed filters and sorts on, one slot per post.
+// Categories are stored as a bitset per post in a single flat array of categoryWords longs per slot. Bits are handed
+// out densely in the order categories are first seen, so the width follows the number of categories, not their ids.
+// Disabled unless catalog.enabled=true; while disabled or loading, callers fall back to the database.
+@Component
+public class PostCatalog {
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final long NO_DATE = Long.MIN_VALUE;
+
+    private final PostRepository postRepository;
+    private final PostToCategoryRepository postToCategoryRepository;
+    private final LikeRankingStore likeRankingStore;
+    private final boolean enabled;
+    private final Logger logger = LoggerFactory.getLogger(PostCatalog.class);
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Integer, Integer> slots = new HashMap<>();
+    private final Map<Integer, Integer> categoryBits = new HashMap<>();
+    private int size;
+    private int categoryWords = 1;
+    private int[] ids = new int[INITIAL_CAPACITY];
+    private int[] authorIds = new int[INITIAL_CAPACITY];
+    private long[] createdMicros = new long[INITIAL_CAPACITY];
+    private int[] likes = new int[INITIAL_CAPACITY];
+    private long[] categories = new long[INITIAL_CAPACITY];
+    private volatile boolean ready = false;
+
+    public PostCatalog(PostRepository postRepository, PostToCategoryRepository postToCategoryRepository, LikeRankingStore likeRankingStore, @Value("${catalog.enabled:false}") boolean enabled) {
+        this.postRepository = postRepository;
+        this.postToCategoryRepository = postToCategoryRepository;
+        this.likeRankingStore = likeRankingStore;
+        this.enabled = enabled;
+        if (enabled) likeRankingStore.addScoreListener(this::likesChanged);
+    }
+
+    @Order(1)
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (!enabled) return;
+        lock.writeLock().lock();
+        try {
+            // Everything is read under the lock, so an upsert, remove or score change that lands during the load
+            // waits for it and is applied on top of the snapshot instead of being overwritten by older rows.
+            // Slots written before the load are in the snapshot as well, so start from empty.
+            List<PostRepository.CatalogRow> rows = postRepository.findCatalogRows();
+            List<PostToCategoryRepository.CategoryLink> links = postToCategoryRepository.findAllLinks();
+            Map<Integer, Integer> scores = likeRankingStore.getScores();
+            slots.clear();
+            Arrays.fill(categories, 0, size * categoryWords, 0L);
+            size = 0;
+            for (PostRepository.CatalogRow row : rows) {
+                int slot = slotFor(row.getId());
+                authorIds[slot] = row.getAuthorId();
+                createdMicros[slot] = row.getDateTime() == null ? NO_DATE : FeedCursor.toEpochMicros(row.getDateTime());
+                likes[slot] = scores.getOrDefault(row.getId(), 0);
+            }
+            for (PostToCategoryRepository.CategoryLink link : links) {
+                Integer slot = slots.get(link.getPostId());
+                if (slot != null) setCategory(slot, link.getCategoryId());
+            }
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        Footprint footprint = getFootprint();
+        logger.info("Post catalog loaded for {} posts ({} KiB)", footprint.getPosts(), footprint.getTotalBytes() / 1024);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    // Inserts or updates a post; null categoryIds leaves the post's categories unchanged.
+    public void upsert(Integer postId, Integer authorId, @Nullable LocalDateTime dateTime, @Nullable Collection<Integer> categoryIds) {
+        if (!enabled) return;
+        lock.writeLock().lock();
+        try {
+            int slot = slotFor(postId);
+            authorIds[slot] = authorId;
+            createdMicros[slot] = dateTime == null ? NO_DATE : FeedCursor.toEpochMicros(dateTime);
+            if (categoryIds != null) {
+                Arrays.fill(categories, slot * categoryWords, (slot + 1) * categoryWords, 0L);
+                for (Integer categoryId : categoryIds) {
+                    setCategory(slot, categoryId);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Integer postId) {
+        if (!enabled) return;
+        lock.writeLock().lock();
+        try {
+            Integer slot = slots.remove(postId);
+            if (slot == null) return;
+            int last = --size;
+            if (slot != last) {
+                ids[slot] = ids[last];
+                authorIds[slot] = authorIds[last];
+                createdMicros[slot] = createdMicros[last];
+                likes[slot] = likes[last];
+                System.arraycopy(categories, last * categoryWords, categories, slot * categoryWords, categoryWords);
+                slots.put(ids[slot], slot);
+            }
+            Arrays.fill(categories, last * categoryWords, (last + 1) * categoryWords, 0L);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Returns up to limit posts matching every given filter, strictly after the cursor in the requested order.
+    // The hit value is what the matching feed cursor carries: 0 for ID, epoch micros for DATE, likes for LIKES.
+    public List<Hit> query(@Nullable Integer authorId, @Nullable Collection<Integer> categoryIds, @Nullable LocalDateTime since, SortKey sortKey, @Nullable FeedCursor after, int limit) {
+        lock.readLock().lock();
+        try {
+            long[] mask = categoryMask(categoryIds);
+            if (mask == null) return List.of();
+            long sinceMicros = since == null ? NO_DATE : FeedCursor.toEpochMicros(since);
+            Comparator<Integer> order = order(sortKey);
+            PriorityQueue<Integer> best = new PriorityQueue<>(limit + 1, order.reversed());
+            for (int slot = 0; slot < size; slot++) {
+                if (authorId != null && authorIds[slot] != authorId) continue;
+                if (since != null && createdMicros[slot] < sinceMicros) continue;
+                if (!hasCategories(slot, mask)) continue;
+                if (after != null && !isAfter(slot, sortKey, after)) continue;
+                if (best.size() < limit) {
+                    best.add(slot);
+                } else if (order.compare(slot, best.peek()) < 0) {
+                    best.poll();
+                    best.add(slot);
+                }
+            }
+            List<Integer> ordered = new ArrayList<>(best);
+            ordered.sort(order);
+            List<Hit> hits = new ArrayList<>(ordered.size());
+            for (int slot : ordered) {
+                hits.add(new Hit(ids[slot], value(slot, sortKey)));
+            }
+            return hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Footprint getFootprint() {
+        lock.readLock().lock();
+        try {
+            long arrayBytes = 4L * ids.length + 4L * authorIds.length + 8L * createdMicros.length + 4L * likes.length + 8L * categories.length;
+            // HashMap node plus two boxed Integers per entry, and the table slot.
+            long indexBytes = slots.size() * (32L + 16L + 16L) + 4L * Math.max(16, Integer.highestOneBit(Math.max(1, slots.size())) * 2)
+                    + categoryBits.size() * (32L + 16L + 16L);
+            return new Footprint(size, ids.length, categoryWords, arrayBytes, indexBytes);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // The score is read under the catalog lock, like in load(), so the last writer always stores the newest score.
+    private void likesChanged(int postId) {
+        lock.writeLock().lock();
+        try {
+            Integer slot = slots.get(postId);
+            if (slot != null) likes[slot] = likeRankingStore.getScore(postId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private int slotFor(Integer postId) {
+        Integer existing = slots.get(postId);
+        if (existing != null) return existing;
+        if (size == ids.length) grow(ids.length * 2);
+        int slot = size++;
+        ids[slot] = postId;
+        authorIds[slot] = 0;
+        createdMicros[slot] = NO_DATE;
+        likes[slot] = 0;
+        slots.put(postId, slot);
+        return slot;
+    }
+
+    private void grow(int capacity) {
+        ids = Arrays.copyOf(ids, capacity);
+        authorIds = Arrays.copyOf(authorIds, capacity);
+        createdMicros = Arrays.copyOf(createdMicros, capacity);
+        likes = Arrays.copyOf(likes, capacity);
+        categories = Arrays.copyOf(categories, capacity * categoryWords);
+    }
+
+    private void setCategory(int slot, int categoryId) {
+        int bit = categoryBits.computeIfAbsent(categoryId, id -> categoryBits.size());
+        int word = bit >>> 6;
+        if (word >= categoryWords) widenCategories(word + 1);
+        categories[slot * categoryWords + word] |= 1L << (bit & 63);
+    }
+
+    private void widenCategories(int words) {
+        long[] widened = new long[ids.length * words];
+        for (int slot = 0; slot < size; slot++) {
+            System.arraycopy(categories, slot * categoryWords, widened, slot * words, categoryWords);
+        }
+        categories = widened;
+        categoryWords = words;
+    }
+
+    // Null when a requested category is not on any stored post, meaning nothing can match.
+    @Nullable
+    private long[] categoryMask(@Nullable Collection<Integer> categoryIds) {
+        long[] mask = new long[categoryWords];
+        if (categoryIds == null) return mask;
+        for (Integer categoryId : categoryIds) {
+            Integer bit = categoryBits.get(categoryId);
+            if (bit == null) return null;
+            mask[bit >>> 6] |= 1L << (bit & 63);
+        }
+        return mask;
+    }
+
+    private boolean hasCategories(int slot, long[] mask) {
+        int base = slot * categoryWords;
+        for (int word = 0; word < mask.length; word++) {
+            if ((categories[base + word] & mask[word]) != mask[word]) return false;
+        }
+        return true;
+    }
+
+    private long value(int slot, SortKey sortKey) {
+        return switch (sortKey) {
+            case ID -> 0;
+            case DATE -> createdMicros[slot];
+            case LIKES -> likes[slot];
+        };
+    }
+
+    private boolean isAfter(int slot, SortKey sortKey, FeedCursor after) {
+        if (sortKey == SortKey.ID) return ids[slot] > after.getId();
+        long value = value(slot, sortKey);
+        return value < after.getValue() || (value == after.getValue() && ids[slot] < after.getId());
+    }
+
+    // Best first: ascending id for ID, otherwise descending value then descending id.
+    private Comparator<Integer> order(SortKey sortKey) {
+        if (sortKey == SortKey.ID) return (a, b) -> Integer.compare(ids[a], ids[b]);
+        return (a, b) -> {
+            int byValue = Long.compare(value(b, sortKey), value(a, sortKey));
+            return byValue != 0 ? byValue : Integer.compare(ids[b], ids[a]);
+        };
+    }
+
+    public enum SortKey {
+        ID, DATE, LIKES
+    }
+
+    public static class Hit {
+        private final int postId;
+        private final long value;
+
+        public Hit(int postId, long value) {
+            this.postId = postId;
+            this.value = value;
+        }
+
+        public int getPostId() {
+            return postId;
+        }
+
+        public long getValue() {
+            return value;
+        }
+    }
+
+    public static class Footprint {
+        private final int posts;
+        private final int capacity;
+        private final int categoryWords;
+        private final long arrayBytes;
+        private final long indexBytes;
+
+        public Footprint(int posts, int capacity, int categoryWords, long arrayBytes, long indexBytes) {
+            this.posts = posts;
+            this.capacity = capacity;
+            this.categoryWords = categoryWords;
+            this.arrayBytes = arrayBytes;
+            this.indexBytes = indexBytes;
+        }
+
+        public int getPosts() {
+            return posts;
+        }
+
+        public int getCapacity() {
+            return capacity;
+        }
+
+        public int getCategoryWords() {
+            return categoryWords;
+        }
+
+        public long getArrayBytes() {
+            return arrayBytes;
+        }
+
+        public long getIndexBytes() {
+            return indexBytes;
+        }
+
+        public long getTotalBytes() {
+            return arrayBytes + indexBytes;
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.backend.melodyHub.component;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+@Component
+@Endpoint(id = "postcatalog")
+public class PostCatalogEndpoint {
+    private final PostCatalog postCatalog;
+
+    public PostCatalogEndpoint(PostCatalog postCatalog) {
+        this.postCatalog = postCatalog;
+    }
+
+    @ReadOperation
+    public PostCatalog.Footprint footprint() {
+        return postCatalog.getFootprint();
+    }
+}
@@ -0,0 +1,181 @@
+package com.backend.melodyHub.component;
+
+import com.backend.melodyHub.model.Post;
+import com.backend.melodyHub.repository.LikeRepository;
+import com.backend.melodyHub.repository.PostPreviewView;
+import com.backend.melodyHub.repository.PostRepository;
+import jakarta.annotation.Nullable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static com.backend.melodyHub.repository.PostSpecifications.*;
+
+@Service
+public class PostFeedService {
+    public static final int DEFAULT_LIMIT = 20;
+    public static final int MAX_LIMIT = 100;
+    // Above this many index matches an IN list stops paying off and the name filter is left to the database.
+    private static final int MAX_INDEXED_NAME_MATCHES = 1000;
+    private static final Sort NEWEST_FIRST = Sort.by(Sort.Direction.DESC, "dateTime", "id");
+
+    private final PostRepository postRepository;
+    private final LikeRepository likeRepository;
+    private final LikeRankingStore likeRankingStore;
+    private final PostSearchIndex postSearchIndex;
+    private final PostCatalog postCatalog;
+    private final FeedCache feedCache;
+
+    public PostFeedService(PostRepository postRepository, LikeRepository likeRepository, LikeRankingStore likeRankingStore, PostSearchIndex postSearchIndex, PostCatalog postCatalog, FeedCache feedCache) {
+        this.postRepository = postRepository;
+        this.likeRepository = likeRepository;
+        this.likeRankingStore = likeRankingStore;
+        this.postSearchIndex = postSearchIndex;
+        this.postCatalog = postCatalog;
+        this.feedCache = feedCache;
+    }
+
+    public FeedPage getPage(@Nullable Integer userId, @Nullable List<Integer> categoryIds, @Nullable LocalDateTime since, @Nullable String sort, @Nullable String name, @Nullable String cursor, int limit) {
+        FeedCursor after = cursor == null || cursor.isBlank() ? null : FeedCursor.decode(cursor);
+        int pageSize = Math.max(1, Math.min(limit, MAX_LIMIT));
+        FeedCache.Key key = FeedCache.key(userId, categoryIds, since, sort, name, cursor, pageSize);
+        FeedCache.CachedPage cached = feedCache.get(key);
+        if (cached != null) return new FeedPage(findAllInOrder(cached.getPostIds()), cached.getNextCursor());
+
+        long generation = feedCache.generation();
+        FeedPage page = load(userId, categoryIds, since, sort, name, after, pageSize);
+        feedCache.put(key, generation, page.getPosts().stream().map(PostPreviewView::getId).toList(), page.getNextCursor());
+        return page;
+    }
+
+    private FeedPage load(@Nullable Integer userId, @Nullable List<Integer> categoryIds, @Nullable LocalDateTime since, @Nullable String sort, @Nullable String name, @Nullable FeedCursor after, int pageSize) {
+        if ((name == null || name.isEmpty()) && postCatalog.isReady()) {
+            return fromCatalog(userId, categoryIds, since, sortKey(sort), after, pageSize);
+        }
+
+        Specification<Post> filters = filters(userId, categoryIds, since, name);
+        boolean filtered = userId != null || (categoryIds != null && !categoryIds.isEmpty()) || since != null || (name != null && !name.isEmpty());
+
+        if ("date".equalsIgnoreCase(sort)) return byDate(filters, after, pageSize);
+        if ("likes".equalsIgnoreCase(sort)) {
+            if (!filtered && likeRankingStore.isReady()) return byRanking(after, pageSize);
+            return byLikes(filters, after, pageSize);
+        }
+        return byId(filters, after, pageSize);
+    }
+
+    // Every matching post in feed order, without pagination; must be consumed inside a transaction and closed.
+    public Stream<PostPreviewView> stream(@Nullable Integer userId, @Nullable List<Integer> categoryIds, @Nullable LocalDateTime since, @Nullable String sort, @Nullable String name) {
+        Specification<Post> spec = filters(userId, categoryIds, since, name);
+        if ("date".equalsIgnoreCase(sort)) return postRepository.streamPreviews(spec, NEWEST_FIRST);
+        if ("likes".equalsIgnoreCase(sort)) {
+            return postRepository.streamPreviews(spec.and(orderedByLikesSince(LikeRankingStore.windowStart())), Sort.unsorted());
+        }
+        return postRepository.streamPreviews(spec, Sort.by("id"));
+    }
+
+    private Specification<Post> filters(@Nullable Integer userId, @Nullable List<Integer> categoryIds, @Nullable LocalDateTime since, @Nullable String name) {
+        Specification<Post> filters = Specification.where(null);
+        if (userId != null) filters = filters.and(hasAuthor(userId));
+        if (categoryIds != null && !categoryIds.isEmpty()) filters = filters.and(hasAllCategories(categoryIds));
+        if (since != null) filters = filters.and(createdSince(since));
+        if (name != null && !name.isEmpty()) filters = filters.and(nameFilter(name));
+        return filters;
+    }
+
+    private FeedPage fromCatalog(@Nullable Integer userId, @Nullable List<Integer> categoryIds, @Nullable LocalDateTime since, PostCatalog.SortKey sortKey, @Nullable FeedCursor after, int pageSize) {
+        List<PostCatalog.Hit> hits = postCatalog.query(userId, categoryIds, since, sortKey, after, pageSize + 1);
+        List<PostCatalog.Hit> page = hits.size() > pageSize ? hits.subList(0, pageSize) : hits;
+        List<PostPreviewView> posts = findAllInOrder(page.stream().map(PostCatalog.Hit::getPostId).toList());
+        if (hits.size() <= pageSize) return new FeedPage(posts, null);
+        PostCatalog.Hit last = page.get(pageSize - 1);
+        return new FeedPage(posts, new FeedCursor(last.getValue(), last.getPostId()).encode());
+    }
+
+    private static PostCatalog.SortKey sortKey(@Nullable String sort) {
+        if ("date".equalsIgnoreCase(sort)) return PostCatalog.SortKey.DATE;
+        if ("likes".equalsIgnoreCase(sort)) return PostCatalog.SortKey.LIKES;
+        return PostCatalog.SortKey.ID;
+    }
+
+    private Specification<Post> nameFilter(String name) {
+        if (!postSearchIndex.isReady()) return nameContains(name);
+        List<Integer> matches = postSearchIndex.findNameMatches(name);
+        if (matches.size() > MAX_INDEXED_NAME_MATCHES) return nameContains(name);
+        if (matches.isEmpty()) return (root, query, cb) -> cb.disjunction();
+        return idIn(matches);
+    }
+
+    private FeedPage byId(Specification<Post> filters, @Nullable FeedCursor after, int pageSize) {
+        Specification<Post> spec = after == null ? filters : filters.and(idAfter(after.getId()));
+        List<PostPreviewView> posts = postRepository.findPreviews(spec, Sort.by("id"), pageSize + 1);
+        if (posts.size() <= pageSize) return new FeedPage(posts, null);
+        PostPreviewView last = posts.get(pageSize - 1);
+        return new FeedPage(posts.subList(0, pageSize), new FeedCursor(0, last.getId()).encode());
+    }
+
+    private FeedPage byDate(Specification<Post> filters, @Nullable FeedCursor after, int pageSize) {
+        Specification<Post> spec = after == null ? filters : filters.and(createdBefore(FeedCursor.fromEpochMicros(after.getValue()), after.getId()));
+        List<PostPreviewView> posts = postRepository.findPreviews(spec, NEWEST_FIRST, pageSize + 1);
+        if (posts.size() <= pageSize) return new FeedPage(posts, null);
+        PostPreviewView last = posts.get(pageSize - 1);
+        return new FeedPage(posts.subList(0, pageSize), new FeedCursor(FeedCursor.toEpochMicros(last.getDateTime()), last.getId()).encode());
+    }
+
+    private FeedPage byLikes(Specification<Post> filters, @Nullable FeedCursor after, int pageSize) {
+        LocalDateTime windowStart = LikeRankingStore.windowStart();
+        Specification<Post> spec = after == null ? filters : filters.and(fewerLikesSince(windowStart, after.getValue(), after.getId()));
+        List<PostPreviewView> posts = postRepository.findPreviews(spec.and(orderedByLikesSince(windowStart)), Sort.unsorted(), pageSize + 1);
+        if (posts.size() <= pageSize) return new FeedPage(posts, null);
+        PostPreviewView last = posts.get(pageSize - 1);
+        long lastLikes = likeRepository.countByPostIdAndLikeDateGreaterThanEqual(last.getId(), windowStart);
+        return new FeedPage(posts.subList(0, pageSize), new FeedCursor(lastLikes, last.getId()).encode());
+    }
+
+    private FeedPage byRanking(@Nullable FeedCursor after, int pageSize) {
+        List<LikeRankingStore.RankedPost> ranked = likeRankingStore.getPage(after, pageSize + 1);
+        List<LikeRankingStore.RankedPost> page = ranked.size() > pageSize ? ranked.subList(0, pageSize) : ranked;
+        List<PostPreviewView> posts = findAllInOrder(page.stream().map(LikeRankingStore.RankedPost::getPostId).toList());
+        if (ranked.size() <= pageSize) return new FeedPage(posts, null);
+        LikeRankingStore.RankedPost last = page.get(pageSize - 1);
+        return new FeedPage(posts, new FeedCursor(last.getScore(), last.getPostId()).encode());
+    }
+
+    private List<PostPreviewView> findAllInOrder(List<Integer> postIds) {
+        Map<Integer, PostPreviewView> postsById = postRepository.findPreviewsByIds(postIds)
+                .stream()
+                .collect(Collectors.toMap(PostPreviewView::getId, Function.identity()));
+        return postIds.stream()
+                .map(postsById::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    public static class FeedPage {
+        private final List<PostPreviewView> posts;
+        @Nullable
+        private final String nextCursor;
+
+        public FeedPage(List<PostPreviewView> posts, @Nullable String nextCursor) {
+            this.posts = posts;
+            this.nextCursor = nextCursor;
+        }
+
+        public List<PostPreviewView> getPosts() {
+            return posts;
+        }
+
+        @Nullable
+        public String getNextCursor() {
+            return nextCursor;
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.backend.melodyHub.component;
+
+import com.backend.melodyHub.repository.PostRepository;
+import jakarta.annotation.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+// Like counts and the caller's like/save state for a set of posts: counts come from one IN-list query on
+// post.like_count, the caller's state from MembershipCache.
+@Component
+public class PostInteractionService {
+    public static final int MAX_BATCH = 200;
+
+    private final PostRepository postRepository;
+    private final MembershipCache membershipCache;
+
+    public PostInteractionService(PostRepository postRepository, MembershipCache membershipCache) {
+        this.postRepository = postRepository;
+        this.membershipCache = membershipCache;
+    }
+
+    // Batch endpoints accept between 1 and MAX_BATCH post ids per call.
+    public static boolean isValidBatch(@Nullable Collection<Integer> postIds) {
+        return postIds != null && !postIds.isEmpty() && postIds.size() <= MAX_BATCH && postIds.stream().noneMatch(Objects::isNull);
+    }
+
+    public Interactions load(Integer userId, Collection<Integer> postIds) {
+        if (postIds.isEmpty()) return new Interactions(Map.of(), Set.of(), Set.of());
+        Set<Integer> ids = new HashSet<>(postIds);
+        return new Interactions(likeCounts(ids), likedPostIds(userId, ids), savedPostIds(userId, ids));
+    }
+
+    // Read from post.like_count; unknown posts are absent from the map.
+    public Map<Integer, Long> likeCounts(Collection<Integer> postIds) {
+        Map<Integer, Long> likeCounts = new HashMap<>();
+        if (postIds.isEmpty()) return likeCounts;
+        for (PostRepository.PostLikes row : postRepository.findLikeCounts(new HashSet<>(postIds))) {
+            likeCounts.put(row.getPostId(), row.getLikes().longValue());
+        }
+        return likeCounts;
+    }
+
+    public Set<Integer> likedPostIds(Integer userId, Collection<Integer> postIds) {
+        if (postIds.isEmpty()) return new HashSet<>();
+        return membershipCache.likedAmong(userId, postIds);
+    }
+
+    public Set<Integer> savedPostIds(Integer userId, Collection<Integer> postIds) {
+        if (postIds.isEmpty()) return new HashSet<>();
+        return membershipCache.savedAmong(userId, postIds);
+    }
+
+    public static class Interactions {
+        private final Map<Integer, Long> likeCounts;
+        private final Set<Integer> liked;
+        private final Set<Integer> saved;
+
+        public Interactions(Map<Integer, Long> likeCounts, Set<Integer> liked, Set<Integer> saved) {
+            this.likeCounts = likeCounts;
+            this.liked = liked;
+            this.saved = saved;
+        }
+
+        public long getLikeCount(Integer postId) {
+            return likeCounts.getOrDefault(postId, 0L);
+        }
+
+        public boolean isLiked(Integer postId) {
+            return liked.contains(postId);
+        }
+
+        public boolean isSaved(Integer postId) {
+            return saved.contains(postId);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.backend.melodyHub.component;
+
+import com.backend.melodyHub.dto.PostPreviewDTO;
+import com.backend.melodyHub.repository.PostPreviewView;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+// Writes posts as newline-delimited PostPreviewDTO JSON while the query is still being read.
+// The stream is opened inside its own read-only transaction on the response thread. Rows are unmanaged
+// PostPreviewView projections, so nothing accumulates in the persistence context regardless of result size.
+// Preview urls come from MediaLinks, so streams and JSON lists agree on redirect paths versus presigned urls.
+@Component
+public class PostPreviewStreamer {
+    public static final String NDJSON = "application/x-ndjson";
+    private static final int FLUSH_EVERY = 100;
+
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final MediaLinks mediaLinks;
+
+    public PostPreviewStreamer(PlatformTransactionManager transactionManager, ObjectMapper objectMapper, MediaLinks mediaLinks) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.objectMapper = objectMapper;
+        this.mediaLinks = mediaLinks;
+    }
+
+    public StreamingResponseBody stream(Supplier<Stream<PostPreviewView>> source) {
+        return out -> transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<PostPreviewView> posts = source.get()) {
+                Iterator<PostPreviewView> iterator = posts.iterator();
+                int written = 0;
+                while (iterator.hasNext()) {
+                    PostPreviewView post = iterator.next();
+                    out.write(objectMapper.writeValueAsBytes(PostPreviewDTO.fromView(post, mediaLinks.previewUrl(post.getId(), post.getS3Key()))));
+                    out.write('\n');
+                    written++;
+                    if (written == 1 || written % FLUSH_EVERY == 0) out.flush();
+                }
+                out.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+}
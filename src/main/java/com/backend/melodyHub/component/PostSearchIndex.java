@@ -0,0 +1,250 @@
+package com.backend.melodyHub.component;
+
+import com.backend.melodyHub.repository.PostRepository;
+import jakarta.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Trigram inverted index over post names (and optionally descriptions) for substring search.
+// Candidates come from intersecting the posting lists of the query trigrams and are then verified with contains.
+@Component
+public class PostSearchIndex {
+    private static final int GRAM = 3;
+
+    private final PostRepository postRepository;
+    private final boolean indexDescriptions;
+    private final Logger logger = LoggerFactory.getLogger(PostSearchIndex.class);
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Postings> postings = new HashMap<>();
+    private final Map<Integer, Document> documents = new HashMap<>();
+    private volatile boolean ready = false;
+
+    public PostSearchIndex(PostRepository postRepository, @Value("${search.index-descriptions:false}") boolean indexDescriptions) {
+        this.postRepository = postRepository;
+        this.indexDescriptions = indexDescriptions;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        lock.writeLock().lock();
+        try {
+            // Queried under the lock: an index or delete that commits during the load waits for it and is applied
+            // on top of the snapshot, instead of being overwritten by rows read before it. Anything indexed before
+            // the load is in the snapshot as well, so start from empty.
+            List<PostRepository.SearchDocument> all = postRepository.findSearchDocuments();
+            documents.clear();
+            postings.clear();
+            for (PostRepository.SearchDocument document : all) {
+                add(document.getId(), document.getName(), document.getDescription());
+            }
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Search index loaded for {} posts ({} trigrams)", documents.size(), postings.size());
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public void index(Integer postId, @Nullable String name, @Nullable String description) {
+        lock.writeLock().lock();
+        try {
+            remove(postId);
+            add(postId, name, description);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void delete(Integer postId) {
+        lock.writeLock().lock();
+        try {
+            remove(postId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Ids of all posts whose name contains the query, in no particular order.
+    public List<Integer> findNameMatches(String query) {
+        String needle = normalize(query);
+        lock.readLock().lock();
+        try {
+            List<Integer> matches = new ArrayList<>();
+            for (int postId : candidates(needle)) {
+                Document document = documents.get(postId);
+                if (document != null && document.name.contains(needle)) matches.add(postId);
+            }
+            return matches;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public SearchResult search(String query, int offset, int limit) {
+        String needle = normalize(query);
+        lock.readLock().lock();
+        try {
+            List<Hit> hits = new ArrayList<>();
+            for (int postId : candidates(needle)) {
+                Document document = documents.get(postId);
+                if (document == null) continue;
+                int rank = document.rank(needle);
+                if (rank >= 0) hits.add(new Hit(postId, rank, document.name.length()));
+            }
+            hits.sort(Comparator.comparingInt((Hit hit) -> hit.rank)
+                    .thenComparingInt(hit -> hit.length)
+                    .thenComparing(hit -> hit.postId, Comparator.reverseOrder()));
+            List<Integer> page = hits.stream().skip(offset).limit(limit).map(hit -> hit.postId).toList();
+            return new SearchResult(page, hits.size());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int[] candidates(String needle) {
+        if (needle.length() < GRAM) {
+            return documents.keySet().stream().mapToInt(Integer::intValue).toArray();
+        }
+        List<Postings> lists = new ArrayList<>();
+        for (long gram : grams(needle)) {
+            Postings list = postings.get(gram);
+            if (list == null) return new int[0];
+            lists.add(list);
+        }
+        lists.sort(Comparator.comparingInt(list -> list.size));
+        int[] result = Arrays.copyOf(lists.get(0).ids, lists.get(0).size);
+        int size = result.length;
+        for (int i = 1; i < lists.size() && size > 0; i++) {
+            Postings other = lists.get(i);
+            int kept = 0;
+            for (int j = 0; j < size; j++) {
+                if (other.contains(result[j])) result[kept++] = result[j];
+            }
+            size = kept;
+        }
+        return Arrays.copyOf(result, size);
+    }
+
+    private void add(Integer postId, @Nullable String name, @Nullable String description) {
+        Document document = new Document(normalize(name), indexDescriptions ? normalize(description) : "");
+        documents.put(postId, document);
+        for (long gram : document.grams()) {
+            postings.computeIfAbsent(gram, key -> new Postings()).add(postId);
+        }
+    }
+
+    private void remove(Integer postId) {
+        Document document = documents.remove(postId);
+        if (document == null) return;
+        for (long gram : document.grams()) {
+            Postings list = postings.get(gram);
+            if (list == null) continue;
+            list.remove(postId);
+            if (list.size == 0) postings.remove(gram);
+        }
+    }
+
+    private static String normalize(@Nullable String text) {
+        return text == null ? "" : text.toLowerCase(Locale.ROOT);
+    }
+
+    private static Set<Long> grams(String text) {
+        Set<Long> grams = new HashSet<>();
+        for (int i = 0; i + GRAM <= text.length(); i++) {
+            grams.add(((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2));
+        }
+        return grams;
+    }
+
+    public static class SearchResult {
+        private final List<Integer> postIds;
+        private final int total;
+
+        public SearchResult(List<Integer> postIds, int total) {
+            this.postIds = postIds;
+            this.total = total;
+        }
+
+        public List<Integer> getPostIds() {
+            return postIds;
+        }
+
+        public int getTotal() {
+            return total;
+        }
+    }
+
+    private static class Document {
+        private final String name;
+        private final String description;
+
+        Document(String name, String description) {
+            this.name = name;
+            this.description = description;
+        }
+
+        Set<Long> grams() {
+            Set<Long> grams = PostSearchIndex.grams(name);
+            grams.addAll(PostSearchIndex.grams(description));
+            return grams;
+        }
+
+        // Lower is better: exact name, name prefix, name word start, anywhere in the name, description only.
+        int rank(String needle) {
+            int position = name.indexOf(needle);
+            if (position == 0) return name.length() == needle.length() ? 0 : 1;
+            if (position > 0) return Character.isLetterOrDigit(name.charAt(position - 1)) ? 3 : 2;
+            return description.contains(needle) ? 4 : -1;
+        }
+    }
+
+    private static class Hit {
+        private final int postId;
+        private final int rank;
+        private final int length;
+
+        Hit(int postId, int rank, int length) {
+            this.postId = postId;
+            this.rank = rank;
+            this.length = length;
+        }
+    }
+
+    // Sorted, growable posting list of post ids.
+    private static class Postings {
+        private int[] ids = new int[4];
+        private int size;
+
+        boolean contains(int id) {
+            return Arrays.binarySearch(ids, 0, size, id) >= 0;
+        }
+
+        void add(int id) {
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            if (position >= 0) return;
+            int insertAt = -position - 1;
+            if (size == ids.length) ids = Arrays.copyOf(ids, size * 2);
+            System.arraycopy(ids, insertAt, ids, insertAt + 1, size - insertAt);
+            ids[insertAt] = id;
+            size++;
+        }
+
+        void remove(int id) {
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            if (position < 0) return;
+            System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+            size--;
+        }
+    }
+}
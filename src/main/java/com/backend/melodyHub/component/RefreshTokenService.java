@@ -0,0 +1,113 @@
+package com.backend.melodyHub.component;
+
+import com.backend.melodyHub.model.RefreshToken;
+import com.backend.melodyHub.model.User;
+import com.backend.melodyHub.repository.RefreshTokenRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.Optional;
+
+// Long-lived refresh tokens, so a client renews its access token through /refresh instead of sending the password
+// (and paying for BCrypt) every hour. Tokens are random and only their SHA-256 is stored. Each use rotates the
+// token: the presented one is marked replaced and a new one is returned. Presenting a replaced token again after
+// reuse-grace-ms means it was copied, so every token of that user is revoked; inside the grace window it is most
+// likely a client retrying a refresh whose response it lost, which only gets a 401. Logged-out and expired tokens
+// are just rejected. Revocation is only checked here; access tokens stay stateless and run out on their own, so
+// nothing is added to the per-request path.
+@Component
+public class RefreshTokenService {
+    private static final int TOKEN_BYTES = 32;
+    private static final String INVALID = "Invalid refresh token";
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final Duration lifetime;
+    private final Duration reuseGrace;
+    private final SecureRandom random = new SecureRandom();
+    private final Logger logger = LoggerFactory.getLogger(RefreshTokenService.class);
+
+    public RefreshTokenService(RefreshTokenRepository refreshTokenRepository, @Value("${auth.refresh-token.ttl-ms:2592000000}") long ttlMs,
+                               @Value("${auth.refresh-token.reuse-grace-ms:10000}") long reuseGraceMs) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.lifetime = Duration.ofMillis(ttlMs);
+        this.reuseGrace = Duration.ofMillis(reuseGraceMs);
+    }
+
+    public String issue(User user) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        random.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        refreshTokenRepository.save(new RefreshToken(user, digest(token), Instant.now().plus(lifetime)));
+        return token;
+    }
+
+    // Spends the token and returns its user together with the replacement token.
+    public Rotation rotate(String token) {
+        RefreshToken stored = find(token).orElseThrow(RefreshTokenService::invalid);
+        Instant now = Instant.now();
+        if (stored.isRevoked() || stored.getExpiresAt().isBefore(now)) throw invalid();
+        if (stored.getReplacedAt() == null && refreshTokenRepository.markReplaced(stored.getId(), now) == 1) {
+            return new Rotation(stored.getUser(), issue(stored.getUser()));
+        }
+        // Already replaced, or a concurrent refresh (or logout) with the same token got there first just now.
+        Instant replacedAt = stored.getReplacedAt() != null ? stored.getReplacedAt() : now;
+        if (replacedAt.plus(reuseGrace).isBefore(now)) {
+            refreshTokenRepository.revokeAllByUserId(stored.getUser().getId());
+            logger.warn("Refresh token reused for user {}; revoked all of their sessions", stored.getUser().getId());
+        }
+        throw invalid();
+    }
+
+    // Logging out twice, or with a token that was already revoked, changes nothing.
+    public void revoke(String token) {
+        find(token).filter(stored -> !stored.isRevoked()).ifPresent(stored -> refreshTokenRepository.revokeIfActive(stored.getId()));
+    }
+
+    public void revokeAll(Integer userId) {
+        refreshTokenRepository.revokeAllByUserId(userId);
+    }
+
+    // For account deletion, where the rows have to go before the user row they reference.
+    public void deleteAll(Integer userId) {
+        refreshTokenRepository.deleteAllByUserId(userId);
+    }
+
+    // Replaced tokens are kept until they expire so reuse can still be detected.
+    @Scheduled(fixedDelayString = "${auth.refresh-token.purge-interval-ms:3600000}", initialDelayString = "${auth.refresh-token.purge-interval-ms:3600000}")
+    public void purgeExpired() {
+        int purged = refreshTokenRepository.deleteExpired(Instant.now());
+        if (purged > 0) logger.info("Purged {} expired refresh tokens", purged);
+    }
+
+    private Optional<RefreshToken> find(String token) {
+        if (token == null || token.isBlank()) return Optional.empty();
+        return refreshTokenRepository.findByTokenHash(digest(token));
+    }
+
+    private static InvalidTokenException invalid() {
+        return new InvalidTokenException(HttpStatus.UNAUTHORIZED, INVALID);
+    }
+
+    private static String digest(String token) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public record Rotation(User user, String refreshToken) {
+    }
+}
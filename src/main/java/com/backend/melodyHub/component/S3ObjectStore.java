@@ -0,0 +1,84 @@
+package com.backend.melodyHub.component;
+
+import jakarta.annotation.Nullable;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.auth.signer.AwsS3V4Signer;
+import software.amazon.awssdk.auth.signer.AwsSignerExecutionAttribute;
+import software.amazon.awssdk.core.interceptor.ExecutionAttributes;
+import software.amazon.awssdk.core.signer.Presigner;
+import software.amazon.awssdk.core.signer.Signer;
+import software.amazon.awssdk.http.SdkHttpFullRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+import software.amazon.awssdk.services.s3.presigner.model.GetObjectPresignRequest;
+import software.amazon.awssdk.services.s3.presigner.model.PresignedGetObjectRequest;
+import software.amazon.awssdk.services.s3.presigner.model.PutObjectPresignRequest;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+@Component
+@ConditionalOnProperty(name = "storage.type", havingValue = "s3", matchIfMissing = true)
+public class S3ObjectStore implements ObjectStore {
+    private final S3Presigner s3Presigner;
+    private final String bucket;
+
+    public S3ObjectStore(S3Presigner s3Presigner, @Value("${aws.s3.bucket}") String bucket) {
+        this.s3Presigner = s3Presigner;
+        this.bucket = bucket;
+    }
+
+    @Override
+    public String presignPut(String objectKey, Duration lifetime) {
+        PutObjectRequest objectRequest = PutObjectRequest.builder().bucket(bucket).key(objectKey).build();
+        PutObjectPresignRequest presignRequest = PutObjectPresignRequest.builder().signatureDuration(lifetime).putObjectRequest(objectRequest).build();
+        return s3Presigner.presignPutObject(presignRequest).url().toString();
+    }
+
+    @Override
+    public SignedUrl presignGet(String objectKey, @Nullable Instant signingTime, Duration lifetime) {
+        GetObjectRequest.Builder getObjectRequest = GetObjectRequest.builder().bucket(bucket).key(objectKey);
+        if (signingTime != null) {
+            getObjectRequest.overrideConfiguration(o -> o.signer(new FixedTimeSigner(signingTime, signingTime.plus(lifetime))));
+        }
+        GetObjectPresignRequest presignRequest = GetObjectPresignRequest.builder().signatureDuration(lifetime).getObjectRequest(getObjectRequest.build()).build();
+        PresignedGetObjectRequest presigned = s3Presigner.presignGetObject(presignRequest);
+        return new SignedUrl(presigned.url().toString(), signingTime != null ? signingTime.plus(lifetime) : presigned.expiration());
+    }
+
+    // The SDK presigner always signs at the current time; this request-level signer pins the signing clock and
+    // expiration and leaves the rest of SigV4 query signing to the standard S3 signer.
+    // It is built on the deprecated pre-SRA signer API on purpose: S3Presigner's SRA path creates its own fixed clock
+    // from Instant.now() and has no per-request clock option, while a request signer override is still honoured and
+    // routed to the legacy presign path. Revisit when the presigner exposes the signing clock.
+    @SuppressWarnings("deprecation")
+    private static final class FixedTimeSigner implements Signer, Presigner {
+        private static final AwsS3V4Signer DELEGATE = AwsS3V4Signer.create();
+
+        private final Clock signingClock;
+        private final Instant expiration;
+
+        FixedTimeSigner(Instant signingTime, Instant expiration) {
+            this.signingClock = Clock.fixed(signingTime, ZoneOffset.UTC);
+            this.expiration = expiration;
+        }
+
+        @Override
+        public SdkHttpFullRequest sign(SdkHttpFullRequest request, ExecutionAttributes executionAttributes) {
+            return DELEGATE.sign(request, executionAttributes);
+        }
+
+        @Override
+        public SdkHttpFullRequest presign(SdkHttpFullRequest request, ExecutionAttributes executionAttributes) {
+            ExecutionAttributes fixed = executionAttributes.copy()
+                    .putAttribute(AwsSignerExecutionAttribute.SIGNING_CLOCK, signingClock)
+                    .putAttribute(AwsSignerExecutionAttribute.PRESIGNER_EXPIRATION, expiration);
+            return DELEGATE.presign(request, fixed);
+        }
+    }
+}
@@ -1,77 +1,220 @@
 package com.backend.melodyHub.component;
 
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import software.amazon.awssdk.services.s3.model.GetObjectRequest;
-import software.amazon.awssdk.services.s3.model.PutObjectRequest;
-import software.amazon.awssdk.services.s3.presigner.S3Presigner;
-import software.amazon.awssdk.services.s3.presigner.model.GetObjectPresignRequest;
-import software.amazon.awssdk.services.s3.presigner.model.PresignedGetObjectRequest;
-import software.amazon.awssdk.services.s3.presigner.model.PresignedPutObjectRequest;
-import software.amazon.awssdk.services.s3.presigner.model.PutObjectPresignRequest;
 
 import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 @Service
 public class S3Service {
-
-    private final S3Presigner s3Presigner;
-    @Value("${aws.s3.bucket}")
-    private String bucket;
+    private static final Duration GET_SIGNATURE_DURATION = Duration.ofHours(10);
+    private static final Duration MAX_SIGNATURE_DURATION = Duration.ofDays(7);
+    private static final int PARALLEL_SIGN_THRESHOLD = 8;
+
+    private final ObjectStore objectStore;
+    // Presigned GET urls by object key, handed out again until refreshMargin before they expire, so feed and
+    // comment lists that reference the same objects don't re-sign them on every request.
+    private final int maxCachedUrls;
+    private final Duration refreshMargin;
+    private final LinkedHashMap<String, CachedUrl> urls = new LinkedHashMap<>(16, 0.75f, true);
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter sizeEvictions;
+    private final Counter expiredEvictions;
+    // Bucketed mode signs every GET as if at the start of its time bucket, so urls for a key are byte-identical
+    // across requests and instances within a bucket and browsers/proxies can cache the object. The expiry is set
+    // so a url handed out at the very end of its bucket still has minRemainingLifetime left.
+    private final boolean bucketedSigning;
+    private final Duration signingBucket;
+    private final Duration minRemainingLifetime;
+    private final int parallelism;
+    private final ExecutorService presignExecutor;
 
     @Autowired
-    public S3Service(S3Presigner s3Presigner) {
-        this.s3Presigner = s3Presigner;
+    public S3Service(ObjectStore objectStore, MeterRegistry meterRegistry, @Value("${s3.presign.cache.max-size:10000}") int maxCachedUrls, @Value("${s3.presign.cache.refresh-margin-ms:3600000}") long refreshMarginMs,
+                     @Value("${s3.presign.bucketed.enabled:false}") boolean bucketedSigning, @Value("${s3.presign.bucketed.bucket-ms:3600000}") long signingBucketMs, @Value("${s3.presign.bucketed.min-remaining-ms:3600000}") long minRemainingMs,
+                     @Value("${s3.presign.parallelism:0}") int parallelism) {
+        if (bucketedSigning && (signingBucketMs <= 0 || minRemainingMs < 0 || Duration.ofMillis(signingBucketMs + minRemainingMs).compareTo(MAX_SIGNATURE_DURATION) > 0)) {
+            throw new IllegalArgumentException("Presign bucket plus minimum remaining lifetime must be positive and at most 7 days");
+        }
+        this.objectStore = objectStore;
+        this.maxCachedUrls = maxCachedUrls;
+        this.refreshMargin = Duration.ofMillis(refreshMarginMs);
+        this.bucketedSigning = bucketedSigning;
+        this.signingBucket = Duration.ofMillis(signingBucketMs);
+        this.minRemainingLifetime = Duration.ofMillis(minRemainingMs);
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.presignExecutor = Executors.newFixedThreadPool(this.parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "s3-presign");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.hits = Counter.builder("s3.presign.cache.requests").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("s3.presign.cache.requests").tag("result", "miss").register(meterRegistry);
+        this.sizeEvictions = Counter.builder("s3.presign.cache.evictions").tag("cause", "size").register(meterRegistry);
+        this.expiredEvictions = Counter.builder("s3.presign.cache.evictions").tag("cause", "expired").register(meterRegistry);
+        Gauge.builder("s3.presign.cache.size", this, S3Service::cachedUrlCount).register(meterRegistry);
     }
 
 
     public String generateUploadUrl(String key) {
-        PutObjectRequest objectRequest = PutObjectRequest.builder().bucket(bucket).key(key).build();
-
-        PutObjectPresignRequest presignRequest = PutObjectPresignRequest.builder().signatureDuration(Duration.ofMinutes(15)).putObjectRequest(objectRequest).build();
-
-        PresignedPutObjectRequest presignedRequest = s3Presigner.presignPutObject(presignRequest);
-        return presignedRequest.url().toString();
+        return objectStore.presignPut(key, Duration.ofMinutes(15));
     }
 
     public String generatePresignedPreviewUrl(String key) {
-        if (key != null && !key.trim().isEmpty()) {
-            key = "images/" + key.replaceAll("\\.[^.]*$", ".jpg");
-        }
-        return generatePresignedUrl(key);
+        return generatePresignedUrl(MediaVariant.PREVIEW.objectKey(key));
     }
 
     public String generatePresignedImageUrl(String key) {
-        if (key != null && !key.trim().isEmpty()) {
-            key = "images/" + key;
-        }
-        return generatePresignedUrl(key);
+        return generatePresignedUrl(MediaVariant.IMAGE.objectKey(key));
     }
 
     public String generatePresignedVideoUrl(String key) {
-        if (key != null && !key.trim().isEmpty()) {
-            key = "videos/" + key.replaceAll("\\.[^.]*$", ".mp4");
-        }
-        return generatePresignedUrl(key);
+        return generatePresignedUrl(MediaVariant.VIDEO.objectKey(key));
     }
 
     public String generatePresignedLeadsheetUrl(String key) {
-        if (key != null && !key.trim().isEmpty()) {
-            return generatePresignedUrl(key);
+        return generatePresignedUrl(MediaVariant.LEADSHEET.objectKey(key));
+    }
+
+    // Urls for a page of keys of one variant, keyed by the given key; null and blank keys are left out. Each object is
+    // signed once however often it appears, and cache misses are signed in parallel on the presign pool.
+    public Map<String, String> generatePresignedUrls(MediaVariant variant, Collection<String> keys) {
+        Map<String, String> objectKeys = new HashMap<>();
+        for (String key : keys) {
+            String objectKey = variant.objectKey(key);
+            if (objectKey != null) objectKeys.put(key, objectKey);
+        }
+        Map<String, String> signed = new HashMap<>();
+        List<String> unsigned = new ArrayList<>();
+        for (String objectKey : new HashSet<>(objectKeys.values())) {
+            String cached = cachedUrl(objectKey);
+            if (cached != null) signed.put(objectKey, cached);
+            else unsigned.add(objectKey);
         }
-        return null;
+        signed.putAll(signAll(unsigned));
+        Map<String, String> urls = new HashMap<>();
+        objectKeys.forEach((key, objectKey) -> urls.put(key, signed.get(objectKey)));
+        return urls;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        presignExecutor.shutdownNow();
     }
 
     private String generatePresignedUrl(String key) {
-        if (key == null || key.trim().isEmpty()) {
+        if (key == null) {
             return null;
         }
-        GetObjectRequest getObjectRequest = GetObjectRequest.builder().bucket(bucket).key(key).build();
-        GetObjectPresignRequest getObjectPresignRequest = GetObjectPresignRequest.builder().signatureDuration(Duration.ofHours(10)).getObjectRequest(getObjectRequest).build();
-        PresignedGetObjectRequest presignedGetObjectRequest = s3Presigner.presignGetObject(getObjectPresignRequest);
-        return presignedGetObjectRequest.url().toString();
+        String cached = cachedUrl(key);
+        if (cached != null) {
+            return cached;
+        }
+        return sign(key);
+    }
+
+    private Map<String, String> signAll(List<String> keys) {
+        Map<String, String> urls = new HashMap<>();
+        if (keys.size() < PARALLEL_SIGN_THRESHOLD || parallelism == 1) {
+            keys.forEach(key -> urls.put(key, sign(key)));
+            return urls;
+        }
+        // One task per slice rather than per key, so the hand-off cost stays small next to the signing work.
+        int slices = Math.min(parallelism, keys.size());
+        int sliceSize = (keys.size() + slices - 1) / slices;
+        List<Future<Map<String, String>>> futures = new ArrayList<>();
+        for (int from = 0; from < keys.size(); from += sliceSize) {
+            List<String> slice = keys.subList(from, Math.min(from + sliceSize, keys.size()));
+            futures.add(presignExecutor.submit(() -> {
+                Map<String, String> sliceUrls = new HashMap<>();
+                slice.forEach(key -> sliceUrls.put(key, sign(key)));
+                return sliceUrls;
+            }));
+        }
+        try {
+            for (Future<Map<String, String>> future : futures) {
+                urls.putAll(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            futures.forEach(future -> future.cancel(true));
+            throw new IllegalStateException("Interrupted while presigning urls", e);
+        } catch (ExecutionException e) {
+            futures.forEach(future -> future.cancel(true));
+            throw new IllegalStateException("Presigning failed", e.getCause());
+        }
+        return urls;
+    }
+
+    // Signed outside the lock; two concurrent misses for one key both sign and the later one is kept.
+    private String sign(String key) {
+        if (bucketedSigning) {
+            long bucketMs = signingBucket.toMillis();
+            Instant signingTime = Instant.ofEpochMilli(Math.floorDiv(System.currentTimeMillis(), bucketMs) * bucketMs);
+            ObjectStore.SignedUrl signed = objectStore.presignGet(key, signingTime, signingBucket.plus(minRemainingLifetime));
+            // The next bucket signs a different url, so the cached one is replaced at the boundary.
+            cacheUrl(key, signed.url(), signingTime.plus(signingBucket));
+            return signed.url();
+        }
+        ObjectStore.SignedUrl signed = objectStore.presignGet(key, null, GET_SIGNATURE_DURATION);
+        cacheUrl(key, signed.url(), signed.expiration().minus(refreshMargin));
+        return signed.url();
+    }
+
+    private synchronized String cachedUrl(String key) {
+        CachedUrl entry = urls.get(key);
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        if (!Instant.now().isBefore(entry.refreshAt)) {
+            urls.remove(key);
+            expiredEvictions.increment();
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.url;
+    }
+
+    private synchronized void cacheUrl(String key, String url, Instant refreshAt) {
+        if (!Instant.now().isBefore(refreshAt)) {
+            return;
+        }
+        urls.put(key, new CachedUrl(url, refreshAt));
+        Iterator<Map.Entry<String, CachedUrl>> eldest = urls.entrySet().iterator();
+        while (urls.size() > maxCachedUrls && eldest.hasNext()) {
+            eldest.next();
+            eldest.remove();
+            sizeEvictions.increment();
+        }
+    }
+
+    private synchronized int cachedUrlCount() {
+        return urls.size();
+    }
+
+    private static class CachedUrl {
+        private final String url;
+        private final Instant refreshAt;
+
+        CachedUrl(String url, Instant refreshAt) {
+            this.url = url;
+            this.refreshAt = refreshAt;
+        }
     }
 }
 
@@ -0,0 +1,143 @@
+package com.backend.melodyHub.component;
+
+import com.backend.melodyHub.model.User;
+import com.backend.melodyHub.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+// Immutable snapshots of user rows for read-only lookups by id and by login. Bounded LRU keyed by id with a
+// secondary login index, plus a TTL as a backstop. Only found users are cached, so a login registered after a
+// miss is visible immediately. Anything that changes or deletes a user must call invalidate(id).
+// Snapshots carry no password hash; code that checks or changes passwords loads the entity.
+@Component
+public class UserCache {
+    private final UserRepository userRepository;
+    private final int maxSize;
+    private final long ttlNanos;
+    private final LinkedHashMap<Integer, Entry> byId = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, Integer> idsByLogin = new HashMap<>();
+    private long generation;
+    private final Counter idHits;
+    private final Counter idMisses;
+    private final Counter loginHits;
+    private final Counter loginMisses;
+
+    public UserCache(UserRepository userRepository, MeterRegistry meterRegistry,
+                     @Value("${users.cache.max-size:10000}") int maxSize, @Value("${users.cache.ttl-ms:300000}") long ttlMs) {
+        this.userRepository = userRepository;
+        this.maxSize = maxSize;
+        this.ttlNanos = ttlMs * 1_000_000L;
+        this.idHits = Counter.builder("users.cache.requests").tag("index", "id").tag("result", "hit").register(meterRegistry);
+        this.idMisses = Counter.builder("users.cache.requests").tag("index", "id").tag("result", "miss").register(meterRegistry);
+        this.loginHits = Counter.builder("users.cache.requests").tag("index", "login").tag("result", "hit").register(meterRegistry);
+        this.loginMisses = Counter.builder("users.cache.requests").tag("index", "login").tag("result", "miss").register(meterRegistry);
+        Gauge.builder("users.cache.size", this, UserCache::size).register(meterRegistry);
+    }
+
+    public Optional<UserSnapshot> byId(Integer id) {
+        if (id == null) return Optional.empty();
+        long readGeneration;
+        synchronized (this) {
+            Entry entry = live(id);
+            if (entry != null) {
+                idHits.increment();
+                return Optional.of(entry.user);
+            }
+            idMisses.increment();
+            readGeneration = generation;
+        }
+        return store(userRepository.findById(id), readGeneration);
+    }
+
+    public Optional<UserSnapshot> byLogin(String login) {
+        if (login == null) return Optional.empty();
+        long readGeneration;
+        synchronized (this) {
+            Integer id = idsByLogin.get(login);
+            Entry entry = id == null ? null : live(id);
+            if (entry != null && entry.user.login().equals(login)) {
+                loginHits.increment();
+                return Optional.of(entry.user);
+            }
+            loginMisses.increment();
+            readGeneration = generation;
+        }
+        return store(userRepository.findByLogin(login), readGeneration);
+    }
+
+    public synchronized void invalidate(Integer id) {
+        generation++;
+        remove(id);
+    }
+
+    private Optional<UserSnapshot> store(Optional<User> user, long readGeneration) {
+        Optional<UserSnapshot> snapshot = user.map(UserSnapshot::of);
+        if (snapshot.isEmpty() || snapshot.get().id() == null) return snapshot;
+        synchronized (this) {
+            // Skip the store if an edit invalidated anything while this was loading.
+            if (readGeneration == generation) {
+                remove(snapshot.get().id());
+                byId.put(snapshot.get().id(), new Entry(snapshot.get(), System.nanoTime()));
+                idsByLogin.put(snapshot.get().login(), snapshot.get().id());
+                Iterator<Map.Entry<Integer, Entry>> eldest = byId.entrySet().iterator();
+                while (byId.size() > maxSize && eldest.hasNext()) {
+                    Entry evicted = eldest.next().getValue();
+                    eldest.remove();
+                    idsByLogin.remove(evicted.user.login(), evicted.user.id());
+                }
+            }
+        }
+        return snapshot;
+    }
+
+    private Entry live(Integer id) {
+        Entry entry = byId.get(id);
+        if (entry != null && System.nanoTime() - entry.loadedAt > ttlNanos) {
+            remove(id);
+            return null;
+        }
+        return entry;
+    }
+
+    private void remove(Integer id) {
+        Entry removed = byId.remove(id);
+        if (removed != null) idsByLogin.remove(removed.user.login(), id);
+    }
+
+    private synchronized int size() {
+        return byId.size();
+    }
+
+    public record UserSnapshot(Integer id, String login, String email, String firstName, String lastName, String s3Key) {
+        static UserSnapshot of(User user) {
+            return new UserSnapshot(user.getId(), user.getLogin(), user.getEmail(), user.getFirstName(), user.getLastName(), user.getS3Key());
+        }
+
+        // Detached copy for code that maps from the entity; it has no password and must not be saved.
+        public User toUser() {
+            User user = new User();
+            user.setId(id);
+            user.setLogin(login);
+            user.setEmail(email);
+            user.setFirstName(firstName);
+            user.setLastName(lastName);
+            user.setS3Key(s3Key);
+            return user;
+        }
+    }
+
+    private static class Entry {
+        private final UserSnapshot user;
+        private final long loadedAt;
+
+        Entry(UserSnapshot user, long loadedAt) {
+            this.user = user;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
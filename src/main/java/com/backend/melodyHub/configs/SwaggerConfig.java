@@ -1,10 +1,36 @@
 package com.backend.melodyHub.configs;
 
+import com.backend.melodyHub.component.AuthenticatedUser;
+import com.backend.melodyHub.component.CurrentUser;
+import com.backend.melodyHub.component.CurrentUserArgumentResolver;
+import io.swagger.v3.oas.models.media.StringSchema;
+import io.swagger.v3.oas.models.parameters.HeaderParameter;
+import org.springdoc.core.customizers.OperationCustomizer;
+import org.springdoc.core.utils.SpringDocUtils;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.servlet.config.annotation.EnableWebMvc;
 
+import java.util.Arrays;
+
 @Configuration
 @EnableWebMvc
 public class SwaggerConfig {
 
+    static {
+        SpringDocUtils.getConfig().addRequestWrapperToIgnore(AuthenticatedUser.class);
+    }
+
+    // @CurrentUser parameters are read from the token header, so document that header instead.
+    @Bean
+    public OperationCustomizer tokenHeaderCustomizer() {
+        return (operation, handlerMethod) -> {
+            boolean authenticated = Arrays.stream(handlerMethod.getMethodParameters())
+                    .anyMatch(parameter -> parameter.hasParameterAnnotation(CurrentUser.class));
+            if (authenticated) {
+                operation.addParametersItem(new HeaderParameter().name(CurrentUserArgumentResolver.TOKEN_HEADER).required(true).schema(new StringSchema()));
+            }
+            return operation;
+        };
+    }
 }
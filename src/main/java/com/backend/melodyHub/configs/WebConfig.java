@@ -0,0 +1,51 @@
+package com.backend.melodyHub.configs;
+
+import com.backend.melodyHub.component.CurrentUserArgumentResolver;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+// SwaggerConfig's @EnableWebMvc switches off Boot's MVC auto-configuration, so spring.mvc.async.* is ignored and
+// async settings for the NDJSON StreamingResponseBody endpoints live here: a timeout long enough for large streams,
+// and a bounded pool instead of MVC's fallback of one new thread per stream. The pool is not a bean, so Boot's
+// applicationTaskExecutor stays in place for everything else.
+@Configuration
+public class WebConfig implements WebMvcConfigurer, DisposableBean {
+    private final CurrentUserArgumentResolver currentUserArgumentResolver;
+    private final long asyncTimeoutMs;
+    private final ThreadPoolTaskExecutor streamExecutor;
+
+    public WebConfig(CurrentUserArgumentResolver currentUserArgumentResolver, @Value("${web.async.request-timeout-ms:300000}") long asyncTimeoutMs,
+                     @Value("${web.async.threads:16}") int threads, @Value("${web.async.queue-size:64}") int queueSize) {
+        this.currentUserArgumentResolver = currentUserArgumentResolver;
+        this.asyncTimeoutMs = asyncTimeoutMs;
+        this.streamExecutor = new ThreadPoolTaskExecutor();
+        this.streamExecutor.setCorePoolSize(threads);
+        this.streamExecutor.setMaxPoolSize(threads);
+        this.streamExecutor.setQueueCapacity(queueSize);
+        this.streamExecutor.setThreadNamePrefix("mvc-stream-");
+        this.streamExecutor.initialize();
+    }
+
+    @Override
+    public void addArgumentResolvers(List<HandlerMethodArgumentResolver> resolvers) {
+        resolvers.add(currentUserArgumentResolver);
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setDefaultTimeout(asyncTimeoutMs);
+        configurer.setTaskExecutor(streamExecutor);
+    }
+
+    @Override
+    public void destroy() {
+        streamExecutor.shutdown();
+    }
+}
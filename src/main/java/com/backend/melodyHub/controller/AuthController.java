@@ -1,12 +1,15 @@
 package com.backend.melodyHub.controller;
 
+import com.backend.melodyHub.component.AuthenticatedUser;
+import com.backend.melodyHub.component.CurrentUser;
 import com.backend.melodyHub.component.JwtUtil;
 import com.backend.melodyHub.component.PasswordHasher;
-import com.backend.melodyHub.component.TokenValidationResult;
+import com.backend.melodyHub.component.PasswordHasherBusyException;
+import com.backend.melodyHub.component.RefreshTokenService;
 import com.backend.melodyHub.dto.LoginDTO;
+import com.backend.melodyHub.dto.UserDTO;
 import com.backend.melodyHub.dto.UserLoggedInDTO;
 import com.backend.melodyHub.model.User;
-import com.backend.melodyHub.dto.UserDTO;
 import com.backend.melodyHub.repository.UserRepository;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
@@ -27,10 +30,14 @@ public class AuthController {
 
     private final UserRepository userRepository;
     private final JwtUtil jwtUtil;
+    private final PasswordHasher passwordHasher;
+    private final RefreshTokenService refreshTokenService;
     private final Logger logger = LoggerFactory.getLogger(AuthController.class);
-    public AuthController(UserRepository userRepository, JwtUtil jwtUtil) {
+    public AuthController(UserRepository userRepository, JwtUtil jwtUtil, PasswordHasher passwordHasher, RefreshTokenService refreshTokenService) {
         this.userRepository = userRepository;
         this.jwtUtil = jwtUtil;
+        this.passwordHasher = passwordHasher;
+        this.refreshTokenService = refreshTokenService;
     }
 
     @PostMapping("login")
@@ -42,11 +49,14 @@ public class AuthController {
             try{
                 Optional<User> userFromDb = userRepository.findByLogin(loginRequest.getLogin());
                 if (userFromDb.isEmpty()) { return ResponseEntity.badRequest().body("username or password is not correct");}
-                if(PasswordHasher.checkPassword(loginRequest.getPassword(), userFromDb.get().getPassword())) {
-                    UserLoggedInDTO user = new UserLoggedInDTO(jwtUtil.generateToken(userFromDb.get()), userFromDb.get().getLogin());
+                if(passwordHasher.checkPassword(loginRequest.getPassword(), userFromDb.get().getPassword())) {
+                    rehashIfNeeded(userFromDb.get(), loginRequest.getPassword());
+                    UserLoggedInDTO user = new UserLoggedInDTO(jwtUtil.generateToken(userFromDb.get()), userFromDb.get().getLogin(), refreshTokenService.issue(userFromDb.get()));
                     return ResponseEntity.ok(user);
                 }
                 return ResponseEntity.badRequest().body("username or password is not correct");
+            } catch (PasswordHasherBusyException e) {
+                throw e;
             } catch (Exception e) {
                 logger.error("An error occurred during login", e);
                 return ResponseEntity.internalServerError().body("An error occurred during login");
@@ -55,6 +65,21 @@ public class AuthController {
 
     }
 
+    // Trades a refresh token for a new access token and a new refresh token, without a password check.
+    @PostMapping("refresh")
+    public ResponseEntity<?> refresh(@RequestHeader String refreshToken) {
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate(refreshToken);
+        User user = rotation.user();
+        return ResponseEntity.ok(new UserLoggedInDTO(jwtUtil.generateToken(user), user.getLogin(), rotation.refreshToken()));
+    }
+
+    // Ends the session behind this refresh token. Access tokens already handed out stay valid until they expire.
+    @PostMapping("logout")
+    public ResponseEntity<?> logout(@RequestHeader String refreshToken) {
+        refreshTokenService.revoke(refreshToken);
+        return ResponseEntity.ok().build();
+    }
+
     @PostMapping("register")
     public ResponseEntity<?> register(@Valid @RequestBody UserDTO user, BindingResult bindingResult) {
         if(bindingResult.hasErrors()){
@@ -68,7 +93,7 @@ public class AuthController {
                 else if(verifyEmail.isPresent()) { return ResponseEntity.badRequest().body("email already exists!"); }
                 else{
                     User newUser = new User();
-                    newUser.setPassword(PasswordHasher.hashPassword(user.getPassword()));
+                    newUser.setPassword(passwordHasher.hashPassword(user.getPassword()));
                     newUser.setEmail(user.getEmail());
                     newUser.setLogin(user.getLogin());
                     newUser.setFirstName(user.getFirstName());
@@ -77,6 +102,9 @@ public class AuthController {
                     return ResponseEntity.ok().build();
                 }
             }
+            catch (PasswordHasherBusyException e) {
+                throw e;
+            }
             catch (Exception e) {
                 logger.error("An error occurred during registration", e);
                 return ResponseEntity.internalServerError().body("An error occurred. Please try again later.");
@@ -85,17 +113,25 @@ public class AuthController {
     }
 
     @PostMapping("checkPassword")
-    public ResponseEntity<?> checkPassword(@RequestHeader String token, @RequestBody String password) {
-        TokenValidationResult result = jwtUtil.validateTokenFull(token);
-        if (!result.isValid())
-            return ResponseEntity.badRequest().body(result.getErrorMessage().orElse("Invalid token"));
-        String username = jwtUtil.extractUsername(token);
-        Optional<User> opt_user = userRepository.findByLogin(username);
+    public ResponseEntity<?> checkPassword(@CurrentUser AuthenticatedUser principal, @RequestBody String password) {
+        Optional<User> opt_user = userRepository.findById(principal.id());
         if(opt_user.isEmpty()) return ResponseEntity.badRequest().body("User not found");
         else{
             User user = opt_user.get();
-            if(!PasswordHasher.checkPassword(password, user.getPassword())) return ResponseEntity.ok(Boolean.FALSE);
+            if(!passwordHasher.checkPassword(password, user.getPassword())) return ResponseEntity.ok(Boolean.FALSE);
             else return ResponseEntity.ok(Boolean.TRUE);
         }
     }
+
+    // Upgrades a hash made with an older cost factor while the plain password is at hand. Failing here must not fail
+    // the login; the next one tries again.
+    private void rehashIfNeeded(User user, String password) {
+        if (!passwordHasher.needsRehash(user.getPassword())) return;
+        try {
+            user.setPassword(passwordHasher.hashPassword(password));
+            userRepository.save(user);
+        } catch (RuntimeException e) {
+            logger.warn("Could not rehash password for user {}", user.getId(), e);
+        }
+    }
 }
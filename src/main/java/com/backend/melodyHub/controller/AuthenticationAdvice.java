@@ -0,0 +1,26 @@
+package com.backend.melodyHub.controller;
+
+import com.backend.melodyHub.component.InvalidTokenException;
+import com.backend.melodyHub.component.PasswordHasherBusyException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+// Turns a rejected @CurrentUser token into the same plain-text error the endpoints used to return inline.
+@RestControllerAdvice
+public class AuthenticationAdvice {
+
+    @ExceptionHandler(InvalidTokenException.class)
+    public ResponseEntity<String> invalidToken(InvalidTokenException e) {
+        if (e.getMessage().isEmpty()) return ResponseEntity.status(e.getStatus()).build();
+        return ResponseEntity.status(e.getStatus()).body(e.getMessage());
+    }
+
+    // The password hashing pool is full; ask the client to come back instead of queueing on a request thread.
+    @ExceptionHandler(PasswordHasherBusyException.class)
+    public ResponseEntity<String> passwordHasherBusy(PasswordHasherBusyException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1").body(e.getMessage());
+    }
+}
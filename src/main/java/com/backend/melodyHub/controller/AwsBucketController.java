@@ -1,8 +1,8 @@
 package com.backend.melodyHub.controller;
 
-import com.backend.melodyHub.component.JwtUtil;
+import com.backend.melodyHub.component.AuthenticatedUser;
+import com.backend.melodyHub.component.CurrentUser;
 import com.backend.melodyHub.component.S3Service;
-import com.backend.melodyHub.component.TokenValidationResult;
 import com.backend.melodyHub.dto.UploadFileDTO;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -16,20 +16,15 @@ import java.util.UUID;
 @RestController
 @Tag(name = "AWS Bucket Controller")
 public class AwsBucketController {
-    private final JwtUtil jwtUtil;
     private final S3Service s3Service;
 
     @Autowired
-    public AwsBucketController(JwtUtil jwtUtil, S3Service s3Service) {
-        this.jwtUtil = jwtUtil;
+    public AwsBucketController(S3Service s3Service) {
         this.s3Service = s3Service;
     }
 
     @GetMapping("/getUploadVideoLink")
-    public ResponseEntity<?> getUploadVideoLink(@RequestHeader String token, @RequestHeader String filename) {
-        TokenValidationResult result = jwtUtil.validateTokenFull(token);
-        if (!result.isValid())
-            return ResponseEntity.badRequest().body(result.getErrorMessage().orElse("Invalid token"));
+    public ResponseEntity<?> getUploadVideoLink(@CurrentUser AuthenticatedUser principal, @RequestHeader String filename) {
         String dbKey = UUID.randomUUID() + filename;
         String key = "videos/" + dbKey;
         String uploadUrl = s3Service.generateUploadUrl(key);
@@ -37,20 +32,14 @@ public class AwsBucketController {
     }
 
     @GetMapping("/getUploadImageLink")
-    public ResponseEntity<?> getUploadImageLink(@RequestHeader String token, @RequestHeader String filename) {
-        TokenValidationResult result = jwtUtil.validateTokenFull(token);
-        if (!result.isValid())
-            return ResponseEntity.badRequest().body(result.getErrorMessage().orElse("Invalid token"));
+    public ResponseEntity<?> getUploadImageLink(@CurrentUser AuthenticatedUser principal, @RequestHeader String filename) {
         String key = UUID.randomUUID() + filename;
         String uploadUrl = s3Service.generateUploadUrl("images/" + key);
         return ResponseEntity.ok(new UploadFileDTO(key, uploadUrl));
     }
 
     @GetMapping("/getUploadLeadsheetLink")
-    public ResponseEntity<?> getUploadLeadsheetLink(@RequestHeader String token, @RequestHeader String filename) {
-        TokenValidationResult result = jwtUtil.validateTokenFull(token);
-        if (!result.isValid())
-            return ResponseEntity.badRequest().body(result.getErrorMessage().orElse("Invalid token"));
+    public ResponseEntity<?> getUploadLeadsheetLink(@CurrentUser AuthenticatedUser principal, @RequestHeader String filename) {
         String key = "leadsheets/" + UUID.randomUUID() + filename;
         String uploadUrl = s3Service.generateUploadUrl(key);
         return ResponseEntity.ok(new UploadFileDTO(key, uploadUrl));
@@ -1,8 +1,8 @@
 package com.backend.melodyHub.controller;
 
-import com.backend.melodyHub.component.JwtUtil;
-import com.backend.melodyHub.component.S3Service;
-import com.backend.melodyHub.component.TokenValidationResult;
+import com.backend.melodyHub.component.AuthenticatedUser;
+import com.backend.melodyHub.component.CurrentUser;
+import com.backend.melodyHub.component.MediaLinks;
 import com.backend.melodyHub.dto.CommentDTO;
 import com.backend.melodyHub.model.Comment;
 import com.backend.melodyHub.model.Post;
@@ -26,43 +26,37 @@ import java.util.stream.Collectors;
 @Tag(name = "Comment Controller")
 public class CommentController {
     private final CommentRepository commentRepository;
-    private final JwtUtil jwtUtil;
     private final Logger logger = LoggerFactory.getLogger(CommentController.class);
     private final UserRepository userRepository;
     private final PostRepository postRepository;
-    private final S3Service s3Service;
+    private final MediaLinks mediaLinks;
 
-    public CommentController(CommentRepository commentRepository, JwtUtil jwtUtil, UserRepository userRepository, PostRepository postRepository, S3Service s3Service) {
+    public CommentController(CommentRepository commentRepository, UserRepository userRepository, PostRepository postRepository, MediaLinks mediaLinks) {
         this.commentRepository = commentRepository;
-        this.jwtUtil = jwtUtil;
         this.userRepository = userRepository;
         this.postRepository = postRepository;
-        this.s3Service = s3Service;
+        this.mediaLinks = mediaLinks;
     }
 
     @PostMapping("addComment")
-    public ResponseEntity<?> addComment(@RequestHeader String token, @RequestBody CommentDTO comment) {
-        TokenValidationResult result = jwtUtil.validateTokenFull(token);
-        if (!result.isValid())
-            return ResponseEntity.badRequest().body(result.getErrorMessage().orElse("Invalid token"));
-        String username = jwtUtil.extractUsername(token);
+    public ResponseEntity<?> addComment(@CurrentUser AuthenticatedUser principal, @RequestBody CommentDTO comment) {
         if(comment.getContent() == null || comment.getContent().trim().equals("")){
             return ResponseEntity.badRequest().body("Comment content cannot be empty");
         }
         try {
-            Optional<User> opt_user = userRepository.findByLogin(username);
+            User user = userRepository.getReferenceById(principal.id());
             Optional<Post> opt_post = postRepository.findById(comment.getPostId());
             if (opt_post.isEmpty()) return ResponseEntity.badRequest().body("Post not found");
             if (comment.getReplyToId() != null) {
                 Optional<Comment> opt_replyTo = commentRepository.findById(comment.getReplyToId());
                 if (opt_replyTo.isEmpty()) return ResponseEntity.badRequest().body("Comment to reply to not found");
                 else {
-                    Comment newComment = comment.toComment(opt_user.get(), opt_post.get(), opt_replyTo.get());
+                    Comment newComment = comment.toComment(user, opt_post.get(), opt_replyTo.get());
                     commentRepository.save(newComment);
                     return ResponseEntity.ok().body("Comment added successfully");
                 }
             } else {
-                Comment newComment = comment.toComment(opt_user.get(), opt_post.get(), null);
+                Comment newComment = comment.toComment(user, opt_post.get(), null);
                 commentRepository.save(newComment);
                 return ResponseEntity.ok().body("Comment added successfully");
             }
@@ -74,16 +68,11 @@ public class CommentController {
     }
 
     @DeleteMapping("deleteComment")
-    public ResponseEntity<?> deleteComment(@RequestHeader String token, @RequestParam Integer commentId) {
-        TokenValidationResult result = jwtUtil.validateTokenFull(token);
-        if (!result.isValid())
-            return ResponseEntity.badRequest().body(result.getErrorMessage().orElse("Invalid token"));
-        String username = jwtUtil.extractUsername(token);
+    public ResponseEntity<?> deleteComment(@CurrentUser AuthenticatedUser principal, @RequestParam Integer commentId) {
         try {
-            Optional<User> opt_user = userRepository.findByLogin(username);
             Optional<Comment> opt_comment = commentRepository.findById(commentId);
             if (opt_comment.isEmpty()) return ResponseEntity.badRequest().body("Comment not found");
-            if (!opt_comment.get().getUser().getId().equals(opt_user.get().getId()))
+            if (!opt_comment.get().getUser().getId().equals(principal.id()))
                 return ResponseEntity.badRequest().body("You are not the owner of this comment");
             commentRepository.delete(opt_comment.get());
             return ResponseEntity.ok("Comment deleted successfully");
@@ -94,19 +83,14 @@ public class CommentController {
     }
 
     @PutMapping("editComment")
-    public ResponseEntity<?> editComment(@RequestHeader String token, @RequestBody CommentDTO comment) {
-        TokenValidationResult result = jwtUtil.validateTokenFull(token);
-        if (!result.isValid())
-            return ResponseEntity.badRequest().body(result.getErrorMessage().orElse("Invalid token"));
-        String username = jwtUtil.extractUsername(token);
+    public ResponseEntity<?> editComment(@CurrentUser AuthenticatedUser principal, @RequestBody CommentDTO comment) {
         if(comment.getContent() == null || comment.getContent().trim().equals("")){
             return ResponseEntity.badRequest().body("Comment content cannot be empty");
         }
         try {
-            Optional<User> opt_user = userRepository.findByLogin(username);
             Optional<Comment> opt_comment = commentRepository.findById(comment.getId());
             if (opt_comment.isEmpty()) return ResponseEntity.badRequest().body("Comment not found");
-            if (!opt_comment.get().getUser().getId().equals(opt_user.get().getId()))
+            if (!opt_comment.get().getUser().getId().equals(principal.id()))
                 return ResponseEntity.badRequest().body("You are not the owner of this comment");
             Comment commentToEdit = opt_comment.get();
             commentToEdit.setContent(comment.getContent());
@@ -120,21 +104,16 @@ public class CommentController {
 
     @Transactional
     @GetMapping("getCommentCreatedByUser")
-    public ResponseEntity<?> getCommentCreatedByUser(@RequestHeader String token) {
-        TokenValidationResult result = jwtUtil.validateTokenFull(token);
-        if (!result.isValid())
-            return ResponseEntity.badRequest().body(result.getErrorMessage().orElse("Invalid token"));
-        String username = jwtUtil.extractUsername(token);
+    public ResponseEntity<?> getCommentCreatedByUser(@CurrentUser AuthenticatedUser principal) {
         try {
-            Optional<User> opt_user = userRepository.findByLogin(username);
-            if (opt_user.isEmpty()) return ResponseEntity.badRequest().body("User not found");
-            List<Comment> opt_comment = commentRepository.getCommentsByUser(opt_user.get());
+            List<Comment> opt_comment = commentRepository.getCommentsByUser(userRepository.getReferenceById(principal.id()));
             List<CommentDTO> comments = new ArrayList<>();
             if (opt_comment.isEmpty()) return ResponseEntity.badRequest().body("Comment not found");
             else {
+                Map<Integer, String> avatarUrls = avatarUrls(opt_comment);
                 for (Comment comment : opt_comment) {
 
-                    comments.add(CommentDTO.toCommentDTO(comment, comment.getUser().getLogin(), s3Service.generatePresignedImageUrl(comment.getUser().getS3Key())));
+                    comments.add(CommentDTO.toCommentDTO(comment, comment.getUser().getLogin(), avatarUrls.get(comment.getUser().getId())));
                 }
             }
             return ResponseEntity.ok(comments);
@@ -146,11 +125,7 @@ public class CommentController {
 
     @Transactional
     @GetMapping("getCommentByPost")
-    public ResponseEntity<?> getCommentByPost(@RequestHeader String token, @RequestParam Integer postId) {
-        TokenValidationResult result = jwtUtil.validateTokenFull(token);
-        if (!result.isValid())
-            return ResponseEntity.badRequest().body(result.getErrorMessage().orElse("Invalid token"));
-        String username = jwtUtil.extractUsername(token);
+    public ResponseEntity<?> getCommentByPost(@CurrentUser AuthenticatedUser principal, @RequestParam Integer postId) {
         try {
             Optional<Post> opt_post = postRepository.findById(postId);
             if (opt_post.isEmpty()) return ResponseEntity.badRequest().body("Post not found");
@@ -158,8 +133,9 @@ public class CommentController {
             List<CommentDTO> comments = new ArrayList<>();
             if (opt_comment.isEmpty()) return ResponseEntity.badRequest().body("Comment not found");
             else {
+                Map<Integer, String> avatarUrls = avatarUrls(opt_comment);
                 for (Comment comment : opt_comment) {
-                    comments.add(CommentDTO.toCommentDTO(comment, comment.getUser().getLogin(), s3Service.generatePresignedImageUrl(comment.getUser().getS3Key())));
+                    comments.add(CommentDTO.toCommentDTO(comment, comment.getUser().getLogin(), avatarUrls.get(comment.getUser().getId())));
                 }
             }
             return ResponseEntity.ok(comments);
@@ -171,21 +147,12 @@ public class CommentController {
 
     @Transactional
     @GetMapping("getSortedComments")
-    public ResponseEntity<?> getSortedComments(@RequestHeader String token, @RequestParam Integer postId) {
-        TokenValidationResult result = jwtUtil.validateTokenFull(token);
-        if (!result.isValid())
-            return ResponseEntity.badRequest().body(result.getErrorMessage().orElse("Invalid token"));
-
+    public ResponseEntity<?> getSortedComments(@CurrentUser AuthenticatedUser principal, @RequestParam Integer postId) {
         try {
             Optional<Post> opt_post = postRepository.findById(postId);
             if (opt_post.isEmpty()) return ResponseEntity.badRequest().body("Post not found");
 
-            Optional<User> opt_user = userRepository.findByLogin(jwtUtil.extractUsername(token));
-            if (opt_user.isEmpty()) return ResponseEntity.badRequest().body("User not found");
-
             Post post = opt_post.get();
-            User currentUser = opt_user.get();
-            User postOwner = post.getUser();
 
             List<Comment> allComments = commentRepository.getCommentsByPost(post);
             Map<Integer, List<Comment>> commentsByParentId = allComments.stream()
@@ -195,7 +162,7 @@ public class CommentController {
                             Collectors.toList()
                     ));
 
-            List<CommentDTO> sortedComments = buildCommentHierarchy(commentsByParentId, -1, allComments);
+            List<CommentDTO> sortedComments = buildCommentHierarchy(commentsByParentId, -1, avatarUrls(allComments));
 
             return ResponseEntity.ok(sortedComments);
         } catch (Exception e) {
@@ -204,7 +171,12 @@ public class CommentController {
         }
     }
 
-    private List<CommentDTO> buildCommentHierarchy(Map<Integer, List<Comment>> commentsByParentId, Integer parentId, List<Comment> group) {
+    // Author avatar urls for a list of comments by user id, one per distinct author.
+    private Map<Integer, String> avatarUrls(List<Comment> comments) {
+        return mediaLinks.avatarUrls(comments.stream().map(Comment::getUser).toList());
+    }
+
+    private List<CommentDTO> buildCommentHierarchy(Map<Integer, List<Comment>> commentsByParentId, Integer parentId, Map<Integer, String> avatarUrls) {
         Integer effectiveParentId = (parentId == null) ? -1 : parentId;
 
         List<Comment> comments = commentsByParentId.getOrDefault(effectiveParentId, Collections.emptyList());
@@ -217,9 +189,9 @@ public class CommentController {
                     CommentDTO dto = CommentDTO.toCommentDTO(
                             comment,
                             comment.getUser().getLogin(),
-                            s3Service.generatePresignedImageUrl(comment.getUser().getS3Key())
+                            avatarUrls.get(comment.getUser().getId())
                     );
-                    dto.setReplies(buildCommentHierarchy(commentsByParentId, comment.getId(), group));
+                    dto.setReplies(buildCommentHierarchy(commentsByParentId, comment.getId(), avatarUrls));
                     return dto;
                 })
                 .toList();
@@ -1,7 +1,13 @@
 package com.backend.melodyHub.controller;
 
-import com.backend.melodyHub.component.JwtUtil;
-import com.backend.melodyHub.component.TokenValidationResult;
+import com.backend.melodyHub.component.AuthenticatedUser;
+import com.backend.melodyHub.component.CurrentUser;
+import com.backend.melodyHub.component.FeedCache;
+import com.backend.melodyHub.component.LikeRankingStore;
+import com.backend.melodyHub.component.LikeWriteBuffer;
+import com.backend.melodyHub.component.LikeWriter;
+import com.backend.melodyHub.component.MembershipCache;
+import com.backend.melodyHub.component.PostInteractionService;
 import com.backend.melodyHub.dto.LikeDTO;
 import com.backend.melodyHub.model.Like;
 import com.backend.melodyHub.model.Post;
@@ -17,44 +23,51 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 @RestController
 @Tag(name = "Like Controller")
 public class LikeController {
-    private final JwtUtil jwtUtil;
     private final UserRepository userRepository;
     private final PostRepository postRepository;
     private final LikeRepository likeRepository;
+    private final LikeRankingStore likeRankingStore;
+    private final LikeWriter likeWriter;
+    private final LikeWriteBuffer likeWriteBuffer;
+    private final MembershipCache membershipCache;
+    private final FeedCache feedCache;
+    private final PostInteractionService postInteractionService;
     private final Logger logger = LoggerFactory.getLogger(LikeController.class);
 
-    public LikeController(JwtUtil jwtUtil, UserRepository userRepository, PostRepository postRepository, LikeRepository likeRepository) {
-        this.jwtUtil = jwtUtil;
+    public LikeController(UserRepository userRepository, PostRepository postRepository, LikeRepository likeRepository, LikeRankingStore likeRankingStore, LikeWriter likeWriter, LikeWriteBuffer likeWriteBuffer, MembershipCache membershipCache, FeedCache feedCache, PostInteractionService postInteractionService) {
         this.userRepository = userRepository;
         this.postRepository = postRepository;
         this.likeRepository = likeRepository;
+        this.likeRankingStore = likeRankingStore;
+        this.likeWriter = likeWriter;
+        this.likeWriteBuffer = likeWriteBuffer;
+        this.membershipCache = membershipCache;
+        this.feedCache = feedCache;
+        this.postInteractionService = postInteractionService;
     }
 
     @PostMapping("/likePost")
-    public ResponseEntity<?> likePost(@RequestHeader String token, @RequestParam Integer postId) {
-        TokenValidationResult result = jwtUtil.validateTokenFull(token);
-        if (!result.isValid())
-            return ResponseEntity.badRequest().body(result.getErrorMessage().orElse("Invalid token"));
-        String username = jwtUtil.extractUsername(token);
-        Optional<User> opt_user = userRepository.findByLogin(username);
-        if (opt_user.isEmpty()) return ResponseEntity.notFound().build();
-        User user = opt_user.get();
+    public ResponseEntity<?> likePost(@CurrentUser(missingUserStatus = HttpStatus.NOT_FOUND, missingUserMessage = "") AuthenticatedUser principal, @RequestParam Integer postId) {
+        User user = userRepository.getReferenceById(principal.id());
         Optional<Post> opt_post = postRepository.findById(postId);
         if (opt_post.isEmpty()) return ResponseEntity.notFound().build();
         Post post = opt_post.get();
-        Optional<Like> like = likeRepository.findByUserAndPost(user, post);
-        if (like.isPresent()) return ResponseEntity.badRequest().body("Like already exists");
-        Like new_like = new Like();
-        new_like.setUser(user);
-        new_like.setPost(post);
-        new_like.setLikeDate(LocalDateTime.now());
         try {
-            likeRepository.save(new_like);
+            LocalDateTime likeDate = LocalDateTime.now();
+            boolean added = likeWriteBuffer.isEnabled() ? bufferLike(user, post, likeDate) : likeWriter.addLike(user, post, likeDate);
+            if (!added) return ResponseEntity.badRequest().body("Like already exists");
+            membershipCache.setLiked(user.getId(), post.getId(), true);
+            likeRankingStore.recordLike(post.getId(), likeDate);
+            feedCache.invalidateLikes(post);
         } catch (Exception e) {
             logger.error(e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Something went wrong");
@@ -63,21 +76,17 @@ public class LikeController {
     }
 
     @DeleteMapping("/deleteLike")
-    public ResponseEntity<?> deleteLike(@RequestHeader String token, @RequestParam Integer postId) {
-        TokenValidationResult result = jwtUtil.validateTokenFull(token);
-        if (!result.isValid())
-            return ResponseEntity.badRequest().body(result.getErrorMessage().orElse("Invalid token"));
-        String username = jwtUtil.extractUsername(token);
-        Optional<User> opt_user = userRepository.findByLogin(username);
-        if (opt_user.isEmpty()) return ResponseEntity.notFound().build();
-        User user = opt_user.get();
+    public ResponseEntity<?> deleteLike(@CurrentUser(missingUserStatus = HttpStatus.NOT_FOUND, missingUserMessage = "") AuthenticatedUser principal, @RequestParam Integer postId) {
+        User user = userRepository.getReferenceById(principal.id());
         Optional<Post> opt_post = postRepository.findById(postId);
         if (opt_post.isEmpty()) return ResponseEntity.notFound().build();
         Post post = opt_post.get();
-        Optional<Like> like = likeRepository.findByUserAndPost(user, post);
-        if (like.isEmpty()) return ResponseEntity.badRequest().body("Like not exists");
         try {
-            likeRepository.delete(like.get());
+            Optional<LocalDateTime> likeDate = likeWriteBuffer.isEnabled() ? bufferUnlike(user, post) : likeWriter.removeLike(user, post);
+            if (likeDate.isEmpty()) return ResponseEntity.badRequest().body("Like not exists");
+            membershipCache.setLiked(user.getId(), post.getId(), false);
+            likeRankingStore.removeLike(post.getId(), likeDate.get());
+            feedCache.invalidateLikes(post);
         } catch (Exception e) {
             logger.error(e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Something went wrong");
@@ -85,16 +94,21 @@ public class LikeController {
         return ResponseEntity.ok().build();
     }
 
+    // Write-behind mode: the buffered state, when present, overrides the stored one.
+    private boolean bufferLike(User user, Post post, LocalDateTime likeDate) {
+        return likeWriteBuffer.likeIfAbsent(user.getId(), post.getId(), likeDate, () -> likeRepository.findByUserAndPost(user, post).isPresent());
+    }
+
+    private Optional<LocalDateTime> bufferUnlike(User user, Post post) {
+        return likeWriteBuffer.unlikeIfPresent(user.getId(), post.getId(), () -> likeRepository.findByUserAndPost(user, post).map(Like::getLikeDate));
+    }
+
     @GetMapping("getLikesOnPost")
-    public ResponseEntity<?> getLikesOnPost(@RequestHeader String token, @RequestParam Integer postId) {
-        TokenValidationResult result = jwtUtil.validateTokenFull(token);
-        if(!result.isValid())
-            return ResponseEntity.badRequest().body(result.getErrorMessage().orElse("Invalid token"));
+    public ResponseEntity<?> getLikesOnPost(@CurrentUser AuthenticatedUser principal, @RequestParam Integer postId) {
         try{
-            Optional<Post> opt_post = postRepository.findById(postId);
-            if (opt_post.isEmpty()) return ResponseEntity.notFound().build();
-            Integer likesOnPost = likeRepository.countLikesByPost(opt_post.get());
-            return ResponseEntity.ok().body(new LikeDTO(likesOnPost));
+            Optional<Integer> likesOnPost = postRepository.findLikeCount(postId);
+            if (likesOnPost.isEmpty()) return ResponseEntity.notFound().build();
+            return ResponseEntity.ok().body(new LikeDTO(likesOnPost.get()));
         }
         catch (Exception e){
             logger.error(e.getMessage());
@@ -104,20 +118,11 @@ public class LikeController {
     }
 
     @GetMapping("checkLikeOnPost")
-    public ResponseEntity<?> checkLikeOnPost(@RequestHeader String token, @RequestParam Integer postId) {
-        TokenValidationResult result = jwtUtil.validateTokenFull(token);
-        if(!result.isValid())
-            return ResponseEntity.badRequest().body(result.getErrorMessage().orElse("Invalid token"));
-        String username = jwtUtil.extractUsername(token);
+    public ResponseEntity<?> checkLikeOnPost(@CurrentUser(missingUserStatus = HttpStatus.NOT_FOUND, missingUserMessage = "") AuthenticatedUser principal, @RequestParam Integer postId) {
         try{
-            Optional<User> opt_user = userRepository.findByLogin(username);
-            if (opt_user.isEmpty()) return ResponseEntity.notFound().build();
-            User user = opt_user.get();
-            Optional<Post> opt_post = postRepository.findById(postId);
-            if (opt_post.isEmpty()) return ResponseEntity.notFound().build();
-            Post post = opt_post.get();
-            Optional<Like> like = likeRepository.findByUserAndPost(user, post);
-            if (like.isPresent()) return ResponseEntity.ok().body(Boolean.TRUE);
+            boolean liked = likeWriteBuffer.pending(principal.id(), postId).map(LikeWriteBuffer.PendingLike::liked)
+                    .orElseGet(() -> membershipCache.isLiked(principal.id(), postId));
+            if (liked) return ResponseEntity.ok().body(Boolean.TRUE);
             else return ResponseEntity.ok().body(Boolean.FALSE);
         }
         catch (Exception e){
@@ -126,4 +131,42 @@ public class LikeController {
         }
 
     }
+
+    // Like counts keyed by post id, in request order; unknown posts count as 0.
+    @PostMapping("getLikesOnPosts")
+    public ResponseEntity<?> getLikesOnPosts(@CurrentUser AuthenticatedUser principal, @RequestBody List<Integer> postIds) {
+        if (!PostInteractionService.isValidBatch(postIds))
+            return ResponseEntity.badRequest().body("Expected between 1 and " + PostInteractionService.MAX_BATCH + " post ids");
+        try{
+            Map<Integer, Long> counts = postInteractionService.likeCounts(postIds);
+            Map<Integer, Long> likesOnPosts = new LinkedHashMap<>();
+            for (Integer postId : postIds) {
+                likesOnPosts.put(postId, counts.getOrDefault(postId, 0L));
+            }
+            return ResponseEntity.ok().body(likesOnPosts);
+        }
+        catch (Exception e){
+            logger.error(e.getMessage());
+            return ResponseEntity.internalServerError().body("something went wrong");
+        }
+    }
+
+    // Whether the caller liked each post, keyed by post id in request order; unknown posts are false.
+    @PostMapping("checkLikesOnPosts")
+    public ResponseEntity<?> checkLikesOnPosts(@CurrentUser(missingUserStatus = HttpStatus.NOT_FOUND, missingUserMessage = "") AuthenticatedUser principal, @RequestBody List<Integer> postIds) {
+        if (!PostInteractionService.isValidBatch(postIds))
+            return ResponseEntity.badRequest().body("Expected between 1 and " + PostInteractionService.MAX_BATCH + " post ids");
+        try{
+            Set<Integer> liked = postInteractionService.likedPostIds(principal.id(), postIds);
+            Map<Integer, Boolean> likesOnPosts = new LinkedHashMap<>();
+            for (Integer postId : postIds) {
+                likesOnPosts.put(postId, liked.contains(postId));
+            }
+            return ResponseEntity.ok().body(likesOnPosts);
+        }
+        catch (Exception e){
+            logger.error(e.getMessage());
+            return ResponseEntity.internalServerError().body("something went wrong");
+        }
+    }
 }
@@ -0,0 +1,108 @@
+package com.backend.melodyHub.controller;
+
+import com.backend.melodyHub.component.ByteRange;
+import com.backend.melodyHub.component.LocalObjectStore;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+
+// Upload and download endpoints behind LocalObjectStore's signed urls. Downloads honour single Range requests
+// (video seeking) and hand the file region to Tomcat's sendfile when the connector supports it, otherwise they
+// stream it with FileChannel.transferTo.
+@RestController
+@ConditionalOnProperty(name = "storage.type", havingValue = "local")
+@Tag(name = "Local File Controller")
+public class LocalFileController {
+    private static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private final LocalObjectStore localObjectStore;
+    private final Logger logger = LoggerFactory.getLogger(LocalFileController.class);
+
+    public LocalFileController(LocalObjectStore localObjectStore) {
+        this.localObjectStore = localObjectStore;
+    }
+
+    @PutMapping(LocalObjectStore.PATH_PREFIX + "{*key}")
+    public ResponseEntity<?> putFile(@PathVariable String key, @RequestParam long expires, @RequestParam String signature, HttpServletRequest request) {
+        String objectKey = objectKey(key);
+        if (!localObjectStore.isAuthorized("PUT", objectKey, expires, signature))
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Invalid or expired signature");
+        try {
+            localObjectStore.store(objectKey, request.getInputStream());
+            return ResponseEntity.ok().build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (IOException e) {
+            logger.error("Upload of {} failed: {}", objectKey, e.getMessage());
+            return ResponseEntity.internalServerError().body("something went wrong");
+        }
+    }
+
+    // Returns null once the body has been handed to the container, which tells Spring the response is complete.
+    @GetMapping(LocalObjectStore.PATH_PREFIX + "{*key}")
+    public ResponseEntity<?> getFile(@PathVariable String key, @RequestParam long expires, @RequestParam String signature,
+                                     HttpServletRequest request, HttpServletResponse response) {
+        String objectKey = objectKey(key);
+        if (!localObjectStore.isAuthorized("GET", objectKey, expires, signature))
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Invalid or expired signature");
+        try {
+            Path file = localObjectStore.resolve(objectKey);
+            if (!Files.isRegularFile(file)) return ResponseEntity.notFound().build();
+            long size = Files.size(file);
+            Optional<ByteRange> range = ByteRange.parse(request.getHeader(HttpHeaders.RANGE), size);
+            if (range.isEmpty()) {
+                return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE).header(HttpHeaders.CONTENT_RANGE, "bytes */" + size).build();
+            }
+            send(file, size, range.get(), request, response);
+            return null;
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (IOException e) {
+            // Usually the client went away mid-transfer, e.g. a video player seeking.
+            logger.debug("Download of {} aborted: {}", objectKey, e.getMessage());
+            return null;
+        }
+    }
+
+    private void send(Path file, long size, ByteRange range, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setStatus(range.partial() ? HttpStatus.PARTIAL_CONTENT.value() : HttpStatus.OK.value());
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setContentType(MediaTypeFactory.getMediaType(file.getFileName().toString()).orElse(MediaType.APPLICATION_OCTET_STREAM).toString());
+        response.setContentLengthLong(range.length());
+        if (range.partial()) response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + range.start() + "-" + range.end() + "/" + size);
+        if (range.length() == 0) return;
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED))) {
+            request.setAttribute(SENDFILE_FILENAME, file.toString());
+            request.setAttribute(SENDFILE_START, range.start());
+            request.setAttribute(SENDFILE_END, range.start() + range.length());
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            LocalObjectStore.transfer(channel, range.start(), range.length(), Channels.newChannel(response.getOutputStream()));
+        }
+    }
+
+    private static String objectKey(String key) {
+        return key.startsWith("/") ? key.substring(1) : key;
+    }
+}
@@ -0,0 +1,65 @@
+package com.backend.melodyHub.controller;
+
+import com.backend.melodyHub.component.MediaKeyCache;
+import com.backend.melodyHub.component.S3Service;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.Optional;
+
+// Stable media paths handed out by MediaLinks: each resolves the object through MediaKeyCache and redirects to a
+// cached presigned url. No token is required since these are loaded by <img> tags, and the presigned urls they
+// lead to are bearer links anyway. Keep max-age below the presign cache's refresh margin so a cached redirect
+// never outlives its target. Only registered with media.redirect.enabled=true, so a deployment that keeps embedding
+// presigned urls does not also expose unauthenticated id-to-image lookups.
+@RestController
+@ConditionalOnProperty(name = "media.redirect.enabled", havingValue = "true")
+@Tag(name = "Media Controller")
+public class MediaController {
+    private final MediaKeyCache mediaKeyCache;
+    private final S3Service s3Service;
+    private final CacheControl cacheControl;
+    private final Logger logger = LoggerFactory.getLogger(MediaController.class);
+
+    public MediaController(MediaKeyCache mediaKeyCache, S3Service s3Service, @Value("${media.redirect.max-age-seconds:300}") long maxAgeSeconds) {
+        this.mediaKeyCache = mediaKeyCache;
+        this.s3Service = s3Service;
+        this.cacheControl = CacheControl.maxAge(Duration.ofSeconds(maxAgeSeconds)).cachePrivate();
+    }
+
+    @GetMapping("/media/preview/{postId}")
+    public ResponseEntity<?> getPreview(@PathVariable Integer postId) {
+        try {
+            return redirect(mediaKeyCache.postKey(postId).map(s3Service::generatePresignedPreviewUrl));
+        } catch (Exception e) {
+            logger.error(e.getMessage());
+            return ResponseEntity.internalServerError().body("something went wrong");
+        }
+    }
+
+    @GetMapping("/media/avatar/{userId}")
+    public ResponseEntity<?> getAvatar(@PathVariable Integer userId) {
+        try {
+            return redirect(mediaKeyCache.avatarKey(userId).map(s3Service::generatePresignedImageUrl));
+        } catch (Exception e) {
+            logger.error(e.getMessage());
+            return ResponseEntity.internalServerError().body("something went wrong");
+        }
+    }
+
+    private ResponseEntity<?> redirect(Optional<String> url) {
+        if (url.isEmpty()) return ResponseEntity.notFound().build();
+        return ResponseEntity.status(HttpStatus.FOUND).location(URI.create(url.get())).cacheControl(cacheControl).build();
+    }
+}
@@ -1,69 +1,101 @@
 package com.backend.melodyHub.controller;
 
-import com.backend.melodyHub.component.JwtUtil;
+import com.backend.melodyHub.component.AfterCommit;
+import com.backend.melodyHub.component.AuthenticatedUser;
+import com.backend.melodyHub.component.CurrentUser;
+import com.backend.melodyHub.component.FeedCache;
+import com.backend.melodyHub.component.LikeRankingStore;
+import com.backend.melodyHub.component.MediaKeyCache;
+import com.backend.melodyHub.component.MediaLinks;
+import com.backend.melodyHub.component.MembershipCache;
+import com.backend.melodyHub.component.PostCatalog;
+import com.backend.melodyHub.component.PostFeedService;
+import com.backend.melodyHub.component.PostInteractionService;
+import com.backend.melodyHub.component.PostPreviewStreamer;
+import com.backend.melodyHub.component.PostSearchIndex;
 import com.backend.melodyHub.component.S3Service;
-import com.backend.melodyHub.component.TokenValidationResult;
+import com.backend.melodyHub.component.UserCache;
 import com.backend.melodyHub.dto.AddPostDTO;
 import com.backend.melodyHub.dto.EditPostDTO;
+import com.backend.melodyHub.dto.PostFeedDTO;
 import com.backend.melodyHub.dto.PostPageDTO;
 import com.backend.melodyHub.dto.PostPreviewDTO;
+import com.backend.melodyHub.dto.PostSearchDTO;
 import com.backend.melodyHub.model.*;
 import com.backend.melodyHub.repository.*;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.transaction.Transactional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDateTime;
 import java.util.*;
-import java.util.stream.Collectors;
 
 @RestController
 @Tag(name = "Post Controller")
 public class PostController {
     private final PostRepository postRepository;
-    private final JwtUtil jwtUtil;
     private final Logger logger = LoggerFactory.getLogger(PostController.class);
     private final UserRepository userRepository;
     private final CategoryRepository categoryRepository;
     private final S3Service s3Service;
     private final SavedRepository savedRepository;
     private final PostToCategoryRepository postToCategoryRepository;
-
-    public PostController(PostRepository postRepository, JwtUtil jwtUtil, UserRepository userRepository, CategoryRepository categoryRepository, S3Service s3Service, SavedRepository savedRepository, PostToCategoryRepository postToCategoryRepository) {
+    private final PostFeedService postFeedService;
+    private final LikeRankingStore likeRankingStore;
+    private final PostSearchIndex postSearchIndex;
+    private final PostCatalog postCatalog;
+    private final PostPreviewStreamer postPreviewStreamer;
+    private final FeedCache feedCache;
+    private final PostInteractionService postInteractionService;
+    private final MembershipCache membershipCache;
+    private final MediaLinks mediaLinks;
+    private final MediaKeyCache mediaKeyCache;
+    private final UserCache userCache;
+
+    public PostController(PostRepository postRepository, UserRepository userRepository, CategoryRepository categoryRepository, S3Service s3Service, SavedRepository savedRepository, PostToCategoryRepository postToCategoryRepository, PostFeedService postFeedService, LikeRankingStore likeRankingStore, PostSearchIndex postSearchIndex, PostCatalog postCatalog, PostPreviewStreamer postPreviewStreamer, FeedCache feedCache, PostInteractionService postInteractionService, MembershipCache membershipCache, MediaLinks mediaLinks, MediaKeyCache mediaKeyCache, UserCache userCache) {
         this.postRepository = postRepository;
-        this.jwtUtil = jwtUtil;
         this.userRepository = userRepository;
         this.categoryRepository = categoryRepository;
         this.savedRepository = savedRepository;
         this.s3Service = s3Service;
         this.postToCategoryRepository = postToCategoryRepository;
+        this.postFeedService = postFeedService;
+        this.likeRankingStore = likeRankingStore;
+        this.postSearchIndex = postSearchIndex;
+        this.postCatalog = postCatalog;
+        this.postPreviewStreamer = postPreviewStreamer;
+        this.feedCache = feedCache;
+        this.postInteractionService = postInteractionService;
+        this.membershipCache = membershipCache;
+        this.mediaLinks = mediaLinks;
+        this.mediaKeyCache = mediaKeyCache;
+        this.userCache = userCache;
     }
 
     @DeleteMapping("/deletePost")
-    public ResponseEntity<?> deletePost(@RequestHeader String token, @RequestParam int postId) {
-        TokenValidationResult result = jwtUtil.validateTokenFull(token);
-        if (!result.isValid())
-            return ResponseEntity.badRequest().body(result.getErrorMessage().orElse("Invalid token"));
-        String username = jwtUtil.extractUsername(token);
+    public ResponseEntity<?> deletePost(@CurrentUser AuthenticatedUser principal, @RequestParam int postId) {
         try {
-            Optional<User> user = userRepository.findByLogin(username);
-            if (user.isPresent()) {
-                Optional<Post> post = postRepository.findById(postId);
-                if (post.isPresent()) {
-                    if (!Objects.equals(post.get().getUser().getId(), user.get().getId())) {
-                        return ResponseEntity.badRequest().body("You are not the owner of this post");
-                    }
-                    postRepository.delete(post.get());
-                    return ResponseEntity.ok("Post deleted successfully");
-                } else {
-                    return ResponseEntity.badRequest().body("Post not found");
+            Optional<Post> post = postRepository.findById(postId);
+            if (post.isPresent()) {
+                if (!Objects.equals(post.get().getUser().getId(), principal.id())) {
+                    return ResponseEntity.badRequest().body("You are not the owner of this post");
                 }
+                postRepository.delete(post.get());
+                likeRankingStore.removePost(postId);
+                postSearchIndex.delete(postId);
+                postCatalog.remove(postId);
+                feedCache.invalidatePost(post.get());
+                mediaKeyCache.invalidatePost(postId);
+                return ResponseEntity.ok("Post deleted successfully");
             } else {
-                return ResponseEntity.badRequest().body("User not found");
+                return ResponseEntity.badRequest().body("Post not found");
             }
         } catch (Exception e) {
             logger.error(e.getMessage());
@@ -75,19 +107,8 @@ public class PostController {
 
     @Transactional
     @PostMapping("/addPost")
-    public ResponseEntity<?> addPost(@RequestBody AddPostDTO post, @RequestHeader String token) {
-        TokenValidationResult result = jwtUtil.validateTokenFull(token);
-        if (!result.isValid()) {
-            return ResponseEntity.badRequest().body(result.getErrorMessage().orElse("Invalid token"));
-        }
-
-        String username = jwtUtil.extractUsername(token);
+    public ResponseEntity<?> addPost(@RequestBody AddPostDTO post, @CurrentUser AuthenticatedUser principal) {
         try {
-            Optional<User> user = userRepository.findByLogin(username);
-            if (user.isEmpty()) {
-                return ResponseEntity.badRequest().body("User not found");
-            }
-
             Set<PostToCategory> postToCategories = new HashSet<>();
             for (Integer categoryId : post.getCategories()) {
                 Optional<Category> category = categoryRepository.findById(categoryId);
@@ -99,15 +120,23 @@ public class PostController {
                 postToCategories.add(postToCategory);
             }
 
-            Post newPost = post.toPost(user.get());
+            Post newPost = post.toPost(userRepository.getReferenceById(principal.id()));
             newPost.setDateTime(LocalDateTime.now());
             newPost.setS3Key(post.getS3Key());
+            newPost.setCategoryIds(toCategoryIds(post.getCategories()));
             newPost = postRepository.save(newPost);
 
             for (PostToCategory postToCategory : postToCategories) {
                 postToCategory.setPost(newPost);
             }
             postToCategoryRepository.saveAll(postToCategories);
+            Post added = newPost;
+            AfterCommit.run(() -> {
+                likeRankingStore.registerPost(added.getId());
+                postSearchIndex.index(added.getId(), added.getName(), added.getDescription());
+                postCatalog.upsert(added.getId(), principal.id(), added.getDateTime(), post.getCategories());
+            });
+            feedCache.invalidatePost(newPost);
 
             return ResponseEntity.ok("Post added successfully");
         } catch (Exception e) {
@@ -118,29 +147,23 @@ public class PostController {
 
     @Transactional
     @PostMapping("/editPost")
-    public ResponseEntity<?> editPost(@RequestBody EditPostDTO post, @RequestHeader String token) {
-        TokenValidationResult result = jwtUtil.validateTokenFull(token);
-        if (!result.isValid())
-            return ResponseEntity.badRequest().body(result.getErrorMessage().orElse("Invalid token"));
-        String username = jwtUtil.extractUsername(token);
+    public ResponseEntity<?> editPost(@RequestBody EditPostDTO post, @CurrentUser AuthenticatedUser principal) {
         try {
-            Optional<User> user = userRepository.findByLogin(username);
-            if (user.isEmpty()) {
-                return ResponseEntity.badRequest().body("User not found");
-            }
-
             Optional<Post> postFromDb = postRepository.findById(post.getId());
             if (postFromDb.isEmpty()) {
                 return ResponseEntity.badRequest().body("Post not found");
             }
 
             Post postToEdit = postFromDb.get();
-            if (!Objects.equals(postToEdit.getUser().getId(), user.get().getId())) {
+            if (!Objects.equals(postToEdit.getUser().getId(), principal.id())) {
                 return ResponseEntity.badRequest().body("You are not the owner of this post");
             }
 
-
-            if (post.getS3Key() != null) postToEdit.setS3Key(post.getS3Key());
+            feedCache.invalidatePost(postToEdit);
+            if (post.getS3Key() != null) {
+                postToEdit.setS3Key(post.getS3Key());
+                AfterCommit.run(() -> mediaKeyCache.invalidatePost(postToEdit.getId()));
+            }
             if (post.getDescription() != null) postToEdit.setDescription(post.getDescription());
             if (post.getName() != null) postToEdit.setName(post.getName());
             if (post.getLeadsheetKey() != null) postToEdit.setLeadsheetKey(post.getLeadsheetKey());
@@ -161,10 +184,19 @@ public class PostController {
                     postToCategories.add(postToCategory);
                 }
                 postToCategoryRepository.saveAll(postToCategories);
+                postToEdit.setCategoryIds(toCategoryIds(post.getCategories()));
             }
 
             postToEdit.setDateTime(LocalDateTime.now());
             postRepository.save(postToEdit);
+            String name = postToEdit.getName();
+            String description = postToEdit.getDescription();
+            LocalDateTime dateTime = postToEdit.getDateTime();
+            AfterCommit.run(() -> {
+                postSearchIndex.index(postToEdit.getId(), name, description);
+                postCatalog.upsert(postToEdit.getId(), principal.id(), dateTime, post.getCategories());
+            });
+            feedCache.invalidatePost(postToEdit);
 
             return ResponseEntity.ok("Post edited successfully");
         } catch (Exception e) {
@@ -175,18 +207,15 @@ public class PostController {
 
     @Transactional
     @GetMapping("/getPost")
-    public ResponseEntity<?> getPost(@RequestHeader String token, @RequestParam Integer postId) {
-        TokenValidationResult result = jwtUtil.validateTokenFull(token);
-        if (!result.isValid())
-            return ResponseEntity.badRequest().body(result.getErrorMessage().orElse("Invalid token"));
+    public ResponseEntity<?> getPost(@CurrentUser AuthenticatedUser principal, @RequestParam Integer postId) {
         try {
-            Optional<Post> post = postRepository.findById(postId);
+            Optional<PostPageView> post = postRepository.findPageView(postId);
             if (post.isPresent()) {
                 String leadsheetUrl = "";
                 if (post.get().getLeadsheetKey() != null) {
                     leadsheetUrl = s3Service.generatePresignedLeadsheetUrl(post.get().getLeadsheetKey());
                 }
-                PostPageDTO returnPost = PostPageDTO.fromPost(post.get(), s3Service.generatePresignedPreviewUrl(post.get().getS3Key()), s3Service.generatePresignedVideoUrl(post.get().getS3Key()), leadsheetUrl, s3Service.generatePresignedImageUrl(post.get().getUser().getS3Key()));
+                PostPageDTO returnPost = PostPageDTO.fromView(post.get(), s3Service.generatePresignedPreviewUrl(post.get().getS3Key()), s3Service.generatePresignedVideoUrl(post.get().getS3Key()), leadsheetUrl, s3Service.generatePresignedImageUrl(post.get().getAuthorS3Key()));
                 return ResponseEntity.ok(returnPost);
             }
             return ResponseEntity.badRequest().body("Post not found");
@@ -197,27 +226,15 @@ public class PostController {
     }
 
     @PostMapping("/addPostToFavorites")
-    public ResponseEntity<?> addPostToFavorites(@RequestHeader String token, @RequestParam Integer postId) {
-        TokenValidationResult result = jwtUtil.validateTokenFull(token);
-        if (!result.isValid())
-            return ResponseEntity.badRequest().body(result.getErrorMessage().orElse("Invalid token"));
-        String username = jwtUtil.extractUsername(token);
+    public ResponseEntity<?> addPostToFavorites(@CurrentUser AuthenticatedUser principal, @RequestParam Integer postId) {
         try {
-            Optional<User> opt_user = userRepository.findByLogin(username);
-            if (opt_user.isEmpty()) return ResponseEntity.badRequest().body("User not found");
-            User user = opt_user.get();
             Optional<Post> opt_post = postRepository.findById(postId);
             if (opt_post.isEmpty()) return ResponseEntity.badRequest().body("Post not found");
             Post post = opt_post.get();
-            Optional<Saved> saved = savedRepository.findByUserAndPost(user, post);
-            if (saved.isPresent()) return ResponseEntity.badRequest().body("Post already saved");
-            else {
-                Saved new_saved = new Saved();
-                new_saved.setUser(user);
-                new_saved.setPost(post);
-                savedRepository.save(new_saved);
-                return ResponseEntity.ok("Post saved successfully");
-            }
+            if (savedRepository.insertIfAbsent(principal.id(), post.getId()) == 0)
+                return ResponseEntity.badRequest().body("Post already saved");
+            membershipCache.setSaved(principal.id(), post.getId(), true);
+            return ResponseEntity.ok("Post saved successfully");
         } catch (Exception e) {
             logger.error(e.getMessage());
             return ResponseEntity.internalServerError().body("something went wrong");
@@ -225,24 +242,15 @@ public class PostController {
     }
 
     @DeleteMapping("/deletePostFromFavorites")
-    public ResponseEntity<?> deletePostFromFavorites(@RequestHeader String token, @RequestParam Integer postId) {
-        TokenValidationResult result = jwtUtil.validateTokenFull(token);
-        if (!result.isValid())
-            return ResponseEntity.badRequest().body(result.getErrorMessage().orElse("Invalid token"));
-        String username = jwtUtil.extractUsername(token);
+    public ResponseEntity<?> deletePostFromFavorites(@CurrentUser AuthenticatedUser principal, @RequestParam Integer postId) {
         try {
-            Optional<User> opt_user = userRepository.findByLogin(username);
-            if (opt_user.isEmpty()) return ResponseEntity.badRequest().body("User not found");
-            User user = opt_user.get();
             Optional<Post> opt_post = postRepository.findById(postId);
             if (opt_post.isEmpty()) return ResponseEntity.badRequest().body("Post not found");
             Post post = opt_post.get();
-            Optional<Saved> saved = savedRepository.findByUserAndPost(user, post);
-            if (saved.isEmpty()) return ResponseEntity.badRequest().body("Post not saved");
-            else {
-                savedRepository.delete(saved.get());
-                return ResponseEntity.ok("Post removed from saved successfully");
-            }
+            if (savedRepository.deleteByUserIdAndPostId(principal.id(), post.getId()) == 0)
+                return ResponseEntity.badRequest().body("Post not saved");
+            membershipCache.setSaved(principal.id(), post.getId(), false);
+            return ResponseEntity.ok("Post removed from saved successfully");
         } catch (Exception e) {
             logger.error(e.getMessage());
             return ResponseEntity.internalServerError().body("something went wrong");
@@ -251,24 +259,14 @@ public class PostController {
 
     @Transactional
     @GetMapping("/getSavedPosts")
-    public ResponseEntity<?> getSavedPosts(@RequestHeader String token) {
-        TokenValidationResult result = jwtUtil.validateTokenFull(token);
-        if (!result.isValid())
-            return ResponseEntity.badRequest().body(result.getErrorMessage().orElse("Invalid token"));
-        String username = jwtUtil.extractUsername(token);
+    public ResponseEntity<?> getSavedPosts(@CurrentUser AuthenticatedUser principal) {
         try {
-            Optional<User> opt_user = userRepository.findByLogin(username);
-            if (opt_user.isEmpty()) return ResponseEntity.badRequest().body("User not found");
-            User user = opt_user.get();
-            List<Saved> savedPosts = savedRepository.findByUser(user);
+            User user = userRepository.getReferenceById(principal.id());
+            List<PostPreviewView> savedPosts = savedRepository.findSavedPreviews(user);
+            Map<Integer, String> previewUrls = mediaLinks.previewUrls(savedPosts);
             List<PostPreviewDTO> postsDTO = new ArrayList<>();
-            for (Saved post : savedPosts) {
-                Post savedPost = post.getPost();
-                if (savedPost.getUser() == null) {
-                    logger.error("Post with ID {} has a null user", savedPost.getId());
-                    continue;
-                }
-                postsDTO.add(PostPreviewDTO.fromPost(savedPost, s3Service.generatePresignedPreviewUrl(savedPost.getS3Key())));
+            for (PostPreviewView savedPost : savedPosts) {
+                postsDTO.add(PostPreviewDTO.fromView(savedPost, previewUrls.get(savedPost.getId())));
             }
             return ResponseEntity.ok(postsDTO);
         } catch (Exception e) {
@@ -276,22 +274,19 @@ public class PostController {
             return ResponseEntity.internalServerError().body("something went wrong");
         }
     }
+
+    @GetMapping(value = "/getSavedPosts", produces = PostPreviewStreamer.NDJSON)
+    public ResponseEntity<?> streamSavedPosts(@CurrentUser AuthenticatedUser principal) {
+        User user = userRepository.getReferenceById(principal.id());
+        StreamingResponseBody body = postPreviewStreamer.stream(() -> savedRepository.streamSavedPreviews(user));
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(PostPreviewStreamer.NDJSON)).body(body);
+    }
+
     @Transactional
     @GetMapping("checkFavoritePost")
-    public ResponseEntity<?> checkFavoritePost(@RequestHeader String token, @RequestParam Integer postId) {
-        TokenValidationResult result = jwtUtil.validateTokenFull(token);
-        if (!result.isValid())
-            return ResponseEntity.badRequest().body(result.getErrorMessage().orElse("Invalid token"));
-        String username = jwtUtil.extractUsername(token);
+    public ResponseEntity<?> checkFavoritePost(@CurrentUser AuthenticatedUser principal, @RequestParam Integer postId) {
         try {
-            Optional<User> opt_user = userRepository.findByLogin(username);
-            if (opt_user.isEmpty()) return ResponseEntity.badRequest().body("User not found");
-            User user = opt_user.get();
-            Optional<Post> opt_post = postRepository.findById(postId);
-            if (opt_post.isEmpty()) return ResponseEntity.badRequest().body("Post not found");
-            Post post = opt_post.get();
-            Optional<Saved> saved = savedRepository.findByUserAndPost(user, post);
-            if (saved.isPresent()) return ResponseEntity.ok(Boolean.TRUE);
+            if (membershipCache.isSaved(principal.id(), postId)) return ResponseEntity.ok(Boolean.TRUE);
             else return ResponseEntity.ok(Boolean.FALSE);
         } catch (Exception e) {
             logger.error(e.getMessage());
@@ -299,104 +294,169 @@ public class PostController {
         }
     }
 
+    // Whether the caller saved each post, keyed by post id in request order; unknown posts are false.
+    @PostMapping("checkFavoritePosts")
+    public ResponseEntity<?> checkFavoritePosts(@CurrentUser AuthenticatedUser principal, @RequestBody List<Integer> postIds) {
+        if (!PostInteractionService.isValidBatch(postIds))
+            return ResponseEntity.badRequest().body("Expected between 1 and " + PostInteractionService.MAX_BATCH + " post ids");
+        try {
+            Set<Integer> saved = postInteractionService.savedPostIds(principal.id(), postIds);
+            Map<Integer, Boolean> favorites = new LinkedHashMap<>();
+            for (Integer postId : postIds) {
+                favorites.put(postId, saved.contains(postId));
+            }
+            return ResponseEntity.ok(favorites);
+        } catch (Exception e) {
+            logger.error(e.getMessage());
+            return ResponseEntity.internalServerError().body("something went wrong");
+        }
+    }
+
+    // Previews with like count and the caller's like/save state, in request order; unknown ids are skipped.
+    @PostMapping("/getPostsByIds")
+    public ResponseEntity<?> getPostsByIds(@CurrentUser AuthenticatedUser principal, @RequestBody List<Integer> postIds) {
+        if (!PostInteractionService.isValidBatch(postIds))
+            return ResponseEntity.badRequest().body("Expected between 1 and " + PostInteractionService.MAX_BATCH + " post ids");
+        try {
+            Map<Integer, PostPreviewView> views = new HashMap<>();
+            for (PostPreviewView view : postRepository.findPreviewsByIds(new HashSet<>(postIds))) {
+                views.put(view.getId(), view);
+            }
+            PostInteractionService.Interactions interactions = postInteractionService.load(principal.id(), views.keySet());
+            Map<Integer, String> previewUrls = mediaLinks.previewUrls(views.values());
+            List<PostPreviewDTO> posts = new ArrayList<>();
+            Set<Integer> added = new HashSet<>();
+            for (Integer postId : postIds) {
+                PostPreviewView view = views.get(postId);
+                if (view == null || !added.add(postId)) continue;
+                posts.add(PostPreviewDTO.fromView(view, previewUrls.get(view.getId()))
+                        .withInteractions(interactions.getLikeCount(postId), interactions.isLiked(postId), interactions.isSaved(postId)));
+            }
+            return ResponseEntity.ok(posts);
+        } catch (Exception e) {
+            logger.error(e.getMessage());
+            return ResponseEntity.internalServerError().body("something went wrong");
+        }
+    }
+
     @Transactional
     @GetMapping("/getPosts")
     public ResponseEntity<?> getPosts(
-            @RequestHeader String token,
+            @CurrentUser(invalidStatus = HttpStatus.FORBIDDEN, invalidMessage = "Invalid token") AuthenticatedUser principal,
             @RequestParam(required = false) Integer userId,
             @RequestParam(required = false) List<Integer> categoryIds,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since,
             @RequestParam(required = false) String sort,
-            @RequestParam(required = false) String name) {
-        TokenValidationResult result = jwtUtil.validateTokenFull(token);
-        if (!result.isValid()) {
-            return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Invalid token");
-        }
-
+            @RequestParam(required = false) String name,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false, defaultValue = "false") boolean withStats) {
         try {
-            List<Post> posts = new ArrayList<>(postRepository.findAll());
-            if (userId != null) {
-                Optional<User> user = userRepository.findById(userId);
-                if (user.isEmpty()) {
-                    return ResponseEntity.badRequest().body("User not found");
-                }
-                posts = posts.stream()
-                        .filter(post -> post.getUser() != null && post.getUser().getId().equals(userId))
-                        .toList();
-            }
-
-            if (categoryIds != null && !categoryIds.isEmpty()) {
-                posts = posts.stream()
-                        .filter(post -> {
-                            Set<Integer> postCategoryIds = Optional.ofNullable(post.getPostToCategories())
-                                    .orElse(Collections.emptySet())
-                                    .stream()
-                                    .map(postToCategory -> postToCategory.getCategory().getId())
-                                    .collect(Collectors.toSet());
-                            return postCategoryIds.containsAll(categoryIds);
-                        })
-                        .toList();
-            }
-
-            if (name != null && !name.isEmpty()) {
-                posts = posts.stream()
-                        .filter(post -> post.getName() != null && post.getName().toLowerCase().contains(name.toLowerCase()))
-                        .toList();
+            if (userId != null && userCache.byId(userId).isEmpty()) {
+                return ResponseEntity.badRequest().body("User not found");
             }
 
-            List<Post> mutablePosts = new ArrayList<>(posts);
-            if ("date".equalsIgnoreCase(sort)) {
-                mutablePosts.sort((p1, p2) -> p2.getDateTime().compareTo(p1.getDateTime()));
-            } else if ("likes".equalsIgnoreCase(sort)) {
-                LocalDateTime oneMonthAgo = LocalDateTime.now().minusMonths(1);
-                mutablePosts.sort((p1, p2) -> {
-                    long likes1 = Optional.ofNullable(p1.getLikes())
-                            .orElse(Collections.emptyList())
-                            .stream()
-                            .filter(like -> like.getLikeDate() != null && like.getLikeDate().isAfter(oneMonthAgo))
-                            .count();
-                    long likes2 = Optional.ofNullable(p2.getLikes())
-                            .orElse(Collections.emptyList())
-                            .stream()
-                            .filter(like -> like.getLikeDate() != null && like.getLikeDate().isAfter(oneMonthAgo))
-                            .count();
-                    return Long.compare(likes2, likes1);
-                });
+            PostFeedService.FeedPage page;
+            try {
+                page = postFeedService.getPage(userId, categoryIds, since, sort, name, cursor, limit == null ? PostFeedService.DEFAULT_LIMIT : limit);
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().body("Invalid cursor");
             }
 
-            List<PostPreviewDTO> resultPosts = mutablePosts.stream()
-                    .map(post -> PostPreviewDTO.fromPost(post, s3Service.generatePresignedPreviewUrl(post.getS3Key())))
+            Map<Integer, String> previewUrls = mediaLinks.previewUrls(page.getPosts());
+            List<PostPreviewDTO> resultPosts = page.getPosts().stream()
+                    .map(post -> PostPreviewDTO.fromView(post, previewUrls.get(post.getId())))
                     .toList();
+            if (withStats) {
+                PostInteractionService.Interactions interactions = postInteractionService.load(principal.id(),
+                        resultPosts.stream().map(PostPreviewDTO::getId).toList());
+                resultPosts.forEach(post -> post.withInteractions(interactions.getLikeCount(post.getId()),
+                        interactions.isLiked(post.getId()), interactions.isSaved(post.getId())));
+            }
 
-            return ResponseEntity.ok(resultPosts);
+            return ResponseEntity.ok(new PostFeedDTO(resultPosts, page.getNextCursor()));
         } catch (Exception e) {
             logger.error("Error while fetching posts: {}", e.getMessage(), e);
             return ResponseEntity.internalServerError().body("Something went wrong while fetching posts");
         }
     }
 
-    @GetMapping("getPostsOfCurrentUser")
-    public ResponseEntity<?> getPostsOfCurrentUser(@RequestHeader String token) {
-        TokenValidationResult result = jwtUtil.validateTokenFull(token);
-        if (!result.isValid()) {
-            return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Invalid token");
+    @GetMapping(value = "/getPosts", produces = PostPreviewStreamer.NDJSON)
+    public ResponseEntity<?> streamPosts(
+            @CurrentUser(invalidStatus = HttpStatus.FORBIDDEN, invalidMessage = "Invalid token") AuthenticatedUser principal,
+            @RequestParam(required = false) Integer userId,
+            @RequestParam(required = false) List<Integer> categoryIds,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String name) {
+        if (userId != null && userCache.byId(userId).isEmpty()) {
+            return ResponseEntity.badRequest().body("User not found");
+        }
+        StreamingResponseBody body = postPreviewStreamer.stream(() -> postFeedService.stream(userId, categoryIds, since, sort, name));
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(PostPreviewStreamer.NDJSON)).body(body);
+    }
+
+    @Transactional
+    @GetMapping("/searchPosts")
+    public ResponseEntity<?> searchPosts(
+            @CurrentUser(invalidStatus = HttpStatus.FORBIDDEN, invalidMessage = "Invalid token") AuthenticatedUser principal,
+            @RequestParam String query,
+            @RequestParam(required = false, defaultValue = "0") int page,
+            @RequestParam(required = false) Integer limit) {
+        if (query.isBlank()) {
+            return ResponseEntity.badRequest().body("Query must not be empty");
+        }
+        if (!postSearchIndex.isReady()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body("Search index is still loading");
         }
 
         try {
-            Optional<User> opt_user = userRepository.findByLogin(jwtUtil.extractUsername(token));
-            if (opt_user.isEmpty()) return ResponseEntity.badRequest().body("Invalid token");
-            else {
-                List<Post> posts = postRepository.getPostsByUser(opt_user.get());
-                List<PostPreviewDTO> resultPosts = new ArrayList<>();
-                for (Post post : posts) {
-                    String previewUrl = s3Service.generatePresignedPreviewUrl(post.getS3Key());
-                    resultPosts.add(PostPreviewDTO.fromPost(post, previewUrl));
-                }
-                return ResponseEntity.ok(resultPosts);
+            int pageSize = Math.max(1, Math.min(limit == null ? PostFeedService.DEFAULT_LIMIT : limit, PostFeedService.MAX_LIMIT));
+            // In long, so a huge page number gives an empty page instead of overflowing into a negative offset.
+            long offset = (long) Math.max(page, 0) * pageSize;
+            PostSearchIndex.SearchResult searchResult = postSearchIndex.search(query, (int) Math.min(offset, Integer.MAX_VALUE), pageSize);
+            Map<Integer, PostPreviewView> postsById = new HashMap<>();
+            for (PostPreviewView post : postRepository.findPreviewsByIds(searchResult.getPostIds())) {
+                postsById.put(post.getId(), post);
+            }
+            Map<Integer, String> previewUrls = mediaLinks.previewUrls(postsById.values());
+            List<PostPreviewDTO> resultPosts = new ArrayList<>();
+            for (Integer postId : searchResult.getPostIds()) {
+                PostPreviewView post = postsById.get(postId);
+                if (post == null) continue;
+                resultPosts.add(PostPreviewDTO.fromView(post, previewUrls.get(post.getId())));
             }
+            return ResponseEntity.ok(new PostSearchDTO(resultPosts, searchResult.getTotal()));
+        } catch (Exception e) {
+            logger.error("Error while searching posts: {}", e.getMessage(), e);
+            return ResponseEntity.internalServerError().body("Something went wrong while searching posts");
+        }
+    }
+
+    @GetMapping("getPostsOfCurrentUser")
+    public ResponseEntity<?> getPostsOfCurrentUser(@CurrentUser(invalidStatus = HttpStatus.FORBIDDEN, invalidMessage = "Invalid token", missingUserMessage = "Invalid token") AuthenticatedUser principal) {
+        try {
+            List<PostPreviewView> posts = postRepository.findPreviewsByUser(userRepository.getReferenceById(principal.id()));
+            Map<Integer, String> previewUrls = mediaLinks.previewUrls(posts);
+            List<PostPreviewDTO> resultPosts = new ArrayList<>();
+            for (PostPreviewView post : posts) {
+                resultPosts.add(PostPreviewDTO.fromView(post, previewUrls.get(post.getId())));
+            }
+            return ResponseEntity.ok(resultPosts);
         } catch (Exception e) {
             logger.error("Error while getting posts: " + e.getMessage());
             return ResponseEntity.internalServerError().body("Something went wrong while getting posts");
         }
     }
 
+    @GetMapping(value = "getPostsOfCurrentUser", produces = PostPreviewStreamer.NDJSON)
+    public ResponseEntity<?> streamPostsOfCurrentUser(@CurrentUser(invalidStatus = HttpStatus.FORBIDDEN, invalidMessage = "Invalid token", missingUserMessage = "Invalid token") AuthenticatedUser principal) {
+        User user = userRepository.getReferenceById(principal.id());
+        StreamingResponseBody body = postPreviewStreamer.stream(() -> postRepository.streamPreviewsByUser(user));
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(PostPreviewStreamer.NDJSON)).body(body);
+    }
+
+    private static Integer[] toCategoryIds(List<Integer> categoryIds) {
+        return categoryIds.stream().distinct().sorted().toArray(Integer[]::new);
+    }
 }
@@ -1,9 +1,13 @@
 package com.backend.melodyHub.controller;
 
-import com.backend.melodyHub.component.JwtUtil;
+import com.backend.melodyHub.component.AuthenticatedUser;
+import com.backend.melodyHub.component.CurrentUser;
+import com.backend.melodyHub.component.MediaKeyCache;
+import com.backend.melodyHub.component.MediaLinks;
 import com.backend.melodyHub.component.PasswordHasher;
-import com.backend.melodyHub.component.S3Service;
-import com.backend.melodyHub.component.TokenValidationResult;
+import com.backend.melodyHub.component.PasswordHasherBusyException;
+import com.backend.melodyHub.component.RefreshTokenService;
+import com.backend.melodyHub.component.UserCache;
 import com.backend.melodyHub.dto.OtherUserInfoDTO;
 import com.backend.melodyHub.dto.UpdatePasswordDTO;
 import com.backend.melodyHub.dto.UserInfoDTO;
@@ -28,54 +32,48 @@ import java.util.Optional;
 @Tag(name = "User Controller")
 public class UserController {
     private final UserRepository userRepository;
-    private final JwtUtil jwtUtil;
     private final CommentRepository commentRepository;
     private final Logger logger = LoggerFactory.getLogger(UserController.class);
-    private final S3Service s3Service;
+    private final MediaLinks mediaLinks;
+    private final MediaKeyCache mediaKeyCache;
+    private final UserCache userCache;
+    private final PasswordHasher passwordHasher;
+    private final RefreshTokenService refreshTokenService;
 
 
-    public UserController(UserRepository userRepository, JwtUtil jwtUtil, CommentRepository commentRepository, S3Service s3Service) {
+    public UserController(UserRepository userRepository, CommentRepository commentRepository, MediaLinks mediaLinks, MediaKeyCache mediaKeyCache, UserCache userCache, PasswordHasher passwordHasher,
+                          RefreshTokenService refreshTokenService) {
         this.userRepository = userRepository;
-        this.jwtUtil = jwtUtil;
         this.commentRepository = commentRepository;
-        this.s3Service = s3Service;
+        this.mediaLinks = mediaLinks;
+        this.mediaKeyCache = mediaKeyCache;
+        this.userCache = userCache;
+        this.passwordHasher = passwordHasher;
+        this.refreshTokenService = refreshTokenService;
     }
 
     @GetMapping("/userById")
-    public ResponseEntity<?> getUserById(@RequestParam Integer id, @RequestHeader String token) {
-
-        TokenValidationResult result = jwtUtil.validateTokenFull(token);
-        if (!result.isValid())
-            return ResponseEntity.badRequest().body(result.getErrorMessage().orElse("Invalid token"));
-
+    public ResponseEntity<?> getUserById(@RequestParam Integer id, @CurrentUser AuthenticatedUser principal) {
         if (id == null) return ResponseEntity.badRequest().body("Id cannot be null");
 
-        return userRepository.findById(id).map(UserNoPasswordDTO::fromUser).map(ResponseEntity::ok).orElseGet(() -> ResponseEntity.notFound().build());
+        return userCache.byId(id).map(UserCache.UserSnapshot::toUser).map(UserNoPasswordDTO::fromUser).map(ResponseEntity::ok).orElseGet(() -> ResponseEntity.notFound().build());
     }
 
     @GetMapping("/userByLogin")
-    public ResponseEntity<?> getUserByLogin(@RequestParam String login, @RequestHeader String token) {
-
-        TokenValidationResult result = jwtUtil.validateTokenFull(token);
-        if (!result.isValid())
-            return ResponseEntity.badRequest().body(result.getErrorMessage().orElse("Invalid token"));
-
+    public ResponseEntity<?> getUserByLogin(@RequestParam String login, @CurrentUser AuthenticatedUser principal) {
         if (login == null || login.isBlank()) return ResponseEntity.badRequest().body("Login cannot be empty");
 
         String loginRegex = "^[a-zA-Z][a-zA-Z0-9_]{2,19}$";
         if (!login.matches(loginRegex))
             return ResponseEntity.badRequest().body("Username must start with a letter and contain only letters, numbers, and underscores (3-20 characters, no dots allowed)");
 
-        return userRepository.findByLogin(login).map(UserNoPasswordDTO::fromUser).map(ResponseEntity::ok).orElseGet(() -> ResponseEntity.notFound().build());
+        return userCache.byLogin(login).map(UserCache.UserSnapshot::toUser).map(UserNoPasswordDTO::fromUser).map(ResponseEntity::ok).orElseGet(() -> ResponseEntity.notFound().build());
     }
 
     @PutMapping("/editUser")
-    public ResponseEntity<?> editUser(@RequestHeader String token, @RequestBody @Valid UserNoPasswordDTO userNoPasswordDTO, BindingResult bindingResult) {
+    public ResponseEntity<?> editUser(@CurrentUser(missingUserStatus = HttpStatus.NOT_FOUND, missingUserMessage = "") AuthenticatedUser principal, @RequestBody @Valid UserNoPasswordDTO userNoPasswordDTO, BindingResult bindingResult) {
         if (bindingResult.hasErrors()) return ResponseEntity.badRequest().body(bindingResult.getAllErrors());
-        TokenValidationResult result = jwtUtil.validateTokenFull(token);
-        if (!result.isValid())
-            return ResponseEntity.badRequest().body(result.getErrorMessage().orElse("Invalid token"));
-        Optional<User> user = userRepository.findByLogin(jwtUtil.extractUsername(token));
+        Optional<User> user = userRepository.findById(principal.id());
         if (user.isEmpty()) return ResponseEntity.notFound().build();
         Optional<User> verifyLogin = userRepository.findByLogin(userNoPasswordDTO.getLogin());
         Optional<User> verifyEmail = userRepository.findByEmail(userNoPasswordDTO.getEmail());
@@ -90,6 +88,7 @@ public class UserController {
         userToEdit.setLogin(userNoPasswordDTO.getLogin());
         try {
             userRepository.save(userToEdit);
+            userCache.invalidate(userToEdit.getId());
             return ResponseEntity.ok().build();
         } catch (Exception e) {
             logger.error(e.getMessage());
@@ -98,24 +97,23 @@ public class UserController {
     }
 
     @DeleteMapping("/deleteUser")
-    public ResponseEntity<?> deleteUser(@RequestHeader String token, @RequestHeader String password) {
-        TokenValidationResult result = jwtUtil.validateTokenFull(token);
-        if (!result.isValid())
-            return ResponseEntity.badRequest().body(result.getErrorMessage().orElse("Invalid token"));
+    public ResponseEntity<?> deleteUser(@CurrentUser(missingUserStatus = HttpStatus.NOT_FOUND, missingUserMessage = "") AuthenticatedUser principal, @RequestHeader String password) {
         String regex = "^(?=.*[a-z])(?=.*[A-Z])(?=.*\\d)(?=.*[@#$%^&+=!])[A-Za-z\\d@#$%^&+=!]{8,20}$";
         if (!password.matches(regex))
             return ResponseEntity.badRequest().body("Password must be 8-20 characters long and include at least one uppercase letter, one lowercase letter, one digit, and one special character (@#$%^&+=!)");
-        String username = jwtUtil.extractUsername(token);
-        Optional<User> opt_user = userRepository.findByLogin(username);
+        Optional<User> opt_user = userRepository.findById(principal.id());
         if (opt_user.isEmpty()) return ResponseEntity.notFound().build();
         User user = opt_user.get();
-        if (!PasswordHasher.checkPassword(password, user.getPassword())) {
+        if (!passwordHasher.checkPassword(password, user.getPassword())) {
             return ResponseEntity.badRequest().body("Password is not correct");
         }
         try {
             commentRepository.reassignCommentsToDeletedUser(user);
+            refreshTokenService.deleteAll(user.getId());
             userRepository.delete(user);
             userRepository.flush();
+            mediaKeyCache.invalidateUser(user.getId());
+            userCache.invalidate(user.getId());
             return ResponseEntity.ok().build();
         } catch (Exception e) {
             logger.error(e.getMessage());
@@ -124,16 +122,13 @@ public class UserController {
     }
 
     @GetMapping("getUserInfo")
-    public ResponseEntity<?> getUserInfo(@RequestHeader String token) {
-        TokenValidationResult result = jwtUtil.validateTokenFull(token);
-        if (!result.isValid())
-            return ResponseEntity.status(HttpStatus.FORBIDDEN).body("invalid token");
+    public ResponseEntity<?> getUserInfo(@CurrentUser(invalidStatus = HttpStatus.FORBIDDEN, invalidMessage = "invalid token", missingUserStatus = HttpStatus.NOT_FOUND, missingUserMessage = "") AuthenticatedUser principal) {
         try {
-            Optional<User> opt_user = userRepository.findByLogin(jwtUtil.extractUsername(token));
+            Optional<UserCache.UserSnapshot> opt_user = userCache.byId(principal.id());
             if (!opt_user.isPresent())
                 return ResponseEntity.notFound().build();
-            User user = opt_user.get();
-            UserInfoDTO userInfo = new UserInfoDTO(user.getId(), user.getEmail(), user.getFirstName(), user.getLastName(), user.getLogin(), s3Service.generatePresignedImageUrl(user.getS3Key()));
+            UserCache.UserSnapshot user = opt_user.get();
+            UserInfoDTO userInfo = new UserInfoDTO(user.id(), user.email(), user.firstName(), user.lastName(), user.login(), mediaLinks.avatarUrl(user.id(), user.s3Key()));
             return ResponseEntity.ok(userInfo);
         } catch (Exception e) {
             logger.error(e.getMessage());
@@ -142,23 +137,23 @@ public class UserController {
     }
 
     @PostMapping("updatePassword")
-    public ResponseEntity<?> updatePassword(@RequestHeader String token, @Valid @RequestBody UpdatePasswordDTO updatePasswordDTO) {
-        TokenValidationResult result = jwtUtil.validateTokenFull(token);
-        if (!result.isValid())
-            return ResponseEntity.status(HttpStatus.FORBIDDEN).body("invalid token");
-        String username = jwtUtil.extractUsername(token);
+    public ResponseEntity<?> updatePassword(@CurrentUser(invalidStatus = HttpStatus.FORBIDDEN, invalidMessage = "invalid token", missingUserStatus = HttpStatus.NOT_FOUND, missingUserMessage = "") AuthenticatedUser principal, @Valid @RequestBody UpdatePasswordDTO updatePasswordDTO) {
         try {
-            Optional<User> opt_user = userRepository.findByLogin(username);
+            Optional<User> opt_user = userRepository.findById(principal.id());
             if (opt_user.isEmpty()) return ResponseEntity.notFound().build();
 
             User user = opt_user.get();
-            if (!PasswordHasher.checkPassword(updatePasswordDTO.getOldPassword(), user.getPassword())) {
+            if (!passwordHasher.checkPassword(updatePasswordDTO.getOldPassword(), user.getPassword())) {
                 return ResponseEntity.badRequest().body("Old password is incorrect");
             }
             String newPassword = updatePasswordDTO.getNewPassword();
-            user.setPassword(PasswordHasher.hashPassword(newPassword));
+            user.setPassword(passwordHasher.hashPassword(newPassword));
             userRepository.save(user);
+            userCache.invalidate(user.getId());
+            refreshTokenService.revokeAll(user.getId());
             return ResponseEntity.ok().build();
+        } catch (PasswordHasherBusyException e) {
+            throw e;
         } catch (Exception e) {
             logger.error(e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Unexpected error occurred.");
@@ -167,16 +162,13 @@ public class UserController {
     }
 
     @GetMapping("getOtherUserInfo")
-    public ResponseEntity<?> getOtherUserInfo(@RequestHeader String token, @RequestParam String username) {
-        TokenValidationResult result = jwtUtil.validateTokenFull(token);
-        if (!result.isValid())
-            return ResponseEntity.status(HttpStatus.FORBIDDEN).body("invalid token");
+    public ResponseEntity<?> getOtherUserInfo(@CurrentUser(invalidStatus = HttpStatus.FORBIDDEN, invalidMessage = "invalid token") AuthenticatedUser principal, @RequestParam String username) {
         try {
-            Optional<User> opt_user = userRepository.findByLogin(username);
+            Optional<UserCache.UserSnapshot> opt_user = userCache.byLogin(username);
             if (!opt_user.isPresent())
                 return ResponseEntity.notFound().build();
-            User user = opt_user.get();
-            OtherUserInfoDTO userInfo = new OtherUserInfoDTO(user.getId(), user.getLogin(), s3Service.generatePresignedImageUrl(user.getS3Key()));
+            UserCache.UserSnapshot user = opt_user.get();
+            OtherUserInfoDTO userInfo = new OtherUserInfoDTO(user.id(), user.login(), mediaLinks.avatarUrl(user.id(), user.s3Key()));
             return ResponseEntity.ok(userInfo);
         } catch (Exception e) {
             logger.error(e.getMessage());
@@ -185,13 +177,9 @@ public class UserController {
     }
 
     @PostMapping("changeEmail")
-    public ResponseEntity<?> changeEmail(@RequestHeader String token, @Email @RequestParam String newEmail) {
-        TokenValidationResult result = jwtUtil.validateTokenFull(token);
-        if (!result.isValid())
-            return ResponseEntity.status(HttpStatus.FORBIDDEN).body("invalid token");
-        String username = jwtUtil.extractUsername(token);
+    public ResponseEntity<?> changeEmail(@CurrentUser(invalidStatus = HttpStatus.FORBIDDEN, invalidMessage = "invalid token", missingUserStatus = HttpStatus.NOT_FOUND, missingUserMessage = "") AuthenticatedUser principal, @Email @RequestParam String newEmail) {
         try {
-            Optional<User> opt_user = userRepository.findByLogin(username);
+            Optional<User> opt_user = userRepository.findById(principal.id());
             if (opt_user.isEmpty()) return ResponseEntity.notFound().build();
 
             User user = opt_user.get();
@@ -202,6 +190,7 @@ public class UserController {
 
             user.setEmail(newEmail);
             userRepository.save(user);
+            userCache.invalidate(user.getId());
             return ResponseEntity.ok().build();
         } catch (Exception e) {
             logger.error(e.getMessage());
@@ -210,18 +199,16 @@ public class UserController {
     }
 
     @PostMapping("changeProfilePicture")
-    public ResponseEntity<?> changeProfilePicture(@RequestHeader String token, @RequestParam String s3Key) {
-        TokenValidationResult result = jwtUtil.validateTokenFull(token);
-        if (!result.isValid())
-            return ResponseEntity.status(HttpStatus.FORBIDDEN).body("invalid token");
-        String username = jwtUtil.extractUsername(token);
+    public ResponseEntity<?> changeProfilePicture(@CurrentUser(invalidStatus = HttpStatus.FORBIDDEN, invalidMessage = "invalid token", missingUserStatus = HttpStatus.NOT_FOUND, missingUserMessage = "") AuthenticatedUser principal, @RequestParam String s3Key) {
         try {
-            Optional<User> opt_user = userRepository.findByLogin(username);
+            Optional<User> opt_user = userRepository.findById(principal.id());
             if (opt_user.isEmpty()) return ResponseEntity.notFound().build();
 
             User user = opt_user.get();
             user.setS3Key(s3Key);
             userRepository.save(user);
+            mediaKeyCache.invalidateUser(user.getId());
+            userCache.invalidate(user.getId());
             return ResponseEntity.ok().build();
         } catch (Exception e) {
             logger.error(e.getMessage());
@@ -0,0 +1,25 @@
+package com.backend.melodyHub.dto;
+
+import jakarta.annotation.Nullable;
+
+import java.util.List;
+
+public class PostFeedDTO {
+    private final List<PostPreviewDTO> posts;
+    @Nullable
+    private final String nextCursor;
+
+    public PostFeedDTO(List<PostPreviewDTO> posts, @Nullable String nextCursor) {
+        this.posts = posts;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<PostPreviewDTO> getPosts() {
+        return posts;
+    }
+
+    @Nullable
+    public String getNextCursor() {
+        return nextCursor;
+    }
+}
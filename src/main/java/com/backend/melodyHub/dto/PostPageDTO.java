@@ -3,7 +3,9 @@ package com.backend.melodyHub.dto;
 import com.backend.melodyHub.model.Category;
 import com.backend.melodyHub.model.Post;
 import com.backend.melodyHub.model.PostToCategory;
+import com.backend.melodyHub.repository.PostPageView;
 
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -53,6 +55,21 @@ public class PostPageDTO {
         );
     }
 
+    public static PostPageDTO fromView(PostPageView view, String previewUrl, String postUrl, String leadsheetUrl, String authorProfileImageUrl) {
+        return new PostPageDTO(
+                view.getId(),
+                previewUrl,
+                Optional.ofNullable(view.getAuthorLogin()).orElse(""),
+                Arrays.asList(view.getCategoryIds()),
+                view.getDescription(),
+                postUrl,
+                view.getName(),
+                leadsheetUrl,
+                authorProfileImageUrl,
+                view.getAuthorId()
+        );
+    }
+
     public Integer getId() {
         return id;
     }
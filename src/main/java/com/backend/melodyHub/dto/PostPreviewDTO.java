@@ -1,11 +1,12 @@
 package com.backend.melodyHub.dto;
 
-import com.backend.melodyHub.model.Category;
 import com.backend.melodyHub.model.Post;
-import com.backend.melodyHub.model.PostToCategory;
+import com.backend.melodyHub.repository.PostPreviewView;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import jakarta.annotation.Nullable;
 
+import java.util.Arrays;
 import java.util.List;
-import java.util.stream.Collectors;
 
 public class PostPreviewDTO {
     private final Integer id;
@@ -14,6 +15,16 @@ public class PostPreviewDTO {
     private final String authorName;
     private List<Integer> categories;
     private Integer authorId;
+    // Only set by the feed variant that asks for them; omitted from the JSON otherwise.
+    @Nullable
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long likeCount;
+    @Nullable
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Boolean likedByMe;
+    @Nullable
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Boolean savedByMe;
 
     public PostPreviewDTO(Integer id, String previewUrl, String name, String authorName, List<Integer> categories, Integer authorId) {
         this.id = id;
@@ -25,10 +36,7 @@ public class PostPreviewDTO {
     }
 
     public static PostPreviewDTO fromPost(Post post, String previewUrl) {
-        List<Integer> categoryIds = post.getPostToCategories().stream()
-                .map(PostToCategory::getCategory)
-                .map(category -> category.getId())
-                .collect(Collectors.toList());
+        List<Integer> categoryIds = Arrays.asList(post.getCategoryIds());
 
         return new PostPreviewDTO(
                 post.getId(),
@@ -40,6 +48,24 @@ public class PostPreviewDTO {
         );
     }
 
+    public static PostPreviewDTO fromView(PostPreviewView view, String previewUrl) {
+        return new PostPreviewDTO(
+                view.getId(),
+                previewUrl,
+                view.getName(),
+                view.getAuthorLogin(),
+                Arrays.asList(view.getCategoryIds()),
+                view.getAuthorId()
+        );
+    }
+
+    public PostPreviewDTO withInteractions(long likeCount, boolean likedByMe, boolean savedByMe) {
+        this.likeCount = likeCount;
+        this.likedByMe = likedByMe;
+        this.savedByMe = savedByMe;
+        return this;
+    }
+
     public Integer getId() {
         return id;
     }
@@ -71,4 +97,19 @@ public class PostPreviewDTO {
     public void setAuthorId(Integer authorId) {
         this.authorId = authorId;
     }
-}
\ No newline at end of file
+
+    @Nullable
+    public Long getLikeCount() {
+        return likeCount;
+    }
+
+    @Nullable
+    public Boolean getLikedByMe() {
+        return likedByMe;
+    }
+
+    @Nullable
+    public Boolean getSavedByMe() {
+        return savedByMe;
+    }
+}
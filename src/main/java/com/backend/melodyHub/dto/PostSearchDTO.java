@@ -0,0 +1,21 @@
+package com.backend.melodyHub.dto;
+
+import java.util.List;
+
+public class PostSearchDTO {
+    private final List<PostPreviewDTO> posts;
+    private final int total;
+
+    public PostSearchDTO(List<PostPreviewDTO> posts, int total) {
+        this.posts = posts;
+        this.total = total;
+    }
+
+    public List<PostPreviewDTO> getPosts() {
+        return posts;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+}
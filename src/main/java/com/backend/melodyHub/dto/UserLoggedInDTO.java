@@ -5,10 +5,12 @@ import java.util.Objects;
 public class UserLoggedInDTO {
     private String token;
     private String username;
+    private String refreshToken;
 
-    public UserLoggedInDTO(String token, String username) {
+    public UserLoggedInDTO(String token, String username, String refreshToken) {
         this.token = token;
         this.username = username;
+        this.refreshToken = refreshToken;
     }
 
     public String getToken() {
@@ -27,16 +29,25 @@ public class UserLoggedInDTO {
         this.username = username;
     }
 
+    public String getRefreshToken() {
+        return refreshToken;
+    }
+
+    public void setRefreshToken(String refreshToken) {
+        this.refreshToken = refreshToken;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
         if (!(o instanceof UserLoggedInDTO that)) return false;
         return Objects.equals(token, that.token) &&
-                Objects.equals(username, that.username);
+                Objects.equals(username, that.username) &&
+                Objects.equals(refreshToken, that.refreshToken);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(token, username);
+        return Objects.hash(token, username, refreshToken);
     }
 }
@@ -7,6 +7,7 @@ import java.util.List;
 
 @Entity
 @Table(name = "comment")
+@NamedEntityGraph(name = "Comment.withUser", attributeNodes = @NamedAttributeNode("user"))
 public class Comment {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -1,6 +1,8 @@
 package com.backend.melodyHub.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -35,6 +37,15 @@ public class Post {
     @Column(name = "date_time")
     private LocalDateTime dateTime;
 
+    // Sorted copy of the post's category ids from post_to_categories, GIN-indexed for containment queries.
+    @JdbcTypeCode(SqlTypes.ARRAY)
+    @Column(name = "category_ids", columnDefinition = "integer[]")
+    private Integer[] categoryIds = new Integer[0];
+
+    // Maintained only by atomic UPDATEs in PostRepository, never written from the entity.
+    @Column(name = "like_count", columnDefinition = "integer default 0 not null", insertable = false, updatable = false)
+    private int likeCount;
+
     @OneToMany(mappedBy = "post", cascade = CascadeType.ALL, orphanRemoval = true)
     private Set<PostToCategory> postToCategories = new HashSet<>();
 
@@ -97,6 +108,18 @@ public class Post {
         this.dateTime = dateTime;
     }
 
+    public Integer[] getCategoryIds() {
+        return categoryIds;
+    }
+
+    public void setCategoryIds(Integer[] categoryIds) {
+        this.categoryIds = categoryIds;
+    }
+
+    public int getLikeCount() {
+        return likeCount;
+    }
+
     public Set<PostToCategory> getPostToCategories() {
         return postToCategories;
     }
@@ -3,6 +3,7 @@ package com.backend.melodyHub.repository;
 import com.backend.melodyHub.model.Comment;
 import com.backend.melodyHub.model.Post;
 import com.backend.melodyHub.model.User;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -12,8 +13,11 @@ import java.util.List;
 
 public interface CommentRepository extends JpaRepository<Comment, Integer> {
 
+    // List endpoints read each comment's author, so it is joined into the same query.
+    @EntityGraph("Comment.withUser")
     List<Comment> getCommentsByUser(User user);
 
+    @EntityGraph("Comment.withUser")
     List<Comment> getCommentsByPost(Post post);
 
     @Modifying
@@ -4,8 +4,15 @@ import com.backend.melodyHub.model.Like;
 import com.backend.melodyHub.model.Post;
 import com.backend.melodyHub.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.validation.annotation.Validated;
 
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 @Validated
@@ -13,4 +20,33 @@ public interface LikeRepository extends JpaRepository<Like, Integer> {
     Optional<Like> findByUserAndPost(User user, Post post);
 
     Integer countLikesByPost(Post post);
+
+    // Single-statement toggles backed by the unique (user_id, post_id) index.
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO \"like\" (user_id, post_id, date_time) VALUES (:userId, :postId, :likeDate) " +
+            "ON CONFLICT (user_id, post_id) DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(Integer userId, Integer postId, LocalDateTime likeDate);
+
+    // Returns the removed like's date, or empty when there was no like. Native timestamps come back as java.sql types.
+    @Transactional
+    @Query(value = "DELETE FROM \"like\" WHERE user_id = :userId AND post_id = :postId RETURNING date_time", nativeQuery = true)
+    Optional<Timestamp> deleteReturningDate(Integer userId, Integer postId);
+
+    long countByPostIdAndLikeDateGreaterThanEqual(Integer postId, LocalDateTime since);
+
+    @Query("SELECT l.post.id FROM Like l WHERE l.user.id = :userId")
+    List<Integer> findPostIdsByUserId(Integer userId);
+
+    @Query("SELECT l.post.id AS postId, CAST(l.likeDate AS LocalDate) AS day, COUNT(l) AS likes FROM Like l " +
+            "WHERE l.likeDate >= :since GROUP BY l.post.id, CAST(l.likeDate AS LocalDate)")
+    List<DailyLikes> countDailyLikesSince(LocalDateTime since);
+
+    interface DailyLikes {
+        Integer getPostId();
+
+        LocalDate getDay();
+
+        Long getLikes();
+    }
 }
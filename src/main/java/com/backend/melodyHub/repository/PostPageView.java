@@ -0,0 +1,62 @@
+package com.backend.melodyHub.repository;
+
+// Read model for the post page: the post's columns plus the author fields PostPageDTO shows.
+public class PostPageView {
+    private final Integer id;
+    private final String name;
+    private final String description;
+    private final String s3Key;
+    private final String leadsheetKey;
+    private final Integer authorId;
+    private final String authorLogin;
+    private final String authorS3Key;
+    private final Integer[] categoryIds;
+
+    public PostPageView(Integer id, String name, String description, String s3Key, String leadsheetKey, Integer authorId, String authorLogin, String authorS3Key, Integer[] categoryIds) {
+        this.id = id;
+        this.name = name;
+        this.description = description;
+        this.s3Key = s3Key;
+        this.leadsheetKey = leadsheetKey;
+        this.authorId = authorId;
+        this.authorLogin = authorLogin;
+        this.authorS3Key = authorS3Key;
+        this.categoryIds = categoryIds == null ? new Integer[0] : categoryIds;
+    }
+
+    public Integer getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public String getS3Key() {
+        return s3Key;
+    }
+
+    public String getLeadsheetKey() {
+        return leadsheetKey;
+    }
+
+    public Integer getAuthorId() {
+        return authorId;
+    }
+
+    public String getAuthorLogin() {
+        return authorLogin;
+    }
+
+    public String getAuthorS3Key() {
+        return authorS3Key;
+    }
+
+    public Integer[] getCategoryIds() {
+        return categoryIds;
+    }
+}
@@ -0,0 +1,52 @@
+package com.backend.melodyHub.repository;
+
+import java.time.LocalDateTime;
+
+// Read model for post cards: only the columns PostPreviewDTO needs, selected with a constructor expression.
+public class PostPreviewView {
+    private final Integer id;
+    private final String name;
+    private final String s3Key;
+    private final Integer authorId;
+    private final String authorLogin;
+    private final Integer[] categoryIds;
+    private final LocalDateTime dateTime;
+
+    public PostPreviewView(Integer id, String name, String s3Key, Integer authorId, String authorLogin, Integer[] categoryIds, LocalDateTime dateTime) {
+        this.id = id;
+        this.name = name;
+        this.s3Key = s3Key;
+        this.authorId = authorId;
+        this.authorLogin = authorLogin;
+        this.categoryIds = categoryIds == null ? new Integer[0] : categoryIds;
+        this.dateTime = dateTime;
+    }
+
+    public Integer getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getS3Key() {
+        return s3Key;
+    }
+
+    public Integer getAuthorId() {
+        return authorId;
+    }
+
+    public String getAuthorLogin() {
+        return authorLogin;
+    }
+
+    public Integer[] getCategoryIds() {
+        return categoryIds;
+    }
+
+    public LocalDateTime getDateTime() {
+        return dateTime;
+    }
+}
@@ -4,13 +4,88 @@ import com.backend.melodyHub.model.Category;
 import com.backend.melodyHub.model.Post;
 import com.backend.melodyHub.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
+import java.util.stream.Stream;
 
-public interface PostRepository extends JpaRepository<Post, Integer> {
+public interface PostRepository extends JpaRepository<Post, Integer>, JpaSpecificationExecutor<Post>, PostViewRepository {
 
     List<Post> getPostsByUser(User user);
+
+    @Query("SELECT new com.backend.melodyHub.repository.PostPreviewView(p.id, p.name, p.s3Key, u.id, u.login, p.categoryIds, p.dateTime) " +
+            "FROM Post p JOIN p.user u WHERE u = :user ORDER BY p.id")
+    List<PostPreviewView> findPreviewsByUser(User user);
+
+    @Query("SELECT new com.backend.melodyHub.repository.PostPreviewView(p.id, p.name, p.s3Key, u.id, u.login, p.categoryIds, p.dateTime) " +
+            "FROM Post p JOIN p.user u WHERE u = :user ORDER BY p.id")
+    Stream<PostPreviewView> streamPreviewsByUser(User user);
+
+    @Query("SELECT new com.backend.melodyHub.repository.PostPageView(p.id, p.name, p.description, p.s3Key, p.leadsheetKey, u.id, u.login, u.s3Key, p.categoryIds) " +
+            "FROM Post p JOIN p.user u WHERE p.id = :postId")
+    Optional<PostPageView> findPageView(Integer postId);
+
+    @Query("SELECT p.id FROM Post p")
+    List<Integer> findAllIds();
+
+    @Query("SELECT p.id AS id, p.name AS name, p.description AS description FROM Post p")
+    List<SearchDocument> findSearchDocuments();
+
+    @Query("SELECT p.id AS id, p.user.id AS authorId, p.dateTime AS dateTime FROM Post p")
+    List<CatalogRow> findCatalogRows();
+
+    @Query("SELECT p.s3Key FROM Post p WHERE p.id = :postId")
+    Optional<String> findS3KeyById(Integer postId);
+
+    @Query("SELECT p.likeCount FROM Post p WHERE p.id = :postId")
+    Optional<Integer> findLikeCount(Integer postId);
+
+    @Query("SELECT p.id AS postId, p.likeCount AS likes FROM Post p WHERE p.id IN :postIds")
+    List<PostLikes> findLikeCounts(Collection<Integer> postIds);
+
+    @Modifying
+    @Query("UPDATE Post p SET p.likeCount = p.likeCount + :delta WHERE p.id = :postId")
+    int adjustLikeCount(Integer postId, int delta);
+
+    // Locks the next batch of post rows in id order. Like writes change like_count under the same row lock, so a count
+    // taken by a later statement in the same transaction includes every committed like and nothing can commit in between.
+    @Query(value = "SELECT id FROM post WHERE id > :afterId ORDER BY id LIMIT :limit FOR UPDATE", nativeQuery = true)
+    List<Integer> lockIdsAfter(int afterId, int limit);
+
+    // Sets like_count from the like table wherever the two disagree; returns the number of repaired posts.
+    // Only safe on rows locked by lockIdsAfter in the same transaction.
+    @Modifying
+    @Query(value = "UPDATE post p SET like_count = c.likes FROM (SELECT p2.id, COUNT(l.id) AS likes FROM post p2 " +
+            "LEFT JOIN \"like\" l ON l.post_id = p2.id WHERE p2.id IN (:postIds) GROUP BY p2.id) c " +
+            "WHERE c.id = p.id AND p.like_count <> c.likes", nativeQuery = true)
+    int reconcileLikeCounts(Collection<Integer> postIds);
+
+    interface PostLikes {
+        Integer getPostId();
+
+        Integer getLikes();
+    }
+
+    interface SearchDocument {
+        Integer getId();
+
+        String getName();
+
+        String getDescription();
+    }
+
+    interface CatalogRow {
+        Integer getId();
+
+        Integer getAuthorId();
+
+        LocalDateTime getDateTime();
+    }
 }
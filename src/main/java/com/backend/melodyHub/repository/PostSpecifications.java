@@ -0,0 +1,79 @@
+package com.backend.melodyHub.repository;
+
+import com.backend.melodyHub.model.Like;
+import com.backend.melodyHub.model.Post;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+
+public final class PostSpecifications {
+
+    private PostSpecifications() {
+    }
+
+    public static Specification<Post> hasAuthor(Integer userId) {
+        return (root, query, cb) -> cb.equal(root.get("user").get("id"), userId);
+    }
+
+    // Renders as category_ids @> ARRAY[...] on PostgreSQL, which the GIN index on category_ids serves.
+    public static Specification<Post> hasAllCategories(Collection<Integer> categoryIds) {
+        Integer[] ids = new LinkedHashSet<>(categoryIds).toArray(Integer[]::new);
+        return (root, query, cb) -> ((HibernateCriteriaBuilder) cb).arrayIncludes(root.<Integer[]>get("categoryIds"), ids);
+    }
+
+    public static Specification<Post> nameContains(String name) {
+        String pattern = "%" + name.toLowerCase()
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_") + "%";
+        return (root, query, cb) -> cb.like(cb.lower(root.get("name")), pattern, '\\');
+    }
+
+    public static Specification<Post> idIn(Collection<Integer> ids) {
+        return (root, query, cb) -> root.get("id").in(ids);
+    }
+
+    public static Specification<Post> idAfter(Integer id) {
+        return (root, query, cb) -> cb.greaterThan(root.get("id"), id);
+    }
+
+    public static Specification<Post> createdSince(LocalDateTime since) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("dateTime"), since);
+    }
+
+    public static Specification<Post> createdBefore(LocalDateTime dateTime, Integer id) {
+        return (root, query, cb) -> cb.or(
+                cb.lessThan(root.get("dateTime"), dateTime),
+                cb.and(cb.equal(root.get("dateTime"), dateTime), cb.lessThan(root.get("id"), id)));
+    }
+
+    // Orders by the number of likes received since the given date. The ordering is applied here because
+    // it depends on a correlated subquery, so callers must not pass their own Sort alongside it.
+    public static Specification<Post> orderedByLikesSince(LocalDateTime since) {
+        return (root, query, cb) -> {
+            query.orderBy(cb.desc(likesSince(root, query, cb, since)), cb.desc(root.get("id")));
+            return null;
+        };
+    }
+
+    public static Specification<Post> fewerLikesSince(LocalDateTime since, long likes, Integer id) {
+        return (root, query, cb) -> cb.or(
+                cb.lessThan(likesSince(root, query, cb, since), likes),
+                cb.and(cb.equal(likesSince(root, query, cb, since), likes), cb.lessThan(root.get("id"), id)));
+    }
+
+    private static Subquery<Long> likesSince(Root<Post> root, CriteriaQuery<?> query, CriteriaBuilder cb, LocalDateTime since) {
+        Subquery<Long> likes = query.subquery(Long.class);
+        Root<Like> like = likes.from(Like.class);
+        likes.select(cb.count(like))
+                .where(cb.equal(like.get("post"), root), cb.greaterThanOrEqualTo(like.get("likeDate"), since));
+        return likes;
+    }
+}
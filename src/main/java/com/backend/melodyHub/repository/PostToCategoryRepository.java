@@ -3,8 +3,20 @@ package com.backend.melodyHub.repository;
 import com.backend.melodyHub.model.Post;
 import com.backend.melodyHub.model.PostToCategory;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
 
 public interface PostToCategoryRepository extends JpaRepository<PostToCategory, Integer> {
 
     void deleteByPost(Post post);
+
+    @Query("SELECT ptc.post.id AS postId, ptc.category.id AS categoryId FROM PostToCategory ptc")
+    List<CategoryLink> findAllLinks();
+
+    interface CategoryLink {
+        Integer getPostId();
+
+        Integer getCategoryId();
+    }
 }
@@ -0,0 +1,19 @@
+package com.backend.melodyHub.repository;
+
+import com.backend.melodyHub.model.Post;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+public interface PostViewRepository {
+
+    List<PostPreviewView> findPreviews(Specification<Post> spec, Sort sort, int limit);
+
+    Stream<PostPreviewView> streamPreviews(Specification<Post> spec, Sort sort);
+
+    // Unordered; callers that need a specific order rearrange by id.
+    List<PostPreviewView> findPreviewsByIds(Collection<Integer> ids);
+}
@@ -0,0 +1,55 @@
+package com.backend.melodyHub.repository;
+
+import com.backend.melodyHub.model.Post;
+import com.backend.melodyHub.model.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.*;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+// Applies the same Specifications as the entity queries, but selects PostPreviewView through cb.construct,
+// so the result is one statement with no entity hydration, author fetch or collection loads.
+public class PostViewRepositoryImpl implements PostViewRepository {
+    private final EntityManager entityManager;
+
+    public PostViewRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public List<PostPreviewView> findPreviews(Specification<Post> spec, Sort sort, int limit) {
+        return previewQuery(spec, sort).setMaxResults(limit).getResultList();
+    }
+
+    @Override
+    public Stream<PostPreviewView> streamPreviews(Specification<Post> spec, Sort sort) {
+        return previewQuery(spec, sort).getResultStream();
+    }
+
+    @Override
+    public List<PostPreviewView> findPreviewsByIds(Collection<Integer> ids) {
+        if (ids.isEmpty()) return List.of();
+        return previewQuery(PostSpecifications.idIn(ids), Sort.unsorted()).getResultList();
+    }
+
+    private TypedQuery<PostPreviewView> previewQuery(Specification<Post> spec, Sort sort) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<PostPreviewView> query = cb.createQuery(PostPreviewView.class);
+        Root<Post> root = query.from(Post.class);
+        Join<Post, User> author = root.join("user");
+        query.select(cb.construct(PostPreviewView.class,
+                root.get("id"), root.get("name"), root.get("s3Key"),
+                author.get("id"), author.get("login"),
+                root.get("categoryIds"), root.get("dateTime")));
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) query.where(predicate);
+        if (sort.isSorted()) query.orderBy(QueryUtils.toOrders(sort, root, cb));
+        return entityManager.createQuery(query);
+    }
+}
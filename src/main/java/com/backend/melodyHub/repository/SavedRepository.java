@@ -4,12 +4,38 @@ import com.backend.melodyHub.model.Post;
 import com.backend.melodyHub.model.Saved;
 import com.backend.melodyHub.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface SavedRepository extends JpaRepository<Saved, Integer> {
     Optional<Saved> findByUserAndPost(User user, Post post);
 
     List<Saved> findByUser(User user);
+
+    // Single-statement toggles backed by the unique (user_id, post_id) index; both return the number of rows changed.
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO saved (user_id, post_id) VALUES (:userId, :postId) ON CONFLICT (user_id, post_id) DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(Integer userId, Integer postId);
+
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM saved WHERE user_id = :userId AND post_id = :postId", nativeQuery = true)
+    int deleteByUserIdAndPostId(Integer userId, Integer postId);
+
+    @Query("SELECT s.post.id FROM Saved s WHERE s.user.id = :userId")
+    List<Integer> findPostIdsByUserId(Integer userId);
+
+    @Query("SELECT new com.backend.melodyHub.repository.PostPreviewView(p.id, p.name, p.s3Key, u.id, u.login, p.categoryIds, p.dateTime) " +
+            "FROM Saved s JOIN s.post p JOIN p.user u WHERE s.user = :user ORDER BY s.id")
+    List<PostPreviewView> findSavedPreviews(User user);
+
+    @Query("SELECT new com.backend.melodyHub.repository.PostPreviewView(p.id, p.name, p.s3Key, u.id, u.login, p.categoryIds, p.dateTime) " +
+            "FROM Saved s JOIN s.post p JOIN p.user u WHERE s.user = :user ORDER BY s.id")
+    Stream<PostPreviewView> streamSavedPreviews(User user);
 }
@@ -0,0 +1,35 @@
+-- Runs after Hibernate's schema update (spring.jpa.defer-datasource-initialization), so every statement must be idempotent.
+
+-- One-off steps are wrapped in DO blocks that check whether they already ran, so a restart does not rescan or lock
+-- large tables. The block bodies are single-quoted (not $$) because the script splitter only respects plain quotes.
+
+-- post.category_ids mirrors post_to_categories; rows written before the column existed are backfilled here.
+-- The column only stays nullable until this has run once, so later boots skip the backfill and the NOT NULL scan.
+ALTER TABLE post ADD COLUMN IF NOT EXISTS category_ids integer[];
+DO '
+BEGIN
+    IF EXISTS (SELECT 1 FROM information_schema.columns
+               WHERE table_schema = current_schema() AND table_name = ''post'' AND column_name = ''category_ids'' AND is_nullable = ''YES'') THEN
+        UPDATE post p
+        SET category_ids = ARRAY(SELECT DISTINCT ptc.category_id FROM post_to_categories ptc WHERE ptc.post_id = p.id ORDER BY ptc.category_id)
+        WHERE p.category_ids IS NULL;
+        ALTER TABLE post ALTER COLUMN category_ids SET DEFAULT ''{}'';
+        ALTER TABLE post ALTER COLUMN category_ids SET NOT NULL;
+    END IF;
+END';
+CREATE INDEX IF NOT EXISTS post_category_ids_gin ON post USING GIN (category_ids);
+
+-- One like and one saved row per (user, post). Duplicates left by earlier check-then-insert races are removed
+-- first (keeping the oldest row); LikeCountReconciler then corrects like_count. Once the unique index exists no
+-- duplicate can be written, so the self-join is skipped.
+DO '
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_indexes WHERE schemaname = current_schema() AND indexname = ''like_user_post_uk'') THEN
+        DELETE FROM "like" l USING "like" d WHERE l.user_id = d.user_id AND l.post_id = d.post_id AND l.id > d.id;
+        CREATE UNIQUE INDEX like_user_post_uk ON "like" (user_id, post_id);
+    END IF;
+    IF NOT EXISTS (SELECT 1 FROM pg_indexes WHERE schemaname = current_schema() AND indexname = ''saved_user_post_uk'') THEN
+        DELETE FROM saved s USING saved d WHERE s.user_id = d.user_id AND s.post_id = d.post_id AND s.id > d.id;
+        CREATE UNIQUE INDEX saved_user_post_uk ON saved (user_id, post_id);
+    END IF;
+END';
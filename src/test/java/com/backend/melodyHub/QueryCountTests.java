@@ -0,0 +1,200 @@
+package com.backend.melodyHub;
+
+import com.backend.melodyHub.component.AuthenticatedUser;
+import com.backend.melodyHub.component.CurrentUserArgumentResolver;
+import com.backend.melodyHub.component.JwtUtil;
+import com.backend.melodyHub.controller.CommentController;
+import com.backend.melodyHub.controller.PostController;
+import com.backend.melodyHub.model.Comment;
+import com.backend.melodyHub.model.Post;
+import com.backend.melodyHub.model.Saved;
+import com.backend.melodyHub.model.User;
+import io.github.cdimascio.dotenv.Dotenv;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Checks that list endpoints issue a fixed number of statements regardless of how many rows they return.
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Transactional
+class QueryCountTests {
+
+    @Autowired
+    private CommentController commentController;
+    @Autowired
+    private PostController postController;
+    @Autowired
+    private JwtUtil jwtUtil;
+    @Autowired
+    private CurrentUserArgumentResolver currentUserArgumentResolver;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private Statistics statistics;
+
+    @BeforeAll
+    static void init() {
+        Dotenv dotenv = Dotenv.load();
+        System.setProperty("DB_URL", dotenv.get("DB_URL"));
+        System.setProperty("DB_USERNAME", dotenv.get("DB_USERNAME"));
+        System.setProperty("DB_PASSWORD", dotenv.get("DB_PASSWORD"));
+        System.setProperty("256BIT_SECRET", dotenv.get("256BIT_SECRET"));
+        System.setProperty("BUCKET_NAME", dotenv.get("BUCKET_NAME"));
+        System.setProperty("AWS_ACCESS_KEY", dotenv.get("AWS_ACCESS_KEY"));
+        System.setProperty("AWS_SECRET_KEY", dotenv.get("AWS_SECRET_KEY"));
+        System.setProperty("AWS_REGION", dotenv.get("AWS_REGION"));
+    }
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void testGetCommentByPost_StatementCountIndependentOfSize() {
+        Post small = postWithComments(2);
+        Post large = postWithComments(20);
+        User reader = user();
+        AuthenticatedUser principal = principal(reader);
+
+        long smallCount = statements(() -> commentController.getCommentByPost(principal, small.getId()));
+        long largeCount = statements(() -> commentController.getCommentByPost(principal, large.getId()));
+
+        assertEquals(smallCount, largeCount);
+        assertTrue(largeCount <= 2, "expected at most 2 statements, got " + largeCount);
+    }
+
+    @Test
+    void testGetSortedComments_StatementCountIndependentOfSize() {
+        Post small = postWithComments(2);
+        Post large = postWithComments(20);
+        User reader = user();
+        AuthenticatedUser principal = principal(reader);
+
+        long smallCount = statements(() -> commentController.getSortedComments(principal, small.getId()));
+        long largeCount = statements(() -> commentController.getSortedComments(principal, large.getId()));
+
+        assertEquals(smallCount, largeCount);
+        assertTrue(largeCount <= 3, "expected at most 3 statements, got " + largeCount);
+    }
+
+    @Test
+    void testGetCommentCreatedByUser_StatementCountIndependentOfSize() {
+        User few = user();
+        User many = user();
+        commentsBy(few, 2);
+        commentsBy(many, 20);
+
+        long smallCount = statements(() -> commentController.getCommentCreatedByUser(principal(few)));
+        long largeCount = statements(() -> commentController.getCommentCreatedByUser(principal(many)));
+
+        assertEquals(smallCount, largeCount);
+        assertTrue(largeCount <= 2, "expected at most 2 statements, got " + largeCount);
+    }
+
+    @Test
+    void testGetSavedPosts_StatementCountIndependentOfSize() {
+        User few = user();
+        User many = user();
+        saves(few, 2);
+        saves(many, 20);
+
+        long smallCount = statements(() -> postController.getSavedPosts(principal(few)));
+        long largeCount = statements(() -> postController.getSavedPosts(principal(many)));
+
+        assertEquals(smallCount, largeCount);
+        assertTrue(largeCount <= 2, "expected at most 2 statements, got " + largeCount);
+    }
+
+    // Runs the call against an empty persistence context so every row it reads has to come from the database.
+    private long statements(Supplier<ResponseEntity<?>> call) {
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+        ResponseEntity<?> response = call.get();
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertTrue(((List<?>) response.getBody()).size() > 0);
+        return statistics.getPrepareStatementCount();
+    }
+
+    private AuthenticatedUser principal(User user) {
+        return currentUserArgumentResolver.authenticate(jwtUtil.generateToken(user));
+    }
+
+    private Post postWithComments(int comments) {
+        Post post = post(user());
+        Comment parent = null;
+        for (int i = 0; i < comments; i++) {
+            Comment comment = comment(user(), post);
+            // Every other comment replies to the previous one so the sorted view has nested levels.
+            if (i % 2 == 1) comment.setReplyTo(parent);
+            entityManager.persist(comment);
+            parent = comment;
+        }
+        return post;
+    }
+
+    private void commentsBy(User author, int comments) {
+        for (int i = 0; i < comments; i++) {
+            entityManager.persist(comment(author, post(user())));
+        }
+    }
+
+    private void saves(User user, int posts) {
+        for (int i = 0; i < posts; i++) {
+            entityManager.persist(new Saved(post(user()), user));
+        }
+    }
+
+    private User user() {
+        String login = "qc" + ThreadLocalRandom.current().nextInt(100_000_000, 1_000_000_000);
+        User user = new User();
+        user.setLogin(login);
+        user.setEmail(login + "@example.com");
+        user.setFirstName("Query");
+        user.setLastName("Count");
+        user.setPassword("password");
+        user.setS3Key("profile/" + login);
+        entityManager.persist(user);
+        return user;
+    }
+
+    private Post post(User author) {
+        Post post = new Post();
+        post.setUser(author);
+        post.setName("Query count");
+        post.setS3Key("preview/" + author.getLogin());
+        post.setDateTime(LocalDateTime.now());
+        entityManager.persist(post);
+        return post;
+    }
+
+    private Comment comment(User author, Post post) {
+        Comment comment = new Comment();
+        comment.setUser(author);
+        comment.setPost(post);
+        comment.setContent("comment");
+        comment.setDateTime(LocalDateTime.now());
+        return comment;
+    }
+}
@@ -1,20 +1,25 @@
 package com.backend.melodyHub.tests;
 
+import com.backend.melodyHub.component.AuthenticatedUser;
+import com.backend.melodyHub.component.InvalidTokenException;
 import com.backend.melodyHub.component.JwtUtil;
 import com.backend.melodyHub.component.PasswordHasher;
-import com.backend.melodyHub.component.TokenValidationResult;
+import com.backend.melodyHub.component.PasswordHasherBusyException;
+import com.backend.melodyHub.component.RefreshTokenService;
 import com.backend.melodyHub.controller.AuthController;
+import com.backend.melodyHub.controller.AuthenticationAdvice;
 import com.backend.melodyHub.dto.LoginDTO;
 import com.backend.melodyHub.dto.UserDTO;
 import com.backend.melodyHub.dto.UserLoggedInDTO;
 import com.backend.melodyHub.model.User;
 import com.backend.melodyHub.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
@@ -29,14 +34,16 @@ import static org.mockito.Mockito.*;
 
 public class AuthControllerTest {
 
-    @InjectMocks
     private AuthController authController;
+    private PasswordHasher passwordHasher;
 
     @Mock
     private UserRepository userRepository;
     @Mock
     private JwtUtil jwtUtil;
     @Mock
+    private RefreshTokenService refreshTokenService;
+    @Mock
     private BindingResult bindingResult;
     private AutoCloseable closeable;
 
@@ -44,11 +51,14 @@ public class AuthControllerTest {
     @BeforeEach
     void setUp() {
         closeable = MockitoAnnotations.openMocks(this);
+        passwordHasher = new PasswordHasher(new SimpleMeterRegistry(), 2, 8, 4);
+        authController = new AuthController(userRepository, jwtUtil, passwordHasher, refreshTokenService);
     }
 
     @AfterEach
     void tearDown() throws Exception {
         closeable.close();
+        passwordHasher.shutdown();
     }
 
     @Test
@@ -58,17 +68,18 @@ public class AuthControllerTest {
         loginRequest.setLogin("testuser");
         User user = new User();
         user.setLogin("testuser");
-        user.setPassword(PasswordHasher.hashPassword("password123"));
+        user.setPassword(passwordHasher.hashPassword("password123"));
         String token = "mocked-jwt-token";
 
         when(bindingResult.hasErrors()).thenReturn(false);
         when(userRepository.findByLogin("testuser")).thenReturn(Optional.of(user));
         when(jwtUtil.generateToken(any(User.class))).thenReturn(token);
+        when(refreshTokenService.issue(user)).thenReturn("refresh-token");
 
         ResponseEntity<?> response = authController.login(loginRequest, bindingResult);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
-        UserLoggedInDTO expectedBody = new UserLoggedInDTO(token, "testuser");
+        UserLoggedInDTO expectedBody = new UserLoggedInDTO(token, "testuser", "refresh-token");
         assertEquals(expectedBody, response.getBody());
 
         verify(userRepository, times(1)).findByLogin("testuser");
@@ -100,7 +111,7 @@ public class AuthControllerTest {
         loginRequest.setLogin("testuser");
         User user = new User();
         user.setLogin("testuser");
-        user.setPassword(PasswordHasher.hashPassword("password123"));
+        user.setPassword(passwordHasher.hashPassword("password123"));
 
         when(bindingResult.hasErrors()).thenReturn(false);
         when(userRepository.findByLogin("testuser")).thenReturn(Optional.of(user));
@@ -152,6 +163,106 @@ public class AuthControllerTest {
         assertEquals("An error occurred during login", response.getBody());
     }
 
+    @Test
+    void login_RehashesPasswordWithOutdatedCost() {
+        LoginDTO loginRequest = new LoginDTO();
+        loginRequest.setPassword("password123");
+        loginRequest.setLogin("testuser");
+        User user = new User();
+        user.setLogin("testuser");
+        user.setPassword(passwordHasher.hashPassword("password123"));
+        PasswordHasher strongerHasher = new PasswordHasher(new SimpleMeterRegistry(), 1, 4, 5);
+        AuthController controller = new AuthController(userRepository, jwtUtil, strongerHasher, refreshTokenService);
+
+        when(bindingResult.hasErrors()).thenReturn(false);
+        when(userRepository.findByLogin("testuser")).thenReturn(Optional.of(user));
+        when(jwtUtil.generateToken(any(User.class))).thenReturn("mocked-jwt-token");
+
+        ResponseEntity<?> response = controller.login(loginRequest, bindingResult);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertTrue(user.getPassword().startsWith("$2a$05$"));
+        assertTrue(strongerHasher.checkPassword("password123", user.getPassword()));
+        verify(userRepository, times(1)).save(user);
+        strongerHasher.shutdown();
+    }
+
+    @Test
+    void login_CurrentCostNotRehashed() {
+        LoginDTO loginRequest = new LoginDTO();
+        loginRequest.setPassword("password123");
+        loginRequest.setLogin("testuser");
+        User user = new User();
+        user.setLogin("testuser");
+        user.setPassword(passwordHasher.hashPassword("password123"));
+
+        when(bindingResult.hasErrors()).thenReturn(false);
+        when(userRepository.findByLogin("testuser")).thenReturn(Optional.of(user));
+
+        authController.login(loginRequest, bindingResult);
+
+        verify(userRepository, never()).save(any(User.class));
+    }
+
+    @Test
+    void login_PasswordHasherBusy() {
+        LoginDTO loginRequest = new LoginDTO();
+        loginRequest.setPassword("password123");
+        loginRequest.setLogin("testuser");
+        User user = new User();
+        user.setLogin("testuser");
+        user.setPassword("hashedPassword");
+        PasswordHasher busyHasher = mock(PasswordHasher.class);
+        AuthController controller = new AuthController(userRepository, jwtUtil, busyHasher, refreshTokenService);
+
+        when(bindingResult.hasErrors()).thenReturn(false);
+        when(userRepository.findByLogin("testuser")).thenReturn(Optional.of(user));
+        when(busyHasher.checkPassword(anyString(), anyString())).thenThrow(new PasswordHasherBusyException());
+
+        PasswordHasherBusyException e = assertThrows(PasswordHasherBusyException.class, () -> controller.login(loginRequest, bindingResult));
+
+        ResponseEntity<String> response = new AuthenticationAdvice().passwordHasherBusy(e);
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+        assertEquals("1", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        verify(jwtUtil, never()).generateToken(any(User.class));
+    }
+
+    @Test
+    void refresh_IssuesTokensWithoutPasswordCheck() {
+        User user = new User();
+        user.setId(1);
+        user.setLogin("testuser");
+
+        when(refreshTokenService.rotate("old-refresh-token")).thenReturn(new RefreshTokenService.Rotation(user, "new-refresh-token"));
+        when(jwtUtil.generateToken(user)).thenReturn("mocked-jwt-token");
+
+        ResponseEntity<?> response = authController.refresh("old-refresh-token");
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(new UserLoggedInDTO("mocked-jwt-token", "testuser", "new-refresh-token"), response.getBody());
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void refresh_InvalidToken() {
+        when(refreshTokenService.rotate("spent-refresh-token")).thenThrow(new InvalidTokenException(HttpStatus.UNAUTHORIZED, "Invalid refresh token"));
+
+        InvalidTokenException e = assertThrows(InvalidTokenException.class, () -> authController.refresh("spent-refresh-token"));
+
+        ResponseEntity<String> response = new AuthenticationAdvice().invalidToken(e);
+        assertEquals(HttpStatus.UNAUTHORIZED, response.getStatusCode());
+        assertEquals("Invalid refresh token", response.getBody());
+        verify(jwtUtil, never()).generateToken(any(User.class));
+    }
+
+    @Test
+    void logout_RevokesRefreshToken() {
+        ResponseEntity<?> response = authController.logout("refresh-token");
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        verify(refreshTokenService, times(1)).revoke("refresh-token");
+    }
+
     @Test
     void register_Success() {
         UserDTO userDTO = new UserDTO();
@@ -271,81 +382,52 @@ public class AuthControllerTest {
 
     @Test
     void checkPassword_Success_True() {
-        String token = "valid-jwt-token";
+        AuthenticatedUser principal = new AuthenticatedUser(1, "testuser");
         String password = "correctpassword";
         User user = new User();
         user.setLogin("testuser");
-        user.setPassword(PasswordHasher.hashPassword("correctpassword"));
+        user.setPassword(passwordHasher.hashPassword("correctpassword"));
 
-        when(jwtUtil.validateTokenFull(token)).thenReturn(new TokenValidationResult(true, ""));
-        when(jwtUtil.extractUsername(token)).thenReturn("testuser");
-        when(userRepository.findByLogin("testuser")).thenReturn(Optional.of(user));
+        when(userRepository.findById(1)).thenReturn(Optional.of(user));
 
-        ResponseEntity<?> response = authController.checkPassword(token, password);
+        ResponseEntity<?> response = authController.checkPassword(principal, password);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals(Boolean.TRUE, response.getBody());
 
-        verify(jwtUtil, times(1)).validateTokenFull(token);
-        verify(jwtUtil, times(1)).extractUsername(token);
-        verify(userRepository, times(1)).findByLogin("testuser");
+        verify(userRepository, times(1)).findById(1);
     }
 
     @Test
     void checkPassword_Success_False() {
-        String token = "valid-jwt-token";
+        AuthenticatedUser principal = new AuthenticatedUser(1, "testuser");
         String password = "wrongpassword";
         User user = new User();
         user.setLogin("testuser");
-        user.setPassword(PasswordHasher.hashPassword("correctpassword"));
+        user.setPassword(passwordHasher.hashPassword("correctpassword"));
 
-        when(jwtUtil.validateTokenFull(token)).thenReturn(new TokenValidationResult(true, ""));
-        when(jwtUtil.extractUsername(token)).thenReturn("testuser");
-        when(userRepository.findByLogin("testuser")).thenReturn(Optional.of(user));
+        when(userRepository.findById(1)).thenReturn(Optional.of(user));
 
-        ResponseEntity<?> response = authController.checkPassword(token, password);
+        ResponseEntity<?> response = authController.checkPassword(principal, password);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals(Boolean.FALSE, response.getBody());
 
-        verify(jwtUtil, times(1)).validateTokenFull(token);
-        verify(jwtUtil, times(1)).extractUsername(token);
-        verify(userRepository, times(1)).findByLogin("testuser");
-    }
-
-    @Test
-    void checkPassword_InvalidToken() {
-        String token = "invalid-token";
-        String password = "anypassword";
-
-        when(jwtUtil.validateTokenFull(token)).thenReturn(new TokenValidationResult(false, "Invalid token message"));
-
-        ResponseEntity<?> response = authController.checkPassword(token, password);
-
-        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
-        assertEquals("Invalid token message", response.getBody());
-
-        verify(jwtUtil, never()).extractUsername(anyString());
-        verify(userRepository, never()).findByLogin(anyString());
+        verify(userRepository, times(1)).findById(1);
     }
 
     @Test
     void checkPassword_UserNotFoundForValidToken() {
-
-        String token = "valid-token-for-nonexistent-user";
+        AuthenticatedUser principal = new AuthenticatedUser(2, "nonexistentuser");
         String password = "anypassword";
 
-        when(jwtUtil.validateTokenFull(token)).thenReturn(new TokenValidationResult(true, ""));
-        when(jwtUtil.extractUsername(token)).thenReturn("nonexistentuser");
-        when(userRepository.findByLogin("nonexistentuser")).thenReturn(Optional.empty());
+        when(userRepository.findById(2)).thenReturn(Optional.empty());
 
-        ResponseEntity<?> response = authController.checkPassword(token, password);
+        ResponseEntity<?> response = authController.checkPassword(principal, password);
 
         assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
         assertEquals("User not found", response.getBody());
 
-        verify(jwtUtil, times(1)).validateTokenFull(token);
-        verify(jwtUtil, times(1)).extractUsername(token);
-        verify(userRepository, times(1)).findByLogin("nonexistentuser");
+        verify(userRepository, times(1)).findById(2);
     }
 }
@@ -0,0 +1,137 @@
+package com.backend.melodyHub.tests;
+
+import com.backend.melodyHub.component.AuthenticatedUser;
+import com.backend.melodyHub.component.CurrentUser;
+import com.backend.melodyHub.component.CurrentUserArgumentResolver;
+import com.backend.melodyHub.component.InvalidTokenException;
+import com.backend.melodyHub.component.JwtUtil;
+import com.backend.melodyHub.component.UserCache;
+import com.backend.melodyHub.controller.AuthenticationAdvice;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.NativeWebRequest;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class CurrentUserArgumentResolverTest {
+
+    private static final UserCache.UserSnapshot USER = new UserCache.UserSnapshot(7, "testUser", "test@example.com", "John", "Doe", null);
+
+    @Mock
+    private JwtUtil jwtUtil;
+
+    @Mock
+    private UserCache userCache;
+
+    @Mock
+    private NativeWebRequest webRequest;
+
+    @InjectMocks
+    private CurrentUserArgumentResolver resolver;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(webRequest.getHeader("token")).thenReturn("token");
+    }
+
+    @Test
+    void testResolve_PrincipalFromClaimsWithoutLoginLookup() throws Exception {
+        when(jwtUtil.authenticate("token")).thenReturn(new AuthenticatedUser(7, "testUser"));
+        when(userCache.byId(7)).thenReturn(Optional.of(USER));
+
+        AuthenticatedUser principal = resolver.resolveArgument(parameter("badRequest"), null, webRequest, null);
+
+        assertEquals(new AuthenticatedUser(7, "testUser"), principal);
+        verify(jwtUtil, times(1)).authenticate("token");
+        verify(userCache, never()).byLogin(anyString());
+    }
+
+    @Test
+    void testResolve_DeletedUserRejected() throws Exception {
+        when(jwtUtil.authenticate("token")).thenReturn(new AuthenticatedUser(7, "testUser"));
+        when(userCache.byId(7)).thenReturn(Optional.empty());
+
+        InvalidTokenException e = assertThrows(InvalidTokenException.class, () -> resolver.resolveArgument(parameter("forbidden"), null, webRequest, null));
+
+        ResponseEntity<String> response = new AuthenticationAdvice().invalidToken(e);
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertEquals("User not found", response.getBody());
+    }
+
+    @Test
+    void testResolve_TokenWithoutUserIdFallsBackToLogin() throws Exception {
+        when(jwtUtil.authenticate("token")).thenReturn(new AuthenticatedUser(null, "testUser"));
+        when(userCache.byLogin("testUser")).thenReturn(Optional.of(USER));
+        when(userCache.byId(7)).thenReturn(Optional.of(USER));
+
+        AuthenticatedUser principal = resolver.resolveArgument(parameter("badRequest"), null, webRequest, null);
+
+        assertEquals(new AuthenticatedUser(7, "testUser"), principal);
+    }
+
+    @Test
+    void testResolve_TokenWithoutUserIdForDeletedUser() throws Exception {
+        when(jwtUtil.authenticate("token")).thenReturn(new AuthenticatedUser(null, "testUser"));
+        when(userCache.byLogin(anyString())).thenReturn(Optional.empty());
+
+        InvalidTokenException e = assertThrows(InvalidTokenException.class, () -> resolver.resolveArgument(parameter("badRequest"), null, webRequest, null));
+
+        assertEquals(HttpStatus.BAD_REQUEST, e.getStatus());
+        assertEquals("Invalid token", e.getMessage());
+    }
+
+    @Test
+    void testResolve_InvalidTokenKeepsValidationMessage() throws Exception {
+        when(jwtUtil.authenticate("token")).thenThrow(new InvalidTokenException("Invalid JWT token format"));
+
+        InvalidTokenException e = assertThrows(InvalidTokenException.class, () -> resolver.resolveArgument(parameter("badRequest"), null, webRequest, null));
+
+        ResponseEntity<String> response = new AuthenticationAdvice().invalidToken(e);
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertEquals("Invalid JWT token format", response.getBody());
+    }
+
+    @Test
+    void testResolve_InvalidTokenForbiddenEndpoint() throws Exception {
+        when(jwtUtil.authenticate("token")).thenThrow(new InvalidTokenException("Invalid token"));
+
+        InvalidTokenException e = assertThrows(InvalidTokenException.class, () -> resolver.resolveArgument(parameter("forbidden"), null, webRequest, null));
+
+        ResponseEntity<String> response = new AuthenticationAdvice().invalidToken(e);
+        assertEquals(HttpStatus.FORBIDDEN, response.getStatusCode());
+        assertEquals("invalid token", response.getBody());
+    }
+
+    @Test
+    void testSupportsOnlyAnnotatedPrincipal() throws Exception {
+        assertTrue(resolver.supportsParameter(parameter("badRequest")));
+        assertFalse(resolver.supportsParameter(new MethodParameter(Handlers.class.getDeclaredMethod("unannotated", AuthenticatedUser.class), 0)));
+    }
+
+    private static MethodParameter parameter(String method) throws NoSuchMethodException {
+        return new MethodParameter(Handlers.class.getDeclaredMethod(method, AuthenticatedUser.class), 0);
+    }
+
+    @SuppressWarnings("unused")
+    private static class Handlers {
+        void badRequest(@CurrentUser AuthenticatedUser principal) {
+        }
+
+        void forbidden(@CurrentUser(invalidStatus = HttpStatus.FORBIDDEN, invalidMessage = "invalid token") AuthenticatedUser principal) {
+        }
+
+        void unannotated(AuthenticatedUser principal) {
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.backend.melodyHub.tests;
+
+import com.backend.melodyHub.component.AuthenticatedUser;
+import com.backend.melodyHub.component.CurrentUser;
+import com.backend.melodyHub.component.CurrentUserArgumentResolver;
+import com.backend.melodyHub.component.InvalidTokenException;
+import com.backend.melodyHub.component.JwtUtil;
+import com.backend.melodyHub.component.UserCache;
+import com.backend.melodyHub.controller.AuthenticationAdvice;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.NativeWebRequest;
+
+import java.lang.reflect.Method;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// Resolves a handler's @CurrentUser parameter for a valid token whose user has since been deleted, and returns
+// the response AuthenticationAdvice sends instead of calling the handler.
+final class DeletedUserRequest {
+    private static final String TOKEN = "validToken";
+    private static final AuthenticatedUser PRINCIPAL = new AuthenticatedUser(1, "testUser");
+
+    private DeletedUserRequest() {
+    }
+
+    static ResponseEntity<String> response(Class<?> controller, String handler) {
+        JwtUtil jwtUtil = mock(JwtUtil.class);
+        UserCache userCache = mock(UserCache.class);
+        NativeWebRequest webRequest = mock(NativeWebRequest.class);
+        when(jwtUtil.authenticate(TOKEN)).thenReturn(PRINCIPAL);
+        when(userCache.byId(PRINCIPAL.id())).thenReturn(Optional.empty());
+        when(webRequest.getHeader(CurrentUserArgumentResolver.TOKEN_HEADER)).thenReturn(TOKEN);
+
+        CurrentUserArgumentResolver resolver = new CurrentUserArgumentResolver(jwtUtil, userCache);
+        MethodParameter parameter = principalParameter(controller, handler);
+        InvalidTokenException e = assertThrows(InvalidTokenException.class, () -> resolver.resolveArgument(parameter, null, webRequest, null));
+        return new AuthenticationAdvice().invalidToken(e);
+    }
+
+    private static MethodParameter principalParameter(Class<?> controller, String handler) {
+        for (Method method : controller.getDeclaredMethods()) {
+            if (!method.getName().equals(handler)) continue;
+            for (int i = 0; i < method.getParameterCount(); i++) {
+                if (method.getParameters()[i].isAnnotationPresent(CurrentUser.class)) return new MethodParameter(method, i);
+            }
+        }
+        throw new IllegalArgumentException("No @CurrentUser parameter on " + controller.getSimpleName() + "." + handler);
+    }
+}
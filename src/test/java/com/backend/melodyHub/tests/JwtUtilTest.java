@@ -0,0 +1,106 @@
+package com.backend.melodyHub.tests;
+
+import com.backend.melodyHub.component.AuthenticatedUser;
+import com.backend.melodyHub.component.InvalidTokenException;
+import com.backend.melodyHub.component.JwtUtil;
+import com.backend.melodyHub.model.User;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtUtilTest {
+
+    private static final String SECRET = "0123456789abcdef0123456789abcdef";
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    private static User user(Integer id, String login) {
+        User user = new User();
+        user.setId(id);
+        user.setLogin(login);
+        return user;
+    }
+
+    @Test
+    void testAuthenticate_RepeatedTokenServedFromCache() {
+        JwtUtil jwtUtil = new JwtUtil(SECRET, meterRegistry, 10);
+        String token = jwtUtil.generateToken(user(7, "testUser"));
+
+        AuthenticatedUser first = jwtUtil.authenticate(token);
+        AuthenticatedUser second = jwtUtil.authenticate(token);
+
+        assertEquals(new AuthenticatedUser(7, "testUser"), first);
+        assertEquals(first, second);
+        assertEquals(1.0, meterRegistry.get("jwt.verified-cache.requests").tag("result", "hit").counter().count());
+        assertEquals(1.0, meterRegistry.get("jwt.verified-cache.requests").tag("result", "miss").counter().count());
+        assertEquals(1, meterRegistry.get("jwt.verify").timer().count());
+    }
+
+    @Test
+    void testAuthenticate_TamperedTokenRejectedAfterOriginalCached() {
+        JwtUtil jwtUtil = new JwtUtil(SECRET, meterRegistry, 10);
+        String token = jwtUtil.generateToken(user(7, "testUser"));
+        jwtUtil.authenticate(token);
+
+        int signature = token.lastIndexOf('.') + 1;
+        String tampered = token.substring(0, signature) + (token.charAt(signature) == 'A' ? 'B' : 'A') + token.substring(signature + 1);
+
+        InvalidTokenException e = assertThrows(InvalidTokenException.class, () -> jwtUtil.authenticate(tampered));
+        assertEquals("Invalid token", e.getMessage());
+    }
+
+    @Test
+    void testAuthenticate_ExpiredTokenRejected() {
+        JwtUtil jwtUtil = new JwtUtil(SECRET, meterRegistry, 10);
+        String token = Jwts.builder()
+                .subject("testUser")
+                .expiration(new Date(System.currentTimeMillis() - 1000))
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes()))
+                .compact();
+
+        assertThrows(InvalidTokenException.class, () -> jwtUtil.authenticate(token));
+        assertEquals(0.0, meterRegistry.get("jwt.verified-cache.size").gauge().value());
+    }
+
+    @Test
+    void testAuthenticate_TokenWithoutUserId() {
+        JwtUtil jwtUtil = new JwtUtil(SECRET, meterRegistry, 10);
+        String token = Jwts.builder()
+                .subject("testUser")
+                .expiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes()))
+                .compact();
+
+        assertEquals(new AuthenticatedUser(null, "testUser"), jwtUtil.authenticate(token));
+    }
+
+    @Test
+    void testAuthenticate_CacheBounded() {
+        JwtUtil jwtUtil = new JwtUtil(SECRET, meterRegistry, 2);
+
+        for (int id = 1; id <= 5; id++) {
+            jwtUtil.authenticate(jwtUtil.generateToken(user(id, "user" + id)));
+        }
+
+        assertEquals(2.0, meterRegistry.get("jwt.verified-cache.size").gauge().value());
+    }
+
+    @Test
+    void testAuthenticate_MalformedToken() {
+        JwtUtil jwtUtil = new JwtUtil(SECRET, meterRegistry, 10);
+
+        assertEquals("Token cannot be empty", assertThrows(InvalidTokenException.class, () -> jwtUtil.authenticate(" ")).getMessage());
+        assertEquals("Invalid JWT token format", assertThrows(InvalidTokenException.class, () -> jwtUtil.authenticate("not-a-token")).getMessage());
+    }
+}
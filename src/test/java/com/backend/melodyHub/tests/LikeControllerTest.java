@@ -1,7 +1,12 @@
 package com.backend.melodyHub.tests;
 
-import com.backend.melodyHub.component.JwtUtil;
-import com.backend.melodyHub.component.TokenValidationResult;
+import com.backend.melodyHub.component.AuthenticatedUser;
+import com.backend.melodyHub.component.FeedCache;
+import com.backend.melodyHub.component.LikeRankingStore;
+import com.backend.melodyHub.component.LikeWriteBuffer;
+import com.backend.melodyHub.component.LikeWriter;
+import com.backend.melodyHub.component.MembershipCache;
+import com.backend.melodyHub.component.PostInteractionService;
 import com.backend.melodyHub.controller.LikeController;
 import com.backend.melodyHub.dto.LikeDTO;
 import com.backend.melodyHub.model.Like;
@@ -10,6 +15,7 @@ import com.backend.melodyHub.model.User;
 import com.backend.melodyHub.repository.LikeRepository;
 import com.backend.melodyHub.repository.PostRepository;
 import com.backend.melodyHub.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -18,8 +24,15 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
 
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
@@ -31,19 +44,28 @@ public class LikeControllerTest {
     @InjectMocks
     private LikeController likeController;
 
-    @Mock
-    private JwtUtil jwtUtil;
     @Mock
     private UserRepository userRepository;
     @Mock
     private PostRepository postRepository;
     @Mock
     private LikeRepository likeRepository;
+    @Mock
+    private LikeRankingStore likeRankingStore;
+    @Mock
+    private LikeWriter likeWriter;
+    @Mock
+    private LikeWriteBuffer likeWriteBuffer;
+    @Mock
+    private MembershipCache membershipCache;
+    @Mock
+    private FeedCache feedCache;
+    @Mock
+    private PostInteractionService postInteractionService;
 
-    private final String VALID_TOKEN = "valid-token";
-    private final String INVALID_TOKEN = "invalid-token";
     private final String TEST_USERNAME = "testuser";
     private final Integer TEST_POST_ID = 1;
+    private final AuthenticatedUser principal = new AuthenticatedUser(1, TEST_USERNAME);
     private User testUser;
     private Post testPost;
     private AutoCloseable closeable;
@@ -61,11 +83,6 @@ public class LikeControllerTest {
         testPost.setId(TEST_POST_ID);
         testPost.setName("Test Post");
         testPost.setUser(testUser);
-
-        when(jwtUtil.validateTokenFull(VALID_TOKEN)).thenReturn(new TokenValidationResult(true, "Invalid token error"));
-        when(jwtUtil.extractUsername(VALID_TOKEN)).thenReturn(TEST_USERNAME);
-
-        when(jwtUtil.validateTokenFull(INVALID_TOKEN)).thenReturn(new TokenValidationResult(false, "Invalid token error"));
     }
 
     @AfterEach
@@ -75,330 +92,352 @@ public class LikeControllerTest {
 
     @Test
     void likePost_Success() {
-        when(userRepository.findByLogin(TEST_USERNAME)).thenReturn(Optional.of(testUser));
+        when(userRepository.getReferenceById(1)).thenReturn(testUser);
         when(postRepository.findById(TEST_POST_ID)).thenReturn(Optional.of(testPost));
-        when(likeRepository.findByUserAndPost(testUser, testPost)).thenReturn(Optional.empty());
+        when(likeWriter.addLike(eq(testUser), eq(testPost), any(LocalDateTime.class))).thenReturn(true);
 
-        ResponseEntity<?> response = likeController.likePost(VALID_TOKEN, TEST_POST_ID);
+        ResponseEntity<?> response = likeController.likePost(principal, TEST_POST_ID);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertNull(response.getBody());
 
-        verify(jwtUtil, times(1)).validateTokenFull(VALID_TOKEN);
-        verify(jwtUtil, times(1)).extractUsername(VALID_TOKEN);
-        verify(userRepository, times(1)).findByLogin(TEST_USERNAME);
+        verify(userRepository, never()).findByLogin(anyString());
         verify(postRepository, times(1)).findById(TEST_POST_ID);
-        verify(likeRepository, times(1)).findByUserAndPost(testUser, testPost);
-        verify(likeRepository, times(1)).save(any(Like.class));
+        verify(likeRepository, never()).findByUserAndPost(any(User.class), any(Post.class));
+        verify(likeWriter, times(1)).addLike(eq(testUser), eq(testPost), any(LocalDateTime.class));
+        verify(likeRankingStore, times(1)).recordLike(eq(TEST_POST_ID), any(LocalDateTime.class));
+        verify(membershipCache, times(1)).setLiked(testUser.getId(), TEST_POST_ID, true);
+        verify(feedCache, times(1)).invalidateLikes(testPost);
+    }
+
+    // Write-behind tests run against a real buffer, since it owns the check-then-record logic.
+    private LikeController writeBehindController(LikeWriteBuffer buffer) {
+        return new LikeController(userRepository, postRepository, likeRepository, likeRankingStore, likeWriter, buffer, membershipCache, feedCache, postInteractionService);
+    }
+
+    private LikeWriteBuffer writeBehindBuffer() {
+        return new LikeWriteBuffer(mock(JdbcTemplate.class), mock(PlatformTransactionManager.class), membershipCache, likeRankingStore, feedCache, new SimpleMeterRegistry(), true);
     }
 
     @Test
-    void likePost_InvalidToken() {
-        ResponseEntity<?> response = likeController.likePost(INVALID_TOKEN, TEST_POST_ID);
+    void likePost_WriteBehind() {
+        LikeWriteBuffer buffer = writeBehindBuffer();
+        when(userRepository.getReferenceById(1)).thenReturn(testUser);
+        when(postRepository.findById(TEST_POST_ID)).thenReturn(Optional.of(testPost));
+        when(likeRepository.findByUserAndPost(testUser, testPost)).thenReturn(Optional.empty());
 
-        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
-        assertEquals("Invalid token error", response.getBody());
+        ResponseEntity<?> response = writeBehindController(buffer).likePost(principal, TEST_POST_ID);
 
-        verify(jwtUtil, times(1)).validateTokenFull(INVALID_TOKEN);
-        verify(jwtUtil, never()).extractUsername(anyString());
-        verify(userRepository, never()).findByLogin(anyString());
-        verify(postRepository, never()).findById(anyInt());
-        verify(likeRepository, never()).findByUserAndPost(any(User.class), any(Post.class));
-        verify(likeRepository, never()).save(any(Like.class));
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(Optional.of(true), buffer.pending(testUser.getId(), TEST_POST_ID).map(LikeWriteBuffer.PendingLike::liked));
+        verify(likeWriter, never()).addLike(any(User.class), any(Post.class), any(LocalDateTime.class));
+        verify(likeRankingStore, times(1)).recordLike(eq(TEST_POST_ID), any(LocalDateTime.class));
     }
 
     @Test
-    void likePost_UserNotFound() {
-        when(userRepository.findByLogin(TEST_USERNAME)).thenReturn(Optional.empty());
+    void likePost_WriteBehindDoubleTapRecordedOnce() {
+        LikeController controller = writeBehindController(writeBehindBuffer());
+        when(userRepository.getReferenceById(1)).thenReturn(testUser);
+        when(postRepository.findById(TEST_POST_ID)).thenReturn(Optional.of(testPost));
+        when(likeRepository.findByUserAndPost(testUser, testPost)).thenReturn(Optional.empty());
 
-        ResponseEntity<?> response = likeController.likePost(VALID_TOKEN, TEST_POST_ID);
+        ResponseEntity<?> first = controller.likePost(principal, TEST_POST_ID);
+        ResponseEntity<?> second = controller.likePost(principal, TEST_POST_ID);
 
-        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        assertEquals(HttpStatus.OK, first.getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST, second.getStatusCode());
+        verify(likeRankingStore, times(1)).recordLike(eq(TEST_POST_ID), any(LocalDateTime.class));
+    }
 
-        verify(jwtUtil, times(1)).validateTokenFull(VALID_TOKEN);
-        verify(jwtUtil, times(1)).extractUsername(VALID_TOKEN);
-        verify(userRepository, times(1)).findByLogin(TEST_USERNAME);
-        verify(postRepository, never()).findById(anyInt());
-        verify(likeRepository, never()).save(any(Like.class));
+    @Test
+    void likePost_PendingUnlikeOverridesStoredLike() {
+        LikeWriteBuffer buffer = writeBehindBuffer();
+        buffer.unlikeIfPresent(testUser.getId(), TEST_POST_ID, () -> Optional.of(LocalDateTime.of(2025, 3, 1, 12, 0)));
+        when(userRepository.getReferenceById(1)).thenReturn(testUser);
+        when(postRepository.findById(TEST_POST_ID)).thenReturn(Optional.of(testPost));
+        when(likeRepository.findByUserAndPost(testUser, testPost)).thenReturn(Optional.of(new Like()));
+
+        ResponseEntity<?> response = writeBehindController(buffer).likePost(principal, TEST_POST_ID);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(Optional.of(true), buffer.pending(testUser.getId(), TEST_POST_ID).map(LikeWriteBuffer.PendingLike::liked));
     }
 
     @Test
     void likePost_PostNotFound() {
-        when(userRepository.findByLogin(TEST_USERNAME)).thenReturn(Optional.of(testUser));
+        when(userRepository.getReferenceById(1)).thenReturn(testUser);
         when(postRepository.findById(TEST_POST_ID)).thenReturn(Optional.empty());
 
-        ResponseEntity<?> response = likeController.likePost(VALID_TOKEN, TEST_POST_ID);
+        ResponseEntity<?> response = likeController.likePost(principal, TEST_POST_ID);
 
         assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
 
-        verify(jwtUtil, times(1)).validateTokenFull(VALID_TOKEN);
-        verify(jwtUtil, times(1)).extractUsername(VALID_TOKEN);
-        verify(userRepository, times(1)).findByLogin(TEST_USERNAME);
+        verify(userRepository, never()).findByLogin(anyString());
         verify(postRepository, times(1)).findById(TEST_POST_ID);
-        verify(likeRepository, never()).save(any(Like.class));
+        verify(likeWriter, never()).addLike(any(User.class), any(Post.class), any(LocalDateTime.class));
+    }
+
+    @Test
+    void likePost_UserNotFound() {
+        ResponseEntity<String> response = DeletedUserRequest.response(LikeController.class, "likePost");
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        assertNull(response.getBody());
     }
 
     @Test
     void likePost_LikeAlreadyExists() {
-        when(userRepository.findByLogin(TEST_USERNAME)).thenReturn(Optional.of(testUser));
+        when(userRepository.getReferenceById(1)).thenReturn(testUser);
         when(postRepository.findById(TEST_POST_ID)).thenReturn(Optional.of(testPost));
-        when(likeRepository.findByUserAndPost(testUser, testPost)).thenReturn(Optional.of(new Like()));
+        when(likeWriter.addLike(eq(testUser), eq(testPost), any(LocalDateTime.class))).thenReturn(false);
 
-        ResponseEntity<?> response = likeController.likePost(VALID_TOKEN, TEST_POST_ID);
+        ResponseEntity<?> response = likeController.likePost(principal, TEST_POST_ID);
 
         assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
         assertEquals("Like already exists", response.getBody());
 
-        verify(likeRepository, never()).save(any(Like.class));
+        verify(likeRankingStore, never()).recordLike(anyInt(), any());
+        verify(feedCache, never()).invalidateLikes(any(Post.class));
     }
 
     @Test
     void likePost_InternalServerError() {
-        when(userRepository.findByLogin(TEST_USERNAME)).thenReturn(Optional.of(testUser));
+        when(userRepository.getReferenceById(1)).thenReturn(testUser);
         when(postRepository.findById(TEST_POST_ID)).thenReturn(Optional.of(testPost));
-        when(likeRepository.findByUserAndPost(testUser, testPost)).thenReturn(Optional.empty());
-        doThrow(new RuntimeException("Database error")).when(likeRepository).save(any(Like.class));
+        when(likeWriter.addLike(any(User.class), any(Post.class), any(LocalDateTime.class))).thenThrow(new RuntimeException("Database error"));
 
-        ResponseEntity<?> response = likeController.likePost(VALID_TOKEN, TEST_POST_ID);
+        ResponseEntity<?> response = likeController.likePost(principal, TEST_POST_ID);
 
         assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
         assertEquals("Something went wrong", response.getBody());
 
-        verify(likeRepository, times(1)).save(any(Like.class));
+        verify(likeWriter, times(1)).addLike(eq(testUser), eq(testPost), any(LocalDateTime.class));
+        verify(likeRankingStore, never()).recordLike(anyInt(), any());
     }
 
 
     @Test
     void deleteLike_Success() {
-        Like existingLike = new Like();
-        existingLike.setUser(testUser);
-        existingLike.setPost(testPost);
+        LocalDateTime likeDate = LocalDateTime.of(2025, 3, 1, 12, 0);
 
-        when(userRepository.findByLogin(TEST_USERNAME)).thenReturn(Optional.of(testUser));
+        when(userRepository.getReferenceById(1)).thenReturn(testUser);
         when(postRepository.findById(TEST_POST_ID)).thenReturn(Optional.of(testPost));
-        when(likeRepository.findByUserAndPost(testUser, testPost)).thenReturn(Optional.of(existingLike));
+        when(likeWriter.removeLike(testUser, testPost)).thenReturn(Optional.of(likeDate));
 
-        ResponseEntity<?> response = likeController.deleteLike(VALID_TOKEN, TEST_POST_ID);
+        ResponseEntity<?> response = likeController.deleteLike(principal, TEST_POST_ID);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertNull(response.getBody());
 
-        verify(jwtUtil, times(1)).validateTokenFull(VALID_TOKEN);
-        verify(jwtUtil, times(1)).extractUsername(VALID_TOKEN);
-        verify(userRepository, times(1)).findByLogin(TEST_USERNAME);
+        verify(userRepository, never()).findByLogin(anyString());
         verify(postRepository, times(1)).findById(TEST_POST_ID);
-        verify(likeRepository, times(1)).findByUserAndPost(testUser, testPost);
-        verify(likeRepository, times(1)).delete(existingLike);
+        verify(likeRepository, never()).findByUserAndPost(any(User.class), any(Post.class));
+        verify(likeWriter, times(1)).removeLike(testUser, testPost);
+        verify(likeRankingStore, times(1)).removeLike(TEST_POST_ID, likeDate);
+        verify(membershipCache, times(1)).setLiked(testUser.getId(), TEST_POST_ID, false);
+        verify(feedCache, times(1)).invalidateLikes(testPost);
     }
 
     @Test
-    void deleteLike_InvalidToken() {
-        ResponseEntity<?> response = likeController.deleteLike(INVALID_TOKEN, TEST_POST_ID);
+    void deleteLike_PendingLike() {
+        LocalDateTime likeDate = LocalDateTime.of(2025, 3, 1, 12, 0);
+        LikeWriteBuffer buffer = writeBehindBuffer();
+        buffer.likeIfAbsent(testUser.getId(), TEST_POST_ID, likeDate, () -> false);
+        when(userRepository.getReferenceById(1)).thenReturn(testUser);
+        when(postRepository.findById(TEST_POST_ID)).thenReturn(Optional.of(testPost));
+        when(likeRepository.findByUserAndPost(testUser, testPost)).thenReturn(Optional.empty());
 
-        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
-        assertEquals("Invalid token error", response.getBody());
+        ResponseEntity<?> response = writeBehindController(buffer).deleteLike(principal, TEST_POST_ID);
 
-        verify(jwtUtil, times(1)).validateTokenFull(INVALID_TOKEN);
-        verify(userRepository, never()).findByLogin(anyString());
-        verify(likeRepository, never()).delete(any(Like.class));
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(Optional.of(false), buffer.pending(testUser.getId(), TEST_POST_ID).map(LikeWriteBuffer.PendingLike::liked));
+        verify(likeWriter, never()).removeLike(any(User.class), any(Post.class));
+        verify(likeRankingStore, times(1)).removeLike(TEST_POST_ID, likeDate);
     }
 
     @Test
-    void deleteLike_UserNotFound() {
-        when(userRepository.findByLogin(TEST_USERNAME)).thenReturn(Optional.empty());
+    void deleteLike_PostNotFound() {
+        when(userRepository.getReferenceById(1)).thenReturn(testUser);
+        when(postRepository.findById(TEST_POST_ID)).thenReturn(Optional.empty());
 
-        ResponseEntity<?> response = likeController.deleteLike(VALID_TOKEN, TEST_POST_ID);
+        ResponseEntity<?> response = likeController.deleteLike(principal, TEST_POST_ID);
 
         assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
 
-        verify(userRepository, times(1)).findByLogin(TEST_USERNAME);
-        verify(likeRepository, never()).delete(any(Like.class));
+        verify(postRepository, times(1)).findById(TEST_POST_ID);
+        verify(likeWriter, never()).removeLike(any(User.class), any(Post.class));
     }
 
     @Test
-    void deleteLike_PostNotFound() {
-        when(userRepository.findByLogin(TEST_USERNAME)).thenReturn(Optional.of(testUser));
-        when(postRepository.findById(TEST_POST_ID)).thenReturn(Optional.empty());
-
-        ResponseEntity<?> response = likeController.deleteLike(VALID_TOKEN, TEST_POST_ID);
+    void deleteLike_UserNotFound() {
+        ResponseEntity<String> response = DeletedUserRequest.response(LikeController.class, "deleteLike");
 
         assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
-
-        verify(postRepository, times(1)).findById(TEST_POST_ID);
-        verify(likeRepository, never()).delete(any(Like.class));
+        assertNull(response.getBody());
     }
 
     @Test
     void deleteLike_LikeNotExists() {
-        when(userRepository.findByLogin(TEST_USERNAME)).thenReturn(Optional.of(testUser));
+        when(userRepository.getReferenceById(1)).thenReturn(testUser);
         when(postRepository.findById(TEST_POST_ID)).thenReturn(Optional.of(testPost));
-        when(likeRepository.findByUserAndPost(testUser, testPost)).thenReturn(Optional.empty());
+        when(likeWriter.removeLike(testUser, testPost)).thenReturn(Optional.empty());
 
-        ResponseEntity<?> response = likeController.deleteLike(VALID_TOKEN, TEST_POST_ID);
+        ResponseEntity<?> response = likeController.deleteLike(principal, TEST_POST_ID);
 
         assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
         assertEquals("Like not exists", response.getBody());
 
-        verify(likeRepository, never()).delete(any(Like.class));
+        verify(likeRankingStore, never()).removeLike(anyInt(), any());
+        verify(feedCache, never()).invalidateLikes(any(Post.class));
     }
 
     @Test
     void deleteLike_InternalServerError() {
-        Like existingLike = new Like();
-        existingLike.setUser(testUser);
-        existingLike.setPost(testPost);
-
-        when(userRepository.findByLogin(TEST_USERNAME)).thenReturn(Optional.of(testUser));
+        when(userRepository.getReferenceById(1)).thenReturn(testUser);
         when(postRepository.findById(TEST_POST_ID)).thenReturn(Optional.of(testPost));
-        when(likeRepository.findByUserAndPost(testUser, testPost)).thenReturn(Optional.of(existingLike));
-        doThrow(new RuntimeException("Database error")).when(likeRepository).delete(any(Like.class));
+        when(likeWriter.removeLike(any(User.class), any(Post.class))).thenThrow(new RuntimeException("Database error"));
 
-        ResponseEntity<?> response = likeController.deleteLike(VALID_TOKEN, TEST_POST_ID);
+        ResponseEntity<?> response = likeController.deleteLike(principal, TEST_POST_ID);
 
         assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
         assertEquals("Something went wrong", response.getBody());
 
-        verify(likeRepository, times(1)).delete(existingLike);
+        verify(likeWriter, times(1)).removeLike(testUser, testPost);
     }
 
 
     @Test
     void getLikesOnPost_Success() {
         Integer likeCount = 5;
-        when(postRepository.findById(TEST_POST_ID)).thenReturn(Optional.of(testPost));
-        when(likeRepository.countLikesByPost(testPost)).thenReturn(likeCount);
+        when(postRepository.findLikeCount(TEST_POST_ID)).thenReturn(Optional.of(likeCount));
 
-        ResponseEntity<?> response = likeController.getLikesOnPost(VALID_TOKEN, TEST_POST_ID);
+        ResponseEntity<?> response = likeController.getLikesOnPost(principal, TEST_POST_ID);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals(new LikeDTO(likeCount), response.getBody());
 
-        verify(jwtUtil, times(1)).validateTokenFull(VALID_TOKEN);
-        verify(postRepository, times(1)).findById(TEST_POST_ID);
-        verify(likeRepository, times(1)).countLikesByPost(testPost);
-    }
-
-    @Test
-    void getLikesOnPost_InvalidToken() {
-        ResponseEntity<?> response = likeController.getLikesOnPost(INVALID_TOKEN, TEST_POST_ID);
-
-        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
-        assertEquals("Invalid token error", response.getBody());
-
-        verify(jwtUtil, times(1)).validateTokenFull(INVALID_TOKEN);
+        verify(postRepository, times(1)).findLikeCount(TEST_POST_ID);
         verify(postRepository, never()).findById(anyInt());
         verify(likeRepository, never()).countLikesByPost(any(Post.class));
     }
 
     @Test
     void getLikesOnPost_PostNotFound() {
-        when(postRepository.findById(TEST_POST_ID)).thenReturn(Optional.empty());
+        when(postRepository.findLikeCount(TEST_POST_ID)).thenReturn(Optional.empty());
 
-        ResponseEntity<?> response = likeController.getLikesOnPost(VALID_TOKEN, TEST_POST_ID);
+        ResponseEntity<?> response = likeController.getLikesOnPost(principal, TEST_POST_ID);
 
         assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
 
-        verify(postRepository, times(1)).findById(TEST_POST_ID);
-        verify(likeRepository, never()).countLikesByPost(any(Post.class));
+        verify(postRepository, times(1)).findLikeCount(TEST_POST_ID);
     }
 
     @Test
     void getLikesOnPost_InternalServerError() {
-        when(postRepository.findById(TEST_POST_ID)).thenReturn(Optional.of(testPost));
-        doThrow(new RuntimeException("Database error")).when(likeRepository).countLikesByPost(any(Post.class));
+        doThrow(new RuntimeException("Database error")).when(postRepository).findLikeCount(anyInt());
 
-        ResponseEntity<?> response = likeController.getLikesOnPost(VALID_TOKEN, TEST_POST_ID);
+        ResponseEntity<?> response = likeController.getLikesOnPost(principal, TEST_POST_ID);
 
         assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
         assertEquals("something went wrong", response.getBody());
 
-        verify(likeRepository, times(1)).countLikesByPost(testPost);
+        verify(postRepository, times(1)).findLikeCount(TEST_POST_ID);
     }
 
     @Test
     void checkLikeOnPost_ReturnsTrue_WhenLikeExists() {
-        when(userRepository.findByLogin(TEST_USERNAME)).thenReturn(Optional.of(testUser));
-        when(postRepository.findById(TEST_POST_ID)).thenReturn(Optional.of(testPost));
-        when(likeRepository.findByUserAndPost(testUser, testPost)).thenReturn(Optional.of(new Like()));
+        when(membershipCache.isLiked(testUser.getId(), TEST_POST_ID)).thenReturn(true);
 
-        ResponseEntity<?> response = likeController.checkLikeOnPost(VALID_TOKEN, TEST_POST_ID);
+        ResponseEntity<?> response = likeController.checkLikeOnPost(principal, TEST_POST_ID);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals(Boolean.TRUE, response.getBody());
 
-        verify(jwtUtil, times(1)).validateTokenFull(VALID_TOKEN);
-        verify(jwtUtil, times(1)).extractUsername(VALID_TOKEN);
-        verify(userRepository, times(1)).findByLogin(TEST_USERNAME);
-        verify(postRepository, times(1)).findById(TEST_POST_ID);
-        verify(likeRepository, times(1)).findByUserAndPost(testUser, testPost);
+        verify(userRepository, never()).findByLogin(anyString());
+        verify(membershipCache, times(1)).isLiked(testUser.getId(), TEST_POST_ID);
+        verify(postRepository, never()).findById(anyInt());
+        verify(likeRepository, never()).findByUserAndPost(any(User.class), any(Post.class));
     }
 
     @Test
     void checkLikeOnPost_ReturnsFalse_WhenLikeDoesNotExist() {
-        when(userRepository.findByLogin(TEST_USERNAME)).thenReturn(Optional.of(testUser));
-        when(postRepository.findById(TEST_POST_ID)).thenReturn(Optional.of(testPost));
-        when(likeRepository.findByUserAndPost(testUser, testPost)).thenReturn(Optional.empty());
+        when(membershipCache.isLiked(testUser.getId(), TEST_POST_ID)).thenReturn(false);
 
-        ResponseEntity<?> response = likeController.checkLikeOnPost(VALID_TOKEN, TEST_POST_ID);
+        ResponseEntity<?> response = likeController.checkLikeOnPost(principal, TEST_POST_ID);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals(Boolean.FALSE, response.getBody());
 
-        verify(jwtUtil, times(1)).validateTokenFull(VALID_TOKEN);
-        verify(jwtUtil, times(1)).extractUsername(VALID_TOKEN);
-        verify(userRepository, times(1)).findByLogin(TEST_USERNAME);
-        verify(postRepository, times(1)).findById(TEST_POST_ID);
-        verify(likeRepository, times(1)).findByUserAndPost(testUser, testPost);
+        verify(membershipCache, times(1)).isLiked(testUser.getId(), TEST_POST_ID);
+        verify(likeRepository, never()).findByUserAndPost(any(User.class), any(Post.class));
     }
 
     @Test
-    void checkLikeOnPost_InvalidToken() {
-        ResponseEntity<?> response = likeController.checkLikeOnPost(INVALID_TOKEN, TEST_POST_ID);
+    void checkLikeOnPost_PendingLikeOverridesMembership() {
+        when(likeWriteBuffer.pending(testUser.getId(), TEST_POST_ID)).thenReturn(Optional.of(new LikeWriteBuffer.PendingLike(true, LocalDateTime.now())));
 
-        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
-        assertEquals("Invalid token error", response.getBody());
+        ResponseEntity<?> response = likeController.checkLikeOnPost(principal, TEST_POST_ID);
 
-        verify(jwtUtil, times(1)).validateTokenFull(INVALID_TOKEN);
-        verify(userRepository, never()).findByLogin(anyString());
-        verify(likeRepository, never()).findByUserAndPost(any(User.class), any(Post.class));
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(Boolean.TRUE, response.getBody());
+        verify(membershipCache, never()).isLiked(anyInt(), anyInt());
     }
 
     @Test
     void checkLikeOnPost_UserNotFound() {
-        when(userRepository.findByLogin(TEST_USERNAME)).thenReturn(Optional.empty());
-
-        ResponseEntity<?> response = likeController.checkLikeOnPost(VALID_TOKEN, TEST_POST_ID);
+        ResponseEntity<String> response = DeletedUserRequest.response(LikeController.class, "checkLikeOnPost");
 
         assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
-
-        verify(userRepository, times(1)).findByLogin(TEST_USERNAME);
-        verify(likeRepository, never()).findByUserAndPost(any(User.class), any(Post.class));
+        assertNull(response.getBody());
     }
 
     @Test
-    void checkLikeOnPost_PostNotFound() {
-        when(userRepository.findByLogin(TEST_USERNAME)).thenReturn(Optional.of(testUser));
-        when(postRepository.findById(TEST_POST_ID)).thenReturn(Optional.empty());
+    void checkLikeOnPost_InternalServerError() {
+        doThrow(new RuntimeException("Database error")).when(membershipCache).isLiked(anyInt(), anyInt());
 
-        ResponseEntity<?> response = likeController.checkLikeOnPost(VALID_TOKEN, TEST_POST_ID);
+        ResponseEntity<?> response = likeController.checkLikeOnPost(principal, TEST_POST_ID);
 
-        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
+        assertEquals("something went wrong", response.getBody());
 
-        verify(postRepository, times(1)).findById(TEST_POST_ID);
-        verify(likeRepository, never()).findByUserAndPost(any(User.class), any(Post.class));
+        verify(membershipCache, times(1)).isLiked(testUser.getId(), TEST_POST_ID);
     }
 
     @Test
-    void checkLikeOnPost_InternalServerError() {
-        when(userRepository.findByLogin(TEST_USERNAME)).thenReturn(Optional.of(testUser));
-        when(postRepository.findById(TEST_POST_ID)).thenReturn(Optional.of(testPost));
-        doThrow(new RuntimeException("Database error")).when(likeRepository).findByUserAndPost(any(User.class), any(Post.class));
+    void getLikesOnPosts_Success() {
+        List<Integer> postIds = List.of(3, 1, 2);
+        when(postInteractionService.likeCounts(postIds)).thenReturn(Map.of(1, 5L, 3, 2L));
 
-        ResponseEntity<?> response = likeController.checkLikeOnPost(VALID_TOKEN, TEST_POST_ID);
+        ResponseEntity<?> response = likeController.getLikesOnPosts(principal, postIds);
 
-        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
-        assertEquals("something went wrong", response.getBody());
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        Map<?, ?> likes = (Map<?, ?>) response.getBody();
+        assertEquals(List.of(3, 1, 2), List.copyOf(likes.keySet()));
+        assertEquals(2L, likes.get(3));
+        assertEquals(5L, likes.get(1));
+        assertEquals(0L, likes.get(2));
+        verify(postRepository, never()).findById(anyInt());
+    }
 
-        verify(likeRepository, times(1)).findByUserAndPost(testUser, testPost);
+    @Test
+    void getLikesOnPosts_TooManyIds() {
+        List<Integer> postIds = Collections.nCopies(PostInteractionService.MAX_BATCH + 1, 1);
+
+        ResponseEntity<?> response = likeController.getLikesOnPosts(principal, postIds);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        verifyNoInteractions(postInteractionService);
+    }
+
+    @Test
+    void checkLikesOnPosts_Success() {
+        List<Integer> postIds = List.of(1, 2);
+        when(postInteractionService.likedPostIds(testUser.getId(), postIds)).thenReturn(Set.of(2));
+
+        ResponseEntity<?> response = likeController.checkLikesOnPosts(principal, postIds);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(Map.of(1, false, 2, true), response.getBody());
+        verify(userRepository, never()).findByLogin(anyString());
     }
 }
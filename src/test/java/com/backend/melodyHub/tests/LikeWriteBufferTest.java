@@ -0,0 +1,219 @@
+package com.backend.melodyHub.tests;
+
+import com.backend.melodyHub.component.FeedCache;
+import com.backend.melodyHub.component.LikeRankingStore;
+import com.backend.melodyHub.component.LikeWriteBuffer;
+import com.backend.melodyHub.component.MembershipCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class LikeWriteBufferTest {
+
+    private static final int USER_ID = 1;
+    private static final int POST_ID = 10;
+    private static final int DELETED_POST_ID = 20;
+    private static final LocalDateTime LIKE_DATE = LocalDateTime.of(2025, 3, 1, 12, 0);
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private MembershipCache membershipCache;
+
+    @Mock
+    private LikeRankingStore likeRankingStore;
+
+    @Mock
+    private FeedCache feedCache;
+
+    private LikeWriteBuffer likeWriteBuffer;
+
+    private final List<String> written = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        likeWriteBuffer = new LikeWriteBuffer(jdbcTemplate, transactionManager, membershipCache, likeRankingStore, feedCache, new SimpleMeterRegistry(), true);
+    }
+
+    // Every statement affects one row per argument, except inserts that touch DELETED_POST_ID, which fail like a
+    // foreign key violation would.
+    private void failInsertsOnDeletedPost() {
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenAnswer(invocation -> {
+            String sql = invocation.getArgument(0);
+            List<Object[]> args = invocation.getArgument(1);
+            if (sql.startsWith("INSERT") && args.stream().anyMatch(row -> row[1].equals(DELETED_POST_ID))) {
+                throw new DataIntegrityViolationException("insert or update on table \"like\" violates foreign key constraint");
+            }
+            args.forEach(row -> written.add(sql.substring(0, 6) + " " + Arrays.toString(row)));
+            int[] affected = new int[args.size()];
+            Arrays.fill(affected, 1);
+            return affected;
+        });
+    }
+
+    @Test
+    void testFlush_RejectedEntryDroppedOthersWritten() {
+        failInsertsOnDeletedPost();
+        likeWriteBuffer.likeIfAbsent(USER_ID, POST_ID, LIKE_DATE, () -> false);
+        likeWriteBuffer.likeIfAbsent(USER_ID, DELETED_POST_ID, LIKE_DATE, () -> false);
+
+        likeWriteBuffer.flush();
+
+        assertTrue(likeWriteBuffer.pending(USER_ID, POST_ID).isEmpty());
+        assertTrue(likeWriteBuffer.pending(USER_ID, DELETED_POST_ID).isEmpty());
+        assertTrue(written.contains("UPDATE [1, " + POST_ID + "]"));
+        assertTrue(written.stream().noneMatch(row -> row.endsWith(", " + DELETED_POST_ID + "]")));
+        verify(membershipCache, times(1)).setLiked(USER_ID, POST_ID, true);
+        verify(membershipCache, times(1)).setLiked(USER_ID, DELETED_POST_ID, false);
+        verify(likeRankingStore, times(1)).removeLike(DELETED_POST_ID, LIKE_DATE);
+        verify(likeRankingStore, never()).removeLike(POST_ID, LIKE_DATE);
+    }
+
+    @Test
+    void testFlush_DroppedUnlikeRestoresLike() {
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenThrow(new DataIntegrityViolationException("violates constraint"));
+        likeWriteBuffer.unlikeIfPresent(USER_ID, POST_ID, () -> Optional.of(LIKE_DATE));
+
+        likeWriteBuffer.flush();
+
+        assertTrue(likeWriteBuffer.pending(USER_ID, POST_ID).isEmpty());
+        verify(membershipCache, times(1)).setLiked(USER_ID, POST_ID, true);
+        verify(likeRankingStore, times(1)).recordLike(POST_ID, LIKE_DATE);
+        verify(feedCache, times(1)).invalidateLikes();
+    }
+
+    @Test
+    void testFlush_UnreachableDatabaseKeepsEntries() {
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenThrow(new DataAccessResourceFailureException("Connection refused"));
+        likeWriteBuffer.likeIfAbsent(USER_ID, POST_ID, LIKE_DATE, () -> false);
+        likeWriteBuffer.likeIfAbsent(USER_ID, DELETED_POST_ID, LIKE_DATE, () -> false);
+
+        likeWriteBuffer.flush();
+
+        assertTrue(likeWriteBuffer.pending(USER_ID, POST_ID).isPresent());
+        assertTrue(likeWriteBuffer.pending(USER_ID, DELETED_POST_ID).isPresent());
+        verifyNoInteractions(membershipCache, likeRankingStore);
+    }
+
+    @Test
+    void testUnlikeIfPresent_PendingStateOverridesStored() {
+        assertEquals(Optional.empty(), likeWriteBuffer.unlikeIfPresent(USER_ID, POST_ID, Optional::empty));
+
+        likeWriteBuffer.likeIfAbsent(USER_ID, POST_ID, LIKE_DATE, () -> false);
+        assertEquals(Optional.of(LIKE_DATE), likeWriteBuffer.unlikeIfPresent(USER_ID, POST_ID, Optional::empty));
+        assertEquals(Optional.empty(), likeWriteBuffer.unlikeIfPresent(USER_ID, POST_ID, () -> Optional.of(LIKE_DATE)));
+    }
+
+    @Test
+    void testLikeIfAbsent_ConcurrentLikesRecordedOnce() throws Exception {
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return likeWriteBuffer.likeIfAbsent(USER_ID, POST_ID, LIKE_DATE, () -> {
+                        // A slow stored-state lookup, so unsynchronized callers would all see "not liked".
+                        sleep();
+                        return false;
+                    });
+                }));
+            }
+            start.countDown();
+            int recorded = 0;
+            for (Future<Boolean> result : results) {
+                if (result.get(10, TimeUnit.SECONDS)) recorded++;
+            }
+            assertEquals(1, recorded);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testLikeIfAbsent_StoredStateReadOutsideStripeLock() throws Exception {
+        CountDownLatch reading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Boolean> slow = executor.submit(() -> likeWriteBuffer.likeIfAbsent(USER_ID, POST_ID, LIKE_DATE, () -> {
+                reading.countDown();
+                await(release);
+                return false;
+            }));
+            reading.await();
+
+            // Same post, so the same stripe, while the first request is still waiting on its stored-state read.
+            assertTrue(likeWriteBuffer.likeIfAbsent(USER_ID + 1, POST_ID, LIKE_DATE, () -> false));
+
+            release.countDown();
+            assertTrue(slow.get(10, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testLikeIfAbsent_StoredStateReadAgainAfterConcurrentFlush() {
+        failInsertsOnDeletedPost();
+        AtomicInteger reads = new AtomicInteger();
+
+        boolean recorded = likeWriteBuffer.likeIfAbsent(USER_ID, POST_ID, LIKE_DATE, () -> {
+            if (reads.incrementAndGet() > 1) return true;
+            // Another request likes the post and its flush commits while this read is in flight, so it is stale.
+            likeWriteBuffer.likeIfAbsent(USER_ID, POST_ID, LIKE_DATE, () -> false);
+            likeWriteBuffer.flush();
+            return false;
+        });
+
+        assertFalse(recorded);
+        assertEquals(2, reads.get());
+        assertTrue(likeWriteBuffer.pending(USER_ID, POST_ID).isEmpty());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleep() {
+        try {
+            Thread.sleep(20);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.backend.melodyHub.tests;
+
+import com.backend.melodyHub.component.ByteRange;
+import com.backend.melodyHub.component.LocalObjectStore;
+import com.backend.melodyHub.component.ObjectStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LocalObjectStoreTest {
+
+    private Path root;
+    private LocalObjectStore store;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        root = Files.createTempDirectory("local-store");
+        store = new LocalObjectStore(root.toString(), "http://localhost:8080", "0123456789abcdef0123456789abcdef");
+    }
+
+    @Test
+    void testPresignGet_SignatureRoundTrip() {
+        ObjectStore.SignedUrl signed = store.presignGet("videos/clip.mp4", null, Duration.ofMinutes(5));
+        Map<String, String> query = query(signed.url());
+
+        assertTrue(signed.url().startsWith("http://localhost:8080/files/videos/clip.mp4?"));
+        long expires = Long.parseLong(query.get("expires"));
+        assertTrue(store.isAuthorized("GET", "videos/clip.mp4", expires, query.get("signature")));
+        assertFalse(store.isAuthorized("PUT", "videos/clip.mp4", expires, query.get("signature")));
+        assertFalse(store.isAuthorized("GET", "videos/other.mp4", expires, query.get("signature")));
+    }
+
+    @Test
+    void testPresignGet_FixedSigningTimeIsDeterministic() {
+        Instant signingTime = Instant.now().minusSeconds(60);
+
+        String first = store.presignGet("images/a.jpg", signingTime, Duration.ofHours(2)).url();
+        String second = store.presignGet("images/a.jpg", signingTime, Duration.ofHours(2)).url();
+
+        assertEquals(first, second);
+    }
+
+    @Test
+    void testIsAuthorized_RawSecretSignatureRejected() throws Exception {
+        long expires = Instant.now().plusSeconds(300).getEpochSecond();
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec("0123456789abcdef0123456789abcdef".getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+        String signature = Base64.getUrlEncoder().withoutPadding().encodeToString(mac.doFinal(("GET\nimages/a.jpg\n" + expires).getBytes(StandardCharsets.UTF_8)));
+
+        assertFalse(store.isAuthorized("GET", "images/a.jpg", expires, signature));
+    }
+
+    @Test
+    void testIsAuthorized_ExpiredSignature() {
+        ObjectStore.SignedUrl signed = store.presignGet("images/a.jpg", Instant.now().minus(Duration.ofHours(2)), Duration.ofHours(1));
+        Map<String, String> query = query(signed.url());
+
+        assertFalse(store.isAuthorized("GET", "images/a.jpg", Long.parseLong(query.get("expires")), query.get("signature")));
+    }
+
+    @Test
+    void testResolve_RejectsPathTraversal() {
+        assertThrows(IllegalArgumentException.class, () -> store.resolve("../outside.txt"));
+        assertThrows(IllegalArgumentException.class, () -> store.resolve("images/../../outside.txt"));
+    }
+
+    @Test
+    void testResolve_RejectsKeysThatAliasOtherObjects() {
+        assertThrows(IllegalArgumentException.class, () -> store.resolve("images/../videos/clip.mp4"));
+        assertThrows(IllegalArgumentException.class, () -> store.resolve("images/./a.jpg"));
+        assertThrows(IllegalArgumentException.class, () -> store.resolve("images//a.jpg"));
+        assertThrows(IllegalArgumentException.class, () -> store.resolve("/images/a.jpg"));
+        assertThrows(IllegalArgumentException.class, () -> store.resolve("images\\a.jpg"));
+        assertEquals(root.toAbsolutePath().normalize().resolve("images/a..jpg"), store.resolve("images/a..jpg"));
+    }
+
+    @Test
+    void testStoreAndTransferRange() throws IOException {
+        store.store("leadsheets/song.txt", new ByteArrayInputStream("0123456789".getBytes(StandardCharsets.US_ASCII)));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        try (FileChannel channel = FileChannel.open(store.resolve("leadsheets/song.txt"), StandardOpenOption.READ)) {
+            LocalObjectStore.transfer(channel, 2, 5, Channels.newChannel(out));
+        }
+
+        assertEquals("23456", out.toString(StandardCharsets.US_ASCII));
+    }
+
+    @Test
+    void testByteRange_Parse() {
+        assertEquals(Optional.of(new ByteRange(0, 100, false)), ByteRange.parse(null, 100));
+        assertEquals(Optional.of(new ByteRange(10, 10, true)), ByteRange.parse("bytes=10-19", 100));
+        assertEquals(Optional.of(new ByteRange(90, 10, true)), ByteRange.parse("bytes=90-", 100));
+        assertEquals(Optional.of(new ByteRange(80, 20, true)), ByteRange.parse("bytes=-20", 100));
+        assertEquals(Optional.of(new ByteRange(50, 50, true)), ByteRange.parse("bytes=50-500", 100));
+        assertEquals(Optional.of(new ByteRange(0, 100, false)), ByteRange.parse("bytes=0-1,5-6", 100));
+        assertEquals(Optional.empty(), ByteRange.parse("bytes=100-", 100));
+    }
+
+    private static Map<String, String> query(String url) {
+        Map<String, String> params = new HashMap<>();
+        for (String pair : URI.create(url).getRawQuery().split("&")) {
+            int eq = pair.indexOf('=');
+            params.put(pair.substring(0, eq), pair.substring(eq + 1));
+        }
+        return params;
+    }
+}
@@ -0,0 +1,97 @@
+package com.backend.melodyHub.tests;
+
+import com.backend.melodyHub.component.LocalObjectStore;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Throughput of concurrent range reads through LocalObjectStore.transfer into loopback sockets, i.e. the
+// sendfile path a video player seeking through local storage exercises. Run with -Dbenchmark=true; tune with
+// -Dbenchmark.clients, -Dbenchmark.requests and -Dbenchmark.range-kb.
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class LocalRangeReadBenchmark {
+
+    private static final long FILE_SIZE = 256L * 1024 * 1024;
+
+    @Test
+    void concurrentRangeReads() throws Exception {
+        int clients = Integer.getInteger("benchmark.clients", 16);
+        int requests = Integer.getInteger("benchmark.requests", 200);
+        long rangeSize = Integer.getInteger("benchmark.range-kb", 1024) * 1024L;
+        Path file = Files.createTempFile("range-benchmark", ".mp4");
+        file.toFile().deleteOnExit();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            ByteBuffer chunk = ByteBuffer.allocate(1024 * 1024);
+            for (long written = 0; written < FILE_SIZE; written += chunk.capacity()) {
+                chunk.clear();
+                channel.write(chunk);
+            }
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(clients * 2);
+        AtomicLong bytes = new AtomicLong();
+        try (ServerSocketChannel server = ServerSocketChannel.open().bind(new InetSocketAddress("127.0.0.1", 0));
+             FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long started = System.nanoTime();
+            List<Future<?>> tasks = new ArrayList<>();
+            for (int client = 0; client < clients; client++) {
+                tasks.add(pool.submit(() -> drain(server.getLocalAddress(), bytes)));
+                SocketChannel connection = server.accept();
+                tasks.add(pool.submit(() -> serve(channel, connection, requests, rangeSize)));
+            }
+            for (Future<?> task : tasks) {
+                task.get();
+            }
+            double seconds = (System.nanoTime() - started) / 1e9;
+            long total = (long) clients * requests * rangeSize;
+            assertEquals(total, bytes.get());
+            System.out.printf("%d clients x %d ranges of %d KiB: %.1f MiB/s, %.0f ranges/s%n",
+                    clients, requests, rangeSize / 1024, total / seconds / (1024 * 1024), clients * requests / seconds);
+        } finally {
+            pool.shutdownNow();
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static Void serve(FileChannel channel, SocketChannel connection, int requests, long rangeSize) {
+        try (connection) {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            for (int i = 0; i < requests; i++) {
+                LocalObjectStore.transfer(channel, random.nextLong(FILE_SIZE - rangeSize), rangeSize, connection);
+            }
+            return null;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Void drain(java.net.SocketAddress address, AtomicLong bytes) {
+        try (SocketChannel socket = SocketChannel.open(address)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(256 * 1024);
+            int read;
+            while ((read = socket.read(buffer)) >= 0) {
+                bytes.addAndGet(read);
+                buffer.clear();
+            }
+            return null;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.backend.melodyHub.tests;
+
+import com.backend.melodyHub.component.MediaKeyCache;
+import com.backend.melodyHub.component.S3Service;
+import com.backend.melodyHub.controller.MediaController;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.net.URI;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class MediaControllerTest {
+
+    @Mock
+    private MediaKeyCache mediaKeyCache;
+    @Mock
+    private S3Service s3Service;
+
+    private MediaController mediaController;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        mediaController = new MediaController(mediaKeyCache, s3Service, 300);
+    }
+
+    @Test
+    void testGetPreview_RedirectsToPresignedUrl() {
+        when(mediaKeyCache.postKey(1)).thenReturn(Optional.of("post1.mov"));
+        when(s3Service.generatePresignedPreviewUrl("post1.mov")).thenReturn("https://bucket.s3.amazonaws.com/images/post1.jpg?sig");
+
+        ResponseEntity<?> response = mediaController.getPreview(1);
+
+        assertEquals(HttpStatus.FOUND, response.getStatusCode());
+        assertEquals(URI.create("https://bucket.s3.amazonaws.com/images/post1.jpg?sig"), response.getHeaders().getLocation());
+        assertEquals("max-age=300, private", response.getHeaders().getCacheControl());
+    }
+
+    @Test
+    void testGetPreview_UnknownPost() {
+        when(mediaKeyCache.postKey(99)).thenReturn(Optional.empty());
+
+        ResponseEntity<?> response = mediaController.getPreview(99);
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        verify(s3Service, never()).generatePresignedPreviewUrl(anyString());
+    }
+
+    @Test
+    void testGetAvatar_RedirectsToPresignedUrl() {
+        when(mediaKeyCache.avatarKey(5)).thenReturn(Optional.of("avatar.png"));
+        when(s3Service.generatePresignedImageUrl("avatar.png")).thenReturn("https://bucket.s3.amazonaws.com/images/avatar.png?sig");
+
+        ResponseEntity<?> response = mediaController.getAvatar(5);
+
+        assertEquals(HttpStatus.FOUND, response.getStatusCode());
+        assertEquals(URI.create("https://bucket.s3.amazonaws.com/images/avatar.png?sig"), response.getHeaders().getLocation());
+    }
+
+    @Test
+    void testGetAvatar_InternalServerError() {
+        when(mediaKeyCache.avatarKey(5)).thenThrow(new RuntimeException("Database error"));
+
+        ResponseEntity<?> response = mediaController.getAvatar(5);
+
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
+        assertEquals("something went wrong", response.getBody());
+    }
+}
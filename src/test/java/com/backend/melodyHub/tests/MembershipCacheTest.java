@@ -0,0 +1,79 @@
+package com.backend.melodyHub.tests;
+
+import com.backend.melodyHub.component.MembershipCache;
+import com.backend.melodyHub.repository.LikeRepository;
+import com.backend.melodyHub.repository.SavedRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class MembershipCacheTest {
+
+    @Mock
+    private LikeRepository likeRepository;
+
+    @Mock
+    private SavedRepository savedRepository;
+
+    private MembershipCache membershipCache;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        membershipCache = new MembershipCache(likeRepository, savedRepository, new SimpleMeterRegistry(), 100);
+        when(likeRepository.findPostIdsByUserId(anyInt())).thenReturn(List.of(10));
+        when(savedRepository.findPostIdsByUserId(anyInt())).thenReturn(List.of());
+    }
+
+    @Test
+    void testLoadedOnceThenUpdatedInPlace() {
+        assertTrue(membershipCache.isLiked(1, 10));
+        membershipCache.setLiked(1, 11, true);
+        membershipCache.setSaved(1, 10, true);
+
+        assertTrue(membershipCache.isLiked(1, 11));
+        assertTrue(membershipCache.isSaved(1, 10));
+        verify(likeRepository, times(1)).findPostIdsByUserId(1);
+    }
+
+    @Test
+    void testOtherUsersToggleDuringLoadStillCaches() throws Exception {
+        loadWhile(() -> membershipCache.setLiked(2, 10, true));
+
+        assertTrue(membershipCache.isLiked(1, 10));
+        verify(likeRepository, times(1)).findPostIdsByUserId(1);
+    }
+
+    @Test
+    void testSameUsersToggleDuringLoadIsNotOverwritten() throws Exception {
+        loadWhile(() -> membershipCache.setLiked(1, 10, false));
+
+        membershipCache.isLiked(1, 10);
+        verify(likeRepository, times(2)).findPostIdsByUserId(1);
+    }
+
+    // Runs a load for user 1 and performs the toggle while that load is reading from the repository.
+    private void loadWhile(Runnable toggle) throws InterruptedException {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(likeRepository.findPostIdsByUserId(1)).thenAnswer(invocation -> {
+            loading.countDown();
+            release.await();
+            return List.of(10);
+        });
+        Thread loader = new Thread(() -> membershipCache.isLiked(1, 10));
+        loader.start();
+        loading.await();
+        toggle.run();
+        release.countDown();
+        loader.join();
+    }
+}
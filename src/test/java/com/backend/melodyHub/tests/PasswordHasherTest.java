@@ -0,0 +1,68 @@
+package com.backend.melodyHub.tests;
+
+import com.backend.melodyHub.component.PasswordHasher;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mindrot.jbcrypt.BCrypt;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordHasherTest {
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private PasswordHasher passwordHasher;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        passwordHasher = new PasswordHasher(meterRegistry, 2, 4, 4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        passwordHasher.shutdown();
+    }
+
+    @Test
+    void testHashAndCheck_RunOnPool() {
+        String hash = passwordHasher.hashPassword("Password1!");
+
+        assertTrue(hash.startsWith("$2a$04$"));
+        assertTrue(passwordHasher.checkPassword("Password1!", hash));
+        assertFalse(passwordHasher.checkPassword("Password2!", hash));
+        assertEquals(3, meterRegistry.get("password.hasher.hash").timer().count());
+    }
+
+    @Test
+    void testNeedsRehash_OnlyForLowerCost() {
+        PasswordHasher strongerHasher = new PasswordHasher(meterRegistry, 1, 1, 5);
+
+        assertFalse(passwordHasher.needsRehash(passwordHasher.hashPassword("Password1!")));
+        assertFalse(passwordHasher.needsRehash(BCrypt.hashpw("Password1!", BCrypt.gensalt(5))));
+        assertTrue(strongerHasher.needsRehash(BCrypt.hashpw("Password1!", BCrypt.gensalt(4))));
+        assertFalse(passwordHasher.needsRehash("not-a-hash"));
+        assertFalse(passwordHasher.needsRehash(null));
+        strongerHasher.shutdown();
+    }
+
+    @Test
+    void testMalformedHashRethrown() {
+        assertThrows(IllegalArgumentException.class, () -> passwordHasher.checkPassword("Password1!", "not-a-hash"));
+    }
+
+    @Test
+    void testCalibratedCostNeverBelowDefault() {
+        PasswordHasher calibrated = new PasswordHasher(meterRegistry, 1, 1, 0, 1);
+
+        assertEquals(10, calibrated.getCost());
+        calibrated.shutdown();
+    }
+
+    @Test
+    void testInvalidCostRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new PasswordHasher(meterRegistry, 1, 1, 3));
+    }
+}
@@ -1,13 +1,25 @@
 package com.backend.melodyHub.tests;
 
-import com.backend.melodyHub.component.JwtUtil;
+import com.backend.melodyHub.component.AuthenticatedUser;
+import com.backend.melodyHub.component.FeedCache;
+import com.backend.melodyHub.component.LikeRankingStore;
+import com.backend.melodyHub.component.MediaKeyCache;
+import com.backend.melodyHub.component.MediaLinks;
+import com.backend.melodyHub.component.MembershipCache;
+import com.backend.melodyHub.component.PostCatalog;
+import com.backend.melodyHub.component.PostFeedService;
+import com.backend.melodyHub.component.PostInteractionService;
+import com.backend.melodyHub.component.PostPreviewStreamer;
+import com.backend.melodyHub.component.PostSearchIndex;
 import com.backend.melodyHub.component.S3Service;
-import com.backend.melodyHub.component.TokenValidationResult;
+import com.backend.melodyHub.component.UserCache;
 import com.backend.melodyHub.controller.PostController;
 import com.backend.melodyHub.dto.AddPostDTO;
 import com.backend.melodyHub.dto.EditPostDTO;
+import com.backend.melodyHub.dto.PostFeedDTO;
 import com.backend.melodyHub.dto.PostPageDTO;
 import com.backend.melodyHub.dto.PostPreviewDTO;
+import com.backend.melodyHub.dto.PostSearchDTO;
 import com.backend.melodyHub.model.*;
 import com.backend.melodyHub.repository.*;
 import org.junit.jupiter.api.BeforeEach;
@@ -17,20 +29,22 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.Fail.fail;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.Mockito.*;
 
 public class PostControllerTest {
 
-    @Mock
-    private JwtUtil jwtUtil;
-
     @Mock
     private SavedRepository savedRepository;
 
@@ -49,9 +63,44 @@ public class PostControllerTest {
     @Mock
     private PostToCategoryRepository postToCategoryRepository;
 
+    @Mock
+    private PostFeedService postFeedService;
+
+    @Mock
+    private LikeRankingStore likeRankingStore;
+
+    @Mock
+    private PostSearchIndex postSearchIndex;
+
+    @Mock
+    private PostCatalog postCatalog;
+
+    @Mock
+    private PostPreviewStreamer postPreviewStreamer;
+
+    @Mock
+    private FeedCache feedCache;
+
+    @Mock
+    private PostInteractionService postInteractionService;
+
+    @Mock
+    private MembershipCache membershipCache;
+
+    @Mock
+    private MediaLinks mediaLinks;
+
+    @Mock
+    private MediaKeyCache mediaKeyCache;
+
+    @Mock
+    private UserCache userCache;
+
     @InjectMocks
     private PostController postController;
 
+    private final AuthenticatedUser principal = new AuthenticatedUser(1, "testUser");
+
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
@@ -59,146 +108,108 @@ public class PostControllerTest {
 
     @Test
     void testDeletePost_Success() {
-        String token = "validToken";
         int postId = 1;
-        TokenValidationResult validationResult = new TokenValidationResult(true, null);
         User user = new User();
         user.setId(1);
         Post post = new Post();
         post.setId(postId);
         post.setUser(user);
 
-        when(jwtUtil.validateTokenFull(token)).thenReturn(validationResult);
-        when(jwtUtil.extractUsername(token)).thenReturn("testUser");
-        when(userRepository.findByLogin("testUser")).thenReturn(Optional.of(user));
         when(postRepository.findById(postId)).thenReturn(Optional.of(post));
 
-        ResponseEntity<?> response = postController.deletePost(token, postId);
+        ResponseEntity<?> response = postController.deletePost(principal, postId);
 
         assertEquals(200, response.getStatusCodeValue());
         assertEquals("Post deleted successfully", response.getBody());
         verify(postRepository, times(1)).delete(post);
-    }
-
-    @Test
-    void testDeletePost_InvalidToken() {
-        String token = "invalidToken";
-        int postId = 1;
-        TokenValidationResult validationResult = new TokenValidationResult(false, "Invalid token");
-
-        when(jwtUtil.validateTokenFull(token)).thenReturn(validationResult);
-
-        ResponseEntity<?> response = postController.deletePost(token, postId);
-
-        assertEquals(400, response.getStatusCodeValue());
-        assertEquals("Invalid token", response.getBody());
-        verify(postRepository, never()).delete(any());
+        verify(likeRankingStore, times(1)).removePost(postId);
+        verify(postSearchIndex, times(1)).delete(postId);
+        verify(postCatalog, times(1)).remove(postId);
+        verify(feedCache, times(1)).invalidatePost(post);
     }
 
     @Test
     void testDeletePost_PostNotFound() {
-        String token = "validToken";
         int postId = 999;
-        TokenValidationResult validationResult = new TokenValidationResult(true, null);
-        User user = new User();
-        user.setId(1);
 
-        when(jwtUtil.validateTokenFull(token)).thenReturn(validationResult);
-        when(jwtUtil.extractUsername(token)).thenReturn("testUser");
-        when(userRepository.findByLogin("testUser")).thenReturn(Optional.of(user));
         when(postRepository.findById(postId)).thenReturn(Optional.empty());
 
-        ResponseEntity<?> response = postController.deletePost(token, postId);
+        ResponseEntity<?> response = postController.deletePost(principal, postId);
 
         assertEquals(400, response.getStatusCodeValue());
         assertEquals("Post not found", response.getBody());
-        verify(postRepository, never()).delete(any());
+        verify(postRepository, never()).delete(any(Post.class));
     }
 
     @Test
     void testDeletePost_UnauthorizedAccess() {
-        String token = "validToken";
         int postId = 1;
-        TokenValidationResult validationResult = new TokenValidationResult(true, null);
-        User user = new User();
-        user.setId(1);
         User anotherUser = new User();
         anotherUser.setId(2);
         Post post = new Post();
         post.setId(postId);
         post.setUser(anotherUser);
 
-        when(jwtUtil.validateTokenFull(token)).thenReturn(validationResult);
-        when(jwtUtil.extractUsername(token)).thenReturn("testUser");
-        when(userRepository.findByLogin("testUser")).thenReturn(Optional.of(user));
         when(postRepository.findById(postId)).thenReturn(Optional.of(post));
 
-        ResponseEntity<?> response = postController.deletePost(token, postId);
+        ResponseEntity<?> response = postController.deletePost(principal, postId);
 
         assertEquals(400, response.getStatusCodeValue());
         assertEquals("You are not the owner of this post", response.getBody());
-        verify(postRepository, never()).delete(any());
-    }
-
-    @Test
-    void testAddPost_InvalidToken() {
-        String token = "invalidToken";
-        TokenValidationResult validationResult = new TokenValidationResult(false, "Invalid token");
-        AddPostDTO postDTO = new AddPostDTO();
-
-        when(jwtUtil.validateTokenFull(token)).thenReturn(validationResult);
-
-        ResponseEntity<?> response = postController.addPost(postDTO, token);
-
-        assertEquals(400, response.getStatusCodeValue());
-        assertEquals("Invalid token", response.getBody());
-        verify(postRepository, never()).save(any());
+        verify(postRepository, never()).delete(any(Post.class));
     }
 
     @Test
-    void testAddPost_UserNotFound() {
-        String token = "validToken";
-        TokenValidationResult validationResult = new TokenValidationResult(true, null);
+    void testAddPost_Success() {
+        User user = new User();
+        user.setId(1);
         AddPostDTO postDTO = new AddPostDTO();
+        postDTO.setName("New Post");
+        postDTO.setCategories(List.of(3, 1, 3));
 
-        when(jwtUtil.validateTokenFull(token)).thenReturn(validationResult);
-        when(jwtUtil.extractUsername(token)).thenReturn("testUser");
-        when(userRepository.findByLogin("testUser")).thenReturn(Optional.empty());
+        when(userRepository.getReferenceById(1)).thenReturn(user);
+        when(categoryRepository.findById(1)).thenReturn(Optional.of(new Category()));
+        when(categoryRepository.findById(3)).thenReturn(Optional.of(new Category()));
+        when(postRepository.save(any(Post.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
-        ResponseEntity<?> response = postController.addPost(postDTO, token);
+        ResponseEntity<?> response = postController.addPost(postDTO, principal);
 
-        assertEquals(400, response.getStatusCodeValue());
-        assertEquals("User not found", response.getBody());
-        verify(postRepository, never()).save(any());
+        assertEquals(200, response.getStatusCodeValue());
+        assertEquals("Post added successfully", response.getBody());
+        ArgumentCaptor<Post> saved = ArgumentCaptor.forClass(Post.class);
+        verify(postRepository, times(1)).save(saved.capture());
+        assertArrayEquals(new Integer[]{1, 3}, saved.getValue().getCategoryIds());
     }
 
     @Test
     void testAddPost_InvalidCategory() {
-        String token = "validToken";
-        TokenValidationResult validationResult = new TokenValidationResult(true, null);
         User user = new User();
         user.setId(1);
         user.setLogin("testUser");
         AddPostDTO postDTO = new AddPostDTO();
         postDTO.setCategories(List.of(1, 999));
 
-        when(jwtUtil.validateTokenFull(token)).thenReturn(validationResult);
-        when(jwtUtil.extractUsername(token)).thenReturn("testUser");
-        when(userRepository.findByLogin("testUser")).thenReturn(Optional.of(user));
+        when(userRepository.getReferenceById(1)).thenReturn(user);
         when(categoryRepository.findById(1)).thenReturn(Optional.of(new Category()));
         when(categoryRepository.findById(999)).thenReturn(Optional.empty());
 
-        ResponseEntity<?> response = postController.addPost(postDTO, token);
+        ResponseEntity<?> response = postController.addPost(postDTO, principal);
 
         assertEquals(400, response.getStatusCodeValue());
         assertEquals("Category with id 999 does not exist", response.getBody());
         verify(postRepository, never()).save(any());
     }
 
+    @Test
+    void testAddPost_UserNotFound() {
+        ResponseEntity<String> response = DeletedUserRequest.response(PostController.class, "addPost");
+
+        assertEquals(400, response.getStatusCodeValue());
+        assertEquals("User not found", response.getBody());
+    }
+
     @Test
     void testEditPost_Success() {
-        String token = "validToken";
-        TokenValidationResult validationResult = new TokenValidationResult(true, null);
         User user = new User();
         user.setId(1);
         user.setLogin("testUser");
@@ -214,14 +225,11 @@ public class PostControllerTest {
         Category category2 = new Category();
         category2.setId(2);
 
-        when(jwtUtil.validateTokenFull(token)).thenReturn(validationResult);
-        when(jwtUtil.extractUsername(token)).thenReturn("testUser");
-        when(userRepository.findByLogin("testUser")).thenReturn(Optional.of(user));
         when(postRepository.findById(1)).thenReturn(Optional.of(post));
         when(categoryRepository.findById(1)).thenReturn(Optional.of(category1));
         when(categoryRepository.findById(2)).thenReturn(Optional.of(category2));
 
-        ResponseEntity<?> response = postController.editPost(editPostDTO, token);
+        ResponseEntity<?> response = postController.editPost(editPostDTO, principal);
 
         assertEquals(200, response.getStatusCodeValue());
         assertEquals("Post edited successfully", response.getBody());
@@ -230,53 +238,14 @@ public class PostControllerTest {
         verify(postToCategoryRepository, times(1)).saveAll(any());
     }
 
-    @Test
-    void testEditPost_InvalidToken() {
-        String token = "invalidToken";
-        TokenValidationResult validationResult = new TokenValidationResult(false, "Invalid token");
-        EditPostDTO editPostDTO = new EditPostDTO();
-
-        when(jwtUtil.validateTokenFull(token)).thenReturn(validationResult);
-
-        ResponseEntity<?> response = postController.editPost(editPostDTO, token);
-
-        assertEquals(400, response.getStatusCodeValue());
-        assertEquals("Invalid token", response.getBody());
-        verify(postRepository, never()).save(any());
-    }
-
-    @Test
-    void testEditPost_UserNotFound() {
-        String token = "validToken";
-        TokenValidationResult validationResult = new TokenValidationResult(true, null);
-        EditPostDTO editPostDTO = new EditPostDTO();
-
-        when(jwtUtil.validateTokenFull(token)).thenReturn(validationResult);
-        when(jwtUtil.extractUsername(token)).thenReturn("testUser");
-        when(userRepository.findByLogin("testUser")).thenReturn(Optional.empty());
-
-        ResponseEntity<?> response = postController.editPost(editPostDTO, token);
-
-        assertEquals(400, response.getStatusCodeValue());
-        assertEquals("User not found", response.getBody());
-        verify(postRepository, never()).save(any());
-    }
-
     @Test
     void testEditPost_PostNotFound() {
-        String token = "validToken";
-        TokenValidationResult validationResult = new TokenValidationResult(true, null);
-        User user = new User();
-        user.setId(1);
         EditPostDTO editPostDTO = new EditPostDTO();
         editPostDTO.setId(999);
 
-        when(jwtUtil.validateTokenFull(token)).thenReturn(validationResult);
-        when(jwtUtil.extractUsername(token)).thenReturn("testUser");
-        when(userRepository.findByLogin("testUser")).thenReturn(Optional.of(user));
         when(postRepository.findById(999)).thenReturn(Optional.empty());
 
-        ResponseEntity<?> response = postController.editPost(editPostDTO, token);
+        ResponseEntity<?> response = postController.editPost(editPostDTO, principal);
 
         assertEquals(400, response.getStatusCodeValue());
         assertEquals("Post not found", response.getBody());
@@ -285,10 +254,6 @@ public class PostControllerTest {
 
     @Test
     void testEditPost_UnauthorizedAccess() {
-        String token = "validToken";
-        TokenValidationResult validationResult = new TokenValidationResult(true, null);
-        User user = new User();
-        user.setId(1);
         User anotherUser = new User();
         anotherUser.setId(2);
         Post post = new Post();
@@ -297,12 +262,9 @@ public class PostControllerTest {
         EditPostDTO editPostDTO = new EditPostDTO();
         editPostDTO.setId(1);
 
-        when(jwtUtil.validateTokenFull(token)).thenReturn(validationResult);
-        when(jwtUtil.extractUsername(token)).thenReturn("testUser");
-        when(userRepository.findByLogin("testUser")).thenReturn(Optional.of(user));
         when(postRepository.findById(1)).thenReturn(Optional.of(post));
 
-        ResponseEntity<?> response = postController.editPost(editPostDTO, token);
+        ResponseEntity<?> response = postController.editPost(editPostDTO, principal);
 
         assertEquals(400, response.getStatusCodeValue());
         assertEquals("You are not the owner of this post", response.getBody());
@@ -311,8 +273,6 @@ public class PostControllerTest {
 
     @Test
     void testEditPost_InvalidCategory() {
-        String token = "validToken";
-        TokenValidationResult validationResult = new TokenValidationResult(true, null);
         User user = new User();
         user.setId(1);
         user.setLogin("testUser");
@@ -323,44 +283,36 @@ public class PostControllerTest {
         editPostDTO.setId(1);
         editPostDTO.setCategories(List.of(1, 999));
 
-        when(jwtUtil.validateTokenFull(token)).thenReturn(validationResult);
-        when(jwtUtil.extractUsername(token)).thenReturn("testUser");
-        when(userRepository.findByLogin("testUser")).thenReturn(Optional.of(user));
         when(postRepository.findById(1)).thenReturn(Optional.of(post));
         when(categoryRepository.findById(1)).thenReturn(Optional.of(new Category()));
         when(categoryRepository.findById(999)).thenReturn(Optional.empty());
 
-        ResponseEntity<?> response = postController.editPost(editPostDTO, token);
+        ResponseEntity<?> response = postController.editPost(editPostDTO, principal);
 
         assertEquals(400, response.getStatusCodeValue());
         assertEquals("Category with id 999 does not exist", response.getBody());
         verify(postRepository, never()).save(any());
     }
+
+    @Test
+    void testEditPost_UserNotFound() {
+        ResponseEntity<String> response = DeletedUserRequest.response(PostController.class, "editPost");
+
+        assertEquals(400, response.getStatusCodeValue());
+        assertEquals("User not found", response.getBody());
+    }
     @Test
     void testGetPost_Success() {
-        String token = "validToken";
         Integer postId = 1;
-        TokenValidationResult validationResult = new TokenValidationResult(true, null);
-        User user = new User();
-        user.setId(1);
-        user.setLogin("testUser");
-        user.setS3Key("userKey");
-        Post post = new Post();
-        post.setId(postId);
-        post.setName("Test Post");
-        post.setDescription("Test Description");
-        post.setS3Key("postKey");
-        post.setLeadsheetKey("leadsheetKey");
-        post.setUser(user);
+        PostPageView post = new PostPageView(postId, "Test Post", "Test Description", "postKey", "leadsheetKey", 1, "testUser", "userKey", new Integer[]{2});
 
-        when(jwtUtil.validateTokenFull(token)).thenReturn(validationResult);
-        when(postRepository.findById(postId)).thenReturn(Optional.of(post));
+        when(postRepository.findPageView(postId)).thenReturn(Optional.of(post));
         when(s3Service.generatePresignedPreviewUrl("postKey")).thenReturn("previewUrl");
         when(s3Service.generatePresignedVideoUrl("postKey")).thenReturn("videoUrl");
         when(s3Service.generatePresignedLeadsheetUrl("leadsheetKey")).thenReturn("leadsheetUrl");
         when(s3Service.generatePresignedImageUrl("userKey")).thenReturn("imageUrl");
 
-        ResponseEntity<?> response = postController.getPost(token, postId);
+        ResponseEntity<?> response = postController.getPost(principal, postId);
 
         assertEquals(200, response.getStatusCodeValue());
         PostPageDTO postPageDTO = (PostPageDTO) response.getBody();
@@ -370,274 +322,152 @@ public class PostControllerTest {
         assertEquals("videoUrl", postPageDTO.getPostUrl());
         assertEquals("leadsheetUrl", postPageDTO.getLeadsheetUrl());
         assertEquals("imageUrl", postPageDTO.getAuthorProfileImageUrl());
-    }
-
-    @Test
-    void testGetPost_InvalidToken() {
-        String token = "invalidToken";
-        Integer postId = 1;
-        TokenValidationResult validationResult = new TokenValidationResult(false, "Invalid token");
-
-        when(jwtUtil.validateTokenFull(token)).thenReturn(validationResult);
-
-        ResponseEntity<?> response = postController.getPost(token, postId);
-
-        assertEquals(400, response.getStatusCodeValue());
-        assertEquals("Invalid token", response.getBody());
+        assertEquals(List.of(2), postPageDTO.getCategories());
     }
 
     @Test
     void testGetPost_PostNotFound() {
-        String token = "validToken";
         Integer postId = 999;
-        TokenValidationResult validationResult = new TokenValidationResult(true, null);
 
-        when(jwtUtil.validateTokenFull(token)).thenReturn(validationResult);
-        when(postRepository.findById(postId)).thenReturn(Optional.empty());
+        when(postRepository.findPageView(postId)).thenReturn(Optional.empty());
 
-        ResponseEntity<?> response = postController.getPost(token, postId);
+        ResponseEntity<?> response = postController.getPost(principal, postId);
 
         assertEquals(400, response.getStatusCodeValue());
         assertEquals("Post not found", response.getBody());
     }
     @Test
     void testAddPostToFavorites_Success() {
-        String token = "validToken";
         Integer postId = 1;
-        TokenValidationResult validationResult = new TokenValidationResult(true, null);
         User user = new User();
         user.setId(1);
         user.setLogin("testUser");
         Post post = new Post();
         post.setId(postId);
 
-        when(jwtUtil.validateTokenFull(token)).thenReturn(validationResult);
-        when(jwtUtil.extractUsername(token)).thenReturn("testUser");
-        when(userRepository.findByLogin("testUser")).thenReturn(Optional.of(user));
         when(postRepository.findById(postId)).thenReturn(Optional.of(post));
-        when(savedRepository.findByUserAndPost(user, post)).thenReturn(Optional.empty());
+        when(savedRepository.insertIfAbsent(1, postId)).thenReturn(1);
 
-        ResponseEntity<?> response = postController.addPostToFavorites(token, postId);
+        ResponseEntity<?> response = postController.addPostToFavorites(principal, postId);
 
         assertEquals(200, response.getStatusCodeValue());
         assertEquals("Post saved successfully", response.getBody());
-        verify(savedRepository, times(1)).save(any());
-    }
-
-    @Test
-    void testAddPostToFavorites_InvalidToken() {
-        String token = "invalidToken";
-        Integer postId = 1;
-        TokenValidationResult validationResult = new TokenValidationResult(false, "Invalid token");
-
-        when(jwtUtil.validateTokenFull(token)).thenReturn(validationResult);
-
-        ResponseEntity<?> response = postController.addPostToFavorites(token, postId);
-
-        assertEquals(400, response.getStatusCodeValue());
-        assertEquals("Invalid token", response.getBody());
-        verify(savedRepository, never()).save(any());
-    }
-
-    @Test
-    void testAddPostToFavorites_UserNotFound() {
-        String token = "validToken";
-        Integer postId = 1;
-        TokenValidationResult validationResult = new TokenValidationResult(true, null);
-
-        when(jwtUtil.validateTokenFull(token)).thenReturn(validationResult);
-        when(jwtUtil.extractUsername(token)).thenReturn("testUser");
-        when(userRepository.findByLogin("testUser")).thenReturn(Optional.empty());
-
-        ResponseEntity<?> response = postController.addPostToFavorites(token, postId);
-
-        assertEquals(400, response.getStatusCodeValue());
-        assertEquals("User not found", response.getBody());
-        verify(savedRepository, never()).save(any());
+        verify(savedRepository, times(1)).insertIfAbsent(1, postId);
+        verify(membershipCache, times(1)).setSaved(1, postId, true);
+        verify(savedRepository, never()).findByUserAndPost(any(), any());
     }
 
     @Test
     void testAddPostToFavorites_PostNotFound() {
-        String token = "validToken";
         Integer postId = 999;
-        TokenValidationResult validationResult = new TokenValidationResult(true, null);
-        User user = new User();
-        user.setId(1);
 
-        when(jwtUtil.validateTokenFull(token)).thenReturn(validationResult);
-        when(jwtUtil.extractUsername(token)).thenReturn("testUser");
-        when(userRepository.findByLogin("testUser")).thenReturn(Optional.of(user));
         when(postRepository.findById(postId)).thenReturn(Optional.empty());
 
-        ResponseEntity<?> response = postController.addPostToFavorites(token, postId);
+        ResponseEntity<?> response = postController.addPostToFavorites(principal, postId);
 
         assertEquals(400, response.getStatusCodeValue());
         assertEquals("Post not found", response.getBody());
-        verify(savedRepository, never()).save(any());
+        verify(savedRepository, never()).insertIfAbsent(anyInt(), anyInt());
     }
 
     @Test
     void testAddPostToFavorites_PostAlreadySaved() {
-        String token = "validToken";
         Integer postId = 1;
-        TokenValidationResult validationResult = new TokenValidationResult(true, null);
         User user = new User();
         user.setId(1);
         user.setLogin("testUser");
         Post post = new Post();
         post.setId(postId);
-        Saved saved = new Saved();
-        saved.setUser(user);
-        saved.setPost(post);
 
-        when(jwtUtil.validateTokenFull(token)).thenReturn(validationResult);
-        when(jwtUtil.extractUsername(token)).thenReturn("testUser");
-        when(userRepository.findByLogin("testUser")).thenReturn(Optional.of(user));
         when(postRepository.findById(postId)).thenReturn(Optional.of(post));
-        when(savedRepository.findByUserAndPost(user, post)).thenReturn(Optional.of(saved));
+        when(savedRepository.insertIfAbsent(1, postId)).thenReturn(0);
 
-        ResponseEntity<?> response = postController.addPostToFavorites(token, postId);
+        ResponseEntity<?> response = postController.addPostToFavorites(principal, postId);
 
         assertEquals(400, response.getStatusCodeValue());
         assertEquals("Post already saved", response.getBody());
-        verify(savedRepository, never()).save(any());
+    }
+
+    @Test
+    void testAddPostToFavorites_UserNotFound() {
+        ResponseEntity<String> response = DeletedUserRequest.response(PostController.class, "addPostToFavorites");
+
+        assertEquals(400, response.getStatusCodeValue());
+        assertEquals("User not found", response.getBody());
     }
 
     @Test
     void testDeletePostFromFavorites_Success() {
-        String token = "validToken";
         Integer postId = 1;
-        TokenValidationResult validationResult = new TokenValidationResult(true, null);
         User user = new User();
         user.setId(1);
         user.setLogin("testUser");
         Post post = new Post();
         post.setId(postId);
-        Saved saved = new Saved();
-        saved.setUser(user);
-        saved.setPost(post);
 
-        when(jwtUtil.validateTokenFull(token)).thenReturn(validationResult);
-        when(jwtUtil.extractUsername(token)).thenReturn("testUser");
-        when(userRepository.findByLogin("testUser")).thenReturn(Optional.of(user));
         when(postRepository.findById(postId)).thenReturn(Optional.of(post));
-        when(savedRepository.findByUserAndPost(user, post)).thenReturn(Optional.of(saved));
+        when(savedRepository.deleteByUserIdAndPostId(1, postId)).thenReturn(1);
 
-        ResponseEntity<?> response = postController.deletePostFromFavorites(token, postId);
+        ResponseEntity<?> response = postController.deletePostFromFavorites(principal, postId);
 
         assertEquals(200, response.getStatusCodeValue());
         assertEquals("Post removed from saved successfully", response.getBody());
-        verify(savedRepository, times(1)).delete(saved);
-    }
-
-    @Test
-    void testDeletePostFromFavorites_InvalidToken() {
-        String token = "invalidToken";
-        Integer postId = 1;
-        TokenValidationResult validationResult = new TokenValidationResult(false, "Invalid token");
-
-        when(jwtUtil.validateTokenFull(token)).thenReturn(validationResult);
-
-        ResponseEntity<?> response = postController.deletePostFromFavorites(token, postId);
-
-        assertEquals(400, response.getStatusCodeValue());
-        assertEquals("Invalid token", response.getBody());
-        verify(savedRepository, never()).delete(any());
-    }
-
-    @Test
-    void testDeletePostFromFavorites_UserNotFound() {
-        String token = "validToken";
-        Integer postId = 1;
-        TokenValidationResult validationResult = new TokenValidationResult(true, null);
-
-        when(jwtUtil.validateTokenFull(token)).thenReturn(validationResult);
-        when(jwtUtil.extractUsername(token)).thenReturn("testUser");
-        when(userRepository.findByLogin("testUser")).thenReturn(Optional.empty());
-
-        ResponseEntity<?> response = postController.deletePostFromFavorites(token, postId);
-
-        assertEquals(400, response.getStatusCodeValue());
-        assertEquals("User not found", response.getBody());
-        verify(savedRepository, never()).delete(any());
+        verify(savedRepository, times(1)).deleteByUserIdAndPostId(1, postId);
+        verify(membershipCache, times(1)).setSaved(1, postId, false);
     }
 
     @Test
     void testDeletePostFromFavorites_PostNotFound() {
-        String token = "validToken";
         Integer postId = 999;
-        TokenValidationResult validationResult = new TokenValidationResult(true, null);
-        User user = new User();
-        user.setId(1);
 
-        when(jwtUtil.validateTokenFull(token)).thenReturn(validationResult);
-        when(jwtUtil.extractUsername(token)).thenReturn("testUser");
-        when(userRepository.findByLogin("testUser")).thenReturn(Optional.of(user));
         when(postRepository.findById(postId)).thenReturn(Optional.empty());
 
-        ResponseEntity<?> response = postController.deletePostFromFavorites(token, postId);
+        ResponseEntity<?> response = postController.deletePostFromFavorites(principal, postId);
 
         assertEquals(400, response.getStatusCodeValue());
         assertEquals("Post not found", response.getBody());
-        verify(savedRepository, never()).delete(any());
+        verify(savedRepository, never()).deleteByUserIdAndPostId(anyInt(), anyInt());
     }
 
     @Test
     void testDeletePostFromFavorites_PostNotSaved() {
-        String token = "validToken";
         Integer postId = 1;
-        TokenValidationResult validationResult = new TokenValidationResult(true, null);
         User user = new User();
         user.setId(1);
         user.setLogin("testUser");
         Post post = new Post();
         post.setId(postId);
 
-        when(jwtUtil.validateTokenFull(token)).thenReturn(validationResult);
-        when(jwtUtil.extractUsername(token)).thenReturn("testUser");
-        when(userRepository.findByLogin("testUser")).thenReturn(Optional.of(user));
         when(postRepository.findById(postId)).thenReturn(Optional.of(post));
-        when(savedRepository.findByUserAndPost(user, post)).thenReturn(Optional.empty());
+        when(savedRepository.deleteByUserIdAndPostId(1, postId)).thenReturn(0);
 
-        ResponseEntity<?> response = postController.deletePostFromFavorites(token, postId);
+        ResponseEntity<?> response = postController.deletePostFromFavorites(principal, postId);
 
         assertEquals(400, response.getStatusCodeValue());
         assertEquals("Post not saved", response.getBody());
-        verify(savedRepository, never()).delete(any());
+    }
+
+    @Test
+    void testDeletePostFromFavorites_UserNotFound() {
+        ResponseEntity<String> response = DeletedUserRequest.response(PostController.class, "deletePostFromFavorites");
+
+        assertEquals(400, response.getStatusCodeValue());
+        assertEquals("User not found", response.getBody());
     }
 
     @Test
     void testGetSavedPosts_Success() {
-        String token = "validToken";
-        TokenValidationResult validationResult = new TokenValidationResult(true, null);
         User user = new User();
         user.setId(1);
         user.setLogin("testUser");
-        Post post1 = new Post();
-        post1.setId(1);
-        post1.setName("Post 1");
-        post1.setS3Key("post1Key");
-        post1.setUser(user); // Ensure the User field is set
-        Post post2 = new Post();
-        post2.setId(2);
-        post2.setName("Post 2");
-        post2.setS3Key("post2Key");
-        post2.setUser(user); // Ensure the User field is set
-        Saved saved1 = new Saved();
-        saved1.setUser(user);
-        saved1.setPost(post1);
-        Saved saved2 = new Saved();
-        saved2.setUser(user);
-        saved2.setPost(post2);
-
-        when(jwtUtil.validateTokenFull(token)).thenReturn(validationResult);
-        when(jwtUtil.extractUsername(token)).thenReturn("testUser");
-        when(userRepository.findByLogin("testUser")).thenReturn(Optional.of(user));
-        when(savedRepository.findByUser(user)).thenReturn(List.of(saved1, saved2));
-        when(s3Service.generatePresignedPreviewUrl("post1Key")).thenReturn("previewUrl1");
-        when(s3Service.generatePresignedPreviewUrl("post2Key")).thenReturn("previewUrl2");
-
-        ResponseEntity<?> response = postController.getSavedPosts(token);
+        PostPreviewView post1 = preview(1, "Post 1", "post1Key");
+        PostPreviewView post2 = preview(2, "Post 2", "post2Key");
+
+        when(userRepository.getReferenceById(1)).thenReturn(user);
+        when(savedRepository.findSavedPreviews(user)).thenReturn(List.of(post1, post2));
+        when(mediaLinks.previewUrls(any())).thenReturn(Map.of(1, "previewUrl1", 2, "previewUrl2"));
+
+        ResponseEntity<?> response = postController.getSavedPosts(principal);
 
         assertEquals(200, response.getStatusCodeValue());
         List<PostPreviewDTO> posts = (List<PostPreviewDTO>) response.getBody();
@@ -648,168 +478,157 @@ public class PostControllerTest {
         assertEquals("previewUrl2", posts.get(1).getPreviewUrl());
     }
 
-    @Test
-    void testGetSavedPosts_InvalidToken() {
-        String token = "invalidToken";
-        TokenValidationResult validationResult = new TokenValidationResult(false, "Invalid token");
-
-        when(jwtUtil.validateTokenFull(token)).thenReturn(validationResult);
-
-        ResponseEntity<?> response = postController.getSavedPosts(token);
-
-        assertEquals(400, response.getStatusCodeValue());
-        assertEquals("Invalid token", response.getBody());
-        verify(savedRepository, never()).findByUser(any());
-    }
-
     @Test
     void testGetSavedPosts_UserNotFound() {
-        String token = "validToken";
-        TokenValidationResult validationResult = new TokenValidationResult(true, null);
-
-        when(jwtUtil.validateTokenFull(token)).thenReturn(validationResult);
-        when(jwtUtil.extractUsername(token)).thenReturn("testUser");
-        when(userRepository.findByLogin("testUser")).thenReturn(Optional.empty());
-
-        ResponseEntity<?> response = postController.getSavedPosts(token);
+        ResponseEntity<String> response = DeletedUserRequest.response(PostController.class, "getSavedPosts");
 
         assertEquals(400, response.getStatusCodeValue());
         assertEquals("User not found", response.getBody());
-        verify(savedRepository, never()).findByUser(any());
     }
 
     @Test
     void testCheckFavoritePost_Success() {
-        String token = "validToken";
         Integer postId = 1;
-        TokenValidationResult validationResult = new TokenValidationResult(true, null);
         User user = new User();
         user.setId(1);
         user.setLogin("testUser");
-        Post post = new Post();
-        post.setId(postId);
-        Saved saved = new Saved();
-        saved.setUser(user);
-        saved.setPost(post);
 
-        when(jwtUtil.validateTokenFull(token)).thenReturn(validationResult);
-        when(jwtUtil.extractUsername(token)).thenReturn("testUser");
-        when(userRepository.findByLogin("testUser")).thenReturn(Optional.of(user));
-        when(postRepository.findById(postId)).thenReturn(Optional.of(post));
-        when(savedRepository.findByUserAndPost(user, post)).thenReturn(Optional.of(saved));
+        when(membershipCache.isSaved(1, postId)).thenReturn(true);
 
-        ResponseEntity<?> response = postController.checkFavoritePost(token, postId);
+        ResponseEntity<?> response = postController.checkFavoritePost(principal, postId);
 
         assertEquals(200, response.getStatusCodeValue());
         assertEquals(Boolean.TRUE, response.getBody());
+        verify(postRepository, never()).findById(anyInt());
+        verify(savedRepository, never()).findByUserAndPost(any(), any());
     }
 
     @Test
-    void testCheckFavoritePost_InvalidToken() {
-        String token = "invalidToken";
-        Integer postId = 1;
-        TokenValidationResult validationResult = new TokenValidationResult(false, "Invalid token");
+    void testCheckFavoritePost_NotSaved() {
+        Integer postId = 999;
 
-        when(jwtUtil.validateTokenFull(token)).thenReturn(validationResult);
+        when(membershipCache.isSaved(1, postId)).thenReturn(false);
 
-        ResponseEntity<?> response = postController.checkFavoritePost(token, postId);
+        ResponseEntity<?> response = postController.checkFavoritePost(principal, postId);
 
-        assertEquals(400, response.getStatusCodeValue());
-        assertEquals("Invalid token", response.getBody());
+        assertEquals(200, response.getStatusCodeValue());
+        assertEquals(Boolean.FALSE, response.getBody());
     }
 
     @Test
     void testCheckFavoritePost_UserNotFound() {
-        String token = "validToken";
-        Integer postId = 1;
-        TokenValidationResult validationResult = new TokenValidationResult(true, null);
-
-        when(jwtUtil.validateTokenFull(token)).thenReturn(validationResult);
-        when(jwtUtil.extractUsername(token)).thenReturn("testUser");
-        when(userRepository.findByLogin("testUser")).thenReturn(Optional.empty());
-
-        ResponseEntity<?> response = postController.checkFavoritePost(token, postId);
+        ResponseEntity<String> response = DeletedUserRequest.response(PostController.class, "checkFavoritePost");
 
         assertEquals(400, response.getStatusCodeValue());
         assertEquals("User not found", response.getBody());
     }
 
     @Test
-    void testCheckFavoritePost_PostNotFound() {
-        String token = "validToken";
-        Integer postId = 999;
-        TokenValidationResult validationResult = new TokenValidationResult(true, null);
-        User user = new User();
-        user.setId(1);
+    void testGetPosts_Success() {
+        PostPreviewView post1 = preview(1, "Post 1", "post1Key");
+        PostPreviewView post2 = preview(2, "Post 2", "post2Key");
 
-        when(jwtUtil.validateTokenFull(token)).thenReturn(validationResult);
-        when(jwtUtil.extractUsername(token)).thenReturn("testUser");
-        when(userRepository.findByLogin("testUser")).thenReturn(Optional.of(user));
-        when(postRepository.findById(postId)).thenReturn(Optional.empty());
+        when(postFeedService.getPage(null, null, null, null, null, null, PostFeedService.DEFAULT_LIMIT))
+                .thenReturn(new PostFeedService.FeedPage(List.of(post1, post2), "nextCursor"));
+        when(mediaLinks.previewUrls(any())).thenReturn(Map.of(1, "previewUrl1", 2, "previewUrl2"));
+
+        ResponseEntity<?> response = postController.getPosts(principal, null, null, null, null, null, null, null, false);
 
-        ResponseEntity<?> response = postController.checkFavoritePost(token, postId);
+        assertEquals(200, response.getStatusCodeValue());
+        PostFeedDTO feed = (PostFeedDTO) response.getBody();
+        List<PostPreviewDTO> posts = feed.getPosts();
+        assertEquals("nextCursor", feed.getNextCursor());
+        assertEquals(2, posts.size());
+        assertEquals("Post 1", posts.get(0).getName());
+        assertEquals("previewUrl1", posts.get(0).getPreviewUrl());
+        assertEquals("Post 2", posts.get(1).getName());
+        assertEquals("previewUrl2", posts.get(1).getPreviewUrl());
+    }
+
+    @Test
+    void testCheckFavoritePosts_Success() {
+        List<Integer> postIds = List.of(1, 2);
+
+        when(postInteractionService.savedPostIds(1, postIds)).thenReturn(Set.of(1));
+
+        ResponseEntity<?> response = postController.checkFavoritePosts(principal, postIds);
+
+        assertEquals(200, response.getStatusCodeValue());
+        assertEquals(Map.of(1, true, 2, false), response.getBody());
+    }
+
+    @Test
+    void testCheckFavoritePosts_EmptyBatch() {
+        ResponseEntity<?> response = postController.checkFavoritePosts(principal, List.of());
 
         assertEquals(400, response.getStatusCodeValue());
-        assertEquals("Post not found", response.getBody());
+        verifyNoInteractions(postInteractionService);
     }
 
     @Test
-    void testGetPosts_Success() {
-        String token = "validToken";
-        TokenValidationResult validationResult = new TokenValidationResult(true, null);
-        User user = new User();
-        user.setId(1);
-        user.setLogin("testUser");
-        Post post1 = new Post();
-        post1.setId(1);
-        post1.setName("Post 1");
-        post1.setS3Key("post1Key");
-        post1.setUser(user);
-        Post post2 = new Post();
-        post2.setId(2);
-        post2.setName("Post 2");
-        post2.setS3Key("post2Key");
-        post2.setUser(user);
-
-        when(jwtUtil.validateTokenFull(token)).thenReturn(validationResult);
-        when(postRepository.findAll()).thenReturn(List.of(post1, post2));
-        when(s3Service.generatePresignedPreviewUrl("post1Key")).thenReturn("previewUrl1");
-        when(s3Service.generatePresignedPreviewUrl("post2Key")).thenReturn("previewUrl2");
-
-        ResponseEntity<?> response = postController.getPosts(token, null, null, null, null);
+    void testGetPostsByIds_Success() {
+        PostPreviewView post1 = preview(1, "Post 1", "post1Key");
+        PostPreviewView post2 = preview(2, "Post 2", "post2Key");
+        PostInteractionService.Interactions interactions = new PostInteractionService.Interactions(Map.of(2, 7L), Set.of(2), Set.of());
+
+        when(postRepository.findPreviewsByIds(Set.of(2, 9, 1))).thenReturn(List.of(post1, post2));
+        when(postInteractionService.load(1, Set.of(1, 2))).thenReturn(interactions);
+        when(mediaLinks.previewUrls(any())).thenReturn(Map.of());
+
+        ResponseEntity<?> response = postController.getPostsByIds(principal, List.of(2, 9, 1));
 
         assertEquals(200, response.getStatusCodeValue());
-        List<PostPreviewDTO> posts = (List<PostPreviewDTO>) response.getBody();
+        List<?> posts = (List<?>) response.getBody();
         assertEquals(2, posts.size());
-        assertEquals("Post 1", posts.get(0).getName());
-        assertEquals("previewUrl1", posts.get(0).getPreviewUrl());
-        assertEquals("Post 2", posts.get(1).getName());
-        assertEquals("previewUrl2", posts.get(1).getPreviewUrl());
+        PostPreviewDTO first = (PostPreviewDTO) posts.get(0);
+        assertEquals(Integer.valueOf(2), first.getId());
+        assertEquals(Long.valueOf(7), first.getLikeCount());
+        assertEquals(true, first.getLikedByMe());
+        assertEquals(Integer.valueOf(1), ((PostPreviewDTO) posts.get(1)).getId());
     }
 
     @Test
-    void testGetPosts_InvalidToken() {
-        String token = "invalidToken";
-        TokenValidationResult validationResult = new TokenValidationResult(false, "Invalid token");
+    void testGetPosts_WithStats() {
+        PostPreviewView post1 = preview(1, "Post 1", "post1Key");
+        PostPreviewView post2 = preview(2, "Post 2", "post2Key");
+        PostInteractionService.Interactions interactions = new PostInteractionService.Interactions(Map.of(1, 4L), Set.of(1), Set.of(2));
 
-        when(jwtUtil.validateTokenFull(token)).thenReturn(validationResult);
+        when(postFeedService.getPage(null, null, null, null, null, null, PostFeedService.DEFAULT_LIMIT))
+                .thenReturn(new PostFeedService.FeedPage(List.of(post1, post2), null));
+        when(postInteractionService.load(1, List.of(1, 2))).thenReturn(interactions);
 
-        ResponseEntity<?> response = postController.getPosts(token, null, null, null, null);
+        ResponseEntity<?> response = postController.getPosts(principal, null, null, null, null, null, null, null, true);
 
-        assertEquals(403, response.getStatusCodeValue());
-        assertEquals("Invalid token", response.getBody());
+        assertEquals(200, response.getStatusCodeValue());
+        List<PostPreviewDTO> posts = ((PostFeedDTO) response.getBody()).getPosts();
+        assertEquals(Long.valueOf(4), posts.get(0).getLikeCount());
+        assertEquals(true, posts.get(0).getLikedByMe());
+        assertEquals(false, posts.get(0).getSavedByMe());
+        assertEquals(Long.valueOf(0), posts.get(1).getLikeCount());
+        assertEquals(false, posts.get(1).getLikedByMe());
+        assertEquals(true, posts.get(1).getSavedByMe());
+        verify(postInteractionService, times(1)).load(1, List.of(1, 2));
+    }
+
+    @Test
+    void testGetPosts_WithoutStats() {
+        when(postFeedService.getPage(null, null, null, null, null, null, PostFeedService.DEFAULT_LIMIT))
+                .thenReturn(new PostFeedService.FeedPage(List.of(preview(1, "Post 1", "post1Key")), null));
+
+        ResponseEntity<?> response = postController.getPosts(principal, null, null, null, null, null, null, null, false);
+
+        assertEquals(200, response.getStatusCodeValue());
+        assertEquals(null, ((PostFeedDTO) response.getBody()).getPosts().get(0).getLikeCount());
+        verifyNoInteractions(postInteractionService);
     }
 
     @Test
     void testGetPosts_UserNotFound() {
-        String token = "validToken";
         Integer userId = 999;
-        TokenValidationResult validationResult = new TokenValidationResult(true, null);
 
-        when(jwtUtil.validateTokenFull(token)).thenReturn(validationResult);
-        when(userRepository.findById(userId)).thenReturn(Optional.empty());
+        when(userCache.byId(userId)).thenReturn(Optional.empty());
 
-        ResponseEntity<?> response = postController.getPosts(token, userId, null, null, null);
+        ResponseEntity<?> response = postController.getPosts(principal, userId, null, null, null, null, null, null, false);
 
         assertEquals(400, response.getStatusCodeValue());
         assertEquals("User not found", response.getBody());
@@ -817,45 +636,113 @@ public class PostControllerTest {
 
     @Test
     void testGetPosts_NoPostsFound() {
-        String token = "validToken";
-        TokenValidationResult validationResult = new TokenValidationResult(true, null);
+        when(postFeedService.getPage(null, null, null, null, null, null, PostFeedService.DEFAULT_LIMIT))
+                .thenReturn(new PostFeedService.FeedPage(Collections.emptyList(), null));
 
-        when(jwtUtil.validateTokenFull(token)).thenReturn(validationResult);
-        when(postRepository.findAll()).thenReturn(Collections.emptyList());
+        ResponseEntity<?> response = postController.getPosts(principal, null, null, null, null, null, null, null, false);
 
-        ResponseEntity<?> response = postController.getPosts(token, null, null, null, null);
+        assertEquals(200, response.getStatusCodeValue());
+        PostFeedDTO feed = (PostFeedDTO) response.getBody();
+        assertEquals(0, feed.getPosts().size());
+        assertEquals(null, feed.getNextCursor());
+    }
+
+    @Test
+    void testGetPosts_InvalidCursor() {
+        when(postFeedService.getPage(null, null, null, "date", null, "broken", 10))
+                .thenThrow(new IllegalArgumentException("Invalid cursor"));
+
+        ResponseEntity<?> response = postController.getPosts(principal, null, null, null, "date", null, "broken", 10, false);
+
+        assertEquals(400, response.getStatusCodeValue());
+        assertEquals("Invalid cursor", response.getBody());
+    }
+
+    @Test
+    void testGetPosts_Since() {
+        LocalDateTime since = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+        when(postFeedService.getPage(null, List.of(3), since, "date", null, null, PostFeedService.DEFAULT_LIMIT))
+                .thenReturn(new PostFeedService.FeedPage(Collections.emptyList(), null));
+
+        ResponseEntity<?> response = postController.getPosts(principal, null, List.of(3), since, "date", null, null, null, false);
 
         assertEquals(200, response.getStatusCodeValue());
-        List<PostPreviewDTO> posts = (List<PostPreviewDTO>) response.getBody();
-        assertEquals(0, posts.size());
+        verify(postFeedService, times(1)).getPage(null, List.of(3), since, "date", null, null, PostFeedService.DEFAULT_LIMIT);
+    }
+
+    @Test
+    void testStreamPosts_Success() {
+        StreamingResponseBody body = out -> {
+        };
+
+        when(postPreviewStreamer.stream(any())).thenReturn(body);
+
+        ResponseEntity<?> response = postController.streamPosts(principal, null, null, null, "date", null);
+
+        assertEquals(200, response.getStatusCodeValue());
+        assertEquals(body, response.getBody());
+        assertEquals(PostPreviewStreamer.NDJSON, response.getHeaders().getContentType().toString());
+    }
+
+    @Test
+    void testSearchPosts_Success() {
+        PostPreviewView post1 = preview(1, "Blues in C", "post1Key");
+        PostPreviewView post2 = preview(2, "Blues", "post2Key");
+
+        when(postSearchIndex.isReady()).thenReturn(true);
+        when(postSearchIndex.search("blues", 0, PostFeedService.DEFAULT_LIMIT))
+                .thenReturn(new PostSearchIndex.SearchResult(List.of(2, 1), 2));
+        when(postRepository.findPreviewsByIds(List.of(2, 1))).thenReturn(List.of(post1, post2));
+        when(mediaLinks.previewUrls(any())).thenReturn(Map.of(1, "previewUrl1", 2, "previewUrl2"));
+
+        ResponseEntity<?> response = postController.searchPosts(principal, "blues", 0, null);
+
+        assertEquals(200, response.getStatusCodeValue());
+        PostSearchDTO search = (PostSearchDTO) response.getBody();
+        assertEquals(2, search.getTotal());
+        assertEquals("Blues", search.getPosts().get(0).getName());
+        assertEquals("Blues in C", search.getPosts().get(1).getName());
+    }
+
+    @Test
+    void testSearchPosts_HugePageIsEmptyNotOverflowed() {
+        when(postSearchIndex.isReady()).thenReturn(true);
+        when(postSearchIndex.search("blues", Integer.MAX_VALUE, PostFeedService.DEFAULT_LIMIT))
+                .thenReturn(new PostSearchIndex.SearchResult(List.of(), 2));
+        when(postRepository.findPreviewsByIds(List.of())).thenReturn(List.of());
+        when(mediaLinks.previewUrls(any())).thenReturn(Map.of());
+
+        ResponseEntity<?> response = postController.searchPosts(principal, "blues", Integer.MAX_VALUE, null);
+
+        assertEquals(200, response.getStatusCodeValue());
+        assertEquals(0, ((PostSearchDTO) response.getBody()).getPosts().size());
+        verify(postSearchIndex, times(1)).search("blues", Integer.MAX_VALUE, PostFeedService.DEFAULT_LIMIT);
+    }
+
+    @Test
+    void testSearchPosts_IndexNotReady() {
+        when(postSearchIndex.isReady()).thenReturn(false);
+
+        ResponseEntity<?> response = postController.searchPosts(principal, "blues", 0, null);
+
+        assertEquals(503, response.getStatusCodeValue());
+        verify(postSearchIndex, never()).search(anyString(), anyInt(), anyInt());
     }
 
     @Test
     void testGetPostsOfCurrentUser_Success() {
-        String token = "validToken";
-        TokenValidationResult validationResult = new TokenValidationResult(true, null);
         User user = new User();
         user.setId(1);
         user.setLogin("testUser");
-        Post post1 = new Post();
-        post1.setId(1);
-        post1.setName("Post 1");
-        post1.setS3Key("post1Key");
-        post1.setUser(user);
-        Post post2 = new Post();
-        post2.setId(2);
-        post2.setName("Post 2");
-        post2.setS3Key("post2Key");
-        post2.setUser(user);
-
-        when(jwtUtil.validateTokenFull(token)).thenReturn(validationResult);
-        when(jwtUtil.extractUsername(token)).thenReturn("testUser");
-        when(userRepository.findByLogin("testUser")).thenReturn(Optional.of(user));
-        when(postRepository.getPostsByUser(user)).thenReturn(List.of(post1, post2));
-        when(s3Service.generatePresignedPreviewUrl("post1Key")).thenReturn("previewUrl1");
-        when(s3Service.generatePresignedPreviewUrl("post2Key")).thenReturn("previewUrl2");
-
-        ResponseEntity<?> response = postController.getPostsOfCurrentUser(token);
+        PostPreviewView post1 = preview(1, "Post 1", "post1Key");
+        PostPreviewView post2 = preview(2, "Post 2", "post2Key");
+
+        when(userRepository.getReferenceById(1)).thenReturn(user);
+        when(postRepository.findPreviewsByUser(user)).thenReturn(List.of(post1, post2));
+        when(mediaLinks.previewUrls(any())).thenReturn(Map.of(1, "previewUrl1", 2, "previewUrl2"));
+
+        ResponseEntity<?> response = postController.getPostsOfCurrentUser(principal);
 
         assertEquals(200, response.getStatusCodeValue());
         List<PostPreviewDTO> posts = (List<PostPreviewDTO>) response.getBody();
@@ -867,30 +754,22 @@ public class PostControllerTest {
     }
 
     @Test
-    void testGetPostsOfCurrentUser_InvalidToken() {
-        String token = "invalidToken";
-        TokenValidationResult validationResult = new TokenValidationResult(false, "Invalid token");
-
-        when(jwtUtil.validateTokenFull(token)).thenReturn(validationResult);
-
-        ResponseEntity<?> response = postController.getPostsOfCurrentUser(token);
+    void testGetPostsOfCurrentUser_UserNotFound() {
+        ResponseEntity<String> response = DeletedUserRequest.response(PostController.class, "getPostsOfCurrentUser");
 
-        assertEquals(403, response.getStatusCodeValue());
+        assertEquals(400, response.getStatusCodeValue());
         assertEquals("Invalid token", response.getBody());
     }
 
     @Test
-    void testGetPostsOfCurrentUser_UserNotFound() {
-        String token = "validToken";
-        TokenValidationResult validationResult = new TokenValidationResult(true, null);
-
-        when(jwtUtil.validateTokenFull(token)).thenReturn(validationResult);
-        when(jwtUtil.extractUsername(token)).thenReturn("testUser");
-        when(userRepository.findByLogin("testUser")).thenReturn(Optional.empty());
-
-        ResponseEntity<?> response = postController.getPostsOfCurrentUser(token);
+    void testStreamPostsOfCurrentUser_UserNotFound() {
+        ResponseEntity<String> response = DeletedUserRequest.response(PostController.class, "streamPostsOfCurrentUser");
 
         assertEquals(400, response.getStatusCodeValue());
         assertEquals("Invalid token", response.getBody());
     }
+
+    private static PostPreviewView preview(Integer id, String name, String s3Key) {
+        return new PostPreviewView(id, name, s3Key, 1, "testUser", new Integer[0], LocalDateTime.now());
+    }
 }
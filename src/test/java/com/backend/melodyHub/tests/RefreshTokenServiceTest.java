@@ -0,0 +1,158 @@
+package com.backend.melodyHub.tests;
+
+import com.backend.melodyHub.component.InvalidTokenException;
+import com.backend.melodyHub.component.RefreshTokenService;
+import com.backend.melodyHub.model.RefreshToken;
+import com.backend.melodyHub.model.User;
+import com.backend.melodyHub.repository.RefreshTokenRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpStatus;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class RefreshTokenServiceTest {
+
+    private static final long TTL_MS = Duration.ofDays(30).toMillis();
+    private static final long GRACE_MS = Duration.ofSeconds(10).toMillis();
+
+    @Mock
+    private RefreshTokenRepository refreshTokenRepository;
+
+    private RefreshTokenService refreshTokenService;
+
+    private User user;
+
+    private String token;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        refreshTokenService = new RefreshTokenService(refreshTokenRepository, TTL_MS, GRACE_MS);
+        user = new User();
+        user.setId(1);
+        user.setLogin("testUser");
+    }
+
+    // Issues a token and makes the repository return the stored row when looked up by its hash.
+    private RefreshToken issue() {
+        ArgumentCaptor<RefreshToken> saved = ArgumentCaptor.forClass(RefreshToken.class);
+        token = refreshTokenService.issue(user);
+        verify(refreshTokenRepository, atLeastOnce()).save(saved.capture());
+        RefreshToken stored = saved.getValue();
+        stored.setId(10);
+        when(refreshTokenRepository.findByTokenHash(stored.getTokenHash())).thenReturn(Optional.of(stored));
+        return stored;
+    }
+
+    @Test
+    void testIssue_StoresOnlyDigest() {
+        RefreshToken stored = issue();
+
+        assertNotEquals(token, stored.getTokenHash());
+        assertEquals(64, stored.getTokenHash().length());
+        assertSame(user, stored.getUser());
+        assertTrue(stored.getExpiresAt().isAfter(Instant.now().plus(Duration.ofDays(29))));
+    }
+
+    @Test
+    void testRotate_SpendsTokenAndIssuesNewOne() {
+        issue();
+        when(refreshTokenRepository.markReplaced(eq(10), any(Instant.class))).thenReturn(1);
+
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate(token);
+
+        assertSame(user, rotation.user());
+        assertNotEquals(token, rotation.refreshToken());
+        verify(refreshTokenRepository, times(1)).markReplaced(eq(10), any(Instant.class));
+        verify(refreshTokenRepository, never()).revokeIfActive(any());
+        verify(refreshTokenRepository, times(2)).save(any(RefreshToken.class));
+    }
+
+    @Test
+    void testRotate_ReusedTokenRevokesAllSessions() {
+        RefreshToken stored = issue();
+        stored.setReplacedAt(Instant.now().minusSeconds(60));
+
+        InvalidTokenException e = assertThrows(InvalidTokenException.class, () -> refreshTokenService.rotate(token));
+
+        assertEquals(HttpStatus.UNAUTHORIZED, e.getStatus());
+        verify(refreshTokenRepository, times(1)).revokeAllByUserId(1);
+        verify(refreshTokenRepository, never()).markReplaced(any(), any());
+        verify(refreshTokenRepository, times(1)).save(any(RefreshToken.class));
+    }
+
+    @Test
+    void testRotate_RetryWithinGraceWindowKeepsSessions() {
+        RefreshToken stored = issue();
+        stored.setReplacedAt(Instant.now().minusSeconds(1));
+
+        InvalidTokenException e = assertThrows(InvalidTokenException.class, () -> refreshTokenService.rotate(token));
+
+        assertEquals(HttpStatus.UNAUTHORIZED, e.getStatus());
+        verify(refreshTokenRepository, never()).revokeAllByUserId(any());
+    }
+
+    @Test
+    void testRotate_ConcurrentRotationLosesWithoutRevokingSessions() {
+        issue();
+        when(refreshTokenRepository.markReplaced(eq(10), any(Instant.class))).thenReturn(0);
+
+        assertThrows(InvalidTokenException.class, () -> refreshTokenService.rotate(token));
+        verify(refreshTokenRepository, never()).revokeAllByUserId(any());
+        verify(refreshTokenRepository, times(1)).save(any(RefreshToken.class));
+    }
+
+    @Test
+    void testRotate_LoggedOutTokenRejectedWithoutRevokingSessions() {
+        RefreshToken stored = issue();
+        stored.setRevoked(true);
+
+        InvalidTokenException e = assertThrows(InvalidTokenException.class, () -> refreshTokenService.rotate(token));
+
+        assertEquals(HttpStatus.UNAUTHORIZED, e.getStatus());
+        verify(refreshTokenRepository, never()).markReplaced(any(), any());
+        verify(refreshTokenRepository, never()).revokeAllByUserId(any());
+    }
+
+    @Test
+    void testRotate_ExpiredTokenRejected() {
+        RefreshToken stored = issue();
+        stored.setExpiresAt(Instant.now().minusSeconds(1));
+
+        assertThrows(InvalidTokenException.class, () -> refreshTokenService.rotate(token));
+        verify(refreshTokenRepository, never()).markReplaced(any(), any());
+        verify(refreshTokenRepository, never()).revokeAllByUserId(any());
+    }
+
+    @Test
+    void testRevoke_AlreadyRevokedTokenIsNoOp() {
+        RefreshToken stored = issue();
+        stored.setRevoked(true);
+
+        refreshTokenService.revoke(token);
+
+        verify(refreshTokenRepository, never()).revokeIfActive(any());
+        verify(refreshTokenRepository, never()).revokeAllByUserId(any());
+    }
+
+    @Test
+    void testRotate_UnknownOrBlankTokenRejected() {
+        when(refreshTokenRepository.findByTokenHash(anyString())).thenReturn(Optional.empty());
+
+        assertThrows(InvalidTokenException.class, () -> refreshTokenService.rotate("unknown"));
+        assertThrows(InvalidTokenException.class, () -> refreshTokenService.rotate(" "));
+        verify(refreshTokenRepository, times(1)).findByTokenHash(anyString());
+    }
+}
@@ -0,0 +1,134 @@
+package com.backend.melodyHub.tests;
+
+import com.backend.melodyHub.component.MediaVariant;
+import com.backend.melodyHub.component.ObjectStore;
+import com.backend.melodyHub.component.S3Service;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class S3ServiceTest {
+
+    private static final long REFRESH_MARGIN_MS = Duration.ofHours(1).toMillis();
+
+    private static final String URL = "https://bucket.s3.amazonaws.com/images/key.jpg?X-Amz-Signature=abc";
+
+    @Mock
+    private ObjectStore objectStore;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        expiringIn(Duration.ofHours(10));
+    }
+
+    private void expiringIn(Duration lifetime) {
+        when(objectStore.presignGet(anyString(), any(), any())).thenReturn(new ObjectStore.SignedUrl(URL, Instant.now().plus(lifetime)));
+    }
+
+    @Test
+    void testPresignedUrl_ReusedUntilRefreshMargin() {
+        S3Service s3Service = new S3Service(objectStore, meterRegistry, 10, REFRESH_MARGIN_MS, false, 0, 0, 4);
+
+        String first = s3Service.generatePresignedImageUrl("key.jpg");
+        String second = s3Service.generatePresignedImageUrl("key.jpg");
+
+        assertEquals(first, second);
+        verify(objectStore, times(1)).presignGet(anyString(), any(), any());
+        assertEquals(1.0, meterRegistry.get("s3.presign.cache.requests").tag("result", "hit").counter().count());
+        assertEquals(1.0, meterRegistry.get("s3.presign.cache.requests").tag("result", "miss").counter().count());
+    }
+
+    @Test
+    void testPresignedUrl_ResignedInsideRefreshMargin() {
+        expiringIn(Duration.ofMinutes(30));
+        S3Service s3Service = new S3Service(objectStore, meterRegistry, 10, REFRESH_MARGIN_MS, false, 0, 0, 4);
+
+        s3Service.generatePresignedImageUrl("key.jpg");
+        s3Service.generatePresignedImageUrl("key.jpg");
+
+        verify(objectStore, times(2)).presignGet(anyString(), any(), any());
+    }
+
+    @Test
+    void testPresignedUrl_LeastRecentlyUsedEvicted() {
+        S3Service s3Service = new S3Service(objectStore, meterRegistry, 2, REFRESH_MARGIN_MS, false, 0, 0, 4);
+
+        s3Service.generatePresignedImageUrl("a.jpg");
+        s3Service.generatePresignedImageUrl("b.jpg");
+        s3Service.generatePresignedImageUrl("a.jpg");
+        s3Service.generatePresignedImageUrl("c.jpg");
+        s3Service.generatePresignedImageUrl("a.jpg");
+        s3Service.generatePresignedImageUrl("b.jpg");
+
+        verify(objectStore, times(4)).presignGet(anyString(), any(), any());
+        assertEquals(2.0, meterRegistry.get("s3.presign.cache.evictions").tag("cause", "size").counter().count());
+    }
+
+    @Test
+    void testBucketedPresignedUrl_PinsSigningTimeAndLifetime() {
+        long bucketMs = Duration.ofHours(1).toMillis();
+        long minRemainingMs = Duration.ofHours(2).toMillis();
+        S3Service s3Service = new S3Service(objectStore, meterRegistry, 10, REFRESH_MARGIN_MS, true, bucketMs, minRemainingMs, 4);
+        ArgumentCaptor<Instant> signingTime = ArgumentCaptor.forClass(Instant.class);
+
+        s3Service.generatePresignedImageUrl("key.jpg");
+        s3Service.generatePresignedImageUrl("key.jpg");
+
+        verify(objectStore, times(1)).presignGet(eq("images/key.jpg"), signingTime.capture(), eq(Duration.ofHours(3)));
+        assertEquals(0, signingTime.getValue().toEpochMilli() % bucketMs);
+    }
+
+    @Test
+    void testBucketedPresignedUrl_RejectsLifetimeOverSevenDays() {
+        assertThrows(IllegalArgumentException.class, () -> new S3Service(objectStore, meterRegistry, 10, REFRESH_MARGIN_MS, true, Duration.ofDays(6).toMillis(), Duration.ofDays(2).toMillis(), 4));
+    }
+
+    @Test
+    void testPresignedUrls_SignsEachObjectOnce() {
+        S3Service s3Service = new S3Service(objectStore, meterRegistry, 10, REFRESH_MARGIN_MS, false, 0, 0, 4);
+
+        Map<String, String> urls = s3Service.generatePresignedUrls(MediaVariant.PREVIEW, Arrays.asList("a.mov", "a.mp4", "a.mov", null, " "));
+
+        assertEquals(Set.of("a.mov", "a.mp4"), urls.keySet());
+        assertEquals(urls.get("a.mov"), urls.get("a.mp4"));
+        verify(objectStore, times(1)).presignGet(anyString(), any(), any());
+    }
+
+    @Test
+    void testPresignedUrls_LargePageSignedInParallel() {
+        S3Service s3Service = new S3Service(objectStore, meterRegistry, 100, REFRESH_MARGIN_MS, false, 0, 0, 4);
+        List<String> keys = IntStream.range(0, 40).mapToObj(i -> "post" + i + ".mov").toList();
+
+        Map<String, String> urls = s3Service.generatePresignedUrls(MediaVariant.PREVIEW, keys);
+
+        assertEquals(40, urls.size());
+        assertTrue(urls.values().stream().allMatch(Objects::nonNull));
+        verify(objectStore, times(40)).presignGet(anyString(), any(), any());
+        s3Service.shutdown();
+    }
+
+    @Test
+    void testPresignedUrl_BlankKeyNotSigned() {
+        S3Service s3Service = new S3Service(objectStore, meterRegistry, 10, REFRESH_MARGIN_MS, false, 0, 0, 4);
+
+        assertNull(s3Service.generatePresignedLeadsheetUrl(" "));
+        verify(objectStore, never()).presignGet(anyString(), any(), any());
+    }
+}
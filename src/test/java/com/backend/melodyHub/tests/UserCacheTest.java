@@ -0,0 +1,121 @@
+package com.backend.melodyHub.tests;
+
+import com.backend.melodyHub.component.UserCache;
+import com.backend.melodyHub.model.User;
+import com.backend.melodyHub.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class UserCacheTest {
+
+    private static final long TTL_MS = 300000;
+
+    @Mock
+    private UserRepository userRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        user = user(1, "testUser");
+        when(userRepository.findById(1)).thenReturn(Optional.of(user));
+        when(userRepository.findByLogin("testUser")).thenReturn(Optional.of(user));
+    }
+
+    private static User user(Integer id, String login) {
+        User user = new User();
+        user.setId(id);
+        user.setLogin(login);
+        user.setEmail(login + "@example.com");
+        user.setPassword("hashedPassword");
+        return user;
+    }
+
+    @Test
+    void testById_LoadedOnce() {
+        UserCache userCache = new UserCache(userRepository, meterRegistry, 10, TTL_MS);
+
+        UserCache.UserSnapshot first = userCache.byId(1).orElseThrow();
+        UserCache.UserSnapshot second = userCache.byId(1).orElseThrow();
+
+        assertEquals(first, second);
+        assertEquals("testUser", first.login());
+        verify(userRepository, times(1)).findById(1);
+        assertEquals(1.0, meterRegistry.get("users.cache.requests").tag("index", "id").tag("result", "hit").counter().count());
+    }
+
+    @Test
+    void testByLogin_SharesEntryWithId() {
+        UserCache userCache = new UserCache(userRepository, meterRegistry, 10, TTL_MS);
+
+        userCache.byLogin("testUser");
+        userCache.byId(1);
+        userCache.byLogin("testUser");
+
+        verify(userRepository, times(1)).findByLogin("testUser");
+        verify(userRepository, never()).findById(1);
+    }
+
+    @Test
+    void testInvalidate_DropsBothIndexes() {
+        UserCache userCache = new UserCache(userRepository, meterRegistry, 10, TTL_MS);
+        userCache.byId(1);
+
+        user.setLogin("renamed");
+        when(userRepository.findByLogin("renamed")).thenReturn(Optional.of(user));
+        when(userRepository.findByLogin("testUser")).thenReturn(Optional.empty());
+        userCache.invalidate(1);
+
+        assertTrue(userCache.byLogin("testUser").isEmpty());
+        assertEquals("renamed", userCache.byId(1).orElseThrow().login());
+        verify(userRepository, times(2)).findById(1);
+    }
+
+    @Test
+    void testMissingUserNotCached() {
+        UserCache userCache = new UserCache(userRepository, meterRegistry, 10, TTL_MS);
+        when(userRepository.findByLogin("newUser")).thenReturn(Optional.empty());
+
+        assertTrue(userCache.byLogin("newUser").isEmpty());
+        when(userRepository.findByLogin("newUser")).thenReturn(Optional.of(user(2, "newUser")));
+
+        assertEquals(Integer.valueOf(2), userCache.byLogin("newUser").orElseThrow().id());
+    }
+
+    @Test
+    void testLeastRecentlyUsedEvicted() {
+        UserCache userCache = new UserCache(userRepository, meterRegistry, 2, TTL_MS);
+        when(userRepository.findById(2)).thenReturn(Optional.of(user(2, "second")));
+        when(userRepository.findById(3)).thenReturn(Optional.of(user(3, "third")));
+
+        userCache.byId(1);
+        userCache.byId(2);
+        userCache.byId(1);
+        userCache.byId(3);
+        userCache.byId(1);
+        userCache.byId(2);
+
+        verify(userRepository, times(1)).findById(1);
+        verify(userRepository, times(2)).findById(2);
+        assertEquals(2.0, meterRegistry.get("users.cache.size").gauge().value());
+    }
+
+    @Test
+    void testSnapshotHasNoPassword() {
+        UserCache userCache = new UserCache(userRepository, meterRegistry, 10, TTL_MS);
+
+        assertNull(userCache.byId(1).orElseThrow().toUser().getPassword());
+    }
+}
@@ -1,9 +1,12 @@
 package com.backend.melodyHub.tests;
 
-import com.backend.melodyHub.component.JwtUtil;
+import com.backend.melodyHub.component.AuthenticatedUser;
+import com.backend.melodyHub.component.MediaKeyCache;
+import com.backend.melodyHub.component.MediaLinks;
 import com.backend.melodyHub.component.PasswordHasher;
-import com.backend.melodyHub.component.S3Service;
-import com.backend.melodyHub.component.TokenValidationResult;
+import com.backend.melodyHub.component.PasswordHasherBusyException;
+import com.backend.melodyHub.component.RefreshTokenService;
+import com.backend.melodyHub.component.UserCache;
 import com.backend.melodyHub.controller.UserController;
 import com.backend.melodyHub.dto.OtherUserInfoDTO;
 import com.backend.melodyHub.dto.UpdatePasswordDTO;
@@ -12,12 +15,11 @@ import com.backend.melodyHub.dto.UserNoPasswordDTO;
 import com.backend.melodyHub.model.User;
 import com.backend.melodyHub.repository.CommentRepository;
 import com.backend.melodyHub.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
-import org.mockito.MockedStatic;
 import org.mockito.MockitoAnnotations;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -29,25 +31,28 @@ import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
 public class UserControllerTest {
 
-    private final String VALID_TOKEN = "valid-token";
-    private final String INVALID_TOKEN = "invalid-token";
     private final String TEST_USERNAME = "testuser";
-    @InjectMocks
+    private final AuthenticatedUser principal = new AuthenticatedUser(1, TEST_USERNAME);
     private UserController userController;
     @Mock
     private UserRepository userRepository;
     @Mock
-    private JwtUtil jwtUtil;
-    @Mock
     private CommentRepository commentRepository;
     @Mock
-    private S3Service s3Service;
+    private MediaLinks mediaLinks;
+    @Mock
+    private MediaKeyCache mediaKeyCache;
+    @Mock
+    private PasswordHasher passwordHasher;
+    @Mock
+    private RefreshTokenService refreshTokenService;
     @Mock
     private BindingResult bindingResult;
     private User testUser;
@@ -56,6 +61,7 @@ public class UserControllerTest {
     @BeforeEach
     void setUp() {
         closeable = MockitoAnnotations.openMocks(this);
+        userController = new UserController(userRepository, commentRepository, mediaLinks, mediaKeyCache, new UserCache(userRepository, new SimpleMeterRegistry(), 100, 300000), passwordHasher, refreshTokenService);
 
         testUser = new User();
         testUser.setId(1);
@@ -66,11 +72,6 @@ public class UserControllerTest {
         testUser.setFirstName("John");
         testUser.setLastName("Doe");
         testUser.setS3Key("s3key123");
-
-        when(jwtUtil.validateTokenFull(VALID_TOKEN)).thenReturn(new TokenValidationResult(true, ""));
-        when(jwtUtil.extractUsername(VALID_TOKEN)).thenReturn(TEST_USERNAME);
-
-        when(jwtUtil.validateTokenFull(INVALID_TOKEN)).thenReturn(new TokenValidationResult(false, "Invalid token"));
     }
 
     @AfterEach
@@ -82,7 +83,7 @@ public class UserControllerTest {
     void getUserById_Success() {
         when(userRepository.findById(1)).thenReturn(Optional.of(testUser));
 
-        ResponseEntity<?> response = userController.getUserById(1, VALID_TOKEN);
+        ResponseEntity<?> response = userController.getUserById(1, principal);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertNotNull(response.getBody());
@@ -94,24 +95,15 @@ public class UserControllerTest {
     void getUserById_UserNotFound() {
         when(userRepository.findById(99)).thenReturn(Optional.empty());
 
-        ResponseEntity<?> response = userController.getUserById(99, VALID_TOKEN);
+        ResponseEntity<?> response = userController.getUserById(99, principal);
 
         assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
         verify(userRepository, times(1)).findById(99);
     }
 
-    @Test
-    void getUserById_InvalidToken() {
-        ResponseEntity<?> response = userController.getUserById(1, INVALID_TOKEN);
-
-        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
-        assertEquals("Invalid token", response.getBody());
-        verify(userRepository, never()).findById(any());
-    }
-
     @Test
     void getUserById_NullId() {
-        ResponseEntity<?> response = userController.getUserById(null, VALID_TOKEN);
+        ResponseEntity<?> response = userController.getUserById(null, principal);
 
         assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
         assertEquals("Id cannot be null", response.getBody());
@@ -122,7 +114,7 @@ public class UserControllerTest {
     void getUserByLogin_Success() {
         when(userRepository.findByLogin(TEST_USERNAME)).thenReturn(Optional.of(testUser));
 
-        ResponseEntity<?> response = userController.getUserByLogin(TEST_USERNAME, VALID_TOKEN);
+        ResponseEntity<?> response = userController.getUserByLogin(TEST_USERNAME, principal);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertNotNull(response.getBody());
@@ -134,24 +126,15 @@ public class UserControllerTest {
     void getUserByLogin_UserNotFound() {
         when(userRepository.findByLogin("nonexistent")).thenReturn(Optional.empty());
 
-        ResponseEntity<?> response = userController.getUserByLogin("nonexistent", VALID_TOKEN);
+        ResponseEntity<?> response = userController.getUserByLogin("nonexistent", principal);
 
         assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
         verify(userRepository, times(1)).findByLogin("nonexistent");
     }
 
-    @Test
-    void getUserByLogin_InvalidToken() {
-        ResponseEntity<?> response = userController.getUserByLogin(TEST_USERNAME, INVALID_TOKEN);
-
-        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
-        assertEquals("Invalid token", response.getBody());
-        verify(userRepository, never()).findByLogin(anyString());
-    }
-
     @Test
     void getUserByLogin_NullLogin() {
-        ResponseEntity<?> response = userController.getUserByLogin(null, VALID_TOKEN);
+        ResponseEntity<?> response = userController.getUserByLogin(null, principal);
 
         assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
         assertEquals("Login cannot be empty", response.getBody());
@@ -160,7 +143,7 @@ public class UserControllerTest {
 
     @Test
     void getUserByLogin_BlankLogin() {
-        ResponseEntity<?> response = userController.getUserByLogin("  ", VALID_TOKEN);
+        ResponseEntity<?> response = userController.getUserByLogin("  ", principal);
 
         assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
         assertEquals("Login cannot be empty", response.getBody());
@@ -169,7 +152,7 @@ public class UserControllerTest {
 
     @Test
     void getUserByLogin_InvalidLoginFormat() {
-        ResponseEntity<?> response = userController.getUserByLogin("1_invalid", VALID_TOKEN);
+        ResponseEntity<?> response = userController.getUserByLogin("1_invalid", principal);
         assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
         assertEquals("Username must start with a letter and contain only letters, numbers, and underscores (3-20 characters, no dots allowed)", response.getBody());
         verify(userRepository, never()).findByLogin(anyString());
@@ -186,15 +169,15 @@ public class UserControllerTest {
 
 
         when(bindingResult.hasErrors()).thenReturn(false);
-        when(userRepository.findByLogin(TEST_USERNAME)).thenReturn(Optional.of(testUser));
+        when(userRepository.findById(1)).thenReturn(Optional.of(testUser));
         when(userRepository.findByLogin("updatedLogin")).thenReturn(Optional.empty());
         when(userRepository.findByEmail("updated@example.com")).thenReturn(Optional.empty());
         when(userRepository.save(any(User.class))).thenReturn(testUser);
 
-        ResponseEntity<?> response = userController.editUser(VALID_TOKEN, updateDTO, bindingResult);
+        ResponseEntity<?> response = userController.editUser(principal, updateDTO, bindingResult);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
-        verify(userRepository, times(1)).findByLogin(TEST_USERNAME);
+        verify(userRepository, times(1)).findById(1);
         verify(userRepository, times(1)).findByLogin("updatedLogin");
         verify(userRepository, times(1)).findByEmail("updated@example.com");
         verify(userRepository, times(1)).save(any(User.class));
@@ -214,29 +197,12 @@ public class UserControllerTest {
         when(bindingResult.hasErrors()).thenReturn(true);
         when(bindingResult.getAllErrors()).thenReturn(List.of(new ObjectError("user", "Login cannot be empty")));
 
-        ResponseEntity<?> response = userController.editUser(VALID_TOKEN, updateDTO, bindingResult);
+        ResponseEntity<?> response = userController.editUser(principal, updateDTO, bindingResult);
 
         assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
         assertNotNull(response.getBody());
         assertEquals(1, ((List<?>) response.getBody()).size());
-        verify(jwtUtil, never()).validateTokenFull(anyString());
-        verify(userRepository, never()).findByLogin(anyString());
-    }
-
-    @Test
-    void editUser_InvalidToken() {
-        UserNoPasswordDTO updateDTO = new UserNoPasswordDTO();
-        updateDTO.setId(1);
-        updateDTO.setLogin("updatedLogin");
-        updateDTO.setEmail("updated@example.com");
-        updateDTO.setFirstName("Updated");
-        updateDTO.setLastName("User");
-
-        ResponseEntity<?> response = userController.editUser(INVALID_TOKEN, updateDTO, bindingResult);
-
-        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
-        assertEquals("Invalid token", response.getBody());
-        verify(userRepository, never()).findByLogin(anyString());
+        verify(userRepository, never()).findById(any());
     }
 
     @Test
@@ -249,12 +215,12 @@ public class UserControllerTest {
         updateDTO.setLastName("User");
 
         when(bindingResult.hasErrors()).thenReturn(false);
-        when(userRepository.findByLogin(TEST_USERNAME)).thenReturn(Optional.empty());
+        when(userRepository.findById(1)).thenReturn(Optional.empty());
 
-        ResponseEntity<?> response = userController.editUser(VALID_TOKEN, updateDTO, bindingResult);
+        ResponseEntity<?> response = userController.editUser(principal, updateDTO, bindingResult);
 
         assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
-        verify(userRepository, times(1)).findByLogin(TEST_USERNAME);
+        verify(userRepository, times(1)).findById(1);
         verify(userRepository, never()).save(any(User.class));
     }
 
@@ -271,10 +237,10 @@ public class UserControllerTest {
         anotherUser.setLogin("existingLogin");
 
         when(bindingResult.hasErrors()).thenReturn(false);
-        when(userRepository.findByLogin(TEST_USERNAME)).thenReturn(Optional.of(testUser));
+        when(userRepository.findById(1)).thenReturn(Optional.of(testUser));
         when(userRepository.findByLogin("existingLogin")).thenReturn(Optional.of(anotherUser));
 
-        ResponseEntity<?> response = userController.editUser(VALID_TOKEN, updateDTO, bindingResult);
+        ResponseEntity<?> response = userController.editUser(principal, updateDTO, bindingResult);
 
         assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
         assertEquals("This login is already used", response.getBody());
@@ -294,11 +260,11 @@ public class UserControllerTest {
         anotherUser.setEmail("existing@example.com");
 
         when(bindingResult.hasErrors()).thenReturn(false);
-        when(userRepository.findByLogin(TEST_USERNAME)).thenReturn(Optional.of(testUser));
+        when(userRepository.findById(1)).thenReturn(Optional.of(testUser));
         when(userRepository.findByLogin("newLogin")).thenReturn(Optional.empty());
         when(userRepository.findByEmail("existing@example.com")).thenReturn(Optional.of(anotherUser));
 
-        ResponseEntity<?> response = userController.editUser(VALID_TOKEN, updateDTO, bindingResult);
+        ResponseEntity<?> response = userController.editUser(principal, updateDTO, bindingResult);
 
         assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
         assertEquals("This email is already used", response.getBody());
@@ -315,12 +281,12 @@ public class UserControllerTest {
         updateDTO.setEmail("updated@example.com");
 
         when(bindingResult.hasErrors()).thenReturn(false);
-        when(userRepository.findByLogin(TEST_USERNAME)).thenReturn(Optional.of(testUser));
+        when(userRepository.findById(1)).thenReturn(Optional.of(testUser));
         when(userRepository.findByLogin("updatedLogin")).thenReturn(Optional.empty());
         when(userRepository.findByEmail("updated@example.com")).thenReturn(Optional.empty());
         when(userRepository.save(any(User.class))).thenThrow(new RuntimeException("DB error"));
 
-        ResponseEntity<?> response = userController.editUser(VALID_TOKEN, updateDTO, bindingResult);
+        ResponseEntity<?> response = userController.editUser(principal, updateDTO, bindingResult);
 
         assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
         assertEquals("Unexpected error occurred.", response.getBody());
@@ -332,36 +298,26 @@ public class UserControllerTest {
         String hashedPassword = "hashedPassword";
         testUser.setPassword(hashedPassword);
 
-        try (MockedStatic<PasswordHasher> mockedPasswordHasher = mockStatic(PasswordHasher.class)) {
-            mockedPasswordHasher.when(() -> PasswordHasher.checkPassword(correctPassword, hashedPassword)).thenReturn(true);
-
-            when(userRepository.findByLogin(TEST_USERNAME)).thenReturn(Optional.of(testUser));
-            doNothing().when(commentRepository).reassignCommentsToDeletedUser(any(User.class));
-            doNothing().when(userRepository).delete(any(User.class));
-            doNothing().when(userRepository).flush();
+        when(passwordHasher.checkPassword(correctPassword, hashedPassword)).thenReturn(true);
 
-            ResponseEntity<?> response = userController.deleteUser(VALID_TOKEN, correctPassword);
-
-            assertEquals(HttpStatus.OK, response.getStatusCode());
-            verify(userRepository, times(1)).findByLogin(TEST_USERNAME);
-            verify(commentRepository, times(1)).reassignCommentsToDeletedUser(testUser);
-            verify(userRepository, times(1)).delete(testUser);
-            verify(userRepository, times(1)).flush();
-        }
-    }
+        when(userRepository.findById(1)).thenReturn(Optional.of(testUser));
+        doNothing().when(commentRepository).reassignCommentsToDeletedUser(any(User.class));
+        doNothing().when(userRepository).delete(any(User.class));
+        doNothing().when(userRepository).flush();
 
-    @Test
-    void deleteUser_InvalidToken() {
-        ResponseEntity<?> response = userController.deleteUser(INVALID_TOKEN, "AnyPassword1!");
+        ResponseEntity<?> response = userController.deleteUser(principal, correctPassword);
 
-        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
-        assertEquals("Invalid token", response.getBody());
-        verify(userRepository, never()).findByLogin(anyString());
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        verify(userRepository, times(1)).findById(1);
+        verify(commentRepository, times(1)).reassignCommentsToDeletedUser(testUser);
+        verify(userRepository, times(1)).delete(testUser);
+        verify(userRepository, times(1)).flush();
+        verify(refreshTokenService, times(1)).deleteAll(1);
     }
 
     @Test
     void deleteUser_InvalidPasswordFormat() {
-        ResponseEntity<?> response = userController.deleteUser(VALID_TOKEN, "short");
+        ResponseEntity<?> response = userController.deleteUser(principal, "short");
 
         assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
         assertEquals("Password must be 8-20 characters long and include at least one uppercase letter, one lowercase letter, one digit, and one special character (@#$%^&+=!)", response.getBody());
@@ -370,12 +326,12 @@ public class UserControllerTest {
 
     @Test
     void deleteUser_UserNotFound() {
-        when(userRepository.findByLogin(TEST_USERNAME)).thenReturn(Optional.empty());
+        when(userRepository.findById(1)).thenReturn(Optional.empty());
 
-        ResponseEntity<?> response = userController.deleteUser(VALID_TOKEN, "ValidPassword1!");
+        ResponseEntity<?> response = userController.deleteUser(principal, "ValidPassword1!");
 
         assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
-        verify(userRepository, times(1)).findByLogin(TEST_USERNAME);
+        verify(userRepository, times(1)).findById(1);
         verify(commentRepository, never()).reassignCommentsToDeletedUser(any(User.class));
         verify(userRepository, never()).delete(any(User.class));
     }
@@ -386,19 +342,17 @@ public class UserControllerTest {
         String hashedPassword = "hashedPassword";
         testUser.setPassword(hashedPassword);
 
-        try (MockedStatic<PasswordHasher> mockedPasswordHasher = mockStatic(PasswordHasher.class)) {
-            mockedPasswordHasher.when(() -> PasswordHasher.checkPassword(providedPassword, hashedPassword)).thenReturn(false);
+        when(passwordHasher.checkPassword(providedPassword, hashedPassword)).thenReturn(false);
 
-            when(userRepository.findByLogin(TEST_USERNAME)).thenReturn(Optional.of(testUser));
+        when(userRepository.findById(1)).thenReturn(Optional.of(testUser));
 
-            ResponseEntity<?> response = userController.deleteUser(VALID_TOKEN, providedPassword);
+        ResponseEntity<?> response = userController.deleteUser(principal, providedPassword);
 
-            assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
-            assertEquals("Password is not correct", response.getBody());
-            verify(userRepository, times(1)).findByLogin(TEST_USERNAME);
-            verify(commentRepository, never()).reassignCommentsToDeletedUser(any(User.class));
-            verify(userRepository, never()).delete(any(User.class));
-        }
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertEquals("Password is not correct", response.getBody());
+        verify(userRepository, times(1)).findById(1);
+        verify(commentRepository, never()).reassignCommentsToDeletedUser(any(User.class));
+        verify(userRepository, never()).delete(any(User.class));
     }
 
     @Test
@@ -407,65 +361,54 @@ public class UserControllerTest {
         String hashedPassword = "hashedPassword";
         testUser.setPassword(hashedPassword);
 
-        try (MockedStatic<PasswordHasher> mockedPasswordHasher = mockStatic(PasswordHasher.class)) {
-            mockedPasswordHasher.when(() -> PasswordHasher.checkPassword(correctPassword, hashedPassword)).thenReturn(true);
+        when(passwordHasher.checkPassword(correctPassword, hashedPassword)).thenReturn(true);
 
-            when(userRepository.findByLogin(TEST_USERNAME)).thenReturn(Optional.of(testUser));
-            doThrow(new RuntimeException("DB error")).when(userRepository).delete(any(User.class));
+        when(userRepository.findById(1)).thenReturn(Optional.of(testUser));
+        doThrow(new RuntimeException("DB error")).when(userRepository).delete(any(User.class));
 
-            ResponseEntity<?> response = userController.deleteUser(VALID_TOKEN, correctPassword);
+        ResponseEntity<?> response = userController.deleteUser(principal, correctPassword);
 
-            assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
-            assertEquals("Unexpected error occurred.", response.getBody());
-            verify(userRepository, times(1)).findByLogin(TEST_USERNAME);
-            verify(userRepository, times(1)).delete(testUser);
-        }
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
+        assertEquals("Unexpected error occurred.", response.getBody());
+        verify(userRepository, times(1)).findById(1);
+        verify(userRepository, times(1)).delete(testUser);
     }
 
     @Test
     void getUserInfo_Success() {
-        when(userRepository.findByLogin(TEST_USERNAME)).thenReturn(Optional.of(testUser));
-        when(s3Service.generatePresignedImageUrl(testUser.getS3Key())).thenReturn("http://s3.url/key123");
+        when(userRepository.findById(1)).thenReturn(Optional.of(testUser));
+        when(mediaLinks.avatarUrl(1, "s3key123")).thenReturn("http://s3.url/key123");
 
-        ResponseEntity<?> response = userController.getUserInfo(VALID_TOKEN);
+        ResponseEntity<?> response = userController.getUserInfo(principal);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         UserInfoDTO expectedBody = new UserInfoDTO(testUser.getId(), testUser.getEmail(), testUser.getFirstName(),
                 testUser.getLastName(), testUser.getLogin(), "http://s3.url/key123");
         assertEquals(expectedBody, response.getBody());
-        verify(userRepository, times(1)).findByLogin(TEST_USERNAME);
-        verify(s3Service, times(1)).generatePresignedImageUrl(testUser.getS3Key());
-    }
-
-    @Test
-    void getUserInfo_InvalidToken() {
-        ResponseEntity<?> response = userController.getUserInfo(INVALID_TOKEN);
-
-        assertEquals(HttpStatus.FORBIDDEN, response.getStatusCode());
-        assertEquals("invalid token", response.getBody());
-        verify(userRepository, never()).findByLogin(anyString());
+        verify(userRepository, times(1)).findById(1);
+        verify(mediaLinks, times(1)).avatarUrl(1, "s3key123");
     }
 
     @Test
     void getUserInfo_UserNotFound() {
-        when(userRepository.findByLogin(TEST_USERNAME)).thenReturn(Optional.empty());
+        when(userRepository.findById(1)).thenReturn(Optional.empty());
 
-        ResponseEntity<?> response = userController.getUserInfo(VALID_TOKEN);
+        ResponseEntity<?> response = userController.getUserInfo(principal);
 
         assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
-        verify(userRepository, times(1)).findByLogin(TEST_USERNAME);
-        verify(s3Service, never()).generatePresignedImageUrl(anyString());
+        verify(userRepository, times(1)).findById(1);
+        verify(mediaLinks, never()).avatarUrl(any(), any());
     }
 
     @Test
     void getUserInfo_InternalServerError() {
-        when(userRepository.findByLogin(TEST_USERNAME)).thenThrow(new RuntimeException("DB error"));
+        when(userRepository.findById(1)).thenThrow(new RuntimeException("DB error"));
 
-        ResponseEntity<?> response = userController.getUserInfo(VALID_TOKEN);
+        ResponseEntity<?> response = userController.getUserInfo(principal);
 
         assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
         assertEquals("Unexpected error occurred.", response.getBody());
-        verify(userRepository, times(1)).findByLogin(TEST_USERNAME);
+        verify(userRepository, times(1)).findById(1);
     }
 
     @Test
@@ -475,43 +418,43 @@ public class UserControllerTest {
         String newHashedPass = "newHashedPass";
         testUser.setPassword(oldHashedPass);
 
-        try (MockedStatic<PasswordHasher> mockedPasswordHasher = mockStatic(PasswordHasher.class)) {
-            mockedPasswordHasher.when(() -> PasswordHasher.checkPassword("oldPass", oldHashedPass)).thenReturn(true);
-            mockedPasswordHasher.when(() -> PasswordHasher.hashPassword("NewPassword1!")).thenReturn(newHashedPass);
+        when(passwordHasher.checkPassword("oldPass", oldHashedPass)).thenReturn(true);
+        when(passwordHasher.hashPassword("NewPassword1!")).thenReturn(newHashedPass);
 
-            when(userRepository.findByLogin(TEST_USERNAME)).thenReturn(Optional.of(testUser));
-            when(userRepository.save(any(User.class))).thenReturn(testUser);
+        when(userRepository.findById(1)).thenReturn(Optional.of(testUser));
+        when(userRepository.save(any(User.class))).thenReturn(testUser);
 
-            ResponseEntity<?> response = userController.updatePassword(VALID_TOKEN, updatePasswordDTO);
+        ResponseEntity<?> response = userController.updatePassword(principal, updatePasswordDTO);
 
-            assertEquals(HttpStatus.OK, response.getStatusCode());
-            verify(userRepository, times(1)).findByLogin(TEST_USERNAME);
-            verify(userRepository, times(1)).save(testUser);
-            assertEquals(newHashedPass, testUser.getPassword());
-        }
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        verify(userRepository, times(1)).findById(1);
+        verify(userRepository, times(1)).save(testUser);
+        assertEquals(newHashedPass, testUser.getPassword());
+        verify(refreshTokenService, times(1)).revokeAll(1);
     }
 
     @Test
-    void updatePassword_InvalidToken() {
+    void updatePassword_PasswordHasherBusy() {
         UpdatePasswordDTO updatePasswordDTO = new UpdatePasswordDTO("oldPass", "NewPassword1!");
+        testUser.setPassword("oldHashedPass");
 
-        ResponseEntity<?> response = userController.updatePassword(INVALID_TOKEN, updatePasswordDTO);
+        when(passwordHasher.checkPassword("oldPass", "oldHashedPass")).thenThrow(new PasswordHasherBusyException());
+        when(userRepository.findById(1)).thenReturn(Optional.of(testUser));
 
-        assertEquals(HttpStatus.FORBIDDEN, response.getStatusCode());
-        assertEquals("invalid token", response.getBody());
-        verify(userRepository, never()).findByLogin(anyString());
+        assertThrows(PasswordHasherBusyException.class, () -> userController.updatePassword(principal, updatePasswordDTO));
+        verify(userRepository, never()).save(any(User.class));
     }
 
     @Test
     void updatePassword_UserNotFound() {
         UpdatePasswordDTO updatePasswordDTO = new UpdatePasswordDTO("oldPass", "NewPassword1!");
 
-        when(userRepository.findByLogin(TEST_USERNAME)).thenReturn(Optional.empty());
+        when(userRepository.findById(1)).thenReturn(Optional.empty());
 
-        ResponseEntity<?> response = userController.updatePassword(VALID_TOKEN, updatePasswordDTO);
+        ResponseEntity<?> response = userController.updatePassword(principal, updatePasswordDTO);
 
         assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
-        verify(userRepository, times(1)).findByLogin(TEST_USERNAME);
+        verify(userRepository, times(1)).findById(1);
         verify(userRepository, never()).save(any(User.class));
     }
 
@@ -521,18 +464,16 @@ public class UserControllerTest {
         String oldHashedPass = "oldHashedPass";
         testUser.setPassword(oldHashedPass);
 
-        try (MockedStatic<PasswordHasher> mockedPasswordHasher = mockStatic(PasswordHasher.class)) {
-            mockedPasswordHasher.when(() -> PasswordHasher.checkPassword("wrongOldPass", oldHashedPass)).thenReturn(false);
+        when(passwordHasher.checkPassword("wrongOldPass", oldHashedPass)).thenReturn(false);
 
-            when(userRepository.findByLogin(TEST_USERNAME)).thenReturn(Optional.of(testUser));
+        when(userRepository.findById(1)).thenReturn(Optional.of(testUser));
 
-            ResponseEntity<?> response = userController.updatePassword(VALID_TOKEN, updatePasswordDTO);
+        ResponseEntity<?> response = userController.updatePassword(principal, updatePasswordDTO);
 
-            assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
-            assertEquals("Old password is incorrect", response.getBody());
-            verify(userRepository, times(1)).findByLogin(TEST_USERNAME);
-            verify(userRepository, never()).save(any(User.class));
-        }
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertEquals("Old password is incorrect", response.getBody());
+        verify(userRepository, times(1)).findById(1);
+        verify(userRepository, never()).save(any(User.class));
     }
 
     @Test
@@ -541,19 +482,17 @@ public class UserControllerTest {
         String oldHashedPass = "oldHashedPass";
         testUser.setPassword(oldHashedPass);
 
-        try (MockedStatic<PasswordHasher> mockedPasswordHasher = mockStatic(PasswordHasher.class)) {
-            mockedPasswordHasher.when(() -> PasswordHasher.checkPassword("oldPass", oldHashedPass)).thenReturn(true);
+        when(passwordHasher.checkPassword("oldPass", oldHashedPass)).thenReturn(true);
 
-            when(userRepository.findByLogin(TEST_USERNAME)).thenReturn(Optional.of(testUser));
-            when(userRepository.save(any(User.class))).thenThrow(new RuntimeException("DB error"));
+        when(userRepository.findById(1)).thenReturn(Optional.of(testUser));
+        when(userRepository.save(any(User.class))).thenThrow(new RuntimeException("DB error"));
 
-            ResponseEntity<?> response = userController.updatePassword(VALID_TOKEN, updatePasswordDTO);
+        ResponseEntity<?> response = userController.updatePassword(principal, updatePasswordDTO);
 
-            assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
-            assertEquals("Unexpected error occurred.", response.getBody());
-            verify(userRepository, times(1)).findByLogin(TEST_USERNAME);
-            verify(userRepository, times(1)).save(testUser);
-        }
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
+        assertEquals("Unexpected error occurred.", response.getBody());
+        verify(userRepository, times(1)).findById(1);
+        verify(userRepository, times(1)).save(testUser);
     }
 
     @Test
@@ -565,42 +504,33 @@ public class UserControllerTest {
         otherUser.setS3Key("otherS3Key");
 
         when(userRepository.findByLogin(otherUsername)).thenReturn(Optional.of(otherUser));
-        when(s3Service.generatePresignedImageUrl(otherUser.getS3Key())).thenReturn("http://s3.url/otherkey");
+        when(mediaLinks.avatarUrl(2, "otherS3Key")).thenReturn("http://s3.url/otherkey");
 
-        ResponseEntity<?> response = userController.getOtherUserInfo(VALID_TOKEN, otherUsername);
+        ResponseEntity<?> response = userController.getOtherUserInfo(principal, otherUsername);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         OtherUserInfoDTO expectedBody = new OtherUserInfoDTO(otherUser.getId(), otherUser.getLogin(), "http://s3.url/otherkey");
         assertEquals(expectedBody, response.getBody());
         verify(userRepository, times(1)).findByLogin(otherUsername);
-        verify(s3Service, times(1)).generatePresignedImageUrl(otherUser.getS3Key());
-    }
-
-    @Test
-    void getOtherUserInfo_InvalidToken() {
-        ResponseEntity<?> response = userController.getOtherUserInfo(INVALID_TOKEN, "someuser");
-
-        assertEquals(HttpStatus.FORBIDDEN, response.getStatusCode());
-        assertEquals("invalid token", response.getBody());
-        verify(userRepository, never()).findByLogin(anyString());
+        verify(mediaLinks, times(1)).avatarUrl(2, "otherS3Key");
     }
 
     @Test
     void getOtherUserInfo_UserNotFound() {
         when(userRepository.findByLogin("nonexistent")).thenReturn(Optional.empty());
 
-        ResponseEntity<?> response = userController.getOtherUserInfo(VALID_TOKEN, "nonexistent");
+        ResponseEntity<?> response = userController.getOtherUserInfo(principal, "nonexistent");
 
         assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
         verify(userRepository, times(1)).findByLogin("nonexistent");
-        verify(s3Service, never()).generatePresignedImageUrl(anyString());
+        verify(mediaLinks, never()).avatarUrl(any(), any());
     }
 
     @Test
     void getOtherUserInfo_InternalServerError() {
         when(userRepository.findByLogin(anyString())).thenThrow(new RuntimeException("DB error"));
 
-        ResponseEntity<?> response = userController.getOtherUserInfo(VALID_TOKEN, "someuser");
+        ResponseEntity<?> response = userController.getOtherUserInfo(principal, "someuser");
 
         assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
         assertEquals("Unexpected error occurred.", response.getBody());
@@ -610,36 +540,42 @@ public class UserControllerTest {
     @Test
     void changeEmail_Success() {
         String newEmail = "new@example.com";
-        when(userRepository.findByLogin(TEST_USERNAME)).thenReturn(Optional.of(testUser));
+        when(userRepository.findById(1)).thenReturn(Optional.of(testUser));
         when(userRepository.findByEmail(newEmail)).thenReturn(Optional.empty());
         when(userRepository.save(any(User.class))).thenReturn(testUser);
 
-        ResponseEntity<?> response = userController.changeEmail(VALID_TOKEN, newEmail);
+        ResponseEntity<?> response = userController.changeEmail(principal, newEmail);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
-        verify(userRepository, times(1)).findByLogin(TEST_USERNAME);
+        verify(userRepository, times(1)).findById(1);
         verify(userRepository, times(1)).findByEmail(newEmail);
         verify(userRepository, times(1)).save(testUser);
         assertEquals(newEmail, testUser.getEmail());
     }
 
     @Test
-    void changeEmail_InvalidToken() {
-        ResponseEntity<?> response = userController.changeEmail(INVALID_TOKEN, "new@example.com");
+    void changeEmail_InvalidatesCachedUser() {
+        String newEmail = "new@example.com";
+        when(userRepository.findById(1)).thenReturn(Optional.of(testUser));
+        when(userRepository.findByEmail(newEmail)).thenReturn(Optional.empty());
 
-        assertEquals(HttpStatus.FORBIDDEN, response.getStatusCode());
-        assertEquals("invalid token", response.getBody());
-        verify(userRepository, never()).findByLogin(anyString());
+        userController.getUserInfo(principal);
+        userController.getUserInfo(principal);
+        userController.changeEmail(principal, newEmail);
+        ResponseEntity<?> response = userController.getUserInfo(principal);
+
+        assertEquals(newEmail, ((UserInfoDTO) response.getBody()).getEmail());
+        verify(userRepository, times(3)).findById(1);
     }
 
     @Test
     void changeEmail_UserNotFound() {
-        when(userRepository.findByLogin(TEST_USERNAME)).thenReturn(Optional.empty());
+        when(userRepository.findById(1)).thenReturn(Optional.empty());
 
-        ResponseEntity<?> response = userController.changeEmail(VALID_TOKEN, "new@example.com");
+        ResponseEntity<?> response = userController.changeEmail(principal, "new@example.com");
 
         assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
-        verify(userRepository, times(1)).findByLogin(TEST_USERNAME);
+        verify(userRepository, times(1)).findById(1);
         verify(userRepository, never()).save(any(User.class));
     }
 
@@ -650,14 +586,14 @@ public class UserControllerTest {
         anotherUser.setId(2);
         anotherUser.setEmail(newEmail);
 
-        when(userRepository.findByLogin(TEST_USERNAME)).thenReturn(Optional.of(testUser));
+        when(userRepository.findById(1)).thenReturn(Optional.of(testUser));
         when(userRepository.findByEmail(newEmail)).thenReturn(Optional.of(anotherUser));
 
-        ResponseEntity<?> response = userController.changeEmail(VALID_TOKEN, newEmail);
+        ResponseEntity<?> response = userController.changeEmail(principal, newEmail);
 
         assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
         assertEquals("This email is already used", response.getBody());
-        verify(userRepository, times(1)).findByLogin(TEST_USERNAME);
+        verify(userRepository, times(1)).findById(1);
         verify(userRepository, times(1)).findByEmail(newEmail);
         verify(userRepository, never()).save(any(User.class));
     }
@@ -665,62 +601,54 @@ public class UserControllerTest {
     @Test
     void changeEmail_InternalServerError() {
         String newEmail = "new@example.com";
-        when(userRepository.findByLogin(TEST_USERNAME)).thenReturn(Optional.of(testUser));
+        when(userRepository.findById(1)).thenReturn(Optional.of(testUser));
         when(userRepository.findByEmail(newEmail)).thenReturn(Optional.empty());
         when(userRepository.save(any(User.class))).thenThrow(new RuntimeException("DB error"));
 
-        ResponseEntity<?> response = userController.changeEmail(VALID_TOKEN, newEmail);
+        ResponseEntity<?> response = userController.changeEmail(principal, newEmail);
 
         assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
         assertEquals("Unexpected error occurred.", response.getBody());
-        verify(userRepository, times(1)).findByLogin(TEST_USERNAME);
+        verify(userRepository, times(1)).findById(1);
         verify(userRepository, times(1)).save(testUser);
     }
 
     @Test
     void changeProfilePicture_Success() {
         String newS3Key = "newS3Key123";
-        when(userRepository.findByLogin(TEST_USERNAME)).thenReturn(Optional.of(testUser));
+        when(userRepository.findById(1)).thenReturn(Optional.of(testUser));
         when(userRepository.save(any(User.class))).thenReturn(testUser);
 
-        ResponseEntity<?> response = userController.changeProfilePicture(VALID_TOKEN, newS3Key);
+        ResponseEntity<?> response = userController.changeProfilePicture(principal, newS3Key);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
-        verify(userRepository, times(1)).findByLogin(TEST_USERNAME);
+        verify(userRepository, times(1)).findById(1);
         verify(userRepository, times(1)).save(testUser);
+        verify(mediaKeyCache, times(1)).invalidateUser(testUser.getId());
         assertEquals(newS3Key, testUser.getS3Key());
     }
 
-    @Test
-    void changeProfilePicture_InvalidToken() {
-        ResponseEntity<?> response = userController.changeProfilePicture(INVALID_TOKEN, "someKey");
-
-        assertEquals(HttpStatus.FORBIDDEN, response.getStatusCode());
-        assertEquals("invalid token", response.getBody());
-        verify(userRepository, never()).findByLogin(anyString());
-    }
-
     @Test
     void changeProfilePicture_UserNotFound() {
-        when(userRepository.findByLogin(TEST_USERNAME)).thenReturn(Optional.empty());
+        when(userRepository.findById(1)).thenReturn(Optional.empty());
 
-        ResponseEntity<?> response = userController.changeProfilePicture(VALID_TOKEN, "someKey");
+        ResponseEntity<?> response = userController.changeProfilePicture(principal, "someKey");
 
         assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
-        verify(userRepository, times(1)).findByLogin(TEST_USERNAME);
+        verify(userRepository, times(1)).findById(1);
         verify(userRepository, never()).save(any(User.class));
     }
 
     @Test
     void changeProfilePicture_InternalServerError() {
-        when(userRepository.findByLogin(TEST_USERNAME)).thenReturn(Optional.of(testUser));
+        when(userRepository.findById(1)).thenReturn(Optional.of(testUser));
         when(userRepository.save(any(User.class))).thenThrow(new RuntimeException("DB error"));
 
-        ResponseEntity<?> response = userController.changeProfilePicture(VALID_TOKEN, "someKey");
+        ResponseEntity<?> response = userController.changeProfilePicture(principal, "someKey");
 
         assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
         assertEquals("Unexpected error occurred.", response.getBody());
-        verify(userRepository, times(1)).findByLogin(TEST_USERNAME);
+        verify(userRepository, times(1)).findById(1);
         verify(userRepository, times(1)).save(testUser);
     }
 }
\ No newline at end of file